@@ -0,0 +1,120 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.Functors;
+
+/**
+ * {@link Functors#batching(org.jiemamy.utils.functor.BatchFunctor, int, long, TimeUnit)}のベンチマーク。
+ * 
+ * <p>呼び出しごとに{@value #CALL_COST_NANOS}ナノ秒の固定費用がかかる関数を、
+ * 複数のスレッドから同時に適用する。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class BatchingBenchmark {
+	
+	static final long CALL_COST_NANOS = 50000L;
+	
+	final AtomicInteger next = new AtomicInteger();
+	
+	Functor<Integer, Integer> direct;
+	
+	Functor<Integer, Integer> batching;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		Lookup lookup = new Lookup();
+		direct = lookup;
+		batching = Functors.batching(lookup, 256, 0, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * 関数をそのまま適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyDirect() {
+		return direct.apply(next.getAndIncrement());
+	}
+	
+	/**
+	 * 同時に適用された値をまとめて変換する関数を適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyBatching() {
+		return batching.apply(next.getAndIncrement());
+	}
+	
+
+	/**
+	 * 呼び出しごとに固定費用がかかる検索を模した関数。
+	 */
+	private static class Lookup extends AbstractFunctor<Integer, Integer> {
+		
+		Lookup() {
+			return;
+		}
+		
+		public Integer apply(Integer argument) {
+			LockSupport.parkNanos(CALL_COST_NANOS);
+			return argument + 1;
+		}
+		
+		@Override
+		public void applyAll(List<? extends Integer> arguments, Collection<? super Integer> results) {
+			LockSupport.parkNanos(CALL_COST_NANOS);
+			for (Integer argument : arguments) {
+				results.add(argument + 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Predicate;
+import org.jiemamy.utils.functor.core.Cast;
+import org.jiemamy.utils.functor.core.Result;
+import org.jiemamy.utils.functor.java.lang.Java;
+
+/**
+ * {@link Cast}および{@link Java#instanceOf(Class)}のベンチマーク。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CastBenchmark {
+	
+	static final int MIXED_SIZE = 64;
+	
+	Object value;
+	
+	Object mismatch;
+	
+	Object[] mixed;
+	
+	Functor<String, Object> toClass;
+	
+	Functor<CharSequence, Object> toInterface;
+	
+	Functor<CharSequence, Object> toInterfaceCached;
+	
+	Functor<String, Object> unchecked;
+	
+	Functor<Boolean, Object> instanceOf;
+	
+	Predicate<Object> instanceOfInterface;
+	
+	Predicate<Object> instanceOfInterfaceCached;
+	
+	Functor<String, Object> toClassPreallocated;
+	
+	Functor<Result<String>, Object> tryToClass;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		value = "Hello";
+		mismatch = Integer.valueOf(1);
+		Object[] kinds = {
+			"Hello",
+			new StringBuilder(),
+			new StringBuffer(),
+			Integer.valueOf(1),
+			Long.valueOf(1L)
+		};
+		mixed = new Object[MIXED_SIZE];
+		for (int i = 0; i < MIXED_SIZE; i++) {
+			mixed[i] = kinds[i % kinds.length];
+		}
+		toClass = Cast.to(String.class);
+		toInterface = Cast.to(CharSequence.class);
+		toInterfaceCached = Cast.cached(CharSequence.class);
+		unchecked = Cast.unchecked();
+		instanceOf = Java.instanceOf(CharSequence.class);
+		instanceOfInterface = Java.instanceOf(CharSequence.class);
+		instanceOfInterfaceCached = Java.instanceOfCached(CharSequence.class);
+		toClassPreallocated = Cast.to(String.class, ApplyException.withoutStackTrace("not a string")); //$NON-NLS-1$
+		tryToClass = Cast.tryTo(String.class);
+	}
+	
+	/**
+	 * 具象クラスへの{@link Cast#to(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String castToClass() {
+		return toClass.apply(value);
+	}
+	
+	/**
+	 * インターフェースへの{@link Cast#to(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public CharSequence castToInterface() {
+		return toInterface.apply(value);
+	}
+	
+	/**
+	 * インターフェースへの{@link Cast#cached(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public CharSequence castToInterfaceCached() {
+		return toInterfaceCached.apply(value);
+	}
+	
+	/**
+	 * {@link Cast#unchecked()}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String castUnchecked() {
+		return unchecked.apply(value);
+	}
+	
+	/**
+	 * {@link Java#instanceOf(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Boolean instanceOf() {
+		return instanceOf.apply(value);
+	}
+	
+	/**
+	 * 様々な実行時クラスの値に対する{@link Java#instanceOf(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MIXED_SIZE)
+	public int instanceOfMixed() {
+		int count = 0;
+		for (Object object : mixed) {
+			if (instanceOfInterface.test(object)) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * 様々な実行時クラスの値に対する{@link Java#instanceOfCached(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MIXED_SIZE)
+	public int instanceOfCachedMixed() {
+		int count = 0;
+		for (Object object : mixed) {
+			if (instanceOfInterfaceCached.test(object)) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * 変換に失敗する{@link Cast#to(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object castFailure() {
+		try {
+			return toClass.apply(mismatch);
+		} catch (ApplyException e) {
+			return e;
+		}
+	}
+	
+	/**
+	 * 変換に失敗する{@link Cast#to(Class, ApplyException)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object castFailurePreallocated() {
+		try {
+			return toClassPreallocated.apply(mismatch);
+		} catch (ApplyException e) {
+			return e;
+		}
+	}
+	
+	/**
+	 * 変換に失敗する{@link Cast#tryTo(Class)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Result<String> tryCastFailure() {
+		return tryToClass.apply(mismatch);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Predicate;
+import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.TypeSwitch;
+import org.jiemamy.utils.functor.java.lang.Java;
+
+/**
+ * 値の実行時クラスによる振り分けのベンチマーク。
+ * 
+ * <p>{@code types}は振り分け先の型の数を表す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+	
+	static final int SIZE = 64;
+	
+	static final Object[] SAMPLES = {
+		"a",
+		1,
+		1L,
+		1.0,
+		1.0F,
+		(short) 1,
+		(byte) 1,
+		'a',
+		true,
+		new StringBuilder(),
+		new StringBuffer(),
+		BigInteger.ONE,
+		BigDecimal.ONE,
+		new Date(),
+		Locale.ROOT,
+		UUID.randomUUID(),
+		new ArrayList<Object>(),
+		new LinkedList<Object>(),
+		new HashMap<Object, Object>(),
+		new TreeMap<Object, Object>(),
+		new HashSet<Object>(),
+		new TreeSet<Object>(),
+		new Object()
+	};
+	
+	/**
+	 * 振り分け先の型の数。
+	 */
+	@Param({
+		"4",
+		"20"
+	})
+	public int types;
+	
+	Object[] values;
+	
+	Predicate<Object>[] checks;
+	
+	Functor<Integer, Object>[] handlers;
+	
+	TypeSwitch<Integer> dispatch;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		@SuppressWarnings("unchecked")
+		Predicate<Object>[] checkArray = (Predicate<Object>[]) new Predicate<?>[types];
+		@SuppressWarnings("unchecked")
+		Functor<Integer, Object>[] handlerArray = (Functor<Integer, Object>[]) new Functor<?, ?>[types];
+		TypeSwitch.Builder<Integer> builder = Functors.dispatch();
+		for (int i = 0; i < types; i++) {
+			Class<?> type = SAMPLES[i].getClass();
+			checkArray[i] = Java.instanceOf(type);
+			handlerArray[i] = Functors.always(i);
+			builder.on(type, handlerArray[i]);
+		}
+		checks = checkArray;
+		handlers = handlerArray;
+		dispatch = builder.otherwise(Functors.always(-1)).build();
+		values = new Object[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			values[i] = SAMPLES[i % types];
+		}
+	}
+	
+	/**
+	 * {@link Java#instanceOf(Class)}を型の数だけ順に試して振り分ける。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int instanceOfChain() {
+		int sum = 0;
+		for (Object value : values) {
+			for (int i = 0; i < checks.length; i++) {
+				if (checks[i].test(value)) {
+					sum += handlers[i].apply(value);
+					break;
+				}
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * {@link Functors#dispatch()}で構築した関数で振り分ける。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int dispatch() {
+		int sum = 0;
+		for (Object value : values) {
+			sum += dispatch.apply(value);
+		}
+		return sum;
+	}
+}
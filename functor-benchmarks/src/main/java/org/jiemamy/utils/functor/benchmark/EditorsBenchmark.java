@@ -0,0 +1,145 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+import org.jiemamy.utils.functor.core.Editors;
+import org.jiemamy.utils.functor.core.Generators;
+import org.jiemamy.utils.functor.core.Parallel;
+
+/**
+ * {@link Editors}および{@link Generators}のベンチマーク。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EditorsBenchmark {
+	
+	/**
+	 * 合成する操作器(または関数)の数。
+	 */
+	@Param({
+		"1",
+		"10",
+		"50",
+		"200"
+	})
+	public int size;
+	
+	Object[] target;
+	
+	Integer argument;
+	
+	Editor<Object[], Integer> composite;
+	
+	Editor<Object[], Integer> parallel;
+	
+	Editor<Object[], Integer> sharedFilter;
+	
+	Generator<Integer> generator;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		target = new Object[size];
+		argument = 1;
+		List<Editor<Object[], Integer>> editors = new ArrayList<Editor<Object[], Integer>>();
+		for (int i = 0; i < size; i++) {
+			editors.add(Editors.<Object[], Integer, Integer> compose(Steps.store(i), Steps.increment(0, i)));
+		}
+		composite = Editors.compose(editors);
+		parallel = Editors.parallel(editors, Parallel.DEFAULT_PARALLELISM);
+		Functor<Integer, Integer> filter = Steps.increment(0, 1);
+		List<Editor<Object[], Integer>> shared = new ArrayList<Editor<Object[], Integer>>();
+		for (int i = 0; i < size; i++) {
+			shared.add(Editors.<Object[], Integer, Integer> compose(Steps.store(i), filter));
+		}
+		sharedFilter = Editors.compose(shared);
+		Generator<Integer> g = Generators.constant(0);
+		for (int i = 0; i < size; i++) {
+			g = Generators.compose(Steps.increment(0, 1), g);
+		}
+		generator = g;
+	}
+	
+	/**
+	 * {@link Editors#compose(Iterable)}で合成した操作器の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object[] editComposite() {
+		return composite.edit(target, argument);
+	}
+	
+	/**
+	 * 引数を変換する関数を共有する操作器を、{@link Editors#compose(Iterable)}で合成した操作器の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object[] editSharedFilter() {
+		return sharedFilter.edit(target, argument);
+	}
+	
+	/**
+	 * {@link Editors#parallel(Iterable, int)}で合成した操作器の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object[] editParallel() {
+		return parallel.edit(target, argument);
+	}
+	
+	/**
+	 * {@link Generators#compose(org.jiemamy.utils.functor.Functor, Generator)}
+	 * で合成した生成器の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer generateComposite() {
+		return generator.generate();
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.AsyncFunctor;
+import org.jiemamy.utils.functor.BatchFunctor;
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.AbstractEditor;
+import org.jiemamy.utils.functor.core.AbstractGenerator;
+import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.Generators;
+import org.jiemamy.utils.functor.core.Instrumentation;
+import org.jiemamy.utils.functor.core.MetricsRegistry;
+import org.jiemamy.utils.functor.core.PooledGenerator;
+import org.jiemamy.utils.functor.java.lang.Objects;
+
+/**
+ * {@link Functors}のベンチマーク。
+ * 
+ * <p>{@code depth}は合成する関数の段数を表す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctorsBenchmark {
+	
+	static final int BATCH_SIZE = 1024;
+	
+	/**
+	 * 合成する関数の段数。
+	 */
+	@Param({
+		"1",
+		"5",
+		"20"
+	})
+	public int depth;
+	
+	Integer argument;
+	
+	Functor<Integer, Integer> composed;
+	
+	Functor<Integer, Integer> chained;
+	
+	Functor<Integer, Integer> instrumented;
+	
+	Functor<Functor<Integer, Integer>, Integer> transposed;
+	
+	Functor<StringBuilder, Object> fromEditor;
+	
+	Functor<String, Object> fromEditorToString;
+	
+	Functor<String, Object> fromPooledShared;
+	
+	Functor<String, Object> fromPooledThreadLocal;
+	
+	AsyncFunctor<Integer, Integer> asyncChained;
+	
+	Integer[] batchArguments;
+	
+	Integer[] batchResults;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		argument = 1;
+		composed = buildComposed(depth);
+		chained = buildChained(depth);
+		Instrumentation.enable(new MetricsRegistry());
+		try {
+			instrumented = buildComposed(depth);
+		} finally {
+			Instrumentation.disable();
+		}
+		transposed = Functors.transpose(Steps.add());
+		fromEditor = Functors.from(Steps.append(), new NewStringBuilder());
+		fromEditorToString = fromEditor.andThen(Objects.asString());
+		fromPooledShared = Functors.fromPooled(Steps.append(),
+				Generators.pooled(new NewStringBuilder(), new Clear(), 16), Objects.asString());
+		fromPooledThreadLocal = Functors.fromPooled(Steps.append(),
+				Generators.pooled(new NewStringBuilder(), new Clear(), 4, PooledGenerator.Mode.THREAD_LOCAL),
+				Objects.asString());
+		asyncChained = Functors.async(Steps.increment(0, 1)).thenApply(composed);
+		batchArguments = new Integer[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batchArguments[i] = i;
+		}
+		batchResults = new Integer[BATCH_SIZE];
+	}
+	
+	/**
+	 * {@link Functors#compose(Functor, Functor)}で合成した関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyComposed() {
+		return composed.apply(argument);
+	}
+	
+	/**
+	 * {@link Instrumentation}を有効にして合成した関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyComposedInstrumented() {
+		return instrumented.apply(argument);
+	}
+	
+	/**
+	 * {@link Functors#compose(Functor, Functor)}で合成した関数を、
+	 * {@value #BATCH_SIZE}個の値に1つずつ適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer[] applyComposedEach() {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batchResults[i] = composed.apply(batchArguments[i]);
+		}
+		return batchResults;
+	}
+	
+	/**
+	 * {@link Functors#compose(Functor, Functor)}で合成した関数を、
+	 * {@link BatchFunctor#applyAll(Object[], Object[], int, int)}で
+	 * {@value #BATCH_SIZE}個の値にまとめて適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer[] applyComposedBatch() {
+		Functors.batch(composed).applyAll(batchArguments, batchResults, 0, BATCH_SIZE);
+		return batchResults;
+	}
+	
+	/**
+	 * {@link Functor#andThen(Functor)}で合成した関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyChained() {
+		return chained.apply(argument);
+	}
+	
+	/**
+	 * 関数の合成そのもの(リクエストごとにパイプラインを構築する場合)。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Functor<Integer, Integer> buildChained() {
+		return buildChained(depth);
+	}
+	
+	/**
+	 * {@link Functors#transpose(Functor)}した関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer applyTransposed() {
+		return transposed.apply(argument).apply(argument);
+	}
+	
+	/**
+	 * {@link Functors#from(org.jiemamy.utils.functor.Editor, org.jiemamy.utils.functor.Generator)}
+	 * で構築した関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public StringBuilder applyFromEditor() {
+		return fromEditor.apply(argument);
+	}
+	
+	/**
+	 * 毎回生成した{@link StringBuilder}を操作し、文字列に変換する関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String applyFromEditorToString() {
+		return fromEditorToString.apply(argument);
+	}
+	
+	/**
+	 * {@link Functors#fromPooled(Editor, PooledGenerator, Functor)}で、
+	 * 共有プールの{@link StringBuilder}を再利用する関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String applyFromPooledShared() {
+		return fromPooledShared.apply(argument);
+	}
+	
+	/**
+	 * {@link Functors#fromPooled(Editor, PooledGenerator, Functor)}で、
+	 * スレッドごとのプールの{@link StringBuilder}を再利用する関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String applyFromPooledThreadLocal() {
+		return fromPooledThreadLocal.apply(argument);
+	}
+	
+	/**
+	 * {@link Functors#async(Functor)}で非同期に適用した結果に、合成した関数を連結して適用し、
+	 * その完了を待つ。
+	 * 
+	 * @return 結果
+	 * @throws Exception 変換に失敗した場合
+	 */
+	@Benchmark
+	public Integer applyAsyncChained() throws Exception {
+		return asyncChained.apply(argument).get();
+	}
+	
+	static Functor<Integer, Integer> buildComposed(int depth) {
+		Functor<Integer, Integer> result = Steps.increment(0, 1);
+		for (int i = 1; i < depth; i++) {
+			result = Functors.compose(Steps.increment(0, 1), result);
+		}
+		return result;
+	}
+	
+	static Functor<Integer, Integer> buildChained(int depth) {
+		Functor<Integer, Integer> result = Steps.increment(0, 1);
+		for (int i = 1; i < depth; i++) {
+			result = result.andThen(Steps.increment(0, 1));
+		}
+		return result;
+	}
+	
+
+	private static class Clear extends AbstractEditor<StringBuilder, Object> {
+		
+		Clear() {
+			return;
+		}
+		
+		public StringBuilder edit(StringBuilder target, Object argument) {
+			target.setLength(0);
+			return target;
+		}
+	}
+	
+	private static class NewStringBuilder extends AbstractGenerator<StringBuilder> {
+		
+		NewStringBuilder() {
+			return;
+		}
+		
+		public StringBuilder generate() {
+			return new StringBuilder();
+		}
+	}
+}
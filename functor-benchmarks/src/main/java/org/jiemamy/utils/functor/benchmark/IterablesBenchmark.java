@@ -0,0 +1,165 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.BinaryFunctor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntBinaryOperator;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.java.lang.Iterables;
+import org.jiemamy.utils.functor.java.util.Lists;
+
+/**
+ * {@link Iterables}および{@link Lists}のベンチマーク。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterablesBenchmark {
+	
+	/**
+	 * 対象のリストの要素数。
+	 */
+	@Param({
+		"16",
+		"1024",
+		"65536"
+	})
+	public int size;
+	
+	List<Integer> list;
+	
+	Functor<List<Integer>, Iterable<? extends Integer>> each;
+	
+	Functor<Integer, Iterable<? extends Integer>> fold;
+	
+	Functor<Integer, Iterable<? extends Integer>> foldBinary;
+	
+	IntFunctor<Iterable<? extends Integer>> foldInt;
+	
+	Functor<List<Integer>, List<? extends Integer>> sort;
+	
+	Functor<List<Integer>, List<? extends Integer>> sortWithComparator;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		list = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(i);
+		}
+		Collections.shuffle(list, new Random(6502));
+		each = Iterables.each(Steps.increment(0, 1));
+		fold = Iterables.fold(0, Steps.add());
+		foldBinary = Iterables.<Integer, Integer> fold(0, Steps.addInt());
+		foldInt = Iterables.foldInt(0, Steps.addInt());
+		sort = Lists.sort();
+		sortWithComparator = Lists.sort(new Comparator<Integer>() {
+			
+			public int compare(Integer o1, Integer o2) {
+				return o2.compareTo(o1);
+			}
+		});
+	}
+	
+	/**
+	 * {@link Iterables#each(Functor)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<Integer> each() {
+		return each.apply(list);
+	}
+	
+	/**
+	 * {@link Iterables#fold(Object, Functor)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer fold() {
+		return fold.apply(list);
+	}
+	
+	/**
+	 * {@link Iterables#fold(Object, BinaryFunctor)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Integer foldBinary() {
+		return foldBinary.apply(list);
+	}
+	
+	/**
+	 * {@link Iterables#foldInt(int, IntBinaryOperator)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public int foldInt() {
+		return foldInt.applyAsInt(list);
+	}
+	
+	/**
+	 * {@link Lists#sort()}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<Integer> sort() {
+		return sort.apply(list);
+	}
+	
+	/**
+	 * {@link Lists#sort(Comparator)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<Integer> sortWithComparator() {
+		return sortWithComparator.apply(list);
+	}
+}
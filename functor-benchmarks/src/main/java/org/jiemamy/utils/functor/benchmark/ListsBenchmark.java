@@ -0,0 +1,164 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.java.util.Lists;
+
+/**
+ * {@link Lists}による整列のベンチマーク。
+ * 
+ * <p>{@code size}は整列する要素の数を表す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListsBenchmark {
+	
+	static final int TOP = 10;
+	
+	/**
+	 * 整列する要素の数。
+	 */
+	@Param({
+		"10000",
+		"1000000"
+	})
+	public int size;
+	
+	List<String> values;
+	
+	Functor<List<String>, List<? extends String>> sortByComparator;
+	
+	Functor<List<String>, List<? extends String>> sortBy;
+	
+	Functor<List<String>, List<? extends String>> parallelSort;
+	
+	Functor<String, List<? extends String>> sortThenGet;
+	
+	Functor<List<String>, List<? extends String>> top;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(0);
+		values = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(Integer.toString(random.nextInt(size)));
+		}
+		final Functor<Integer, String> key = new Length();
+		sortByComparator = Lists.sort(new Comparator<String>() {
+			
+			public int compare(String o1, String o2) {
+				return key.apply(o1).compareTo(key.apply(o2));
+			}
+		});
+		sortBy = Lists.<String, Integer> sortBy(key);
+		parallelSort = Lists.parallelSort(0);
+		sortThenGet = Lists.<String> sort().andThen(Lists.<String> get(TOP - 1));
+		top = Lists.top(TOP);
+	}
+	
+	/**
+	 * 比較のたびにキーを計算する比較器を{@link Lists#sort(Comparator)}に渡して整列する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<String> sortByComparator() {
+		return sortByComparator.apply(values);
+	}
+	
+	/**
+	 * {@link Lists#sortBy(Functor)}でキーを一度だけ計算して整列する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<String> sortBy() {
+		return sortBy.apply(values);
+	}
+	
+	/**
+	 * {@link Lists#parallelSort(int)}で並列に整列する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<String> parallelSort() {
+		return parallelSort.apply(values);
+	}
+	
+	/**
+	 * 全体を整列してから{@value #TOP}番目の要素を取り出す。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String sortThenGet() {
+		return sortThenGet.apply(values);
+	}
+	
+	/**
+	 * {@link Lists#top(int)}で先頭から{@value #TOP}個の要素を取り出す。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public List<String> top() {
+		return top.apply(values);
+	}
+	
+
+	private static class Length extends AbstractFunctor<Integer, String> {
+		
+		Length() {
+			return;
+		}
+		
+		public Integer apply(String argument) {
+			return argument.length();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.FunctorCompiler;
+
+/**
+ * 単一の呼び出し箇所に複数の種類の関数が現れる場合のベンチマーク。
+ * 
+ * <p>{@code kinds}は呼び出し箇所に現れる関数のクラスの数を表し、
+ * 1で単相、2で2相、それ以上で多相(megamorphic)な呼び出しとなる。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MegamorphicBenchmark {
+	
+	static final int SIZE = 64;
+	
+	/**
+	 * 呼び出し箇所に現れる関数のクラスの数。
+	 */
+	@Param({
+		"1",
+		"2",
+		"4",
+		"8"
+	})
+	public int kinds;
+	
+	/**
+	 * それぞれの関数を合成する段数。
+	 */
+	@Param({
+		"1",
+		"5"
+	})
+	public int depth;
+	
+	Functor<Integer, Integer>[] functors;
+	
+	Functor<Integer, Integer>[] compiled;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		@SuppressWarnings("unchecked")
+		Functor<Integer, Integer>[] array = (Functor<Integer, Integer>[]) new Functor<?, ?>[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			Functor<Integer, Integer> f = Steps.increment(i % kinds, 1);
+			for (int j = 1; j < depth; j++) {
+				f = f.andThen(Steps.increment((i + j) % kinds, 1));
+			}
+			array[i] = f;
+		}
+		functors = array;
+		@SuppressWarnings("unchecked")
+		Functor<Integer, Integer>[] compiledArray = (Functor<Integer, Integer>[]) new Functor<?, ?>[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			compiledArray[i] = FunctorCompiler.compile(array[i]);
+		}
+		compiled = compiledArray;
+	}
+	
+	/**
+	 * 同一の呼び出し箇所から、それぞれの関数を適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int apply() {
+		int sum = 0;
+		for (Functor<Integer, Integer> f : functors) {
+			sum += f.apply(sum);
+		}
+		return sum;
+	}
+	
+	/**
+	 * {@link FunctorCompiler#compile(Functor)}で変換したそれぞれの関数を適用する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int applyCompiled() {
+		int sum = 0;
+		for (Functor<Integer, Integer> f : compiled) {
+			sum += f.apply(sum);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.Generators;
+import org.jiemamy.utils.functor.java.lang.Classes;
+import org.jiemamy.utils.functor.java.lang.Reflect;
+
+/**
+ * {@link Classes#newInstance()}および{@link Reflect}のベンチマーク。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectBenchmark {
+	
+	Functor<StringBuilder, Object> fromNewInstance;
+	
+	Functor<StringBuilder, Object> fromConstructor;
+	
+	Functor<Object, StringBuilder> getter;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		Generator<StringBuilder> newInstance =
+				Generators.compose(Classes.<StringBuilder> newInstance(), Generators.constant(StringBuilder.class));
+		fromNewInstance = Functors.from(Steps.append(), newInstance);
+		fromConstructor = Functors.from(Steps.append(), Reflect.constructor(StringBuilder.class));
+		getter = Reflect.method(StringBuilder.class, "length");
+	}
+	
+	/**
+	 * {@link Classes#newInstance()}で生成したインスタンスを操作する関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public StringBuilder fromNewInstance() {
+		return fromNewInstance.apply("a");
+	}
+	
+	/**
+	 * {@link Reflect#constructor(Class)}で生成したインスタンスを操作する関数の適用。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public StringBuilder fromConstructor() {
+		return fromConstructor.apply("a");
+	}
+	
+	/**
+	 * {@link Reflect#method(Class, String)}で取得したメソッドの呼び出し。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public Object method() {
+		return getter.apply(fromConstructor.apply("a"));
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntBinaryOperator;
+import org.jiemamy.utils.functor.core.AbstractEditor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntBinaryOperator;
+
+/**
+ * ベンチマークで利用する部品群。
+ * 
+ * <p>呼び出し箇所に現れる型の数を制御するため、同じ振る舞いをする別々のクラスを用意している。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+final class Steps {
+	
+	/**
+	 * 用意されている関数の種類の数。
+	 */
+	static final int KINDS = 8;
+	
+
+	/**
+	 * {@code kind}番目の種類の、引数に{@code delta}を加算する関数を返す。
+	 * 
+	 * @param kind 関数の種類 ({@code 0 <= kind < KINDS})
+	 * @param delta 加算する値
+	 * @return 対応する関数
+	 */
+	static Functor<Integer, Integer> increment(int kind, int delta) {
+		switch (kind % KINDS) {
+			case 0:
+				return new Inc0(delta);
+			case 1:
+				return new Inc1(delta);
+			case 2:
+				return new Inc2(delta);
+			case 3:
+				return new Inc3(delta);
+			case 4:
+				return new Inc4(delta);
+			case 5:
+				return new Inc5(delta);
+			case 6:
+				return new Inc6(delta);
+			default:
+				return new Inc7(delta);
+		}
+	}
+	
+	/**
+	 * 高階化された加算関数を返す。
+	 * 
+	 * @return {@code a -> b -> a + b}
+	 */
+	static Functor<Functor<Integer, Integer>, Integer> add() {
+		return new AbstractFunctor<Functor<Integer, Integer>, Integer>() {
+			
+			public Functor<Integer, Integer> apply(final Integer a) {
+				return new AbstractFunctor<Integer, Integer>() {
+					
+					public Integer apply(Integer b) {
+						return a + b;
+					}
+				};
+			}
+		};
+	}
+	
+	/**
+	 * 2引数の加算関数を返す。
+	 * 
+	 * @return {@code (a, b) -> a + b}
+	 */
+	static IntBinaryOperator addInt() {
+		return new AbstractIntBinaryOperator() {
+			
+			public int applyAsInt(int left, int right) {
+				return left + right;
+			}
+		};
+	}
+	
+	/**
+	 * 配列の指定の位置に引数を格納する操作器を返す。
+	 * 
+	 * @param index 格納する位置
+	 * @return 対応する操作器
+	 */
+	static Editor<Object[], Object> store(final int index) {
+		return new AbstractEditor<Object[], Object>() {
+			
+			public Object[] edit(Object[] target, Object argument) {
+				target[index] = argument;
+				return target;
+			}
+		};
+	}
+	
+	/**
+	 * 対象に文字列を追加する操作器を返す。
+	 * 
+	 * @return 対応する操作器
+	 */
+	static Editor<StringBuilder, Object> append() {
+		return new AbstractEditor<StringBuilder, Object>() {
+			
+			public StringBuilder edit(StringBuilder target, Object argument) {
+				return target.append(argument);
+			}
+		};
+	}
+	
+	private Steps() {
+	}
+	
+
+	private abstract static class Inc extends AbstractFunctor<Integer, Integer> {
+		
+		final int delta;
+		
+
+		Inc(int delta) {
+			this.delta = delta;
+		}
+	}
+	
+	private static final class Inc0 extends Inc {
+		
+		Inc0(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc1 extends Inc {
+		
+		Inc1(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc2 extends Inc {
+		
+		Inc2(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc3 extends Inc {
+		
+		Inc3(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc4 extends Inc {
+		
+		Inc4(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc5 extends Inc {
+		
+		Inc5(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc6 extends Inc {
+		
+		Inc6(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+	
+	private static final class Inc7 extends Inc {
+		
+		Inc7(int delta) {
+			super(delta);
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument + delta;
+		}
+	}
+}
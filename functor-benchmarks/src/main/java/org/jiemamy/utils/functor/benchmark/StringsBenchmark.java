@@ -0,0 +1,172 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.benchmark;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.java.lang.CharSequences;
+import org.jiemamy.utils.functor.java.lang.Integers;
+import org.jiemamy.utils.functor.java.lang.Strings;
+
+/**
+ * {@link Strings}および{@link CharSequences}のベンチマーク。
+ * 
+ * <p>{@code size}は連接する文字列の数、および解析する行に含まれる数値の数を表す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringsBenchmark {
+	
+	/**
+	 * 連接する文字列の数、および解析する行に含まれる数値の数。
+	 */
+	@Param({
+		"100",
+		"100000"
+	})
+	public int size;
+	
+	List<String> arrayList;
+	
+	List<CharSequence> linkedList;
+	
+	Functor<String, List<String>> join;
+	
+	Functor<String, Iterable<? extends CharSequence>> joinSequences;
+	
+	Editor<StringWriter, Iterable<? extends CharSequence>> joinTo;
+	
+	String line;
+	
+	IntFunctor<String> parse;
+	
+	Functor<List<CharSequence>, CharSequence> split;
+	
+	IntFunctor<CharSequence> parseView;
+	
+
+	/**
+	 * ベンチマーク対象を構築する。
+	 */
+	@Setup
+	public void setUp() {
+		arrayList = new ArrayList<String>(size);
+		linkedList = new LinkedList<CharSequence>();
+		for (int i = 0; i < size; i++) {
+			String value = "value-" + i;
+			arrayList.add(value);
+			linkedList.add(value);
+		}
+		join = Strings.join(",");
+		joinSequences = Strings.joinSequences(",");
+		joinTo = Strings.joinTo(",");
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				buf.append(',');
+			}
+			buf.append(i * 31);
+		}
+		line = buf.toString();
+		parse = Integers.parse();
+		split = CharSequences.split(',');
+		parseView = CharSequences.parseInt();
+	}
+	
+	/**
+	 * {@link java.util.ArrayList}に対する{@link Strings#join(String)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String joinArrayList() {
+		return join.apply(arrayList);
+	}
+	
+	/**
+	 * {@link java.util.LinkedList}に対する{@link Strings#joinSequences(String)}。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public String joinLinkedList() {
+		return joinSequences.apply(linkedList);
+	}
+	
+	/**
+	 * {@link Strings#joinTo(String)}で{@link StringWriter}に直接書き出す。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public StringWriter joinToWriter() {
+		return joinTo.edit(new StringWriter(), arrayList);
+	}
+	
+	/**
+	 * {@link String#split(String)}で分割した部分文字列を{@link Integers#parse()}で解析する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public long parseSubstrings() {
+		long sum = 0;
+		for (String field : line.split(",")) {
+			sum += parse.applyAsInt(field);
+		}
+		return sum;
+	}
+	
+	/**
+	 * {@link CharSequences#split(char)}で分割したビューを{@link CharSequences#parseInt()}で解析する。
+	 * 
+	 * @return 結果
+	 */
+	@Benchmark
+	public long parseViews() {
+		long sum = 0;
+		for (CharSequence field : split.apply(line)) {
+			sum += parseView.applyAsInt(field);
+		}
+		return sum;
+	}
+}
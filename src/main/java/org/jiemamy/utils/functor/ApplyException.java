@@ -60,4 +60,57 @@ public class ApplyException extends RuntimeException {
 	public ApplyException(Throwable cause) {
 		super(cause);
 	}
+	
+	/**
+	 * スタックトレースを持たないインスタンスを生成する。
+	 * 
+	 * <p>返される例外は、生成時にスタックトレースを記録しないため、生成の費用が小さい。
+	 * 不正な入力が頻繁に現れるような関数で、失敗を例外として通知したい場合に利用する。
+	 * 返される例外は{@link Throwable#initCause(Throwable)}で原因を設定できず、
+	 * {@link Throwable#setStackTrace(StackTraceElement[])}も無視する。</p>
+	 * 
+	 * <p>生成したインスタンスを使い回す場合は、それをスローする関数ごとに1つずつ用意し、
+	 * スローされた例外はスローした関数の呼び出し元で速やかに捕捉すること。
+	 * Java 7以降の実行環境では、try-with-resources文の{@code close()}が例外をスローした場合に、
+	 * その例外がスロー中の例外に抑制された例外として追加される。
+	 * この追加は禁止できないため、使い回している例外がそのような文を通過すると、
+	 * 抑制された例外が上限なく蓄積され、ほかのスレッドからも観測される。
+	 * アプリケーション全体で1つのインスタンスを共有する定数として保持してはならない。</p>
+	 * 
+	 * @param message メッセージ(省略可)
+	 * @return 生成したインスタンス
+	 */
+	public static ApplyException withoutStackTrace(String message) {
+		return new Stackless(message);
+	}
+	
+
+	/**
+	 * スタックトレースを持たない例外。
+	 */
+	private static class Stackless extends ApplyException {
+		
+		private static final long serialVersionUID = -2930276429532307212L;
+		
+
+		Stackless(String message) {
+			super(message);
+		}
+		
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+		
+		@Override
+		public synchronized Throwable initCause(Throwable cause) {
+			// 使い回されるインスタンスの状態を変更させない
+			throw new IllegalStateException("cannot set cause of stackless exception"); //$NON-NLS-1$
+		}
+		
+		@Override
+		public void setStackTrace(StackTraceElement[] stackTrace) {
+			return;
+		}
+	}
 }
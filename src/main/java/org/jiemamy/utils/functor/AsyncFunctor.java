@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+import java.util.concurrent.Future;
+
+/**
+ * 値を非同期に変換する関数。
+ * 
+ * <p>{@link #apply(Object)}は変換の完了を待たずに、変換後の値を受け取るための{@link Future}を返す。
+ * {@link #thenApply(Functor)}や{@link #thenCompose(AsyncFunctor)}で合成された関数は、
+ * 前段の変換が完了した時点で後段の変換を開始するため、
+ * 前段の完了を待つためにスレッドがブロックされることはない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <S> 変換前の値の型
+ */
+public interface AsyncFunctor<D, S> extends Functor<Future<D>, S> {
+	
+	/**
+	 * この関数の変換が完了した後に、その結果をさらに指定の関数で変換するような、合成された関数を返す。
+	 * 
+	 * <p>{@code chain}は、この関数の変換を完了させたスレッド上で適用される。
+	 * この関数の変換が失敗した場合、{@code chain}は適用されずに合成された関数の変換も失敗する。</p>
+	 * 
+	 * @param <R> 合成された関数の結果の型
+	 * @param chain 合成する関数
+	 * @return 合成結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	<R>AsyncFunctor<R, S> thenApply(Functor<? extends R, ? super D> chain);
+	
+	/**
+	 * この関数の変換が完了した後に、その結果をさらに指定の非同期関数で変換するような、合成された関数を返す。
+	 * 
+	 * <p>この関数の変換が失敗した場合、{@code chain}は適用されずに合成された関数の変換も失敗する。</p>
+	 * 
+	 * @param <R> 合成された関数の結果の型
+	 * @param chain 合成する関数
+	 * @return 合成結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	<R>AsyncFunctor<R, S> thenCompose(AsyncFunctor<? extends R, ? super D> chain);
+}
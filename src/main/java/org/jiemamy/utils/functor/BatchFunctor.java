@@ -0,0 +1,68 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 複数の値をまとめて変換できる関数。
+ * 
+ * <p>{@link #apply(Object)}を値ごとに呼び出す代わりに、
+ * 配列やリストに格納された値をまとめて変換する。
+ * 合成された関数では、段ごとにまとめて変換することで、
+ * それぞれの段の処理を連続して実行できる。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <S> 変換前の値の型
+ */
+public interface BatchFunctor<D, S> extends Functor<D, S> {
+	
+	/**
+	 * この変換機を利用して、配列の指定の範囲に含まれる値をまとめて変換する。
+	 * 
+	 * <p>{@code from <= i < to}となるそれぞれの{@code i}について、
+	 * {@code results[i] = apply(arguments[i])}とした場合と同様の結果となる。
+	 * {@code arguments}と{@code results}に同一の配列を指定してもよい。</p>
+	 * 
+	 * @param arguments 変換する値の配列
+	 * @param results 変換後の値を格納する配列
+	 * @param from 変換する範囲の先頭のインデックス (これを含む)
+	 * @param to 変換する範囲の末尾のインデックス (これを含まない)
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @throws IndexOutOfBoundsException 範囲がいずれかの配列の外を指す場合、
+	 *     または{@code from > to}である場合
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	void applyAll(S[] arguments, D[] results, int from, int to);
+	
+	/**
+	 * この変換機を利用して、リストに含まれる値をまとめて変換する。
+	 * 
+	 * <p>{@code arguments}に含まれるそれぞれの値を先頭から順に変換し、
+	 * その結果を順に{@code results}へ追加する。</p>
+	 * 
+	 * @param arguments 変換する値のリスト
+	 * @param results 変換後の値を追加するコレクション
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	void applyAll(List<? extends S> arguments, Collection<? super D> results);
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+/**
+ * 2つの値を別の値に変換する関数。
+ * 
+ * <p>{@link Functor}を高階化して2引数の関数を表す場合({@code f.apply(a).apply(b)})と異なり、
+ * 適用のたびに中間の関数オブジェクトを生成しない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <A> 第1引数の型
+ * @param <B> 第2引数の型
+ */
+public interface BinaryFunctor<D, A, B> {
+	
+	/**
+	 * この関数の結果をさらに指定の関数で変換するような、合成された関数を返す。
+	 * 
+	 * <p>合成する関数が受け取る値の型は、この関数が出力する値の型に対し
+	 * スーパータイプ関係が成り立たなければならない。</p>
+	 * 
+	 * @param <R> 合成された関数の結果の型
+	 * @param chain 合成する関数
+	 * @return 合成結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	<R>BinaryFunctor<R, A, B> andThen(Functor<? extends R, ? super D> chain);
+	
+	/**
+	 * この変換機を利用して、指定の値を変換する。
+	 * 
+	 * @param left 第1引数
+	 * @param right 第2引数
+	 * @return 変換後の値
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	D apply(A left, B right);
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+/**
+ * 値を{@code int}型の値に変換する関数。
+ * 
+ * <p>{@link Functor#apply(Object)}は、{@link #applyAsInt(Object)}の結果を
+ * {@code Integer}型に変換したものを返す。
+ * 値のボックス化を避けたい場合には、{@link #applyAsInt(Object)}を直接利用するのがよい。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <S> 変換前の値の型
+ */
+public interface IntFunctor<S> extends Functor<Integer, S> {
+	
+	/**
+	 * この関数の結果をさらに指定の関数で変換するような、合成された関数を返す。
+	 * 
+	 * <p>返される関数は、途中の結果をボックス化せずに受け渡す。</p>
+	 * 
+	 * @param chain 合成する関数
+	 * @return 合成結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	IntFunctor<S> andThen(IntOperator chain);
+	
+	/**
+	 * この変換機を利用して、指定の値を{@code int}型の値に変換する。
+	 * 
+	 * @param argument 変換する値
+	 * @return 変換後の値
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	int applyAsInt(S argument);
+}
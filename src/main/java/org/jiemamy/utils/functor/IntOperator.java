@@ -0,0 +1,44 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+/**
+ * {@code int}型の値を別の{@code int}型の値に変換する関数。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public interface IntOperator extends IntFunctor<Integer> {
+	
+	/**
+	 * この関数の結果をさらに指定の関数で変換するような、合成された関数を返す。
+	 * 
+	 * @param chain 合成する関数
+	 * @return 合成結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	IntOperator andThen(IntOperator chain);
+	
+	/**
+	 * この変換機を利用して、指定の{@code int}型の値を変換する。
+	 * 
+	 * @param operand 変換する値
+	 * @return 変換後の値
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	int applyAsInt(int operand);
+}
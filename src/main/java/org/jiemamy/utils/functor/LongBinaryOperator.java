@@ -0,0 +1,40 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+/**
+ * 2つの{@code long}型の値を別の{@code long}型の値に変換する関数。
+ * 
+ * <p>{@link BinaryFunctor#apply(Object, Object)}は、{@link #applyAsLong(long, long)}の結果を
+ * {@code Long}型に変換したものを返す。
+ * 値のボックス化を避けたい場合には、{@link #applyAsLong(long, long)}を直接利用するのがよい。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public interface LongBinaryOperator extends BinaryFunctor<Long, Long, Long> {
+	
+	/**
+	 * この変換機を利用して、指定の{@code long}型の値を変換する。
+	 * 
+	 * @param left 第1引数
+	 * @param right 第2引数
+	 * @return 変換後の値
+	 * @throws ApplyException 値の変換に失敗した場合
+	 * @throws RuntimeException 値の変換中に、その他の実行時例外が発生した場合
+	 */
+	long applyAsLong(long left, long right);
+}
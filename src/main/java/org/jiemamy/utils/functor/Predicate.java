@@ -0,0 +1,39 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor;
+
+/**
+ * 値が条件を満たすかどうかを判定する述語。
+ * 
+ * <p>{@link Functor#apply(Object)}は、{@link #test(Object)}の結果を
+ * {@code Boolean}型に変換したものを返す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <S> 判定する値の型
+ */
+public interface Predicate<S> extends Functor<Boolean, S> {
+	
+	/**
+	 * この述語を利用して、指定の値が条件を満たすかどうかを判定する。
+	 * 
+	 * @param argument 判定する値
+	 * @return 条件を満たす場合は{@code true}、そうでない場合は{@code false}
+	 * @throws ApplyException 値の判定に失敗した場合
+	 * @throws RuntimeException 値の判定中に、その他の実行時例外が発生した場合
+	 */
+	boolean test(S argument);
+}
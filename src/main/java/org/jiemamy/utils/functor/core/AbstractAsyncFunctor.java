@@ -0,0 +1,46 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.Future;
+
+import org.jiemamy.utils.functor.AsyncFunctor;
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * {@link AsyncFunctor}の骨格実装。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <S> 変換前の値の型
+ */
+public abstract class AbstractAsyncFunctor<D, S> extends AbstractFunctor<Future<D>, S> implements AsyncFunctor<D, S> {
+	
+	public <R>AsyncFunctor<R, S> thenApply(Functor<? extends R, ? super D> chain) {
+		if (chain == null) {
+			throw new IllegalArgumentException("chain is null"); //$NON-NLS-1$
+		}
+		return Functors.composeAsync(chain, this);
+	}
+	
+	public <R>AsyncFunctor<R, S> thenCompose(AsyncFunctor<? extends R, ? super D> chain) {
+		if (chain == null) {
+			throw new IllegalArgumentException("chain is null"); //$NON-NLS-1$
+		}
+		return Functors.flatComposeAsync(chain, this);
+	}
+}
@@ -15,17 +15,25 @@
  */
 package org.jiemamy.utils.functor.core;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.jiemamy.utils.functor.BatchFunctor;
 import org.jiemamy.utils.functor.Functor;
 
 /**
  * {@link Functor}の骨格実装。
  * 
+ * <p>{@link BatchFunctor}の各メソッドは、{@link #apply(Object)}を繰り返し呼び出すことで実装される。
+ * 値をまとめて変換する際に効率のよい方法がある場合、サブクラスでオーバーライドするとよい。</p>
+ * 
  * @version $Date$
  * @author Suguru ARAKAWA
  * @param <D> 変換後の値の型
  * @param <S> 変換前の値の型
  */
-public abstract class AbstractFunctor<D, S> implements Functor<D, S> {
+public abstract class AbstractFunctor<D, S> implements BatchFunctor<D, S> {
 	
 	public <R>Functor<R, S> andThen(Functor<? extends R, ? super D> chain) {
 		if (chain == null) {
@@ -33,4 +41,52 @@ public abstract class AbstractFunctor<D, S> implements Functor<D, S> {
 		}
 		return Functors.compose(chain, this);
 	}
+	
+	public void applyAll(S[] arguments, D[] results, int from, int to) {
+		checkRange(arguments, results, from, to);
+		for (int i = from; i < to; i++) {
+			results[i] = apply(arguments[i]);
+		}
+	}
+	
+	public void applyAll(List<? extends S> arguments, Collection<? super D> results) {
+		if (arguments == null) {
+			throw new IllegalArgumentException("arguments is null"); //$NON-NLS-1$
+		}
+		if (results == null) {
+			throw new IllegalArgumentException("results is null"); //$NON-NLS-1$
+		}
+		if (arguments instanceof RandomAccess) {
+			for (int i = 0, n = arguments.size(); i < n; i++) {
+				results.add(apply(arguments.get(i)));
+			}
+		} else {
+			for (S argument : arguments) {
+				results.add(apply(argument));
+			}
+		}
+	}
+	
+	/**
+	 * {@link #applyAll(Object[], Object[], int, int)}の引数を検査する。
+	 * 
+	 * @param arguments 変換する値の配列
+	 * @param results 変換後の値を格納する配列
+	 * @param from 変換する範囲の先頭のインデックス (これを含む)
+	 * @param to 変換する範囲の末尾のインデックス (これを含まない)
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @throws IndexOutOfBoundsException 範囲がいずれかの配列の外を指す場合、
+	 *     または{@code from > to}である場合
+	 */
+	protected static void checkRange(Object[] arguments, Object[] results, int from, int to) {
+		if (arguments == null) {
+			throw new IllegalArgumentException("arguments is null"); //$NON-NLS-1$
+		}
+		if (results == null) {
+			throw new IllegalArgumentException("results is null"); //$NON-NLS-1$
+		}
+		if (from < 0 || from > to || to > arguments.length || to > results.length) {
+			throw new IndexOutOfBoundsException("[" + from + ", " + to + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import org.jiemamy.utils.functor.IntBinaryOperator;
+
+/**
+ * {@link IntBinaryOperator}の骨格実装。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public abstract class AbstractIntBinaryOperator extends AbstractBinaryFunctor<Integer, Integer, Integer> implements
+		IntBinaryOperator {
+	
+	public Integer apply(Integer left, Integer right) {
+		return applyAsInt(left.intValue(), right.intValue());
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.IntOperator;
+
+/**
+ * {@link IntFunctor}の骨格実装。
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <S> 変換前の値の型
+ */
+public abstract class AbstractIntFunctor<S> extends AbstractFunctor<Integer, S> implements IntFunctor<S> {
+	
+	public IntFunctor<S> andThen(IntOperator chain) {
+		if (chain == null) {
+			throw new IllegalArgumentException("chain is null"); //$NON-NLS-1$
+		}
+		return Primitives.compose(chain, this);
+	}
+	
+	public Integer apply(S argument) {
+		return applyAsInt(argument);
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jiemamy.utils.functor.BatchFunctor;
+
+/**
+ * 複数のスレッドから同時に適用された値をまとめ、一度の{@link BatchFunctor}の呼び出しで変換する関数。
+ * 
+ * <p>このクラスのインスタンスは{@link Functors#batching(BatchFunctor, int, long, java.util.concurrent.TimeUnit)}
+ * で生成する。
+ * {@link #apply(Object)}で渡された値はロックを利用しないキューに追加され、
+ * その時点で変換を行っているスレッドがなければ、呼び出し元のスレッドがキューに溜まった値をまとめて変換する。
+ * 他のスレッドが変換を行っている場合、呼び出し元のスレッドは自身の値が変換されるまで待機する。</p>
+ * 
+ * <p>変換を行うスレッドは、キューに溜まった値が最大のバッチサイズに達するか、
+ * 最大の待機時間が経過するまで、後続の値を待ってから変換を開始する。
+ * 最大の待機時間が{@code 0}の場合は待機せず、その時点でキューに溜まっている値のみをまとめて変換する。
+ * この場合でも、変換中に追加された値は次のバッチにまとめられる。</p>
+ * 
+ * <p>バッチの変換中に例外が発生した場合、そのバッチに含まれる全ての呼び出しで同じ例外がスローされる。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <S> 変換前の値の型
+ */
+public final class BatchingFunctor<D, S> extends AbstractFunctor<D, S> {
+	
+	private final BatchFunctor<? extends D, ? super S> functor;
+	
+	private final int maxBatch;
+	
+	private final long maxDelayNanos;
+	
+	private final ConcurrentLinkedQueue<Request<D, S>> queue = new ConcurrentLinkedQueue<Request<D, S>>();
+	
+	private final AtomicInteger queued = new AtomicInteger();
+	
+	private final AtomicBoolean flushing = new AtomicBoolean();
+	
+	private volatile Thread flusher;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param functor 値をまとめて変換する関数
+	 * @param maxBatch 一度に変換する値の最大数
+	 * @param maxDelayNanos 後続の値を待つ最大の時間 (ナノ秒)
+	 */
+	BatchingFunctor(BatchFunctor<? extends D, ? super S> functor, int maxBatch, long maxDelayNanos) {
+		assert functor != null;
+		assert maxBatch >= 1;
+		assert maxDelayNanos >= 0;
+		this.functor = functor;
+		this.maxBatch = maxBatch;
+		this.maxDelayNanos = maxDelayNanos;
+	}
+	
+	public D apply(S argument) {
+		Request<D, S> request = new Request<D, S>(argument, Thread.currentThread());
+		queue.offer(request);
+		if (queued.incrementAndGet() >= maxBatch) {
+			Thread waiting = flusher;
+			if (waiting != null) {
+				LockSupport.unpark(waiting);
+			}
+		}
+		boolean interrupted = false;
+		while (request.done == false) {
+			if (flushing.compareAndSet(false, true)) {
+				try {
+					if (request.done == false) {
+						interrupted |= awaitBatch();
+						flush();
+					}
+				} finally {
+					flushing.set(false);
+					// 残っている値を待つスレッドに、変換を引き継ぐ
+					Request<D, S> next = queue.peek();
+					if (next != null) {
+						LockSupport.unpark(next.thread);
+					}
+				}
+			} else {
+				LockSupport.park();
+				interrupted |= Thread.interrupted();
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return request.get();
+	}
+	
+	/**
+	 * 一度に変換する値の最大数を返す。
+	 * 
+	 * @return 一度に変換する値の最大数
+	 */
+	public int getMaxBatch() {
+		return maxBatch;
+	}
+	
+	/**
+	 * 後続の値を待つ最大の時間をナノ秒単位で返す。
+	 * 
+	 * @return 後続の値を待つ最大の時間
+	 */
+	public long getMaxDelayNanos() {
+		return maxDelayNanos;
+	}
+	
+	/**
+	 * キューに溜まった値が最大のバッチサイズに達するか、最大の待機時間が経過するまで待機する。
+	 * 
+	 * @return 待機中に割り込まれた場合は{@code true}
+	 */
+	private boolean awaitBatch() {
+		if (maxDelayNanos == 0) {
+			return false;
+		}
+		boolean interrupted = false;
+		long deadline = System.nanoTime() + maxDelayNanos;
+		flusher = Thread.currentThread();
+		try {
+			while (queued.get() < maxBatch) {
+				long rest = deadline - System.nanoTime();
+				if (rest <= 0) {
+					break;
+				}
+				LockSupport.parkNanos(rest);
+				interrupted |= Thread.interrupted();
+			}
+		} finally {
+			flusher = null;
+		}
+		return interrupted;
+	}
+	
+	/**
+	 * キューから最大のバッチサイズまで値を取り出し、まとめて変換する。
+	 */
+	private void flush() {
+		int expected = Math.min(queued.get(), maxBatch);
+		List<Request<D, S>> batch = new ArrayList<Request<D, S>>(expected);
+		List<S> arguments = new ArrayList<S>(expected);
+		while (batch.size() < maxBatch) {
+			Request<D, S> request = queue.poll();
+			if (request == null) {
+				break;
+			}
+			queued.decrementAndGet();
+			batch.add(request);
+			arguments.add(request.argument);
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<D> results = new ArrayList<D>(batch.size());
+		Throwable failure = null;
+		try {
+			functor.applyAll(arguments, results);
+			if (results.size() != batch.size()) {
+				failure = new IllegalStateException("functor returned " + results.size() //$NON-NLS-1$
+						+ " results for " + batch.size() + " arguments"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+		} catch (Error e) {
+			failure = e;
+		}
+		Thread current = Thread.currentThread();
+		for (int i = 0, n = batch.size(); i < n; i++) {
+			Request<D, S> request = batch.get(i);
+			if (failure == null) {
+				request.result = results.get(i);
+			} else {
+				request.failure = failure;
+			}
+			request.done = true;
+			if (request.thread != current) {
+				LockSupport.unpark(request.thread);
+			}
+		}
+	}
+	
+
+	/**
+	 * 変換を待つ呼び出し。
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 */
+	private static final class Request<D, S> {
+		
+		final S argument;
+		
+		final Thread thread;
+		
+		D result;
+		
+		Throwable failure;
+		
+		volatile boolean done;
+		
+
+		Request(S argument, Thread thread) {
+			assert thread != null;
+			this.argument = argument;
+			this.thread = thread;
+		}
+		
+		D get() {
+			assert done;
+			Throwable t = failure;
+			if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			}
+			if (t instanceof Error) {
+				throw (Error) t;
+			}
+			assert t == null;
+			return result;
+		}
+	}
+}
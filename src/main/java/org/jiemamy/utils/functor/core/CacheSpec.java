@@ -0,0 +1,187 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Functors#memoize(org.jiemamy.utils.functor.Functor, CacheSpec)}が利用するキャッシュの仕様。
+ * 
+ * <p>このクラスのインスタンスは不変であり、設定を変更するメソッドは新しいインスタンスを返す。
+ * 例えば、最大1000要素を保持し、書き込みから10秒で失効するLRUキャッシュは
+ * {@code CacheSpec.lru(1000).expireAfterWrite(10, TimeUnit.SECONDS)}のように指定する。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class CacheSpec {
+	
+	/**
+	 * 既定の並行性レベル。
+	 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	
+
+	/**
+	 * 最も長い間利用されていない要素から追い出すキャッシュの仕様を返す。
+	 * 
+	 * @param maximumSize キャッシュが保持する要素の最大数
+	 * @return 対応する仕様
+	 * @throws IllegalArgumentException 引数に{@code 1}未満の値が指定された場合
+	 */
+	public static CacheSpec lru(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be > 0"); //$NON-NLS-1$
+		}
+		return new CacheSpec(Eviction.LRU, maximumSize, 0L, DEFAULT_CONCURRENCY_LEVEL);
+	}
+	
+	/**
+	 * W-TinyLFU方式で要素を追い出すキャッシュの仕様を返す。
+	 * 
+	 * <p>新しい要素はまず小さなLRU領域(ウィンドウ)に格納され、
+	 * そこから溢れた要素は、参照頻度の推定値が主領域で追い出される要素のそれを上回る場合にのみ
+	 * 主領域に昇格する。
+	 * 一度しか参照されない値が大量に流れる場合でも、頻繁に参照される値が追い出されにくい。</p>
+	 * 
+	 * @param maximumSize キャッシュが保持する要素の最大数
+	 * @return 対応する仕様
+	 * @throws IllegalArgumentException 引数に{@code 1}未満の値が指定された場合
+	 */
+	public static CacheSpec tinyLfu(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("maximumSize must be > 0"); //$NON-NLS-1$
+		}
+		return new CacheSpec(Eviction.TINY_LFU, maximumSize, 0L, DEFAULT_CONCURRENCY_LEVEL);
+	}
+	
+
+	private final Eviction eviction;
+	
+	private final int maximumSize;
+	
+	private final long expireAfterWriteNanos;
+	
+	private final int concurrencyLevel;
+	
+
+	private CacheSpec(Eviction eviction, int maximumSize, long expireAfterWriteNanos, int concurrencyLevel) {
+		assert eviction != null;
+		assert maximumSize >= 1;
+		assert expireAfterWriteNanos >= 0;
+		assert concurrencyLevel >= 1;
+		this.eviction = eviction;
+		this.maximumSize = maximumSize;
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.concurrencyLevel = concurrencyLevel;
+	}
+	
+	/**
+	 * 同時に更新できるスレッド数の目安を変更した仕様を返す。
+	 * 
+	 * <p>キャッシュはこの数に応じて独立したロックを持つ区画に分割される。</p>
+	 * 
+	 * @param level 同時に更新できるスレッド数の目安
+	 * @return 変更後の仕様
+	 * @throws IllegalArgumentException 引数に{@code 1}未満の値が指定された場合
+	 */
+	public CacheSpec concurrencyLevel(int level) {
+		if (level < 1) {
+			throw new IllegalArgumentException("level must be > 0"); //$NON-NLS-1$
+		}
+		return new CacheSpec(eviction, maximumSize, expireAfterWriteNanos, level);
+	}
+	
+	/**
+	 * 書き込みから指定の時間が経過した要素を失効させるように変更した仕様を返す。
+	 * 
+	 * @param duration 要素が失効するまでの時間
+	 * @param unit {@code duration}の単位
+	 * @return 変更後の仕様
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code duration}に{@code 1}未満の値が指定された場合
+	 */
+	public CacheSpec expireAfterWrite(long duration, TimeUnit unit) {
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		if (duration < 1) {
+			throw new IllegalArgumentException("duration must be > 0"); //$NON-NLS-1$
+		}
+		return new CacheSpec(eviction, maximumSize, unit.toNanos(duration), concurrencyLevel);
+	}
+	
+	/**
+	 * 同時に更新できるスレッド数の目安を返す。
+	 * 
+	 * @return 同時に更新できるスレッド数の目安
+	 */
+	public int getConcurrencyLevel() {
+		return concurrencyLevel;
+	}
+	
+	/**
+	 * 要素の追い出し方式を返す。
+	 * 
+	 * @return 要素の追い出し方式
+	 */
+	public Eviction getEviction() {
+		return eviction;
+	}
+	
+	/**
+	 * 書き込みから要素が失効するまでの時間をナノ秒単位で返す。
+	 * 
+	 * @return 要素が失効するまでの時間、失効しない場合は{@code 0}
+	 */
+	public long getExpireAfterWriteNanos() {
+		return expireAfterWriteNanos;
+	}
+	
+	/**
+	 * キャッシュが保持する要素の最大数を返す。
+	 * 
+	 * @return キャッシュが保持する要素の最大数
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+	
+	@Override
+	public String toString() {
+		return "CacheSpec(eviction=" + eviction //$NON-NLS-1$
+				+ ", maximumSize=" + maximumSize //$NON-NLS-1$
+				+ ", expireAfterWriteNanos=" + expireAfterWriteNanos //$NON-NLS-1$
+				+ ", concurrencyLevel=" + concurrencyLevel + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+
+	/**
+	 * キャッシュからの要素の追い出し方式。
+	 */
+	public enum Eviction {
+		
+		/**
+		 * 最も長い間利用されていない要素から追い出す。
+		 */
+		LRU,
+		
+		/**
+		 * W-TinyLFU方式で、参照頻度の推定値が低い要素から追い出す。
+		 */
+		TINY_LFU
+	}
+}
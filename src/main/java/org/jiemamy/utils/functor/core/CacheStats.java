@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+/**
+ * キャッシュの統計情報。
+ * 
+ * <p>このクラスのインスタンスは、取得した時点での統計情報のスナップショットである。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class CacheStats {
+	
+	private final long hitCount;
+	
+	private final long missCount;
+	
+	private final long evictionCount;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param hitCount キャッシュに値が存在した回数
+	 * @param missCount キャッシュに値が存在しなかった回数
+	 * @param evictionCount キャッシュから値が追い出された回数
+	 */
+	public CacheStats(long hitCount, long missCount, long evictionCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+	
+	/**
+	 * キャッシュから値が追い出された回数を返す。
+	 * 
+	 * <p>この回数には、失効によって取り除かれた回数も含まれる。</p>
+	 * 
+	 * @return キャッシュから値が追い出された回数
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+	
+	/**
+	 * キャッシュに値が存在した回数を返す。
+	 * 
+	 * @return キャッシュに値が存在した回数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	/**
+	 * キャッシュに値が存在した割合を返す。
+	 * 
+	 * @return キャッシュに値が存在した割合、一度も参照されていない場合は{@code 1.0}
+	 */
+	public double getHitRate() {
+		long total = hitCount + missCount;
+		if (total == 0) {
+			return 1.0;
+		}
+		return (double) hitCount / total;
+	}
+	
+	/**
+	 * キャッシュに値が存在しなかった回数を返す。
+	 * 
+	 * @return キャッシュに値が存在しなかった回数
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+	
+	@Override
+	public String toString() {
+		return "CacheStats(hit=" + hitCount //$NON-NLS-1$
+				+ ", miss=" + missCount //$NON-NLS-1$
+				+ ", eviction=" + evictionCount + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -15,6 +15,9 @@
  */
 package org.jiemamy.utils.functor.core;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.jiemamy.utils.functor.ApplyException;
 import org.jiemamy.utils.functor.Functor;
 
@@ -36,6 +39,28 @@ import org.jiemamy.utils.functor.Functor;
  */
 public abstract class Cast<T> extends AbstractFunctor<T, Object> {
 	
+	static final Cast<Object> UNCHECKED = new Unchecked<Object>();
+	
+
+	/**
+	 * 受け取った値を指定の型に変換して返すような関数を生成して返す。
+	 * 
+	 * <p>返される関数は{@link #to(Class)}と同様に振る舞うが、型の検査には{@link InstanceCheck}を利用し、
+	 * 最近変換した値の実行時クラスについては検査を省略する。
+	 * 変換結果の型がインターフェースである場合や、様々な実行時クラスの値を受け取る場合に利用するとよい。</p>
+	 * 
+	 * @param <R> 変換結果の型
+	 * @param resultType 変換結果の型
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <R>Cast<R> cached(Class<R> resultType) {
+		if (resultType == null) {
+			throw new IllegalArgumentException("resultType is null"); //$NON-NLS-1$
+		}
+		return new Cached<R>(InstanceCheck.of(resultType));
+	}
+	
 	/**
 	 * 受け取った値を指定の型に変換して返すような関数を生成して返す。
 	 * 
@@ -47,7 +72,58 @@ public abstract class Cast<T> extends AbstractFunctor<T, Object> {
 	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
 	 */
 	public static <R>Cast<R> to(Class<R> resultType) {
-		return new Checked<R>(resultType);
+		if (resultType == null) {
+			throw new IllegalArgumentException("resultType is null"); //$NON-NLS-1$
+		}
+		return new Checked<R>(resultType, null);
+	}
+	
+	/**
+	 * 受け取った値を指定の型に変換して返すような関数を生成して返す。
+	 * 
+	 * <p>返される関数が、値の型を変換するのに失敗した場合、{@code failure}をそのままスローする。
+	 * {@link ApplyException#withoutStackTrace(String)}で生成した例外を指定すると、
+	 * 変換に失敗した際に例外を生成する費用がかからない。</p>
+	 * 
+	 * <p>{@code failure}は返される関数が失敗するたびに、すべてのスレッドで同じインスタンスがスローされる。
+	 * そのため、{@code failure}はこのメソッドの呼び出しごとに生成し、ほかの関数と共有しないこと。
+	 * また、スローされた{@code failure}は関数の呼び出し元で速やかに捕捉し、
+	 * try-with-resources文などで抑制された例外が追加されうる範囲に伝播させないこと。
+	 * 詳しくは{@link ApplyException#withoutStackTrace(String)}を参照。</p>
+	 * 
+	 * @param <R> 変換結果の型
+	 * @param resultType 変換結果の型
+	 * @param failure 変換に失敗した際にスローする例外
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <R>Cast<R> to(Class<R> resultType, ApplyException failure) {
+		if (resultType == null) {
+			throw new IllegalArgumentException("resultType is null"); //$NON-NLS-1$
+		}
+		if (failure == null) {
+			throw new IllegalArgumentException("failure is null"); //$NON-NLS-1$
+		}
+		return new Checked<R>(resultType, failure);
+	}
+	
+	/**
+	 * 受け取った値を指定の型に変換し、その結果を{@link Result}として返すような関数を生成して返す。
+	 * 
+	 * <p>返される関数は、値の型を変換するのに失敗した場合に例外をスローせず、
+	 * {@link Result#failure()}を返す。この場合、オブジェクトは生成されない。
+	 * {@code null}は常に変換に成功する。</p>
+	 * 
+	 * @param <R> 変換結果の型
+	 * @param resultType 変換結果の型
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <R>Functor<Result<R>, Object> tryTo(Class<R> resultType) {
+		if (resultType == null) {
+			throw new IllegalArgumentException("resultType is null"); //$NON-NLS-1$
+		}
+		return new TryChecked<R>(resultType);
 	}
 	
 	/**
@@ -62,29 +138,69 @@ public abstract class Cast<T> extends AbstractFunctor<T, Object> {
 	 * つまり、この変換機を利用することでヒープ汚染が発生するため、
 	 * 利用には注意が必要である。</p>
 	 * 
+	 * <p>このメソッドは常に同一のインスタンスを返す。
+	 * また、返される関数は値を変更しないため、{@link Functors#compose(Functor, Functor)}
+	 * などで合成する際には取り除かれる。</p>
+	 * 
 	 * @param <R> 変換結果の型
 	 * @return 生成した関数
 	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
 	 */
 	public static <R>Cast<R> unchecked() {
-		return new Unchecked<R>();
+		@SuppressWarnings("unchecked")
+		Cast<R> result = (Cast<R>) (Cast<?>) UNCHECKED;
+		return result;
 	}
 	
 
+	private static class Cached<T> extends Cast<T> {
+		
+		private final InstanceCheck check;
+		
+
+		Cached(InstanceCheck check) {
+			assert check != null;
+			this.check = check;
+		}
+		
+		public T apply(Object argument) {
+			if (argument == null) {
+				return null;
+			}
+			if (check.test(argument) == false) {
+				throw new ApplyException(new ClassCastException(argument.getClass().getName()));
+			}
+			// 検査済みのため、Class.cast()による再検査を省略
+			@SuppressWarnings("unchecked")
+			T result = (T) argument;
+			return result;
+		}
+	}
+	
 	private static class Checked<T> extends Cast<T> {
 		
 		private Class<? extends T> checker;
 		
+		private ApplyException failure;
+		
 
-		Checked(Class<? extends T> checker) {
+		Checked(Class<? extends T> checker, ApplyException failure) {
 			assert checker != null;
 			this.checker = checker;
+			this.failure = failure;
 		}
 		
 		public T apply(Object argument) {
 			if (argument == null) {
 				return null;
 			}
+			if (failure != null) {
+				// ClassCastExceptionの生成を避けるため、先に検査する
+				if (checker.isInstance(argument) == false) {
+					throw failure;
+				}
+				return checker.cast(argument);
+			}
 			
 			// 正常系の高速化のため、checker.isInstance()による検査を省略。
 			try {
@@ -94,6 +210,46 @@ public abstract class Cast<T> extends AbstractFunctor<T, Object> {
 				throw new ApplyException(e);
 			}
 		}
+		
+		@Override
+		public void applyAll(Object[] arguments, T[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			Class<? extends T> type = checker;
+			if (failure != null) {
+				for (int i = from; i < to; i++) {
+					results[i] = apply(arguments[i]);
+				}
+				return;
+			}
+			try {
+				for (int i = from; i < to; i++) {
+					results[i] = type.cast(arguments[i]);
+				}
+			} catch (ClassCastException e) {
+				throw new ApplyException(e);
+			}
+		}
+	}
+	
+	private static class TryChecked<T> extends AbstractFunctor<Result<T>, Object> {
+		
+		private Class<? extends T> checker;
+		
+
+		TryChecked(Class<? extends T> checker) {
+			assert checker != null;
+			this.checker = checker;
+		}
+		
+		public Result<T> apply(Object argument) {
+			if (argument == null) {
+				return Result.success(null);
+			}
+			if (checker.isInstance(argument) == false) {
+				return Result.failure();
+			}
+			return Result.<T> success(checker.cast(argument));
+		}
 	}
 	
 	private static class Unchecked<T> extends Cast<T> {
@@ -107,5 +263,24 @@ public abstract class Cast<T> extends AbstractFunctor<T, Object> {
 			T result = (T) argument;
 			return result;
 		}
+		
+		@Override
+		public void applyAll(Object[] arguments, T[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			System.arraycopy(arguments, from, results, from, to - from);
+		}
+		
+		@Override
+		public void applyAll(List<? extends Object> arguments, Collection<? super T> results) {
+			if (arguments == null) {
+				throw new IllegalArgumentException("arguments is null"); //$NON-NLS-1$
+			}
+			if (results == null) {
+				throw new IllegalArgumentException("results is null"); //$NON-NLS-1$
+			}
+			@SuppressWarnings("unchecked")
+			List<? extends T> values = (List<? extends T>) arguments;
+			results.addAll(values);
+		}
 	}
 }
@@ -16,6 +16,8 @@
 package org.jiemamy.utils.functor.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.jiemamy.utils.functor.Editor;
@@ -29,9 +31,17 @@ import org.jiemamy.utils.functor.Functor;
  */
 public final class Editors {
 	
+	private static final Through<Object, Object> THROUGH = new Through<Object, Object>();
+	
+
 	/**
 	 * 指定の操作器の引数を、指定の関数で変換してから利用するような操作器を返す。
 	 * 
+	 * <p>{@code functor}が引数をそのまま返す関数({@link Functors#id()}など)である場合、
+	 * {@code editor}をそのまま返す。
+	 * また、{@code editor}がすでにこのメソッドで合成された操作器である場合、
+	 * 入れ子にせずに引数を変換する関数同士を{@link Functors#compose(Functor, Functor)}で合成する。</p>
+	 * 
 	 * @param <D> 操作対象の値の型
 	 * @param <S> 本来の操作引数の型
 	 * @param <A> 実際の操作引数の型
@@ -48,6 +58,17 @@ public final class Editors {
 		if (functor == null) {
 			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
 		}
+		if (Functors.isIdentity(functor)) {
+			@SuppressWarnings("unchecked")
+			Editor<D, A> result = (Editor<D, A>) editor;
+			return result;
+		}
+		if (editor instanceof Filtered<?, ?, ?>) {
+			// 操作対象と変換後の引数の型は、合成時に検査済み
+			@SuppressWarnings("unchecked")
+			Filtered<D, Object, S> filtered = (Filtered<D, Object, S>) (Editor<?, ?>) editor;
+			return new Filtered<D, Object, A>(filtered.editor, Functors.compose(filtered.filter, functor));
+		}
 		return new Filtered<D, S, A>(editor, functor);
 	}
 	
@@ -55,7 +76,14 @@ public final class Editors {
 	 * 複数の操作器を連続して適用する操作器を生成して返す。
 	 * 
 	 * <p>返される操作器のは、{@link Iterable#iterator() editor.iterator()}
-	 * が返す操作器を順に適用する。</p>
+	 * が返す操作器を順に適用する。
+	 * ただし、{@link #through()}が返す操作器は何も行わないため、合成時に取り除かれる。</p>
+	 * 
+	 * <p>{@code editors}にすでにこのメソッドで合成された操作器が含まれる場合、
+	 * それらを入れ子にせずにひとつの配列へ平坦化する。
+	 * また、{@link #compose(Editor, Functor)}で合成された操作器が連続し、
+	 * それらが引数を変換する関数として同一のインスタンスを利用している場合、
+	 * 引数の変換は一度の操作につき一度だけ行われる。</p>
 	 * 
 	 * @param <D> 操作対象の値の型
 	 * @param <S> 操作引数の型
@@ -67,7 +95,64 @@ public final class Editors {
 		if (editors == null) {
 			throw new IllegalArgumentException("editors is null"); //$NON-NLS-1$
 		}
-		return new Composite<D, S>(editors);
+		List<Editor<?, ?>> list = new ArrayList<Editor<?, ?>>(sizeOf(editors));
+		for (Editor<? super D, ? super S> each : editors) {
+			Composite.collect(each, list);
+		}
+		if (list.isEmpty()) {
+			return through();
+		}
+		Editor<?, ?>[] stages = Composite.fuse(list);
+		MetricsSink sink = Instrumentation.getGlobalSink();
+		if (sink != null) {
+			Instrumentation.wrapEditors(Instrumentation.EDITORS_COMPOSE, stages, sink);
+		}
+		return new Composite<D, S>(stages);
+	}
+	
+	/**
+	 * 複数の操作器を、複数のスレッドで並列に適用する操作器を生成して返す。
+	 * 
+	 * <p>返される操作器は、{@link Iterable#iterator() editors.iterator()}が返す操作器を
+	 * {@link Parallel}によって複数のスレッドに分配して適用し、
+	 * 全ての操作器の適用が終了してから操作対象を返す。
+	 * 操作器の数が少なく、{@link Parallel#chunks(int, int)}がひとつのチャンクしか返さない場合には、
+	 * 呼び出し元のスレッドでそれぞれの操作器を順に適用する。
+	 * いずれかの操作器が例外をスローした場合、まだ開始されていない操作器は適用されず、
+	 * 最初にスローされた例外が呼び出し元に伝播する。</p>
+	 * 
+	 * <p>それぞれの操作器は、同一の操作対象に対して同時に適用される。
+	 * そのため、操作器は操作対象の互いに異なる部分(異なるフィールドや、マップの異なるキーなど)
+	 * のみを操作し、かつ操作対象がそのような同時の操作を許すものでなければならない。
+	 * 操作器の適用順序は保証されない。</p>
+	 * 
+	 * @param <D> 操作対象の値の型
+	 * @param <S> 操作引数の型
+	 * @param editors 並列に適用する操作器の一覧
+	 * @param parallelism 並列度
+	 * @return 生成した操作器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <D, S>Editor<D, S> parallel(Iterable<? extends Editor<? super D, ? super S>> editors,
+			int parallelism) {
+		if (editors == null) {
+			throw new IllegalArgumentException("editors is null"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		List<Editor<? super D, ? super S>> list = new ArrayList<Editor<? super D, ? super S>>();
+		for (Editor<? super D, ? super S> each : editors) {
+			if (each != THROUGH) {
+				list.add(each);
+			}
+		}
+		if (list.isEmpty()) {
+			return through();
+		}
+		return new ParallelComposite<D, S>(list, parallelism);
 	}
 	
 	/**
@@ -79,40 +164,169 @@ public final class Editors {
 	 * {@code Editor<A, B> editor = Editors.through()}
 	 * のように書ける。</p>
 	 * 
+	 * <p>このメソッドは常に同一のインスタンスを返す。</p>
+	 * 
 	 * @param <D> 操作対象の値の型
 	 * @param <S> 操作引数の型
 	 * @return 生成した操作器
 	 */
 	public static <D, S>Editor<D, S> through() {
-		return new Through<D, S>();
+		@SuppressWarnings("unchecked")
+		Editor<D, S> result = (Editor<D, S>) (Editor<?, ?>) THROUGH;
+		return result;
+	}
+	
+	/**
+	 * 指定の操作器が{@link #compose(Editor, Functor)}で合成されたものである場合、
+	 * 実際に操作を行う操作器を返す。
+	 * 
+	 * @param editor 対象の操作器
+	 * @return 実際に操作を行う操作器、合成されたものでない場合は{@code null}
+	 */
+	static Editor<?, ?> editorOf(Editor<?, ?> editor) {
+		assert editor != null;
+		if (editor instanceof Filtered<?, ?, ?>) {
+			return ((Filtered<?, ?, ?>) editor).editor;
+		}
+		return null;
+	}
+	
+	/**
+	 * 指定の操作器が{@link #compose(Editor, Functor)}で合成されたものである場合、
+	 * 操作器に渡す引数を変換する関数を返す。
+	 * 
+	 * @param editor 対象の操作器
+	 * @return 引数を変換する関数、合成されたものでない場合は{@code null}
+	 */
+	static Functor<?, ?> filterOf(Editor<?, ?> editor) {
+		assert editor != null;
+		if (editor instanceof Filtered<?, ?, ?>) {
+			return ((Filtered<?, ?, ?>) editor).filter;
+		}
+		return null;
+	}
+	
+	/**
+	 * 指定の操作器が{@link #compose(Iterable)}で合成されたものである場合、
+	 * 連続して適用する操作器を平坦化した一覧を返す。
+	 * 
+	 * @param editor 対象の操作器
+	 * @return 連続して適用する操作器の一覧、合成されたものでない場合は{@code null}
+	 */
+	static List<Editor<?, ?>> stagesOf(Editor<?, ?> editor) {
+		assert editor != null;
+		if ((editor instanceof Composite<?, ?>) == false) {
+			return null;
+		}
+		List<Editor<?, ?>> stages = new ArrayList<Editor<?, ?>>();
+		for (Editor<?, ?> each : ((Composite<?, ?>) editor).stages) {
+			List<Editor<?, ?>> nested = stagesOf(each);
+			if (nested == null) {
+				stages.add(each);
+			} else {
+				stages.addAll(nested);
+			}
+		}
+		return stages;
+	}
+	
+	private static int sizeOf(Iterable<?> iterable) {
+		assert iterable != null;
+		if (iterable instanceof Collection<?>) {
+			return ((Collection<?>) iterable).size();
+		}
+		return 10;
 	}
 	
 	private Editors() {
 	}
 	
 
+	/**
+	 * 複数の操作器を順に適用する、平坦化された合成操作器。
+	 * 
+	 * <p>入れ子になった合成操作器は配列に展開し、添え字によるループで適用する。</p>
+	 * 
+	 * @param <D> 操作対象の値の型
+	 * @param <S> 操作引数の型
+	 */
 	private static class Composite<D, S> extends AbstractEditor<D, S> {
 		
-		private List<Editor<? super D, ? super S>> editors;
+		private Editor<?, ?>[] stages;
 		
 
-		Composite(Iterable<? extends Editor<? super D, ? super S>> editors) {
-			assert editors != null;
-			this.editors = new ArrayList<Editor<? super D, ? super S>>();
-			for (Editor<? super D, ? super S> each : editors) {
-				this.editors.add(each);
-			}
+		Composite(Editor<?, ?>[] stages) {
+			assert stages != null;
+			this.stages = stages;
 		}
 		
 		public D edit(D target, S argument) {
 			if (target == null) {
 				throw new IllegalArgumentException("target is null"); //$NON-NLS-1$
 			}
-			for (Editor<? super D, ? super S> each : editors) {
-				each.edit(target, argument);
+			// 個々の操作器の型は合成時に検査済み
+			@SuppressWarnings("unchecked")
+			Editor<? super D, ? super S>[] array = (Editor<? super D, ? super S>[]) stages;
+			for (int i = 0; i < array.length; i++) {
+				array[i].edit(target, argument);
 			}
 			return target;
 		}
+		
+		/**
+		 * 指定の操作器を平坦化し、一覧に追加する。
+		 * 
+		 * <p>{@link Editors#through()}が返す操作器は一覧に追加しない。</p>
+		 * 
+		 * @param editor 対象の操作器
+		 * @param stages 追加先の一覧
+		 */
+		static void collect(Editor<?, ?> editor, List<Editor<?, ?>> stages) {
+			assert editor != null;
+			assert stages != null;
+			if (editor == THROUGH) {
+				return;
+			}
+			if (editor instanceof Composite<?, ?>) {
+				// 合成済みの操作器は、平坦化されている
+				stages.addAll(Arrays.asList(((Composite<?, ?>) editor).stages));
+			} else {
+				stages.add(editor);
+			}
+		}
+		
+		/**
+		 * 引数を変換する関数を共有する、連続した{@link Filtered}をひとつにまとめる。
+		 * 
+		 * @param stages 平坦化された操作器の一覧
+		 * @return まとめた後の操作器の配列
+		 */
+		static Editor<?, ?>[] fuse(List<Editor<?, ?>> stages) {
+			assert stages != null;
+			List<Editor<?, ?>> results = new ArrayList<Editor<?, ?>>(stages.size());
+			for (int i = 0, n = stages.size(); i < n;) {
+				Editor<?, ?> first = stages.get(i);
+				int end = i + 1;
+				if (first instanceof Filtered<?, ?, ?>) {
+					Functor<?, ?> filter = ((Filtered<?, ?, ?>) first).filter;
+					while (end < n && filterOf(stages.get(end)) == filter) {
+						end++;
+					}
+				}
+				if (end - i == 1) {
+					results.add(first);
+				} else {
+					List<Editor<?, ?>> inner = new ArrayList<Editor<?, ?>>(end - i);
+					for (int j = i; j < end; j++) {
+						collect(((Filtered<?, ?, ?>) stages.get(j)).editor, inner);
+					}
+					Editor<?, ?> fused = new Composite<Object, Object>(inner.toArray(new Editor<?, ?>[inner.size()]));
+					results.add(Filtered.of(fused, ((Filtered<?, ?, ?>) first).filter));
+				}
+				i = end;
+			}
+			return results.toArray(new Editor<?, ?>[results.size()]);
+		}
 	}
 	
 	private static class Filtered<D, I, S> extends AbstractEditor<D, S> {
@@ -134,6 +348,48 @@ public final class Editors {
 			editor.edit(target, intermediate);
 			return target;
 		}
+		
+		static Editor<?, ?> of(Editor<?, ?> editor, Functor<?, ?> filter) {
+			@SuppressWarnings("unchecked")
+			Editor<Object, Object> e = (Editor<Object, Object>) editor;
+			@SuppressWarnings("unchecked")
+			Functor<Object, Object> f = (Functor<Object, Object>) filter;
+			return new Filtered<Object, Object, Object>(e, f);
+		}
+	}
+	
+	private static class ParallelComposite<D, S> extends AbstractEditor<D, S> {
+		
+		private Editor<? super D, ? super S>[] editors;
+		
+		private int parallelism;
+		
+
+		ParallelComposite(List<Editor<? super D, ? super S>> editors, int parallelism) {
+			assert editors != null;
+			assert parallelism >= 1;
+			@SuppressWarnings("unchecked")
+			Editor<? super D, ? super S>[] array =
+					(Editor<? super D, ? super S>[]) editors.toArray(new Editor<?, ?>[editors.size()]);
+			this.editors = array;
+			this.parallelism = parallelism;
+		}
+		
+		public D edit(final D target, final S argument) {
+			if (target == null) {
+				throw new IllegalArgumentException("target is null"); //$NON-NLS-1$
+			}
+			final Editor<? super D, ? super S>[] array = editors;
+			Parallel.execute(array.length, parallelism, new Parallel.Task() {
+				
+				public void run(int chunk, int from, int to) {
+					for (int i = from; i < to; i++) {
+						array[i].edit(target, argument);
+					}
+				}
+			});
+			return target;
+		}
 	}
 	
 	private static class Through<D, S> extends AbstractEditor<D, S> {
@@ -0,0 +1,690 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * 合成された関数、操作器、生成器を、それぞれ専用のクラスに変換する。
+ * 
+ * <p>{@link Functors#compose(Functor, Functor)}などで合成されたオブジェクトは、
+ * 全ての合成結果で同一の呼び出し箇所から個々の段を呼び出す。
+ * 多数の異なる合成結果が同じ箇所を通過すると、その呼び出し箇所は多相的になり、
+ * JITコンパイラによるインライン化が行われなくなる。</p>
+ * 
+ * <p>このクラスは、合成結果ごとに個々の段を直接呼び出すクラスを生成し、
+ * そのクラスのインスタンスを返す。
+ * 生成されたクラスでは、それぞれの段が専用の呼び出し箇所を持つため、
+ * 呼び出し先が単一の実装に定まり、インライン化されやすい。</p>
+ * 
+ * <p>クラスの生成は低速であるため、変換は合成結果を構築する際に一度だけ行い、
+ * 変換結果を使いまわすのがよい。
+ * 生成されたクラスは、変換結果が参照されなくなるとアンロードされうる。
+ * また、セキュリティ上の理由でクラスを生成できない場合、変換せずに引数をそのまま返す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class FunctorCompiler {
+	
+	private static final String OBJECT = "java/lang/Object"; //$NON-NLS-1$
+	
+	private static final String FUNCTOR = "org/jiemamy/utils/functor/Functor"; //$NON-NLS-1$
+	
+	private static final String EDITOR = "org/jiemamy/utils/functor/Editor"; //$NON-NLS-1$
+	
+	private static final String GENERATOR = "org/jiemamy/utils/functor/Generator"; //$NON-NLS-1$
+	
+	private static final String APPLY = "(Ljava/lang/Object;)Ljava/lang/Object;"; //$NON-NLS-1$
+	
+	private static final String EDIT = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;"; //$NON-NLS-1$
+	
+	private static final String GENERATE = "()Ljava/lang/Object;"; //$NON-NLS-1$
+	
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+	
+
+	/**
+	 * 合成された操作器を、専用のクラスに変換する。
+	 * 
+	 * <p>{@link Editors#compose(Iterable)}や{@link Editors#compose(Editor, Functor)}
+	 * で合成された操作器を展開し、個々の操作器および関数を直接呼び出すクラスを生成する。
+	 * {@code editor}が合成された操作器でない場合、{@code editor}をそのまま返す。</p>
+	 * 
+	 * @param <D> 操作対象の値の型
+	 * @param <S> 操作引数の型
+	 * @param editor 対象の操作器
+	 * @return 変換後の操作器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>Editor<D, S> compile(Editor<D, S> editor) {
+		if (editor == null) {
+			throw new IllegalArgumentException("editor is null"); //$NON-NLS-1$
+		}
+		List<Editor<?, ?>> stages = Editors.stagesOf(editor);
+		if (stages == null && Editors.editorOf(editor) == null) {
+			return editor;
+		}
+		ClassBuilder builder = new ClassBuilder("Editor", AbstractEditor.class); //$NON-NLS-1$
+		Code code = new Code(builder, 3);
+		if (stages != null) {
+			code.requireNonNull(1, "target is null"); //$NON-NLS-1$
+		}
+		emitEdit(code, editor, 2);
+		code.load(1);
+		code.returnValue();
+		builder.addMethod("edit", EDIT, code); //$NON-NLS-1$
+		return instantiate(builder, editor);
+	}
+	
+	/**
+	 * 合成された関数を、専用のクラスに変換する。
+	 * 
+	 * <p>{@link Functors#compose(Functor, Functor)}で合成された関数を展開し、
+	 * 個々の段を直接呼び出すクラスを生成する。
+	 * {@code functor}が合成された関数でない場合、{@code functor}をそのまま返す。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @return 変換後の関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>Functor<D, S> compile(Functor<D, S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		List<Functor<?, ?>> stages = Functors.stagesOf(functor);
+		if (stages.size() < 2) {
+			return functor;
+		}
+		ClassBuilder builder = new ClassBuilder("Functor", AbstractFunctor.class); //$NON-NLS-1$
+		Code code = new Code(builder, 2);
+		emitApply(code, stages, 1);
+		code.returnValue();
+		builder.addMethod("apply", APPLY, code); //$NON-NLS-1$
+		return instantiate(builder, functor);
+	}
+	
+	/**
+	 * 合成された生成器を、専用のクラスに変換する。
+	 * 
+	 * <p>{@link Generators#compose(Functor, Generator)}で合成された生成器を展開し、
+	 * 最初の生成器および個々の関数を直接呼び出すクラスを生成する。
+	 * {@code generator}が合成された生成器でない場合、{@code generator}をそのまま返す。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 対象の生成器
+	 * @return 変換後の生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <T>Generator<T> compile(Generator<T> generator) {
+		if (generator == null) {
+			throw new IllegalArgumentException("generator is null"); //$NON-NLS-1$
+		}
+		List<Functor<?, ?>> stages = new ArrayList<Functor<?, ?>>();
+		Generator<?> source = generator;
+		for (Generator<?> inner = Generators.sourceOf(source); inner != null; inner = Generators.sourceOf(source)) {
+			stages.addAll(0, Functors.stagesOf(Generators.functorOf(source)));
+			source = inner;
+		}
+		if (source == generator) {
+			return generator;
+		}
+		ClassBuilder builder = new ClassBuilder("Generator", AbstractGenerator.class); //$NON-NLS-1$
+		Code code = new Code(builder, 1);
+		for (int i = stages.size() - 1; i >= 0; i--) {
+			code.loadConstant(stages.get(i), FUNCTOR);
+		}
+		code.loadConstant(source, GENERATOR);
+		code.invokeInterface(GENERATOR, "generate", GENERATE, 0); //$NON-NLS-1$
+		for (int i = 0, n = stages.size(); i < n; i++) {
+			code.invokeInterface(FUNCTOR, "apply", APPLY, 1); //$NON-NLS-1$
+		}
+		code.returnValue();
+		builder.addMethod("generate", GENERATE, code); //$NON-NLS-1$
+		return instantiate(builder, generator);
+	}
+	
+	/**
+	 * 指定の局所変数の値に、関数の段を順に適用するコードを生成する。
+	 * 
+	 * <p>生成されたコードは、適用結果をオペランドスタックに積む。</p>
+	 * 
+	 * @param code 生成先
+	 * @param stages 関数の段の一覧
+	 * @param argument 値を格納した局所変数の番号
+	 */
+	private static void emitApply(Code code, List<Functor<?, ?>> stages, int argument) {
+		assert code != null;
+		assert stages != null;
+		for (int i = stages.size() - 1; i >= 0; i--) {
+			code.loadConstant(stages.get(i), FUNCTOR);
+		}
+		code.load(argument);
+		for (int i = 0, n = stages.size(); i < n; i++) {
+			code.invokeInterface(FUNCTOR, "apply", APPLY, 1); //$NON-NLS-1$
+		}
+	}
+	
+	/**
+	 * 指定の局所変数の値を引数として、操作器を適用するコードを生成する。
+	 * 
+	 * <p>操作対象は局所変数{@code 1}に格納されているものとする。
+	 * 引数を変換する関数は、元の操作器と同様に一度だけ適用される。</p>
+	 * 
+	 * @param code 生成先
+	 * @param editor 適用する操作器
+	 * @param argument 引数を格納した局所変数の番号
+	 */
+	private static void emitEdit(Code code, Editor<?, ?> editor, int argument) {
+		assert code != null;
+		assert editor != null;
+		List<Editor<?, ?>> stages = Editors.stagesOf(editor);
+		if (stages != null) {
+			for (Editor<?, ?> stage : stages) {
+				emitEdit(code, stage, argument);
+			}
+			return;
+		}
+		Editor<?, ?> inner = Editors.editorOf(editor);
+		if (inner == null) {
+			code.loadConstant(editor, EDITOR);
+			code.load(1);
+			code.load(argument);
+			code.invokeInterface(EDITOR, "edit", EDIT, 2); //$NON-NLS-1$
+			code.pop();
+			return;
+		}
+		List<Functor<?, ?>> filter = Functors.stagesOf(Editors.filterOf(editor));
+		if (Editors.stagesOf(inner) == null && Editors.editorOf(inner) == null) {
+			code.loadConstant(inner, EDITOR);
+			code.load(1);
+			emitApply(code, filter, argument);
+			code.invokeInterface(EDITOR, "edit", EDIT, 2); //$NON-NLS-1$
+			code.pop();
+		} else {
+			// 変換後の引数を複数の操作器で利用するため、局所変数に退避する
+			emitApply(code, filter, argument);
+			int converted = code.newLocal();
+			code.store(converted);
+			emitEdit(code, inner, converted);
+		}
+	}
+	
+	private static <T>T instantiate(ClassBuilder builder, T original) {
+		assert builder != null;
+		assert original != null;
+		byte[] bytes = builder.toByteArray();
+		try {
+			Class<?> type = new Loader(FunctorCompiler.class.getClassLoader()).define(builder.binaryName, bytes);
+			Object instance = type.getConstructor(Object[].class).newInstance(new Object[] {
+				builder.constants.toArray()
+			});
+			@SuppressWarnings("unchecked")
+			T result = (T) instance;
+			return result;
+		} catch (SecurityException e) {
+			return original;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		} catch (InstantiationException e) {
+			throw new IllegalStateException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	private FunctorCompiler() {
+	}
+	
+
+	/**
+	 * クラスファイルを構築する。
+	 * 
+	 * <p>生成するクラスは、スタックマップを必要としないJava 5形式のクラスファイルとなる。
+	 * 合成結果を構成するオブジェクトは、{@code Object[]}を引数にとるコンストラクタで
+	 * それぞれ{@code final}フィールドに格納される。</p>
+	 */
+	private static class ClassBuilder {
+		
+		private static final int VERSION = 49;
+		
+		private static final int ACC_PUBLIC = 0x0001;
+		
+		private static final int ACC_PRIVATE = 0x0002;
+		
+		private static final int ACC_FINAL = 0x0010;
+		
+		private static final int ACC_SUPER = 0x0020;
+		
+		final String binaryName;
+		
+		final List<Object> constants = new ArrayList<Object>();
+		
+		private final String internalName;
+		
+		private final String superName;
+		
+		private final List<String> fieldTypes = new ArrayList<String>();
+		
+		private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+		
+		private final DataOutputStream pool = new DataOutputStream(poolBytes);
+		
+		private final Map<String, Integer> poolIndices = new HashMap<String, Integer>();
+		
+		private int poolCount = 1;
+		
+		private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+		
+		private final DataOutputStream methods = new DataOutputStream(methodBytes);
+		
+		private int methodCount;
+		
+
+		ClassBuilder(String kind, Class<?> superclass) {
+			assert kind != null;
+			assert superclass != null;
+			String prefix = FunctorCompiler.class.getName();
+			binaryName = prefix.substring(0, prefix.lastIndexOf('.')) + ".Compiled" + kind //$NON-NLS-1$
+					+ SEQUENCE.incrementAndGet();
+			internalName = binaryName.replace('.', '/');
+			superName = superclass.getName().replace('.', '/');
+		}
+		
+		/**
+		 * 指定のメソッドを追加する。
+		 * 
+		 * @param name メソッド名
+		 * @param descriptor メソッド記述子
+		 * @param code メソッド本体
+		 */
+		void addMethod(String name, String descriptor, Code code) {
+			assert name != null;
+			assert descriptor != null;
+			assert code != null;
+			try {
+				byte[] body = code.toByteArray();
+				methods.writeShort(ACC_PUBLIC);
+				methods.writeShort(utf8(name));
+				methods.writeShort(utf8(descriptor));
+				methods.writeShort(1);
+				methods.writeShort(utf8("Code")); //$NON-NLS-1$
+				methods.writeInt(2 + 2 + 4 + body.length + 2 + 2);
+				methods.writeShort(code.maxStack);
+				methods.writeShort(code.maxLocals);
+				methods.writeInt(body.length);
+				methods.write(body);
+				methods.writeShort(0);
+				methods.writeShort(0);
+				methodCount++;
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		int classRef(String name) {
+			Integer index = poolIndices.get("C" + name); //$NON-NLS-1$
+			if (index != null) {
+				return index;
+			}
+			int nameIndex = utf8(name);
+			try {
+				pool.writeByte(7);
+				pool.writeShort(nameIndex);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return register("C" + name); //$NON-NLS-1$
+		}
+		
+		/**
+		 * 指定のオブジェクトを格納するフィールドを追加する。
+		 * 
+		 * @param value 格納するオブジェクト
+		 * @param type フィールドの型の内部名
+		 * @return 追加したフィールドの番号
+		 */
+		int constant(Object value, String type) {
+			assert value != null;
+			assert type != null;
+			constants.add(value);
+			fieldTypes.add(type);
+			return constants.size() - 1;
+		}
+		
+		int fieldRef(int field) {
+			return memberRef(9, internalName, fieldName(field), fieldDescriptor(field));
+		}
+		
+		int interfaceMethodRef(String owner, String name, String descriptor) {
+			return memberRef(11, owner, name, descriptor);
+		}
+		
+		int methodRef(String owner, String name, String descriptor) {
+			return memberRef(10, owner, name, descriptor);
+		}
+		
+		int string(String value) {
+			Integer index = poolIndices.get("S" + value); //$NON-NLS-1$
+			if (index != null) {
+				return index;
+			}
+			int valueIndex = utf8(value);
+			try {
+				pool.writeByte(8);
+				pool.writeShort(valueIndex);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return register("S" + value); //$NON-NLS-1$
+		}
+		
+		/**
+		 * 構築したクラスファイルを返す。
+		 * 
+		 * <p>このメソッドは、フィールドを初期化するコンストラクタを追加した上でクラスファイルを構築する。</p>
+		 * 
+		 * @return クラスファイルの内容
+		 */
+		byte[] toByteArray() {
+			addConstructor();
+			int thisIndex = classRef(internalName);
+			int superIndex = classRef(superName);
+			int[] fieldNames = new int[fieldTypes.size()];
+			int[] fieldDescriptors = new int[fieldTypes.size()];
+			for (int i = 0; i < fieldNames.length; i++) {
+				fieldNames[i] = utf8(fieldName(i));
+				fieldDescriptors[i] = utf8(fieldDescriptor(i));
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			try {
+				out.writeInt(0xCAFEBABE);
+				out.writeShort(0);
+				out.writeShort(VERSION);
+				out.writeShort(poolCount);
+				pool.flush();
+				poolBytes.writeTo(out);
+				out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+				out.writeShort(thisIndex);
+				out.writeShort(superIndex);
+				out.writeShort(0);
+				out.writeShort(fieldNames.length);
+				for (int i = 0; i < fieldNames.length; i++) {
+					out.writeShort(ACC_PRIVATE | ACC_FINAL);
+					out.writeShort(fieldNames[i]);
+					out.writeShort(fieldDescriptors[i]);
+					out.writeShort(0);
+				}
+				out.writeShort(methodCount);
+				methods.flush();
+				methodBytes.writeTo(out);
+				out.writeShort(0);
+				out.flush();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return bytes.toByteArray();
+		}
+		
+		int utf8(String value) {
+			Integer index = poolIndices.get("U" + value); //$NON-NLS-1$
+			if (index != null) {
+				return index;
+			}
+			try {
+				pool.writeByte(1);
+				pool.writeUTF(value);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return register("U" + value); //$NON-NLS-1$
+		}
+		
+		private void addConstructor() {
+			Code code = new Code(this, 2);
+			code.load(0);
+			code.invokeSpecial(superName, "<init>", "()V", 0, false); //$NON-NLS-1$ //$NON-NLS-2$
+			for (int i = 0, n = fieldTypes.size(); i < n; i++) {
+				code.load(0);
+				code.load(1);
+				code.pushInt(i);
+				code.arrayLoad();
+				code.checkCast(fieldTypes.get(i));
+				code.putField(i);
+			}
+			code.returnVoid();
+			addMethod("<init>", "([Ljava/lang/Object;)V", code); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		
+		private String fieldDescriptor(int field) {
+			return "L" + fieldTypes.get(field) + ";"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		
+		private String fieldName(int field) {
+			return "c" + field; //$NON-NLS-1$
+		}
+		
+		private int memberRef(int tag, String owner, String name, String descriptor) {
+			String key = tag + owner + "." + name + descriptor; //$NON-NLS-1$
+			Integer index = poolIndices.get(key);
+			if (index != null) {
+				return index;
+			}
+			int ownerIndex = classRef(owner);
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			String natKey = "N" + name + descriptor; //$NON-NLS-1$
+			Integer natIndex = poolIndices.get(natKey);
+			try {
+				if (natIndex == null) {
+					pool.writeByte(12);
+					pool.writeShort(nameIndex);
+					pool.writeShort(descriptorIndex);
+					natIndex = register(natKey);
+				}
+				pool.writeByte(tag);
+				pool.writeShort(ownerIndex);
+				pool.writeShort(natIndex);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return register(key);
+		}
+		
+		private int register(String key) {
+			int index = poolCount;
+			poolIndices.put(key, index);
+			poolCount++;
+			return index;
+		}
+	}
+	
+	/**
+	 * メソッド本体のバイトコードを構築する。
+	 * 
+	 * <p>命令を追加するたびにオペランドスタックの深さを追跡し、その最大値を記録する。</p>
+	 */
+	private static class Code {
+		
+		private final ClassBuilder owner;
+		
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		private int stack;
+		
+		int maxStack;
+		
+		int maxLocals;
+		
+
+		Code(ClassBuilder owner, int parameterSlots) {
+			assert owner != null;
+			this.owner = owner;
+			maxLocals = parameterSlots;
+		}
+		
+		void arrayLoad() {
+			op(0x32, -1); // aaload
+		}
+		
+		void checkCast(String type) {
+			op(0xC0, 0); // checkcast
+			u2(owner.classRef(type));
+		}
+		
+		void invokeInterface(String type, String name, String descriptor, int arguments) {
+			op(0xB9, -arguments); // invokeinterface
+			u2(owner.interfaceMethodRef(type, name, descriptor));
+			bytes.write(arguments + 1);
+			bytes.write(0);
+		}
+		
+		void invokeSpecial(String type, String name, String descriptor, int arguments, boolean value) {
+			op(0xB7, -arguments - 1 + (value ? 1 : 0)); // invokespecial
+			u2(owner.methodRef(type, name, descriptor));
+		}
+		
+		void load(int local) {
+			assert local < maxLocals;
+			if (local <= 3) {
+				op(0x2A + local, 1); // aload_<n>
+			} else {
+				op(0x19, 1); // aload
+				bytes.write(local);
+			}
+		}
+		
+		void loadConstant(Object value, String type) {
+			int field = owner.constant(value, type);
+			load(0);
+			op(0xB4, 0); // getfield
+			u2(owner.fieldRef(field));
+		}
+		
+		int newLocal() {
+			if (maxLocals >= 0xFF) {
+				throw new IllegalStateException("too many locals"); //$NON-NLS-1$
+			}
+			return maxLocals++;
+		}
+		
+		void pop() {
+			op(0x57, -1); // pop
+		}
+		
+		void pushInt(int value) {
+			if (value <= 5) {
+				op(0x03 + value, 1); // iconst_<n>
+			} else if (value <= Byte.MAX_VALUE) {
+				op(0x10, 1); // bipush
+				bytes.write(value);
+			} else {
+				assert value <= Short.MAX_VALUE;
+				op(0x11, 1); // sipush
+				u2(value);
+			}
+		}
+		
+		void putField(int field) {
+			op(0xB5, -2); // putfield
+			u2(owner.fieldRef(field));
+		}
+		
+		/**
+		 * 指定の局所変数が{@code null}である場合に{@link IllegalArgumentException}をスローするコードを追加する。
+		 * 
+		 * @param local 局所変数の番号
+		 * @param message 例外のメッセージ
+		 */
+		void requireNonNull(int local, String message) {
+			String exception = "java/lang/IllegalArgumentException"; //$NON-NLS-1$
+			load(local);
+			op(0xC7, -1); // ifnonnull
+			u2(3 + 3 + 1 + 3 + 3 + 1);
+			op(0xBB, 1); // new
+			u2(owner.classRef(exception));
+			op(0x59, 1); // dup
+			op(0x13, 1); // ldc_w
+			u2(owner.string(message));
+			invokeSpecial(exception, "<init>", "(Ljava/lang/String;)V", 1, false); //$NON-NLS-1$ //$NON-NLS-2$
+			op(0xBF, -1); // athrow
+		}
+		
+		void returnValue() {
+			op(0xB0, -1); // areturn
+		}
+		
+		void returnVoid() {
+			op(0xB1, 0); // return
+		}
+		
+		void store(int local) {
+			assert local < maxLocals;
+			op(0x3A, -1); // astore
+			bytes.write(local);
+		}
+		
+		byte[] toByteArray() {
+			return bytes.toByteArray();
+		}
+		
+		private void op(int opcode, int delta) {
+			bytes.write(opcode);
+			stack += delta;
+			assert stack >= 0;
+			maxStack = Math.max(maxStack, stack);
+		}
+		
+		private void u2(int value) {
+			bytes.write(value >>> 8);
+			bytes.write(value);
+		}
+	}
+	
+	/**
+	 * 生成したクラスを読み込むクラスローダ。
+	 * 
+	 * <p>生成したクラスごとに別のインスタンスを利用し、
+	 * 変換結果が参照されなくなった際にクラスをアンロードできるようにする。</p>
+	 */
+	private static class Loader extends ClassLoader {
+		
+		Loader(ClassLoader parent) {
+			super(parent);
+		}
+		
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -15,6 +15,21 @@
  */
 package org.jiemamy.utils.functor.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jiemamy.utils.functor.AsyncFunctor;
+import org.jiemamy.utils.functor.BatchFunctor;
+import org.jiemamy.utils.functor.BinaryFunctor;
 import org.jiemamy.utils.functor.Editor;
 import org.jiemamy.utils.functor.Functor;
 import org.jiemamy.utils.functor.Generator;
@@ -27,6 +42,9 @@ import org.jiemamy.utils.functor.Generator;
  */
 public final class Functors {
 	
+	private static final Identity<Object> IDENTITY = new Identity<Object>();
+	
+
 	/**
 	 * 指定の値を常に返す、{@link Functor}のインスタンスを返す。
 	 * 
@@ -47,6 +65,95 @@ public final class Functors {
 		};
 	}
 	
+	/**
+	 * 指定の関数を、このクラスが共有するスレッドプール上で非同期に適用する関数を返す。
+	 * 
+	 * <p>共有のスレッドプールは、ブロックする可能性のある関数を適用することを想定しており、
+	 * 実行待ちの処理がある限り必要に応じてスレッドを追加する。
+	 * スレッドはいずれもデーモンスレッドとなり、一定時間利用されなければ破棄される。
+	 * 計算のみを行う関数を並列に適用する場合には、実行するスレッド数を制限した{@link Executor}を
+	 * {@link #async(Functor, Executor)}に指定するとよい。</p>
+	 * 
+	 * <p>このスレッドプールのスレッド数には上限がない。
+	 * 負荷が高い状況でブロックする関数を適用し続けると、実行待ちの処理の数だけスレッドが生成され、
+	 * メモリやスレッド数の上限を使い果たすおそれがある。
+	 * 同時に適用される数を制限する必要がある場合には、スレッド数を制限した{@link Executor}を
+	 * {@link #async(Functor, Executor)}に指定すること。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 非同期に適用する関数
+	 * @return 非同期に適用する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @see #async(Functor, Executor)
+	 */
+	public static <D, S>AsyncFunctor<D, S> async(Functor<? extends D, ? super S> functor) {
+		return async(functor, AsyncPool.INSTANCE);
+	}
+	
+	/**
+	 * 指定の関数を、指定の{@link Executor}上で非同期に適用する関数を返す。
+	 * 
+	 * <p>返される関数は、{@link Functor#apply(Object)}が実行されると{@code functor}の適用を
+	 * {@code executor}に依頼し、その完了を待たずに{@link Promise}を返す。
+	 * {@code functor}が例外をスローした場合、返された{@link Promise}はその例外で異常終了する。
+	 * {@code executor}が処理の実行を拒否した場合、その例外は呼び出し元にスローされる。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 非同期に適用する関数
+	 * @param executor 関数を適用する{@link Executor}
+	 * @return 非同期に適用する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>AsyncFunctor<D, S> async(Functor<? extends D, ? super S> functor, Executor executor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("executor is null"); //$NON-NLS-1$
+		}
+		return new Async<D, S>(functor, executor);
+	}
+	
+	/**
+	 * 複数のスレッドから同時に適用された値をまとめて変換する関数を返す。
+	 * 
+	 * <p>返される関数は、{@link Functor#apply(Object)}で渡された値をキューに溜め、
+	 * {@code maxBatch}個に達するか、{@code maxDelay}が経過した時点で
+	 * {@link BatchFunctor#applyAll(List, Collection)}によってまとめて変換し、
+	 * それぞれの呼び出し元に対応する結果を返す。
+	 * 一度の呼び出しにかかる固定費用が大きい関数を、多数のスレッドから利用する場合に有効である。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 値をまとめて変換する関数
+	 * @param maxBatch 一度に変換する値の最大数
+	 * @param maxDelay 後続の値を待つ最大の時間、{@code 0}の場合は待たない
+	 * @param unit {@code maxDelay}の単位
+	 * @return 値をまとめて変換する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     {@code maxBatch}に{@code 1}未満の値が指定された場合、
+	 *     または{@code maxDelay}に負の値が指定された場合
+	 * @see BatchingFunctor
+	 */
+	public static <D, S>BatchingFunctor<D, S> batching(BatchFunctor<? extends D, ? super S> functor, int maxBatch,
+			long maxDelay, TimeUnit unit) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (maxBatch < 1) {
+			throw new IllegalArgumentException("maxBatch must be > 0"); //$NON-NLS-1$
+		}
+		if (maxDelay < 0) {
+			throw new IllegalArgumentException("maxDelay must be >= 0"); //$NON-NLS-1$
+		}
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		return new BatchingFunctor<D, S>(functor, maxBatch, unit.toNanos(maxDelay));
+	}
+	
 	/**
 	 * 2つの{@link Functor}を合成した関数を生成して返す。
 	 * 
@@ -57,6 +164,11 @@ public final class Functors {
 	 * {@code composite.apply(x) == g.apply(f.apply(x))}
 	 * となる。</p>
 	 * 
+	 * <p>{@code f}や{@code g}がすでにこのメソッドで合成された関数である場合、
+	 * それらを入れ子にせずにひとつの関数列へ平坦化する。
+	 * また、{@link #id()}が返す恒等関数や{@link Cast#unchecked()}が返す関数は
+	 * 値を変更しないため、合成時に取り除かれる。</p>
+	 * 
 	 * @param <D> 最終的な変換後の値の型
 	 * @param <I> 最初の変換後の値の型
 	 * @param <S> 変換前の値の型
@@ -72,7 +184,190 @@ public final class Functors {
 		if (g == null) {
 			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
 		}
-		return new Composite<D, I, S>(f, g);
+		List<Functor<?, ?>> stages = new ArrayList<Functor<?, ?>>();
+		Composite.collect(f, stages);
+		Composite.collect(g, stages);
+		MetricsSink sink = Instrumentation.getGlobalSink();
+		if (sink != null) {
+			Instrumentation.wrapFunctors(Instrumentation.FUNCTORS_COMPOSE, stages, sink);
+		} else {
+			Instrumentation.unwrapNames(stages);
+		}
+		if (stages.isEmpty()) {
+			@SuppressWarnings("unchecked")
+			Functor<D, S> result = (Functor<D, S>) f;
+			return result;
+		}
+		if (stages.size() == 1) {
+			@SuppressWarnings("unchecked")
+			Functor<D, S> result = (Functor<D, S>) stages.get(0);
+			return result;
+		}
+		return new Composite<D, S>(stages.toArray(new Functor<?, ?>[stages.size()]));
+	}
+	
+	/**
+	 * 指定の関数を、値をまとめて変換できる関数として返す。
+	 * 
+	 * <p>{@code functor}がすでに{@link BatchFunctor}である場合、それをそのまま返す。
+	 * そうでない場合、{@link Functor#apply(Object)}を繰り返し呼び出す関数を返す。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @return 値をまとめて変換できる関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>BatchFunctor<D, S> batch(Functor<D, S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof BatchFunctor<?, ?>) {
+			return (BatchFunctor<D, S>) functor;
+		}
+		return new Batch<D, S>(functor);
+	}
+	
+	/**
+	 * {@link BinaryFunctor}の結果を、さらに{@link Functor}で変換する関数を生成して返す。
+	 * 
+	 * <p>合成した関数{@code composite}は、
+	 * {@code composite.apply(a, b) == g.apply(f.apply(a, b))}となる。
+	 * {@code g}が{@link #id()}の返す恒等関数などの値を変更しない関数である場合、
+	 * {@code f}をそのまま返す。</p>
+	 * 
+	 * @param <D> 最終的な変換後の値の型
+	 * @param <I> 最初の変換後の値の型
+	 * @param <A> 第1引数の型
+	 * @param <B> 第2引数の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, I, A, B>BinaryFunctor<D, A, B> compose(Functor<? extends D, ? super I> g,
+			BinaryFunctor<? extends I, ? super A, ? super B> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		if (isIdentity(g)) {
+			@SuppressWarnings("unchecked")
+			BinaryFunctor<D, A, B> result = (BinaryFunctor<D, A, B>) f;
+			return result;
+		}
+		return new BinaryComposite<D, I, A, B>(g, f);
+	}
+	
+	/**
+	 * 非同期関数と、その結果を変換する関数を合成した非同期関数を返す。
+	 * 
+	 * <p>合成した関数は、{@code f}の変換が完了した時点で、
+	 * {@code f}の変換を完了させたスレッド上でその結果に{@code g}を適用する。
+	 * {@code f}の完了を待つためにスレッドがブロックされることはない。
+	 * ただし、{@code f}が{@link Promise}以外の{@link Future}を返した場合、
+	 * その完了は{@link #async(Functor)}が利用する共有のスレッドプール上で待つため、
+	 * 待っている間はそのプールのスレッドを1つ占有する。</p>
+	 * 
+	 * @param <D> 最終的な変換後の値の型
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う非同期関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, I, S>AsyncFunctor<D, S> composeAsync(Functor<? extends D, ? super I> g,
+			AsyncFunctor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new AsyncComposite<D, I, S>(g, f);
+	}
+	
+	/**
+	 * 2引数の関数を、高階化された1引数の関数に変換して返す。
+	 * 
+	 * <p>返される関数{@code curried}は、
+	 * {@code curried.apply(a).apply(b) == functor.apply(a, b)}となる。
+	 * {@code functor}が{@link #uncurry(Functor)}によって変換された関数である場合、
+	 * 変換前の関数を返す。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <A> 第1引数の型
+	 * @param <B> 第2引数の型
+	 * @param functor 対象の関数
+	 * @return 高階化された関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, A, B>Functor<Functor<D, B>, A> curry(BinaryFunctor<? extends D, ? super A, ? super B> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof Uncurried<?, ?, ?>) {
+			// 値を取り出すだけなので、型引数の変性は安全
+			@SuppressWarnings("unchecked")
+			Functor<Functor<D, B>, A> result = (Functor<Functor<D, B>, A>) ((Uncurried<?, ?, ?>) functor).curried;
+			return result;
+		}
+		return new Curried<D, A, B>(functor);
+	}
+	
+	/**
+	 * 値の実行時クラスによって、適用する関数を切り替える関数を構築する。
+	 * 
+	 * <p>{@link org.jiemamy.utils.functor.java.lang.Java#instanceOf(Class) Java.instanceOf(Class)}や
+	 * {@link Cast#to(Class)}を型の数だけ連ねて値を振り分ける代わりに利用する。
+	 * 構築された関数は、値の実行時クラスごとに適用する関数を一度だけ解決し、
+	 * 以降は表引き1回で適用する関数を求める。</p>
+	 * 
+	 * <pre>{@code
+	 * Functor<String, Object> describe = Functors.<String> dispatch()
+	 *     .on(Table.class, describeTable)
+	 *     .on(View.class, describeView)
+	 *     .otherwise(Objects.asString())
+	 *     .build();
+	 * }</pre>
+	 * 
+	 * @param <R> 変換後の値の型
+	 * @return 関数を構築するオブジェクト
+	 * @see TypeSwitch
+	 */
+	public static <R>TypeSwitch.Builder<R> dispatch() {
+		return new TypeSwitch.Builder<R>();
+	}
+	
+	/**
+	 * 2つの非同期関数を合成した非同期関数を返す。
+	 * 
+	 * <p>合成した関数は、{@code f}の変換が完了した時点でその結果に{@code g}を適用し、
+	 * {@code g}の変換が完了した時点で完了する。
+	 * いずれの完了を待つ場合にも、呼び出し元のスレッドがブロックされることはない。
+	 * {@code f}または{@code g}が{@link Promise}以外の{@link Future}を返した場合、
+	 * その完了は{@link #async(Functor)}が利用する共有のスレッドプール上で待つ。</p>
+	 * 
+	 * @param <D> 最終的な変換後の値の型
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する非同期関数
+	 * @param f 最初に変換を行う非同期関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, I, S>AsyncFunctor<D, S> flatComposeAsync(AsyncFunctor<? extends D, ? super I> g,
+			AsyncFunctor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new AsyncFlatComposite<D, I, S>(g, f);
 	}
 	
 	/**
@@ -113,21 +408,147 @@ public final class Functors {
 		return new FromGenerator<T>(generator);
 	}
 	
+	/**
+	 * プールから取り出した値を操作し、その結果を変換した後に値をプールへ返却する関数を返す。
+	 * 
+	 * <p>返される関数は、{@link Functor#apply(Object)}が実行された際に次の処理を行う。</p>
+	 * <ol>
+	 * <li>{@code pool}から値を取り出す</li>
+	 * <li>取り出した値を{@code editor}で操作する</li>
+	 * <li>操作した値に{@code finisher}を適用し、その結果を関数の結果とする</li>
+	 * <li>取り出した値を{@code pool}へ返却する</li>
+	 * </ol>
+	 * 
+	 * <p>値の返却は、操作や変換の途中で例外が発生した場合にも行われる。
+	 * その際に値の返却自体が例外をスローした場合、その例外は破棄され、
+	 * 操作や変換の途中で発生した元の例外がスローされる。</p>
+	 * 
+	 * <p>値は関数の結果を返す前に返却されるため、{@code finisher}は取り出した値そのものや、
+	 * その内部状態を共有する値を返してはならない。
+	 * 例えば、{@link StringBuilder}に対して{@link StringBuilder#toString()}
+	 * を適用する関数などを利用する。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <T> プールに格納される値の型
+	 * @param <S> 変換前の値({@code Editor}の操作引数)の型
+	 * @param editor プールから取り出した値を操作する操作器
+	 * @param pool 値を取り出すプール
+	 * @param finisher 操作した値を結果に変換する関数
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @see Generators#pooled(Generator, Editor, int, PooledGenerator.Mode)
+	 */
+	public static <D, T, S>Functor<D, S> fromPooled(Editor<? super T, ? super S> editor, PooledGenerator<T> pool,
+			Functor<? extends D, ? super T> finisher) {
+		if (editor == null) {
+			throw new IllegalArgumentException("editor is null"); //$NON-NLS-1$
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null"); //$NON-NLS-1$
+		}
+		if (finisher == null) {
+			throw new IllegalArgumentException("finisher is null"); //$NON-NLS-1$
+		}
+		return new FromPooled<D, T, S>(editor, pool, finisher);
+	}
+	
 	/**
 	 * 引数をそのまま返すような、恒等関数を返す。
 	 * 
 	 * <p>恒等関数の型を指定する場合、{@code Functors.<String>id()}のように記述する。</p>
 	 * 
+	 * <p>このメソッドは常に同一のインスタンスを返す。</p>
+	 * 
 	 * @param <T> 恒等関数が取り扱う値の型
 	 * @return 恒等関数
 	 */
 	public static <T>Functor<T, T> id() {
-		return new AbstractFunctor<T, T>() {
-			
-			public T apply(T argument) {
-				return argument;
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<T, T> result = (Functor<T, T>) (Functor<?, ?>) IDENTITY;
+		return result;
+	}
+	
+	/**
+	 * 指定の関数を適用するたびに、その所要時間と例外の有無を記録する関数を返す。
+	 * 
+	 * <p>返される関数は、{@code functor}を適用するたびに{@link MetricsSink#record(String, long, Throwable)}
+	 * を呼び出す。{@code functor}が例外をスローした場合、その例外を記録してから再スローする。
+	 * 合成された関数の全ての段を計測する場合には、{@link Instrumentation#enable(MetricsSink)}を利用するとよい。
+	 * 返された関数を計測が有効な間に{@link #compose(Functor, Functor)}で合成すると、
+	 * その段は{@code name}を使った名前で全体の記録先にも記録される。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 計測する関数
+	 * @param name 計測対象の名前
+	 * @param sink 適用結果の記録先
+	 * @return 計測する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @see MetricsRegistry
+	 */
+	public static <D, S>Functor<D, S> instrumented(Functor<? extends D, ? super S> functor, String name,
+			MetricsSink sink) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		if (sink == null) {
+			throw new IllegalArgumentException("sink is null"); //$NON-NLS-1$
+		}
+		return Instrumentation.wrap(functor, name, sink);
+	}
+	
+	/**
+	 * 指定の関数に、計測対象の名前を付けて返す。
+	 * 
+	 * <p>返される関数は{@code functor}と同じ変換を行う。
+	 * {@link Instrumentation#enable(MetricsSink)}で計測が有効な間に返された関数を
+	 * {@link #compose(Functor, Functor)}で合成すると、その段はクラス名の代わりに{@code name}で記録される。
+	 * 計測が無効な間に合成した場合、名前は取り除かれ、適用時の追加の費用は発生しない。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @param name 計測対象の名前
+	 * @return 名前を付けた関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @see #instrumented(Functor, String, MetricsSink)
+	 */
+	public static <D, S>Functor<D, S> named(Functor<? extends D, ? super S> functor, String name) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		return Instrumentation.name(functor, name);
+	}
+	
+	/**
+	 * 指定の関数の適用結果を、引数ごとにキャッシュする関数を返す。
+	 * 
+	 * <p>返される関数は、同じ引数(ここでは{@link Object#equals(Object)}で同値となる引数)
+	 * に対して{@code functor}を再度適用せず、キャッシュされた結果を返す。
+	 * そのため、{@code functor}は副作用を持たず、同じ引数に対して同じ結果を返すものでなければならない。
+	 * キャッシュの大きさや追い出し方式は{@code spec}で指定する。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor キャッシュする関数
+	 * @param spec キャッシュの仕様
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>MemoizingFunctor<D, S> memoize(Functor<? extends D, ? super S> functor, CacheSpec spec) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (spec == null) {
+			throw new IllegalArgumentException("spec is null"); //$NON-NLS-1$
+		}
+		return new MemoizingFunctor<D, S>(functor, spec);
 	}
 	
 	/**
@@ -157,29 +578,364 @@ public final class Functors {
 		return new Transpose<D, I, S>(functor);
 	}
 	
+	/**
+	 * 高階化された1引数の関数を、2引数の関数に変換して返す。
+	 * 
+	 * <p>返される関数{@code uncurried}は、
+	 * {@code uncurried.apply(a, b) == functor.apply(a).apply(b)}となる。
+	 * {@code functor}が{@link #curry(BinaryFunctor)}によって変換された関数である場合、
+	 * 変換前の関数を返す。
+	 * そうでない場合、返される関数は適用のたびに{@code functor.apply(a)}を評価するため、
+	 * 中間の関数オブジェクトの生成は{@code functor}の実装に依存する。</p>
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <A> 第1引数の型
+	 * @param <B> 第2引数の型
+	 * @param functor 対象の高階化された関数
+	 * @return 2引数の関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, A, B>BinaryFunctor<D, A, B> uncurry(
+			Functor<? extends Functor<? extends D, ? super B>, ? super A> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof Curried<?, ?, ?>) {
+			// 値を取り出すだけなので、型引数の変性は安全
+			@SuppressWarnings("unchecked")
+			BinaryFunctor<D, A, B> result = (BinaryFunctor<D, A, B>) ((Curried<?, ?, ?>) functor).uncurried;
+			return result;
+		}
+		return new Uncurried<D, A, B>(functor);
+	}
+	
+	/**
+	 * 指定の関数が、引数をそのまま返す関数であるかどうかを返す。
+	 * 
+	 * <p>このメソッドが{@code true}を返す関数は、合成時に取り除いてもよい。</p>
+	 * 
+	 * @param functor 対象の関数
+	 * @return 引数をそのまま返す関数であれば{@code true}、そうでなければ{@code false}
+	 */
+	static boolean isIdentity(Functor<?, ?> functor) {
+		return functor == IDENTITY || functor == Cast.UNCHECKED;
+	}
+	
+	/**
+	 * 指定の関数を平坦化した、合成関数の段の一覧を返す。
+	 * 
+	 * <p>{@code functor}が{@link #compose(Functor, Functor)}で合成された関数でない場合、
+	 * {@code functor}のみを含む一覧を返す。
+	 * ただし、値を変更しない関数は一覧に含めない。</p>
+	 * 
+	 * @param functor 対象の関数
+	 * @return 段の一覧
+	 */
+	static List<Functor<?, ?>> stagesOf(Functor<?, ?> functor) {
+		assert functor != null;
+		List<Functor<?, ?>> stages = new ArrayList<Functor<?, ?>>();
+		Composite.collect(functor, stages);
+		return stages;
+	}
+	
 	private Functors() {
 	}
 	
 
-	private static class Composite<D, I, S> extends AbstractFunctor<D, S> {
+	private static class Async<D, S> extends AbstractAsyncFunctor<D, S> {
+		
+		private final Functor<? extends D, ? super S> functor;
+		
+		private final Executor executor;
+		
+
+		Async(Functor<? extends D, ? super S> functor, Executor executor) {
+			assert functor != null;
+			assert executor != null;
+			this.functor = functor;
+			this.executor = executor;
+		}
+		
+		public Future<D> apply(final S argument) {
+			final Promise<D> promise = new Promise<D>();
+			executor.execute(new Runnable() {
+				
+				public void run() {
+					D result;
+					try {
+						result = functor.apply(argument);
+					} catch (Throwable t) {
+						promise.fail(t);
+						return;
+					}
+					promise.complete(result);
+				}
+			});
+			return promise;
+		}
+	}
+	
+	private static class AsyncComposite<D, I, S> extends AbstractAsyncFunctor<D, S> {
+		
+		private final Functor<? extends D, ? super I> g;
+		
+		private final AsyncFunctor<? extends I, ? super S> f;
+		
+
+		AsyncComposite(Functor<? extends D, ? super I> g, AsyncFunctor<? extends I, ? super S> f) {
+			assert g != null;
+			assert f != null;
+			this.g = g;
+			this.f = f;
+		}
+		
+		public Future<D> apply(S argument) {
+			Promise<I> first = Promise.from(f.apply(argument));
+			return first.map(g);
+		}
+	}
+	
+	private static class AsyncFlatComposite<D, I, S> extends AbstractAsyncFunctor<D, S> {
+		
+		private final AsyncFunctor<? extends D, ? super I> g;
+		
+		private final AsyncFunctor<? extends I, ? super S> f;
+		
+
+		AsyncFlatComposite(AsyncFunctor<? extends D, ? super I> g, AsyncFunctor<? extends I, ? super S> f) {
+			assert g != null;
+			assert f != null;
+			this.g = g;
+			this.f = f;
+		}
+		
+		public Future<D> apply(S argument) {
+			Promise<I> first = Promise.from(f.apply(argument));
+			return first.flatMap(g);
+		}
+	}
+	
+	/**
+	 * {@link Functors#async(Functor)}が利用する共有のスレッドプール。
+	 * 
+	 * <p>このクラスが初めて参照された時点で生成される。
+	 * ブロックする処理を想定し、空いているスレッドがなければ新たにスレッドを生成するため、
+	 * スレッド数には上限がない。
+	 * {@link Promise}以外の{@link Future}の完了を待つ処理も、このプール上で実行される。</p>
+	 */
+	static final class AsyncPool {
+		
+		static final ThreadPoolExecutor INSTANCE;
+		static {
+			final AtomicInteger count = new AtomicInteger();
+			ThreadFactory factory = new ThreadFactory() {
+				
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "functor-async-" + count.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			};
+			INSTANCE = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+					new SynchronousQueue<Runnable>(), factory);
+		}
+		
+
+		private AsyncPool() {
+		}
+	}
+	
+	private static class Batch<D, S> extends AbstractFunctor<D, S> {
+		
+		private Functor<D, S> functor;
+		
+
+		Batch(Functor<D, S> functor) {
+			assert functor != null;
+			this.functor = functor;
+		}
+		
+		public D apply(S argument) {
+			return functor.apply(argument);
+		}
+	}
+	
+	private static class BinaryComposite<D, I, A, B> extends AbstractBinaryFunctor<D, A, B> {
+		
+		private Functor<? extends D, ? super I> g;
+		
+		private BinaryFunctor<? extends I, ? super A, ? super B> f;
+		
+
+		BinaryComposite(Functor<? extends D, ? super I> g, BinaryFunctor<? extends I, ? super A, ? super B> f) {
+			assert g != null;
+			assert f != null;
+			this.g = g;
+			this.f = f;
+		}
 		
-		private Functor<? extends I, ? super S> former;
+		public D apply(A left, B right) {
+			return g.apply(f.apply(left, right));
+		}
+	}
+	
+	/**
+	 * 複数の関数を順に適用する、平坦化された合成関数。
+	 * 
+	 * <p>合成関数を入れ子にすると、段数に比例した深さの呼び出しが発生し、
+	 * JITコンパイラによるインライン化の限界を超えてしまう。
+	 * そのため、入れ子になった合成関数は配列に展開し、単一のループで適用する。</p>
+	 * 
+	 * <p>値をまとめて変換する場合、値ごとに全ての段を適用する代わりに、
+	 * 段ごとに全ての値を変換してから次の段へ進む。
+	 * それぞれの段の呼び出し箇所が単一の実装のみを呼び出すため、インライン化されやすい。</p>
+	 * 
+	 * @param <D> 最終的な変換後の値の型
+	 * @param <S> 変換前の値の型
+	 */
+	private static class Composite<D, S> extends AbstractFunctor<D, S> {
 		
-		private Functor<? extends D, ? super I> latter;
+		private Functor<?, ?>[] stages;
 		
 
-		Composite(Functor<? extends I, ? super S> former, Functor<? extends D, ? super I> latter) {
-			assert former != null;
-			assert latter != null;
-			this.former = former;
-			this.latter = latter;
+		Composite(Functor<?, ?>[] stages) {
+			assert stages != null;
+			assert stages.length >= 2;
+			this.stages = stages;
 		}
 		
 		public D apply(S argument) {
-			I intermediate = former.apply(argument);
-			D result = latter.apply(intermediate);
+			// 個々の段の型は合成時に検査済み
+			Object value = argument;
+			for (Functor<?, ?> stage : stages) {
+				@SuppressWarnings("unchecked")
+				Functor<?, Object> f = (Functor<?, Object>) stage;
+				value = f.apply(value);
+			}
+			@SuppressWarnings("unchecked")
+			D result = (D) value;
 			return result;
 		}
+		
+		@Override
+		public void applyAll(S[] arguments, D[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			List<S> window = Arrays.asList(arguments).subList(from, to);
+			List<?> values = applyStages(window, stages.length, new ArrayList<Object>(to - from));
+			for (int i = from; i < to; i++) {
+				@SuppressWarnings("unchecked")
+				D result = (D) values.get(i - from);
+				results[i] = result;
+			}
+		}
+		
+		@Override
+		public void applyAll(List<? extends S> arguments, Collection<? super D> results) {
+			if (arguments == null) {
+				throw new IllegalArgumentException("arguments is null"); //$NON-NLS-1$
+			}
+			if (results == null) {
+				throw new IllegalArgumentException("results is null"); //$NON-NLS-1$
+			}
+			List<?> last = applyStages(arguments, stages.length - 1, new ArrayList<Object>(arguments.size()));
+			applyStage(stages[stages.length - 1], last, results);
+		}
+		
+		/**
+		 * 先頭から指定の数の段を、段ごとにまとめて適用する。
+		 * 
+		 * @param arguments 変換する値のリスト
+		 * @param count 適用する段の数
+		 * @param buffer 変換後の値を格納するリスト
+		 * @return 変換後の値を格納したリスト
+		 */
+		private List<?> applyStages(List<?> arguments, int count, List<Object> buffer) {
+			assert arguments != null;
+			assert 0 < count && count <= stages.length;
+			assert buffer != null;
+			List<?> current = arguments;
+			List<Object> target = buffer;
+			List<Object> spare = null;
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					// 直前の段の結果を読みながら書き込まないよう、出力先を切り替える
+					if (spare == null) {
+						spare = new ArrayList<Object>(target.size());
+					} else {
+						spare.clear();
+					}
+					List<Object> previous = target;
+					target = spare;
+					spare = previous;
+				}
+				applyStage(stages[i], current, target);
+				current = target;
+			}
+			return current;
+		}
+		
+		/**
+		 * 指定の段を、全ての値にまとめて適用する。
+		 * 
+		 * @param stage 適用する段
+		 * @param arguments 変換する値のリスト
+		 * @param results 変換後の値を追加するコレクション
+		 */
+		private static void applyStage(Functor<?, ?> stage, List<?> arguments, Collection<?> results) {
+			// 個々の段の型は合成時に検査済み
+			@SuppressWarnings("unchecked")
+			Collection<Object> out = (Collection<Object>) results;
+			if (stage instanceof BatchFunctor<?, ?>) {
+				@SuppressWarnings("unchecked")
+				BatchFunctor<?, Object> f = (BatchFunctor<?, Object>) stage;
+				f.applyAll(arguments, out);
+			} else {
+				@SuppressWarnings("unchecked")
+				Functor<?, Object> f = (Functor<?, Object>) stage;
+				for (Object argument : arguments) {
+					out.add(f.apply(argument));
+				}
+			}
+		}
+		
+		/**
+		 * 指定の関数を平坦化し、合成関数の段として追加する。
+		 * 
+		 * @param functor 対象の関数
+		 * @param stages 段の追加先
+		 */
+		static void collect(Functor<?, ?> functor, List<Functor<?, ?>> stages) {
+			assert functor != null;
+			assert stages != null;
+			if (functor instanceof Composite<?, ?>) {
+				for (Functor<?, ?> stage : ((Composite<?, ?>) functor).stages) {
+					stages.add(stage);
+				}
+			} else if (isIdentity(functor) == false) {
+				stages.add(functor);
+			}
+		}
+	}
+	
+	private static class Curried<D, A, B> extends AbstractFunctor<Functor<D, B>, A> {
+		
+		final BinaryFunctor<? extends D, ? super A, ? super B> uncurried;
+		
+
+		Curried(BinaryFunctor<? extends D, ? super A, ? super B> uncurried) {
+			assert uncurried != null;
+			this.uncurried = uncurried;
+		}
+		
+		public Functor<D, B> apply(final A left) {
+			final BinaryFunctor<? extends D, ? super A, ? super B> f = uncurried;
+			return new AbstractFunctor<D, B>() {
+				
+				public D apply(B right) {
+					return f.apply(left, right);
+				}
+			};
+		}
 	}
 	
 	private static class FromEditor<D, S> extends AbstractFunctor<D, S> {
@@ -218,6 +974,70 @@ public final class Functors {
 		}
 	}
 	
+	private static class FromPooled<D, T, S> extends AbstractFunctor<D, S> {
+		
+		private Editor<? super T, ? super S> editor;
+		
+		private PooledGenerator<T> pool;
+		
+		private Functor<? extends D, ? super T> finisher;
+		
+
+		FromPooled(Editor<? super T, ? super S> editor, PooledGenerator<T> pool,
+				Functor<? extends D, ? super T> finisher) {
+			assert editor != null;
+			assert pool != null;
+			assert finisher != null;
+			this.editor = editor;
+			this.pool = pool;
+			this.finisher = finisher;
+		}
+		
+		public D apply(S argument) {
+			T target = pool.generate();
+			D result;
+			try {
+				editor.edit(target, argument);
+				result = finisher.apply(target);
+			} catch (RuntimeException e) {
+				releaseQuietly(target);
+				throw e;
+			} catch (Error e) {
+				releaseQuietly(target);
+				throw e;
+			}
+			pool.release(target);
+			return result;
+		}
+		
+		/**
+		 * 値をプールへ返却する。
+		 * 
+		 * <p>すでに別の例外がスローされている最中に呼び出されるため、
+		 * 返却時に発生した例外で元の例外を隠さないように、返却時の例外は破棄する。</p>
+		 * 
+		 * @param target 返却する値
+		 */
+		private void releaseQuietly(T target) {
+			try {
+				pool.release(target);
+			} catch (RuntimeException ignored) {
+				// 元の例外を優先する
+			}
+		}
+	}
+	
+	private static class Identity<T> extends AbstractFunctor<T, T> {
+		
+		Identity() {
+			return;
+		}
+		
+		public T apply(T argument) {
+			return argument;
+		}
+	}
+	
 	private static class Transpose<D, A, B> extends AbstractFunctor<Functor<D, B>, A> {
 		
 		final Functor<? extends Functor<D, A>, B> original;
@@ -238,4 +1058,19 @@ public final class Functors {
 			};
 		}
 	}
+	
+	private static class Uncurried<D, A, B> extends AbstractBinaryFunctor<D, A, B> {
+		
+		final Functor<? extends Functor<? extends D, ? super B>, ? super A> curried;
+		
+
+		Uncurried(Functor<? extends Functor<? extends D, ? super B>, ? super A> curried) {
+			assert curried != null;
+			this.curried = curried;
+		}
+		
+		public D apply(A left, B right) {
+			return curried.apply(left).apply(right);
+		}
+	}
 }
@@ -15,6 +15,15 @@
  */
 package org.jiemamy.utils.functor.core;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jiemamy.utils.functor.Editor;
 import org.jiemamy.utils.functor.Functor;
 import org.jiemamy.utils.functor.Generator;
 
@@ -29,6 +38,9 @@ public final class Generators {
 	/**
 	 * 指定の生成器の結果に対し、さらに指定の関数を適用する合成された生成器を返す。
 	 * 
+	 * <p>{@code functor}が引数をそのまま返す関数({@link Functors#id()}など)である場合、
+	 * {@code generator}をそのまま返す。</p>
+	 * 
 	 * @param <T> 最終的な値の型
 	 * @param <I> 最初に生成器が生成する値の型
 	 * @param generator 最初に値を生成する生成器
@@ -43,6 +55,16 @@ public final class Generators {
 		if (generator == null) {
 			throw new IllegalArgumentException("generator is null"); //$NON-NLS-1$
 		}
+		if (Functors.isIdentity(functor)) {
+			@SuppressWarnings("unchecked")
+			Generator<T> result = (Generator<T>) generator;
+			return result;
+		}
+		MetricsSink sink = Instrumentation.getGlobalSink();
+		if (sink != null) {
+			String name = Instrumentation.nameOf(Instrumentation.GENERATORS_COMPOSE, 0, functor);
+			return new Filtered<T, I>(generator, Instrumentation.<T, I> wrap(functor, name, sink));
+		}
 		return new Filtered<T, I>(generator, functor);
 	}
 	
@@ -66,10 +88,338 @@ public final class Generators {
 		};
 	}
 	
+	/**
+	 * 指定の生成器を初めて利用する際に一度だけ実行し、その結果を以降も返し続ける生成器を返す。
+	 * 
+	 * <p>返される生成器は、最初に{@link Generator#generate()}が実行された際に
+	 * {@code generator}で値を生成し、以降はその値を返す。
+	 * 複数のスレッドから同時に実行された場合でも、{@code generator}は一度だけ実行される。
+	 * 値を生成した後の呼び出しでは、ロックを取得しない。
+	 * {@code generator}が例外をスローした場合、値は生成されなかったものとして扱われ、
+	 * 次回の呼び出しで再び{@code generator}が実行される。</p>
+	 * 
+	 * <p>{@code generator}がすでにこのメソッドで生成された生成器である場合、それをそのまま返す。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 値を生成する生成器
+	 * @return 生成した生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <T>Generator<T> lazy(Generator<? extends T> generator) {
+		if (generator == null) {
+			throw new IllegalArgumentException("generator is null"); //$NON-NLS-1$
+		}
+		if (generator instanceof Lazy<?>) {
+			@SuppressWarnings("unchecked")
+			Generator<T> result = (Generator<T>) generator;
+			return result;
+		}
+		return new Lazy<T>(generator);
+	}
+	
+	/**
+	 * 生成した値を、全てのスレッドで共有するプールで再利用する生成器を返す。
+	 * 
+	 * <p>このメソッドは{@code pooled(generator, reset, capacity, PooledGenerator.Mode.SHARED)}
+	 * と同様である。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 新しい値を生成する生成器
+	 * @param reset 返却された値を初期状態に戻す操作器、操作引数には{@code null}が渡される
+	 * @param capacity プールに保持する値の最大数
+	 * @return 生成した生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code capacity}に{@code 1}未満の値が指定された場合
+	 * @see #pooled(Generator, Editor, int, PooledGenerator.Mode)
+	 */
+	public static <T>PooledGenerator<T> pooled(Generator<? extends T> generator, Editor<? super T, ?> reset,
+			int capacity) {
+		return pooled(generator, reset, capacity, PooledGenerator.Mode.SHARED);
+	}
+	
+	/**
+	 * 生成した値をプールで再利用する生成器を返す。
+	 * 
+	 * <p>返される生成器は、プールに値が残っていればそれを返し、
+	 * 残っていなければ{@code generator}で新しい値を生成して返す。
+	 * 利用し終えた値を{@link PooledGenerator#release(Object)}で返却すると、
+	 * {@code reset}で初期状態に戻された上でプールに格納される。</p>
+	 * 
+	 * <p>{@link StringBuilder}などの作業用の値を繰り返し利用する場合、
+	 * 値の生成を抑えることができる。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 新しい値を生成する生成器
+	 * @param reset 返却された値を初期状態に戻す操作器、操作引数には{@code null}が渡される
+	 * @param capacity プールに保持する値の最大数
+	 * @param mode プールの共有方式
+	 * @return 生成した生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code capacity}に{@code 1}未満の値が指定された場合
+	 * @see Functors#fromPooled(Editor, PooledGenerator, Functor)
+	 */
+	public static <T>PooledGenerator<T> pooled(Generator<? extends T> generator, Editor<? super T, ?> reset,
+			int capacity, PooledGenerator.Mode mode) {
+		if (generator == null) {
+			throw new IllegalArgumentException("generator is null"); //$NON-NLS-1$
+		}
+		if (reset == null) {
+			throw new IllegalArgumentException("reset is null"); //$NON-NLS-1$
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be > 0"); //$NON-NLS-1$
+		}
+		if (mode == null) {
+			throw new IllegalArgumentException("mode is null"); //$NON-NLS-1$
+		}
+		return new PooledGenerator<T>(generator, reset, capacity, mode);
+	}
+	
+	/**
+	 * 指定の生成器で生成した値を保持し、一定時間ごとにバックグラウンドで再生成する生成器を返す。
+	 * 
+	 * <p>このメソッドは{@code refreshing(generator, duration, unit, executor)}に、
+	 * このクラスが共有するデーモンスレッドを利用する{@link Executor}を指定した場合と同様である。</p>
+	 * 
+	 * <p>共有のデーモンスレッドはひとつだけであり、このメソッドで生成したすべての生成器の再生成は、
+	 * 上限のない待ち行列を介してこのスレッドで順に実行される。
+	 * そのため、いずれかの生成器の再生成が終了しない場合、他のすべての生成器の再生成も実行されなくなる。
+	 * 再生成に時間がかかる場合や、外部の資源を待機する可能性がある場合には、
+	 * {@link #refreshing(Generator, long, TimeUnit, Executor)}で専用の{@link Executor}を指定すること。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 値を生成する生成器
+	 * @param duration 値を再生成するまでの時間
+	 * @param unit {@code duration}の単位
+	 * @return 生成した生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code duration}に負の値が指定された場合
+	 * @see #refreshing(Generator, long, TimeUnit, Executor)
+	 */
+	public static <T>Generator<T> refreshing(Generator<? extends T> generator, long duration, TimeUnit unit) {
+		return refreshing(generator, duration, unit, RefreshExecutor.INSTANCE);
+	}
+	
+	/**
+	 * 指定の生成器で生成した値を保持し、一定時間ごとにバックグラウンドで再生成する生成器を返す。
+	 * 
+	 * <p>返される生成器は、最初に{@link Generator#generate()}が実行された際に
+	 * {@code generator}で値を生成する。この最初の呼び出しのみ、値が生成されるまで待機する。
+	 * 以降は保持している値を返し、前回の生成から{@code duration}以上経過していた場合には、
+	 * {@code executor}上で値を再生成するよう依頼する。
+	 * 再生成が完了するまでの間は、以前の値を返し続けるため、呼び出し元が待機することはない。
+	 * また、再生成は同時にひとつしか実行されない。</p>
+	 * 
+	 * <p>再生成中に{@code generator}が例外をスローした場合、以前の値を保持したまま、
+	 * さらに{@code duration}が経過した後に再度生成を試みる。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 * @param generator 値を生成する生成器
+	 * @param duration 値を再生成するまでの時間
+	 * @param unit {@code duration}の単位
+	 * @param executor 値の再生成を実行する{@link Executor}
+	 * @return 生成した生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code duration}に負の値が指定された場合
+	 */
+	public static <T>Generator<T> refreshing(Generator<? extends T> generator, long duration, TimeUnit unit,
+			Executor executor) {
+		if (generator == null) {
+			throw new IllegalArgumentException("generator is null"); //$NON-NLS-1$
+		}
+		if (duration < 0) {
+			throw new IllegalArgumentException("duration must be >= 0"); //$NON-NLS-1$
+		}
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("executor is null"); //$NON-NLS-1$
+		}
+		return new Refreshing<T>(generator, unit.toNanos(duration), executor);
+	}
+	
+	/**
+	 * 指定の生成器が{@link #compose(Functor, Generator)}で合成されたものである場合、
+	 * 生成した値に適用する関数を返す。
+	 * 
+	 * @param generator 対象の生成器
+	 * @return 生成した値に適用する関数、合成されたものでない場合は{@code null}
+	 */
+	static Functor<?, ?> functorOf(Generator<?> generator) {
+		assert generator != null;
+		if (generator instanceof Filtered<?, ?>) {
+			return ((Filtered<?, ?>) generator).functor;
+		}
+		return null;
+	}
+	
+	/**
+	 * 指定の生成器が{@link #compose(Functor, Generator)}で合成されたものである場合、
+	 * 最初に値を生成する生成器を返す。
+	 * 
+	 * @param generator 対象の生成器
+	 * @return 最初に値を生成する生成器、合成されたものでない場合は{@code null}
+	 */
+	static Generator<?> sourceOf(Generator<?> generator) {
+		assert generator != null;
+		if (generator instanceof Filtered<?, ?>) {
+			return ((Filtered<?, ?>) generator).source;
+		}
+		return null;
+	}
+	
 	private Generators() {
 	}
 	
 
+	/**
+	 * 値を一度だけ生成する生成器。
+	 * 
+	 * <p>値を生成した後は{@code volatile}フィールドの読み出しのみで値を返す、
+	 * いわゆるダブルチェックによる遅延初期化を行う。</p>
+	 * 
+	 * @param <T> 生成する値の型
+	 */
+	private static class Lazy<T> extends AbstractGenerator<T> {
+		
+		private static final Object UNINITIALIZED = new Object();
+		
+		private volatile Object value = UNINITIALIZED;
+		
+		private Generator<? extends T> generator;
+		
+
+		Lazy(Generator<? extends T> generator) {
+			assert generator != null;
+			this.generator = generator;
+		}
+		
+		public T generate() {
+			Object v = value;
+			if (v == UNINITIALIZED) {
+				synchronized (this) {
+					v = value;
+					if (v == UNINITIALIZED) {
+						v = generator.generate();
+						value = v;
+						// 以降は利用しないため、生成器が保持する値を解放する
+						generator = null;
+					}
+				}
+			}
+			@SuppressWarnings("unchecked")
+			T result = (T) v;
+			return result;
+		}
+	}
+	
+	/**
+	 * 値を一定時間ごとにバックグラウンドで再生成する生成器。
+	 * 
+	 * @param <T> 生成する値の型
+	 */
+	private static class Refreshing<T> extends AbstractGenerator<T> implements Runnable {
+		
+		private final Generator<? extends T> generator;
+		
+		private final long durationNanos;
+		
+		private final Executor executor;
+		
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+		
+		private volatile Snapshot<T> snapshot;
+		
+
+		Refreshing(Generator<? extends T> generator, long durationNanos, Executor executor) {
+			assert generator != null;
+			assert durationNanos >= 0;
+			assert executor != null;
+			this.generator = generator;
+			this.durationNanos = durationNanos;
+			this.executor = executor;
+		}
+		
+		public T generate() {
+			Snapshot<T> current = snapshot;
+			if (current == null) {
+				synchronized (this) {
+					current = snapshot;
+					if (current == null) {
+						current = new Snapshot<T>(generator.generate(), System.nanoTime());
+						snapshot = current;
+					}
+				}
+			} else if (System.nanoTime() - current.nanos >= durationNanos && refreshing.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				} catch (RuntimeException e) {
+					// 再生成を依頼できない場合は、次回の呼び出しで再度依頼する
+					refreshing.set(false);
+				}
+			}
+			return current.value;
+		}
+		
+		/**
+		 * 値を再生成する。
+		 */
+		public void run() {
+			try {
+				snapshot = new Snapshot<T>(generator.generate(), System.nanoTime());
+			} catch (RuntimeException e) {
+				// 以前の値を保持したまま、一定時間後に再度生成を試みる
+				snapshot = new Snapshot<T>(snapshot.value, System.nanoTime());
+			} finally {
+				refreshing.set(false);
+			}
+		}
+		
+
+		private static class Snapshot<T> {
+			
+			final T value;
+			
+			final long nanos;
+			
+
+			Snapshot(T value, long nanos) {
+				this.value = value;
+				this.nanos = nanos;
+			}
+		}
+	}
+	
+	/**
+	 * 値の再生成に利用する共有の{@link Executor}。
+	 * 
+	 * <p>このクラスが初めて参照された時点で生成される。
+	 * 再生成は単一のデーモンスレッドで順に実行されるため、終了しない再生成があると
+	 * 以降のすべての再生成が待たされる。</p>
+	 */
+	private static final class RefreshExecutor {
+		
+		static final ThreadPoolExecutor INSTANCE;
+		static {
+			final AtomicInteger count = new AtomicInteger();
+			ThreadFactory factory = new ThreadFactory() {
+				
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "functor-refresh-" + count.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			};
+			INSTANCE = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+		}
+		
+
+		private RefreshExecutor() {
+		}
+	}
+	
 	private static class Filtered<T, I> extends AbstractGenerator<T> {
 		
 		private Generator<? extends I> source;
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+/**
+ * 値が特定の型のインスタンスであるかどうかを検査する述語。
+ * 
+ * <p>この述語は、最近検査した値の実行時クラスと、その検査結果を少数だけ保持する。
+ * 同じ実行時クラスの値を繰り返し検査する場合、{@link Class#isInstance(Object)}の代わりに
+ * 参照の比較だけで結果を返す。
+ * 検査対象の型がインターフェースである場合や、継承階層が深い場合に特に効果がある。</p>
+ * 
+ * <p>保持する実行時クラスの数は{@value #CACHE_SIZE}個までで、
+ * それを超えた場合は古いものから順に置き換えられる。
+ * このクラスのインスタンスは、複数のスレッドから同時に利用できる。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @see Cast#cached(Class)
+ */
+public final class InstanceCheck extends AbstractPredicate<Object> {
+	
+	/**
+	 * 保持する実行時クラスの最大数。
+	 */
+	static final int CACHE_SIZE = 8;
+	
+	private static final Entry[] EMPTY = new Entry[0];
+	
+
+	/**
+	 * 指定の型に対する述語を生成して返す。
+	 * 
+	 * @param type 検査する型
+	 * @return 生成した述語
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static InstanceCheck of(Class<?> type) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		return new InstanceCheck(type);
+	}
+	
+
+	private final Class<?> type;
+	
+	/**
+	 * 最近検査した実行時クラスと、その結果。
+	 * 
+	 * <p>配列の内容は変更せず、更新する際には配列ごと置き換える。</p>
+	 */
+	private volatile Entry[] entries = EMPTY;
+	
+	private int next;
+	
+
+	private InstanceCheck(Class<?> type) {
+		assert type != null;
+		this.type = type;
+	}
+	
+	/**
+	 * 検査する型を返す。
+	 * 
+	 * @return 検査する型
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+	
+	/**
+	 * 値が検査する型のインスタンスであるかどうかを返す。
+	 * 
+	 * @param argument 対象の値
+	 * @return 検査する型のインスタンスである場合は{@code true}、
+	 *     {@code null}または検査する型のインスタンスでない場合は{@code false}
+	 */
+	public boolean test(Object argument) {
+		if (argument == null) {
+			return false;
+		}
+		Class<?> runtimeClass = argument.getClass();
+		if (runtimeClass == type) {
+			return true;
+		}
+		Entry[] current = entries;
+		for (int i = 0; i < current.length; i++) {
+			Entry entry = current[i];
+			if (entry.runtimeClass == runtimeClass) {
+				return entry.instance;
+			}
+		}
+		boolean instance = type.isInstance(argument);
+		remember(runtimeClass, instance);
+		return instance;
+	}
+	
+	private synchronized void remember(Class<?> runtimeClass, boolean instance) {
+		Entry[] current = entries;
+		for (int i = 0; i < current.length; i++) {
+			if (current[i].runtimeClass == runtimeClass) {
+				return;
+			}
+		}
+		Entry entry = new Entry(runtimeClass, instance);
+		Entry[] updated;
+		if (current.length < CACHE_SIZE) {
+			updated = new Entry[current.length + 1];
+			System.arraycopy(current, 0, updated, 0, current.length);
+			updated[current.length] = entry;
+		} else {
+			updated = current.clone();
+			updated[next] = entry;
+			next = (next + 1) % CACHE_SIZE;
+		}
+		entries = updated;
+	}
+	
+	@Override
+	public String toString() {
+		return "instanceof " + type.getName(); //$NON-NLS-1$
+	}
+	
+
+	private static class Entry {
+		
+		final Class<?> runtimeClass;
+		
+		final boolean instance;
+		
+
+		Entry(Class<?> runtimeClass, boolean instance) {
+			assert runtimeClass != null;
+			this.runtimeClass = runtimeClass;
+			this.instance = instance;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.List;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * 関数や操作器の適用を計測するための、全体の設定。
+ * 
+ * <p>{@link #enable(MetricsSink)}で計測を有効にすると、それ以降に
+ * {@link Functors#compose(Functor, Functor)}、{@link Editors#compose(Iterable)}、
+ * {@link Generators#compose(Functor, org.jiemamy.utils.functor.Generator)}で合成された
+ * 関数や操作器の個々の段が、指定の{@link MetricsSink}に適用結果を記録するようになる。
+ * それぞれの段は{@code Functors.compose[2]:com.example.Lookup}のように、
+ * 合成したメソッド、段の位置、段のクラス名からなる名前で記録される。
+ * 無名クラスなどクラス名では識別しにくい段は、{@link Functors#named(Functor, String)}や
+ * {@link Functors#instrumented(Functor, String, MetricsSink)}で付けた名前がクラス名の代わりに使われる。
+ * 遅い適用のみを通知するには、{@link SlowInvocationSink}を記録先に指定するとよい。</p>
+ * 
+ * <p>計測の有無は合成時に決定されるため、計測が無効な間に合成されたものは計測されず、
+ * 適用時の追加の費用も発生しない。
+ * 一方、計測が有効な間に合成されたものは、計測を無効にした後も記録を続ける。</p>
+ * 
+ * <p><strong>注意:</strong> 実行中に{@link #enable(MetricsSink)}を呼び出しても、
+ * すでに合成済みの関数や操作器は計測されない。
+ * {@code static final}なフィールドに保持した合成関数は、通常はクラスの初期化時に合成されるため、
+ * 後から計測を有効にしても計測対象にならない。
+ * そのような合成関数を計測するには、そのクラスが初期化される前
+ * (アプリケーションの起動時など) に{@link #enable(MetricsSink)}を呼び出すか、
+ * 計測したい段を{@link Functors#instrumented(Functor, String, MetricsSink)}で明示的に包んでおくこと。
+ * 適用のたびに計測の有無を判定しないのは、計測が無効な場合の費用をなくすためである。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @see Functors#instrumented(Functor, String, MetricsSink)
+ */
+public final class Instrumentation {
+	
+	/**
+	 * {@link Functors#compose(Functor, Functor)}で合成された関数の段の名前の接頭辞。
+	 */
+	public static final String FUNCTORS_COMPOSE = "Functors.compose"; //$NON-NLS-1$
+	
+	/**
+	 * {@link Editors#compose(Iterable)}で合成された操作器の段の名前の接頭辞。
+	 */
+	public static final String EDITORS_COMPOSE = "Editors.compose"; //$NON-NLS-1$
+	
+	/**
+	 * {@link Generators#compose(Functor, org.jiemamy.utils.functor.Generator)}で合成された
+	 * 生成器の段の名前の接頭辞。
+	 */
+	public static final String GENERATORS_COMPOSE = "Generators.compose"; //$NON-NLS-1$
+	
+	private static volatile MetricsSink globalSink;
+	
+
+	/**
+	 * 以降に合成される関数や操作器の計測を無効にする。
+	 */
+	public static void disable() {
+		globalSink = null;
+	}
+	
+	/**
+	 * 以降に合成される関数や操作器の個々の段を、指定の{@link MetricsSink}に記録するようにする。
+	 * 
+	 * <p>このメソッドの呼び出しより前に合成された関数や操作器は、計測対象にならない。
+	 * {@code static final}なフィールドに保持された合成関数などを計測する場合には、
+	 * それらが合成される前にこのメソッドを呼び出すこと。</p>
+	 * 
+	 * @param sink 適用結果の記録先
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static void enable(MetricsSink sink) {
+		if (sink == null) {
+			throw new IllegalArgumentException("sink is null"); //$NON-NLS-1$
+		}
+		globalSink = sink;
+	}
+	
+	/**
+	 * 現在の記録先を返す。
+	 * 
+	 * @return 現在の記録先、計測が無効である場合は{@code null}
+	 */
+	public static MetricsSink getGlobalSink() {
+		return globalSink;
+	}
+	
+	/**
+	 * 指定の関数を、適用結果を記録する関数で包んで返す。
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @param name 計測対象の名前
+	 * @param sink 適用結果の記録先
+	 * @return 適用結果を記録する関数
+	 */
+	static <D, S>Functor<D, S> wrap(Functor<? extends D, ? super S> functor, String name, MetricsSink sink) {
+		assert functor != null;
+		assert name != null;
+		assert sink != null;
+		return new InstrumentedFunctor<D, S>(functor, name, sink);
+	}
+	
+	/**
+	 * 指定の関数に、計測対象の名前を付けて返す。
+	 * 
+	 * @param <D> 変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @param name 計測対象の名前
+	 * @return 名前を付けた関数
+	 */
+	static <D, S>Functor<D, S> name(Functor<? extends D, ? super S> functor, String name) {
+		assert functor != null;
+		assert name != null;
+		return new NamedFunctor<D, S>(functor, name);
+	}
+	
+	/**
+	 * 合成された関数の個々の段を、適用結果を記録する関数で置き換える。
+	 * 
+	 * <p>すでに同じ記録先で計測されている段は置き換えない。
+	 * {@link #name(Functor, String)}で名前を付けた段は、名前を取り除いてから計測する。</p>
+	 * 
+	 * @param kind 合成したメソッドの名前
+	 * @param stages 段の一覧
+	 * @param sink 適用結果の記録先
+	 */
+	static void wrapFunctors(String kind, List<Functor<?, ?>> stages, MetricsSink sink) {
+		assert kind != null;
+		assert stages != null;
+		assert sink != null;
+		for (int i = 0, n = stages.size(); i < n; i++) {
+			Functor<?, ?> stage = stages.get(i);
+			if (stage instanceof InstrumentedFunctor<?, ?> && ((InstrumentedFunctor<?, ?>) stage).sink == sink) {
+				continue;
+			}
+			String name = nameOf(kind, i, stage);
+			if (stage instanceof NamedFunctor<?, ?>) {
+				stage = ((NamedFunctor<?, ?>) stage).functor;
+			}
+			stages.set(i, wrap(stage, name, sink));
+		}
+	}
+	
+	/**
+	 * 合成された関数の個々の段から、{@link #name(Functor, String)}で付けた名前を取り除く。
+	 * 
+	 * <p>計測が無効な間に合成された関数に、名前のための追加の費用が発生しないようにする。</p>
+	 * 
+	 * @param stages 段の一覧
+	 */
+	static void unwrapNames(List<Functor<?, ?>> stages) {
+		assert stages != null;
+		for (int i = 0, n = stages.size(); i < n; i++) {
+			Functor<?, ?> stage = stages.get(i);
+			if (stage instanceof NamedFunctor<?, ?>) {
+				stages.set(i, ((NamedFunctor<?, ?>) stage).functor);
+			}
+		}
+	}
+	
+	/**
+	 * 合成された操作器の個々の段を、適用結果を記録する操作器で置き換える。
+	 * 
+	 * <p>すでに計測されている段は置き換えない。</p>
+	 * 
+	 * @param kind 合成したメソッドの名前
+	 * @param stages 段の配列
+	 * @param sink 適用結果の記録先
+	 */
+	static void wrapEditors(String kind, Editor<?, ?>[] stages, MetricsSink sink) {
+		assert kind != null;
+		assert stages != null;
+		assert sink != null;
+		for (int i = 0; i < stages.length; i++) {
+			Editor<?, ?> stage = stages[i];
+			if ((stage instanceof InstrumentedEditor<?, ?>) == false) {
+				@SuppressWarnings("unchecked")
+				Editor<Object, Object> editor = (Editor<Object, Object>) stage;
+				stages[i] = new InstrumentedEditor<Object, Object>(editor, nameOf(kind, i, stage), sink);
+			}
+		}
+	}
+	
+	/**
+	 * 合成された関数や操作器の段に対する、計測対象の名前を返す。
+	 * 
+	 * <p>段に名前が付けられている場合はその名前を、そうでなければ段のクラス名を利用する。</p>
+	 * 
+	 * @param kind 合成したメソッドの名前
+	 * @param index 段の位置
+	 * @param stage 段
+	 * @return 計測対象の名前
+	 */
+	static String nameOf(String kind, int index, Object stage) {
+		String name;
+		if (stage instanceof NamedFunctor<?, ?>) {
+			name = ((NamedFunctor<?, ?>) stage).name;
+		} else if (stage instanceof InstrumentedFunctor<?, ?>) {
+			name = ((InstrumentedFunctor<?, ?>) stage).name;
+		} else {
+			name = stage.getClass().getName();
+		}
+		return kind + "[" + index + "]:" + name; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	private Instrumentation() {
+	}
+	
+
+	private static class InstrumentedEditor<D, S> extends AbstractEditor<D, S> {
+		
+		private final Editor<D, S> editor;
+		
+		private final String name;
+		
+		private final MetricsSink sink;
+		
+
+		InstrumentedEditor(Editor<D, S> editor, String name, MetricsSink sink) {
+			assert editor != null;
+			assert name != null;
+			assert sink != null;
+			this.editor = editor;
+			this.name = name;
+			this.sink = sink;
+		}
+		
+		public D edit(D target, S argument) {
+			long start = System.nanoTime();
+			D result;
+			try {
+				result = editor.edit(target, argument);
+			} catch (RuntimeException e) {
+				sink.record(name, System.nanoTime() - start, e);
+				throw e;
+			} catch (Error e) {
+				sink.record(name, System.nanoTime() - start, e);
+				throw e;
+			}
+			sink.record(name, System.nanoTime() - start, null);
+			return result;
+		}
+	}
+	
+	private static class InstrumentedFunctor<D, S> extends AbstractFunctor<D, S> {
+		
+		private final Functor<? extends D, ? super S> functor;
+		
+		final String name;
+		
+		final MetricsSink sink;
+		
+
+		InstrumentedFunctor(Functor<? extends D, ? super S> functor, String name, MetricsSink sink) {
+			assert functor != null;
+			assert name != null;
+			assert sink != null;
+			this.functor = functor;
+			this.name = name;
+			this.sink = sink;
+		}
+		
+		public D apply(S argument) {
+			long start = System.nanoTime();
+			D result;
+			try {
+				result = functor.apply(argument);
+			} catch (RuntimeException e) {
+				sink.record(name, System.nanoTime() - start, e);
+				throw e;
+			} catch (Error e) {
+				sink.record(name, System.nanoTime() - start, e);
+				throw e;
+			}
+			sink.record(name, System.nanoTime() - start, null);
+			return result;
+		}
+	}
+	
+	private static class NamedFunctor<D, S> extends AbstractFunctor<D, S> {
+		
+		final Functor<? extends D, ? super S> functor;
+		
+		final String name;
+		
+
+		NamedFunctor(Functor<? extends D, ? super S> functor, String name) {
+			assert functor != null;
+			assert name != null;
+			this.functor = functor;
+			this.name = name;
+		}
+		
+		public D apply(S argument) {
+			return functor.apply(argument);
+		}
+	}
+}
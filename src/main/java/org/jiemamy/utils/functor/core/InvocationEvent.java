@@ -0,0 +1,129 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+/**
+ * 計測された関数や操作器の、一度の適用を表すイベント。
+ * 
+ * <p>このクラスのインスタンスは{@link SlowInvocationSink}によって生成され、
+ * {@link InvocationListener}に通知される。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class InvocationEvent {
+	
+	private final String name;
+	
+	private final long durationNanos;
+	
+	private final Throwable failure;
+	
+	private final Thread thread;
+	
+	private final long timestamp;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name 計測対象の名前
+	 * @param durationNanos 適用にかかった時間 (ナノ秒)
+	 * @param failure 適用中にスローされた例外、正常に終了した場合は{@code null}
+	 * @param thread 適用を行ったスレッド
+	 * @param timestamp 適用が終了した時刻 ({@link System#currentTimeMillis()}の形式)
+	 * @throws IllegalArgumentException 引数{@code name}, {@code thread}に{@code null}が指定された場合
+	 */
+	public InvocationEvent(String name, long durationNanos, Throwable failure, Thread thread, long timestamp) {
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		if (thread == null) {
+			throw new IllegalArgumentException("thread is null"); //$NON-NLS-1$
+		}
+		this.name = name;
+		this.durationNanos = durationNanos;
+		this.failure = failure;
+		this.thread = thread;
+		this.timestamp = timestamp;
+	}
+	
+	/**
+	 * 計測対象の名前を返す。
+	 * 
+	 * @return 計測対象の名前
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * 適用にかかった時間をナノ秒単位で返す。
+	 * 
+	 * @return 適用にかかった時間
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+	
+	/**
+	 * 適用中にスローされた例外を返す。
+	 * 
+	 * <p>関数の場合は{@link org.jiemamy.utils.functor.ApplyException}、
+	 * 操作器の場合は{@link org.jiemamy.utils.functor.EditException}であることが多いが、
+	 * その他の実行時例外やエラーである場合もある。</p>
+	 * 
+	 * @return 適用中にスローされた例外、正常に終了した場合は{@code null}
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+	
+	/**
+	 * 適用中に例外がスローされたかどうかを返す。
+	 * 
+	 * @return 例外がスローされた場合は{@code true}
+	 */
+	public boolean isFailed() {
+		return failure != null;
+	}
+	
+	/**
+	 * 適用を行ったスレッドを返す。
+	 * 
+	 * @return 適用を行ったスレッド
+	 */
+	public Thread getThread() {
+		return thread;
+	}
+	
+	/**
+	 * 適用が終了した時刻を返す。
+	 * 
+	 * @return 適用が終了した時刻 ({@link System#currentTimeMillis()}の形式)
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	@Override
+	public String toString() {
+		return "InvocationEvent(name=" + name //$NON-NLS-1$
+				+ ", durationNanos=" + durationNanos //$NON-NLS-1$
+				+ ", failure=" + failure //$NON-NLS-1$
+				+ ", thread=" + thread.getName() + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
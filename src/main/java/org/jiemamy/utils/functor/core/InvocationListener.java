@@ -0,0 +1,36 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+/**
+ * {@link InvocationEvent}の通知を受け取る。
+ * 
+ * <p>通知は計測対象を適用したスレッド上で行われるため、
+ * このインターフェースの実装はスレッドセーフであり、すぐに制御を返すべきである。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @see SlowInvocationSink
+ */
+public interface InvocationListener {
+	
+	/**
+	 * 計測対象の適用が記録された際に呼び出される。
+	 * 
+	 * @param event 適用を表すイベント
+	 */
+	void invoked(InvocationEvent event);
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * 適用結果を引数ごとにキャッシュする関数。
+ * 
+ * <p>このクラスのインスタンスは{@link Functors#memoize(Functor, CacheSpec)}で生成する。
+ * キャッシュは引数の{@link Object#hashCode()}によって複数の区画に分割され、
+ * 区画ごとに独立したロックで保護されるため、複数のスレッドから同時に利用できる。</p>
+ * 
+ * <p>キャッシュに値が存在しない場合、元の関数はロックを保持しない状態で適用される。
+ * そのため、同じ引数に対して複数のスレッドが同時に関数を適用する場合がある。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <D> 変換後の値の型
+ * @param <S> 変換前の値の型
+ */
+public final class MemoizingFunctor<D, S> extends AbstractFunctor<D, S> {
+	
+	private static final Object NULL_KEY = new Object();
+	
+	/**
+	 * 区画ごとの最小の容量。
+	 * 
+	 * <p>区画ごとの容量が小さすぎると、キャッシュ全体に空きがあっても
+	 * 同じ区画に割り当てられた値同士で追い出しが発生してしまう。</p>
+	 */
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+	
+
+	private final Functor<? extends D, ? super S> functor;
+	
+	private final CacheSpec spec;
+	
+	private final Segment[] segments;
+	
+	private final int segmentMask;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param functor キャッシュする関数
+	 * @param spec キャッシュの仕様
+	 */
+	MemoizingFunctor(Functor<? extends D, ? super S> functor, CacheSpec spec) {
+		assert functor != null;
+		assert spec != null;
+		this.functor = functor;
+		this.spec = spec;
+		int count = 1;
+		while (count < spec.getConcurrencyLevel() && count * 2 * MIN_SEGMENT_CAPACITY <= spec.getMaximumSize()) {
+			count <<= 1;
+		}
+		// 区画ごとの容量の合計が、ちょうど最大要素数となるように配分する
+		int capacity = spec.getMaximumSize() / count;
+		int remainder = spec.getMaximumSize() % count;
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(spec, i < remainder ? capacity + 1 : capacity);
+		}
+		segmentMask = count - 1;
+	}
+	
+	public D apply(S argument) {
+		Object key = argument == null ? NULL_KEY : argument;
+		int hash = spread(key.hashCode());
+		Segment segment = segments[hash & segmentMask];
+		Entry found = segment.get(key, hash);
+		if (found != null) {
+			@SuppressWarnings("unchecked")
+			D cached = (D) found.value;
+			return cached;
+		}
+		D result = functor.apply(argument);
+		segment.put(key, hash, result);
+		return result;
+	}
+	
+	/**
+	 * このキャッシュの仕様を返す。
+	 * 
+	 * @return キャッシュの仕様
+	 */
+	public CacheSpec getSpec() {
+		return spec;
+	}
+	
+	/**
+	 * キャッシュされている値の個数を返す。
+	 * 
+	 * <p>失効したが、まだ取り除かれていない値も含まれる。</p>
+	 * 
+	 * @return キャッシュされている値の個数
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+	
+	/**
+	 * 現在のキャッシュの統計情報を返す。
+	 * 
+	 * @return 統計情報
+	 */
+	public CacheStats stats() {
+		long hit = 0;
+		long miss = 0;
+		long eviction = 0;
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				hit += segment.hitCount;
+				miss += segment.missCount;
+				eviction += segment.evictionCount;
+			} finally {
+				segment.unlock();
+			}
+		}
+		return new CacheStats(hit, miss, eviction);
+	}
+	
+	/**
+	 * キャッシュされているすべての値を取り除く。
+	 * 
+	 * <p>統計情報はそのまま保持される。</p>
+	 */
+	public void invalidateAll() {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+	}
+	
+	private static int spread(int h) {
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+	
+
+	/**
+	 * キャッシュされた値。
+	 */
+	private static final class Entry {
+		
+		final Object value;
+		
+		final long writeTime;
+		
+
+		Entry(Object value, long writeTime) {
+			this.value = value;
+			this.writeTime = writeTime;
+		}
+	}
+	
+	/**
+	 * 参照頻度を推定するためのCount-Minスケッチ。
+	 * 
+	 * <p>個々のカウンタは{@code 15}で飽和し、記録回数が一定に達するとすべてのカウンタを半減させる。
+	 * これにより、過去の参照頻度の影響は時間とともに薄れる。</p>
+	 */
+	private static final class FrequencySketch {
+		
+		private static final int[] SEEDS = {
+			0x97CB3127,
+			0x9E3779B9,
+			0xC2B2AE35,
+			0x27D4EB2F
+		};
+		
+		private static final int MAX_COUNT = 15;
+		
+
+		private final byte[] table;
+		
+		private final int mask;
+		
+		private final int sampleSize;
+		
+		private int additions;
+		
+
+		FrequencySketch(int capacity) {
+			int size = 16;
+			while (size < capacity * 4) {
+				size <<= 1;
+			}
+			table = new byte[size];
+			mask = size - 1;
+			sampleSize = Math.max(capacity, 1) * 10;
+		}
+		
+		int frequency(int hash) {
+			int min = MAX_COUNT;
+			for (int seed : SEEDS) {
+				min = Math.min(min, table[index(hash, seed)]);
+			}
+			return min;
+		}
+		
+		void increment(int hash) {
+			boolean added = false;
+			for (int seed : SEEDS) {
+				int index = index(hash, seed);
+				if (table[index] < MAX_COUNT) {
+					table[index]++;
+					added = true;
+				}
+			}
+			if (added && ++additions >= sampleSize) {
+				for (int i = 0; i < table.length; i++) {
+					table[i] >>= 1;
+				}
+				additions >>>= 1;
+			}
+		}
+		
+		private int index(int hash, int seed) {
+			int h = hash * seed;
+			h ^= h >>> 16;
+			return h & mask;
+		}
+	}
+	
+	/**
+	 * 独立したロックで保護されるキャッシュの区画。
+	 * 
+	 * <p>LRU方式では{@code main}のみを利用する。
+	 * W-TinyLFU方式では、新しい値をまず{@code window}に格納し、
+	 * そこから溢れた値を参照頻度の推定値に基づいて{@code main}に昇格させるかどうかを決める。</p>
+	 */
+	private static final class Segment extends ReentrantLock {
+		
+		private static final long serialVersionUID = -2512546213577617463L;
+		
+
+		private final long expireAfterWriteNanos;
+		
+		private final int windowCapacity;
+		
+		private final int mainCapacity;
+		
+		private final LinkedHashMap<Object, Entry> window;
+		
+		private final LinkedHashMap<Object, Entry> main;
+		
+		private final FrequencySketch sketch;
+		
+		long hitCount;
+		
+		long missCount;
+		
+		long evictionCount;
+		
+
+		Segment(CacheSpec spec, int capacity) {
+			assert spec != null;
+			assert capacity >= 1;
+			expireAfterWriteNanos = spec.getExpireAfterWriteNanos();
+			if (spec.getEviction() == CacheSpec.Eviction.TINY_LFU && capacity >= 2) {
+				windowCapacity = Math.max(1, capacity / 100);
+				sketch = new FrequencySketch(capacity);
+			} else {
+				windowCapacity = 0;
+				sketch = null;
+			}
+			mainCapacity = capacity - windowCapacity;
+			window = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+			main = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+		}
+		
+		/**
+		 * 指定のキーに対応する値を返す。
+		 * 
+		 * @param key 対象のキー
+		 * @param hash キーのハッシュ値
+		 * @return 対応するエントリ、存在しない場合は{@code null}
+		 */
+		Entry get(Object key, int hash) {
+			lock();
+			try {
+				if (sketch != null) {
+					sketch.increment(hash);
+				}
+				LinkedHashMap<Object, Entry> owner = main;
+				Entry entry = main.get(key);
+				if (entry == null && windowCapacity > 0) {
+					owner = window;
+					entry = window.get(key);
+				}
+				if (entry == null) {
+					missCount++;
+					return null;
+				}
+				if (isExpired(entry)) {
+					owner.remove(key);
+					evictionCount++;
+					missCount++;
+					return null;
+				}
+				hitCount++;
+				return entry;
+			} finally {
+				unlock();
+			}
+		}
+		
+		void put(Object key, int hash, Object value) {
+			lock();
+			try {
+				Entry entry = new Entry(value, expireAfterWriteNanos > 0 ? System.nanoTime() : 0L);
+				if (main.containsKey(key)) {
+					main.put(key, entry);
+					return;
+				}
+				if (windowCapacity == 0) {
+					main.put(key, entry);
+					if (main.size() > mainCapacity) {
+						Iterator<Object> eldest = main.keySet().iterator();
+						eldest.next();
+						eldest.remove();
+						evictionCount++;
+					}
+					return;
+				}
+				window.put(key, entry);
+				if (window.size() > windowCapacity) {
+					Map.Entry<Object, Entry> eldest = window.entrySet().iterator().next();
+					Object candidate = eldest.getKey();
+					Entry candidateEntry = eldest.getValue();
+					window.remove(candidate);
+					if (main.size() < mainCapacity) {
+						main.put(candidate, candidateEntry);
+						return;
+					}
+					Object victim = main.keySet().iterator().next();
+					int candidateHash = spread(candidate.hashCode());
+					int victimHash = spread(victim.hashCode());
+					if (sketch.frequency(candidateHash) > sketch.frequency(victimHash)) {
+						main.remove(victim);
+						main.put(candidate, candidateEntry);
+					}
+					evictionCount++;
+				}
+			} finally {
+				unlock();
+			}
+		}
+		
+		int size() {
+			lock();
+			try {
+				return window.size() + main.size();
+			} finally {
+				unlock();
+			}
+		}
+		
+		void clear() {
+			lock();
+			try {
+				window.clear();
+				main.clear();
+			} finally {
+				unlock();
+			}
+		}
+		
+		private boolean isExpired(Entry entry) {
+			return expireAfterWriteNanos > 0 && System.nanoTime() - entry.writeTime >= expireAfterWriteNanos;
+		}
+	}
+}
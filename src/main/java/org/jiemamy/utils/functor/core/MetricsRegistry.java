@@ -0,0 +1,99 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 計測対象の名前ごとに{@link StageMetrics}を集計する{@link MetricsSink}。
+ * 
+ * <p>名前ごとの統計情報は、その名前で初めて記録された時点で生成される。
+ * 記録および読み出しは、複数のスレッドから同時に行ってよい。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class MetricsRegistry implements MetricsSink {
+	
+	private final ConcurrentMap<String, StageMetrics> stages = new ConcurrentHashMap<String, StageMetrics>();
+	
+
+	/**
+	 * インスタンスを生成する。
+	 */
+	public MetricsRegistry() {
+		return;
+	}
+	
+	public void record(String name, long elapsedNanos, Throwable failure) {
+		StageMetrics metrics = stages.get(name);
+		if (metrics == null) {
+			StageMetrics created = new StageMetrics(name);
+			metrics = stages.putIfAbsent(name, created);
+			if (metrics == null) {
+				metrics = created;
+			}
+		}
+		metrics.record(elapsedNanos, failure != null);
+	}
+	
+	/**
+	 * 指定の名前の統計情報を返す。
+	 * 
+	 * @param name 計測対象の名前
+	 * @return 対応する統計情報、まだ記録されていない場合は{@code null}
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public StageMetrics get(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		return stages.get(name);
+	}
+	
+	/**
+	 * 記録された全ての統計情報を、名前の順に返す。
+	 * 
+	 * @return 統計情報の一覧
+	 */
+	public List<StageMetrics> getAll() {
+		List<StageMetrics> results = new ArrayList<StageMetrics>(stages.values());
+		Collections.sort(results, new Comparator<StageMetrics>() {
+			
+			public int compare(StageMetrics o1, StageMetrics o2) {
+				return o1.getName().compareTo(o2.getName());
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * 記録された全ての統計情報を破棄する。
+	 */
+	public void clear() {
+		stages.clear();
+	}
+	
+	@Override
+	public String toString() {
+		return "MetricsRegistry" + getAll(); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+/**
+ * 計測された関数や操作器の適用結果を受け取る。
+ * 
+ * <p>このインターフェースの実装は、複数のスレッドから同時に呼び出されるため、
+ * スレッドセーフでなければならない。
+ * また、計測対象の呼び出しごとに実行されるため、ブロックするような処理を行うべきではない。</p>
+ * 
+ * <p>{@link Instrumentation#enable(MetricsSink)}で全体の記録先に指定した場合、
+ * 記録されるのはそれ以降に合成された関数や操作器のみである。
+ * すでに合成されて{@code static final}なフィールドなどに保持されている関数は、
+ * {@link Functors#instrumented(org.jiemamy.utils.functor.Functor, String, MetricsSink)}で
+ * 明示的に包まない限り記録されない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @see Functors#instrumented(org.jiemamy.utils.functor.Functor, String, MetricsSink)
+ * @see Instrumentation
+ */
+public interface MetricsSink {
+	
+	/**
+	 * 一度の適用結果を記録する。
+	 * 
+	 * @param name 計測対象の名前
+	 * @param elapsedNanos 適用にかかった時間 (ナノ秒)
+	 * @param failure 適用中にスローされた例外、正常に終了した場合は{@code null}
+	 */
+	void record(String name, long elapsedNanos, Throwable failure);
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 添え字の範囲を分割し、複数のスレッドで並列に処理するためのユーティリティ。
+ * 
+ * <p>処理対象の範囲は連続した区間(チャンク)に分割され、呼び出し元のスレッドと
+ * 共有のスレッドプールのスレッドがそれぞれ未処理のチャンクを取り出して処理する。
+ * 呼び出し元のスレッドは、まだ開始されていないチャンクを待つことなく自ら処理するため、
+ * 並列処理の中からさらに並列処理を呼び出した場合にもデッドロックしない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class Parallel {
+	
+	/**
+	 * 既定の並列度。
+	 * 
+	 * <p>実行環境で利用可能なプロセッサの数。</p>
+	 */
+	public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * ひとつのチャンクに含まれる要素の最小数。
+	 */
+	public static final int MIN_CHUNK_SIZE = 16;
+	
+	/**
+	 * 並列度ひとつあたりのチャンク数。
+	 * 
+	 * <p>処理時間にばらつきがある場合に、スレッド間の負荷を均等にするために
+	 * 並列度よりも多くのチャンクに分割する。</p>
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+	
+
+	/**
+	 * 指定の大きさの範囲を分割した際の、チャンクの個数を返す。
+	 * 
+	 * @param size 範囲の大きさ
+	 * @param parallelism 並列度
+	 * @return チャンクの個数、範囲が空の場合は{@code 0}
+	 * @throws IllegalArgumentException 引数{@code size}に負の値が指定された場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 */
+	public static int chunks(int size, int parallelism) {
+		if (size < 0) {
+			throw new IllegalArgumentException("size must be >= 0"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		if (size == 0) {
+			return 0;
+		}
+		int chunkSize = chunkSize(size, parallelism);
+		return (size + chunkSize - 1) / chunkSize;
+	}
+	
+	/**
+	 * 範囲{@code [0, size)}を分割し、それぞれのチャンクに対して{@code task}を並列に実行する。
+	 * 
+	 * <p>このメソッドは、すべてのチャンクの処理が終了するまで制御を返さない。
+	 * いずれかのチャンクの処理中に例外が発生した場合、まだ開始されていないチャンクは処理されず、
+	 * 実行中のチャンクの終了を待って最初に発生した例外を再スローする。</p>
+	 * 
+	 * <p>チャンクの添え字と範囲の対応は、{@link #chunks(int, int)}と同じ引数に対して常に一定である。
+	 * また、チャンクの範囲は添え字の順に昇順に並ぶ。</p>
+	 * 
+	 * @param size 範囲の大きさ
+	 * @param parallelism 並列度
+	 * @param task それぞれのチャンクに対する処理
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@link #chunks(int, int)}の引数として不正な値が含まれる場合
+	 */
+	public static void execute(int size, int parallelism, Task task) {
+		if (task == null) {
+			throw new IllegalArgumentException("task is null"); //$NON-NLS-1$
+		}
+		int chunks = chunks(size, parallelism);
+		if (chunks == 0) {
+			return;
+		}
+		int chunkSize = chunkSize(size, parallelism);
+		if (chunks == 1) {
+			task.run(0, 0, size);
+			return;
+		}
+		Job job = new Job(size, chunks, chunkSize, task);
+		int helpers = Math.min(parallelism, chunks) - 1;
+		Executor executor = Pool.INSTANCE;
+		for (int i = 0; i < helpers; i++) {
+			executor.execute(job);
+		}
+		job.run();
+		job.await();
+	}
+	
+	private static int chunkSize(int size, int parallelism) {
+		assert size > 0;
+		assert parallelism > 0;
+		if (parallelism == 1) {
+			return size;
+		}
+		long target = (long) parallelism * CHUNKS_PER_THREAD;
+		int chunkSize = (int) ((size + target - 1) / target);
+		return Math.max(chunkSize, MIN_CHUNK_SIZE);
+	}
+	
+	private Parallel() {
+	}
+	
+
+	/**
+	 * チャンクに対する処理。
+	 */
+	public interface Task {
+		
+		/**
+		 * 指定のチャンクを処理する。
+		 * 
+		 * @param chunk チャンクの添え字
+		 * @param from チャンクの開始位置 (含む)
+		 * @param to チャンクの終了位置 (含まない)
+		 */
+		void run(int chunk, int from, int to);
+	}
+	
+	/**
+	 * 複数のスレッドで共有される、チャンクの処理状況。
+	 */
+	private static final class Job implements Runnable {
+		
+		private final int size;
+		
+		private final int chunks;
+		
+		private final int chunkSize;
+		
+		private final Task task;
+		
+		private final AtomicInteger next = new AtomicInteger();
+		
+		private final AtomicInteger finished = new AtomicInteger();
+		
+		private volatile Throwable failure;
+		
+
+		Job(int size, int chunks, int chunkSize, Task task) {
+			assert size > 0;
+			assert chunks > 0;
+			assert chunkSize > 0;
+			assert task != null;
+			this.size = size;
+			this.chunks = chunks;
+			this.chunkSize = chunkSize;
+			this.task = task;
+		}
+		
+		public void run() {
+			while (true) {
+				int chunk = next.getAndIncrement();
+				if (chunk >= chunks) {
+					return;
+				}
+				try {
+					if (failure == null) {
+						int from = chunk * chunkSize;
+						task.run(chunk, from, Math.min(from + chunkSize, size));
+					}
+				} catch (Throwable t) {
+					synchronized (this) {
+						if (failure == null) {
+							failure = t;
+						}
+					}
+				} finally {
+					if (finished.incrementAndGet() == chunks) {
+						synchronized (this) {
+							notifyAll();
+						}
+					}
+				}
+			}
+		}
+		
+		/**
+		 * すべてのチャンクの処理が終了するまで待機する。
+		 */
+		void await() {
+			boolean interrupted = false;
+			synchronized (this) {
+				while (finished.get() < chunks) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			Throwable t = failure;
+			if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			}
+			if (t instanceof Error) {
+				throw (Error) t;
+			}
+			assert t == null;
+		}
+	}
+	
+	/**
+	 * 並列処理に利用する共有のスレッドプール。
+	 * 
+	 * <p>このクラスが初めて参照された時点で生成される。
+	 * スレッドは必要になった時点で生成され、いずれもデーモンスレッドとなる。</p>
+	 */
+	private static final class Pool {
+		
+		static final ThreadPoolExecutor INSTANCE;
+		static {
+			final AtomicInteger count = new AtomicInteger();
+			ThreadFactory factory = new ThreadFactory() {
+				
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "functor-parallel-" + count.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			};
+			INSTANCE = new ThreadPoolExecutor(DEFAULT_PARALLELISM, DEFAULT_PARALLELISM, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), factory);
+		}
+		
+
+		private Pool() {
+		}
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * 生成した値を再利用する生成器。
+ * 
+ * <p>{@link #generate()}はプールに値が残っていればそれを取り出し、
+ * 残っていなければ元の生成器で新しい値を生成する。
+ * 利用し終えた値は{@link #release(Object)}でプールに返却する。
+ * 返却された値は、初期化用の操作器で初期状態に戻された上でプールに格納される。
+ * プールが満杯である場合、返却された値は破棄される。</p>
+ * 
+ * <p>返却した値は、他の呼び出しで再び取り出されるため、返却後に利用してはならない。
+ * また、同じ値を2度以上返却してはならない。</p>
+ * 
+ * <p>このクラスのインスタンスは、{@link Generators#pooled(Generator, Editor, int, Mode)}
+ * などで生成する。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <T> 生成する値の型
+ */
+public final class PooledGenerator<T> extends AbstractGenerator<T> {
+	
+	private final Generator<? extends T> generator;
+	
+	private final Editor<? super T, ?> reset;
+	
+	private final int capacity;
+	
+	private final Mode mode;
+	
+	private final AtomicReferenceArray<T> slots;
+	
+	private final ThreadLocal<LocalPool> locals;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param generator 新しい値を生成する生成器
+	 * @param reset 返却された値を初期状態に戻す操作器
+	 * @param capacity プールに保持する値の最大数
+	 * @param mode プールの共有方式
+	 */
+	PooledGenerator(Generator<? extends T> generator, Editor<? super T, ?> reset, final int capacity, Mode mode) {
+		assert generator != null;
+		assert reset != null;
+		assert capacity >= 1;
+		assert mode != null;
+		this.generator = generator;
+		this.reset = reset;
+		this.capacity = capacity;
+		this.mode = mode;
+		if (mode == Mode.SHARED) {
+			slots = new AtomicReferenceArray<T>(capacity);
+			locals = null;
+		} else {
+			slots = null;
+			locals = new ThreadLocal<LocalPool>() {
+				
+				@Override
+				protected LocalPool initialValue() {
+					return new LocalPool(capacity);
+				}
+			};
+		}
+	}
+	
+	/**
+	 * プールから値を取り出す。
+	 * 
+	 * <p>プールに値が残っていない場合、元の生成器で新しい値を生成して返す。</p>
+	 * 
+	 * @return 取り出した値
+	 */
+	public T generate() {
+		if (mode == Mode.SHARED) {
+			AtomicReferenceArray<T> s = slots;
+			int start = start();
+			for (int i = 0; i < capacity; i++) {
+				int index = (start + i) % capacity;
+				T value = s.get(index);
+				if (value != null && s.compareAndSet(index, value, null)) {
+					return value;
+				}
+			}
+		} else {
+			LocalPool local = locals.get();
+			if (local.size > 0) {
+				local.size--;
+				@SuppressWarnings("unchecked")
+				T value = (T) local.values[local.size];
+				local.values[local.size] = null;
+				return value;
+			}
+		}
+		return generator.generate();
+	}
+	
+	/**
+	 * プールの容量を返す。
+	 * 
+	 * @return プールに保持する値の最大数
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * プールの共有方式を返す。
+	 * 
+	 * @return プールの共有方式
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+	
+	/**
+	 * 利用し終えた値をプールに返却する。
+	 * 
+	 * <p>返却された値は、初期化用の操作器で初期状態に戻された上でプールに格納される。
+	 * プールが満杯である場合、値は破棄される。</p>
+	 * 
+	 * @param value 返却する値
+	 * @return プールに格納した場合は{@code true}、破棄した場合は{@code false}
+	 * @throws IllegalArgumentException 引数に{@code null}が指定された場合
+	 */
+	public boolean release(T value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value is null"); //$NON-NLS-1$
+		}
+		reset.edit(value, null);
+		if (mode == Mode.SHARED) {
+			AtomicReferenceArray<T> s = slots;
+			int start = start();
+			for (int i = 0; i < capacity; i++) {
+				int index = (start + i) % capacity;
+				if (s.get(index) == null && s.compareAndSet(index, null, value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		LocalPool local = locals.get();
+		if (local.size < local.values.length) {
+			local.values[local.size++] = value;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 共有プールの探索を開始する位置を返す。
+	 * 
+	 * <p>スレッドごとに異なる位置から探索することで、同じ要素を奪い合う可能性を減らす。</p>
+	 * 
+	 * @return 探索を開始する位置
+	 */
+	private int start() {
+		return (int) (Thread.currentThread().getId() % capacity);
+	}
+	
+
+	/**
+	 * プールの共有方式。
+	 */
+	public enum Mode {
+		
+		/**
+		 * 全てのスレッドで単一のプールを共有する。
+		 * 
+		 * <p>プールはロックを利用せずに操作される。
+		 * 値を取り出したスレッドと異なるスレッドで返却してもよい。</p>
+		 */
+		SHARED,
+		
+		/**
+		 * スレッドごとに個別のプールを利用する。
+		 * 
+		 * <p>プールの操作は同期を必要としないが、
+		 * 値は返却したスレッドのプールに格納される。
+		 * また、プールの容量はスレッドごとに適用される。</p>
+		 */
+		THREAD_LOCAL
+	}
+	
+	private static class LocalPool {
+		
+		final Object[] values;
+		
+		int size;
+		
+
+		LocalPool(int capacity) {
+			assert capacity >= 1;
+			values = new Object[capacity];
+		}
+	}
+}
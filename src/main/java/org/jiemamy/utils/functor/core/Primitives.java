@@ -0,0 +1,596 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import org.jiemamy.utils.functor.DoubleFunctor;
+import org.jiemamy.utils.functor.DoubleOperator;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.IntOperator;
+import org.jiemamy.utils.functor.LongFunctor;
+import org.jiemamy.utils.functor.LongOperator;
+import org.jiemamy.utils.functor.Predicate;
+
+/**
+ * プリミティブ型に特化した関数群。
+ * 
+ * <p>このクラスのメソッドが返す関数は、{@link IntFunctor#applyAsInt(Object)}などの
+ * プリミティブ型を直接返すメソッドを通して値を受け渡すため、途中の値をボックス化しない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class Primitives {
+	
+	/**
+	 * 値を{@code Double}型に変換する関数を、{@link DoubleFunctor}として利用できるようにしたものを返す。
+	 * 
+	 * <p>引数の関数がすでに{@link DoubleFunctor}である場合、引数の値をそのまま返す。
+	 * そうでない場合、返される関数は引数の関数の結果をボックス化解除したものを返す。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>DoubleFunctor<S> asDouble(Functor<? extends Number, ? super S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof DoubleFunctor<?>) {
+			// DoubleFunctor<? super S>はDoubleFunctor<S>として利用できる
+			@SuppressWarnings("unchecked")
+			DoubleFunctor<S> result = (DoubleFunctor<S>) functor;
+			return result;
+		}
+		return new UnboxedDouble<S>(functor);
+	}
+	
+	/**
+	 * 値を{@code Integer}型に変換する関数を、{@link IntFunctor}として利用できるようにしたものを返す。
+	 * 
+	 * <p>引数の関数がすでに{@link IntFunctor}である場合、引数の値をそのまま返す。
+	 * そうでない場合、返される関数は引数の関数の結果をボックス化解除したものを返す。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>IntFunctor<S> asInt(Functor<? extends Number, ? super S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof IntFunctor<?>) {
+			// IntFunctor<? super S>はIntFunctor<S>として利用できる
+			@SuppressWarnings("unchecked")
+			IntFunctor<S> result = (IntFunctor<S>) functor;
+			return result;
+		}
+		return new UnboxedInt<S>(functor);
+	}
+	
+	/**
+	 * 値を{@code Long}型に変換する関数を、{@link LongFunctor}として利用できるようにしたものを返す。
+	 * 
+	 * <p>引数の関数がすでに{@link LongFunctor}である場合、引数の値をそのまま返す。
+	 * そうでない場合、返される関数は引数の関数の結果をボックス化解除したものを返す。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param functor 対象の関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>LongFunctor<S> asLong(Functor<? extends Number, ? super S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof LongFunctor<?>) {
+			// LongFunctor<? super S>はLongFunctor<S>として利用できる
+			@SuppressWarnings("unchecked")
+			LongFunctor<S> result = (LongFunctor<S>) functor;
+			return result;
+		}
+		return new UnboxedLong<S>(functor);
+	}
+	
+	/**
+	 * 値を{@code Boolean}型に変換する関数を、{@link Predicate}として利用できるようにしたものを返す。
+	 * 
+	 * <p>引数の関数がすでに{@link Predicate}である場合、引数の値をそのまま返す。
+	 * そうでない場合、返される述語は引数の関数の結果が{@code null}でない真の値である場合にのみ
+	 * {@code true}を返す。</p>
+	 * 
+	 * @param <S> 判定する値の型
+	 * @param functor 対象の関数
+	 * @return 対応する述語
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>Predicate<S> asPredicate(Functor<Boolean, ? super S> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		if (functor instanceof Predicate<?>) {
+			// Predicate<? super S>はPredicate<S>として利用できる
+			@SuppressWarnings("unchecked")
+			Predicate<S> result = (Predicate<S>) functor;
+			return result;
+		}
+		return new UnboxedPredicate<S>(functor);
+	}
+	
+	/**
+	 * 任意の関数の結果をさらに{@link DoubleFunctor}で変換する関数を生成して返す。
+	 * 
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <I, S>DoubleFunctor<S> compose(DoubleFunctor<? super I> g, Functor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new DoubleComposite<I, S>(f, g);
+	}
+	
+	/**
+	 * 2つの{@link DoubleOperator}を合成した関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsDouble(f.applyAsDouble(x))}を計算する。</p>
+	 * 
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static DoubleOperator compose(DoubleOperator g, DoubleOperator f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new DoubleOperatorComposite(f, g);
+	}
+	
+	/**
+	 * {@link DoubleFunctor}の結果をさらに{@link DoubleOperator}で変換する関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsDouble(f.applyAsDouble(x))}を計算する。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>DoubleFunctor<S> compose(DoubleOperator g, DoubleFunctor<? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new DoubleChain<S>(f, g);
+	}
+	
+	/**
+	 * 任意の関数の結果をさらに{@link IntFunctor}で変換する関数を生成して返す。
+	 * 
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <I, S>IntFunctor<S> compose(IntFunctor<? super I> g, Functor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new IntComposite<I, S>(f, g);
+	}
+	
+	/**
+	 * 2つの{@link IntOperator}を合成した関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsInt(f.applyAsInt(x))}を計算する。</p>
+	 * 
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static IntOperator compose(IntOperator g, IntOperator f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new IntOperatorComposite(f, g);
+	}
+	
+	/**
+	 * {@link IntFunctor}の結果をさらに{@link IntOperator}で変換する関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsInt(f.applyAsInt(x))}を計算する。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>IntFunctor<S> compose(IntOperator g, IntFunctor<? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new IntChain<S>(f, g);
+	}
+	
+	/**
+	 * 任意の関数の結果をさらに{@link LongFunctor}で変換する関数を生成して返す。
+	 * 
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <I, S>LongFunctor<S> compose(LongFunctor<? super I> g, Functor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new LongComposite<I, S>(f, g);
+	}
+	
+	/**
+	 * 2つの{@link LongOperator}を合成した関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsLong(f.applyAsLong(x))}を計算する。</p>
+	 * 
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static LongOperator compose(LongOperator g, LongOperator f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new LongOperatorComposite(f, g);
+	}
+	
+	/**
+	 * {@link LongFunctor}の結果をさらに{@link LongOperator}で変換する関数を生成して返す。
+	 * 
+	 * <p>合成した関数は、途中の結果をボックス化せずに{@code g.applyAsLong(f.applyAsLong(x))}を計算する。</p>
+	 * 
+	 * @param <S> 変換前の値の型
+	 * @param g {@code f}の結果をさらに変換する関数
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <S>LongFunctor<S> compose(LongOperator g, LongFunctor<? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new LongChain<S>(f, g);
+	}
+	
+	/**
+	 * 任意の関数の結果を{@link Predicate}で判定する述語を生成して返す。
+	 * 
+	 * @param <I> 最初の変換後の値の型
+	 * @param <S> 判定する値の型
+	 * @param g {@code f}の結果を判定する述語
+	 * @param f 最初に変換を行う関数
+	 * @return 合成した述語
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <I, S>Predicate<S> compose(Predicate<? super I> g, Functor<? extends I, ? super S> f) {
+		if (f == null) {
+			throw new IllegalArgumentException("f is null"); //$NON-NLS-1$
+		}
+		if (g == null) {
+			throw new IllegalArgumentException("g is null"); //$NON-NLS-1$
+		}
+		return new PredicateComposite<I, S>(f, g);
+	}
+	
+	private Primitives() {
+	}
+	
+
+	private static class DoubleChain<S> extends AbstractDoubleFunctor<S> {
+		
+		private DoubleFunctor<? super S> former;
+		
+		private DoubleOperator latter;
+		
+
+		DoubleChain(DoubleFunctor<? super S> former, DoubleOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public double applyAsDouble(S argument) {
+			return latter.applyAsDouble(former.applyAsDouble(argument));
+		}
+	}
+	
+	private static class DoubleComposite<I, S> extends AbstractDoubleFunctor<S> {
+		
+		private Functor<? extends I, ? super S> former;
+		
+		private DoubleFunctor<? super I> latter;
+		
+
+		DoubleComposite(Functor<? extends I, ? super S> former, DoubleFunctor<? super I> latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public double applyAsDouble(S argument) {
+			I intermediate = former.apply(argument);
+			return latter.applyAsDouble(intermediate);
+		}
+	}
+	
+	private static class DoubleOperatorComposite extends AbstractDoubleOperator {
+		
+		private DoubleOperator former;
+		
+		private DoubleOperator latter;
+		
+
+		DoubleOperatorComposite(DoubleOperator former, DoubleOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public double applyAsDouble(double operand) {
+			return latter.applyAsDouble(former.applyAsDouble(operand));
+		}
+	}
+	
+	private static class IntChain<S> extends AbstractIntFunctor<S> {
+		
+		private IntFunctor<? super S> former;
+		
+		private IntOperator latter;
+		
+
+		IntChain(IntFunctor<? super S> former, IntOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public int applyAsInt(S argument) {
+			return latter.applyAsInt(former.applyAsInt(argument));
+		}
+	}
+	
+	private static class IntComposite<I, S> extends AbstractIntFunctor<S> {
+		
+		private Functor<? extends I, ? super S> former;
+		
+		private IntFunctor<? super I> latter;
+		
+
+		IntComposite(Functor<? extends I, ? super S> former, IntFunctor<? super I> latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public int applyAsInt(S argument) {
+			I intermediate = former.apply(argument);
+			return latter.applyAsInt(intermediate);
+		}
+	}
+	
+	private static class IntOperatorComposite extends AbstractIntOperator {
+		
+		private IntOperator former;
+		
+		private IntOperator latter;
+		
+
+		IntOperatorComposite(IntOperator former, IntOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public int applyAsInt(int operand) {
+			return latter.applyAsInt(former.applyAsInt(operand));
+		}
+	}
+	
+	private static class LongChain<S> extends AbstractLongFunctor<S> {
+		
+		private LongFunctor<? super S> former;
+		
+		private LongOperator latter;
+		
+
+		LongChain(LongFunctor<? super S> former, LongOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public long applyAsLong(S argument) {
+			return latter.applyAsLong(former.applyAsLong(argument));
+		}
+	}
+	
+	private static class LongComposite<I, S> extends AbstractLongFunctor<S> {
+		
+		private Functor<? extends I, ? super S> former;
+		
+		private LongFunctor<? super I> latter;
+		
+
+		LongComposite(Functor<? extends I, ? super S> former, LongFunctor<? super I> latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public long applyAsLong(S argument) {
+			I intermediate = former.apply(argument);
+			return latter.applyAsLong(intermediate);
+		}
+	}
+	
+	private static class LongOperatorComposite extends AbstractLongOperator {
+		
+		private LongOperator former;
+		
+		private LongOperator latter;
+		
+
+		LongOperatorComposite(LongOperator former, LongOperator latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public long applyAsLong(long operand) {
+			return latter.applyAsLong(former.applyAsLong(operand));
+		}
+	}
+	
+	private static class PredicateComposite<I, S> extends AbstractPredicate<S> {
+		
+		private Functor<? extends I, ? super S> former;
+		
+		private Predicate<? super I> latter;
+		
+
+		PredicateComposite(Functor<? extends I, ? super S> former, Predicate<? super I> latter) {
+			assert former != null;
+			assert latter != null;
+			this.former = former;
+			this.latter = latter;
+		}
+		
+		public boolean test(S argument) {
+			I intermediate = former.apply(argument);
+			return latter.test(intermediate);
+		}
+	}
+	
+	private static class UnboxedDouble<S> extends AbstractDoubleFunctor<S> {
+		
+		private Functor<? extends Number, ? super S> functor;
+		
+
+		UnboxedDouble(Functor<? extends Number, ? super S> functor) {
+			assert functor != null;
+			this.functor = functor;
+		}
+		
+		public double applyAsDouble(S argument) {
+			return functor.apply(argument).doubleValue();
+		}
+	}
+	
+	private static class UnboxedInt<S> extends AbstractIntFunctor<S> {
+		
+		private Functor<? extends Number, ? super S> functor;
+		
+
+		UnboxedInt(Functor<? extends Number, ? super S> functor) {
+			assert functor != null;
+			this.functor = functor;
+		}
+		
+		public int applyAsInt(S argument) {
+			return functor.apply(argument).intValue();
+		}
+	}
+	
+	private static class UnboxedLong<S> extends AbstractLongFunctor<S> {
+		
+		private Functor<? extends Number, ? super S> functor;
+		
+
+		UnboxedLong(Functor<? extends Number, ? super S> functor) {
+			assert functor != null;
+			this.functor = functor;
+		}
+		
+		public long applyAsLong(S argument) {
+			return functor.apply(argument).longValue();
+		}
+	}
+	
+	private static class UnboxedPredicate<S> extends AbstractPredicate<S> {
+		
+		private Functor<Boolean, ? super S> functor;
+		
+
+		UnboxedPredicate(Functor<Boolean, ? super S> functor) {
+			assert functor != null;
+			this.functor = functor;
+		}
+		
+		public boolean test(S argument) {
+			Boolean result = functor.apply(argument);
+			return result != null && result.booleanValue();
+		}
+	}
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * 外部から完了させることができる{@link Future}。
+ * 
+ * <p>{@link #addListener(Runnable)}で完了時に実行される処理を登録できるため、
+ * 完了を待つためにスレッドをブロックすることなく、後続の処理を連結できる。
+ * {@link Functors#async(Functor, java.util.concurrent.Executor)}などで生成された非同期関数は、
+ * このクラスのインスタンスを返す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <T> 結果の型
+ */
+public final class Promise<T> implements Future<T> {
+	
+	private static final int PENDING = 0;
+	
+	private static final int SUCCEEDED = 1;
+	
+	private static final int FAILED = 2;
+	
+	private static final int CANCELLED = 3;
+	
+
+	/**
+	 * 指定の{@link Future}と同じ結果で完了する{@link Promise}を返す。
+	 * 
+	 * <p>{@code future}が{@link Promise}である場合、それをそのまま返す。
+	 * そうでなく、{@code future}がまだ完了していない場合には、
+	 * {@link Functors#async(Functor)}が利用する共有のスレッドプール上で{@code future}の完了を待ち、
+	 * 呼び出し元のスレッドはブロックしない。</p>
+	 * 
+	 * @param <T> 結果の型
+	 * @param future 対象の{@link Future}
+	 * @return 対応する{@link Promise}
+	 */
+	static <T>Promise<T> from(Future<? extends T> future) {
+		assert future != null;
+		if (future instanceof Promise<?>) {
+			@SuppressWarnings("unchecked")
+			Promise<T> result = (Promise<T>) future;
+			return result;
+		}
+		Promise<T> result = new Promise<T>();
+		forward(future, result);
+		return result;
+	}
+	
+	/**
+	 * 指定の{@link Future}の結果で、指定の{@link Promise}を完了させる。
+	 * 
+	 * <p>{@code source}が{@link Promise}以外の{@link Future}で、まだ完了していない場合、
+	 * その完了は{@link Functors#async(Functor)}が利用する共有のスレッドプール上で待つ。
+	 * {@link Future}には完了を通知する仕組みがないため、待っている間はそのプールのスレッドを1つ占有する。</p>
+	 * 
+	 * @param <T> 結果の型
+	 * @param source 結果を取り出す{@link Future}
+	 * @param target 完了させる{@link Promise}
+	 */
+	static <T>void forward(Future<? extends T> source, final Promise<T> target) {
+		assert source != null;
+		assert target != null;
+		if (source instanceof Promise<?>) {
+			final Promise<? extends T> promise = (Promise<? extends T>) source;
+			promise.addListener(new Runnable() {
+				
+				public void run() {
+					promise.forwardTo(target);
+				}
+			});
+			return;
+		}
+		if (source.isDone()) {
+			await(source, target);
+			return;
+		}
+		final Future<? extends T> foreign = source;
+		try {
+			Functors.AsyncPool.INSTANCE.execute(new Runnable() {
+				
+				public void run() {
+					await(foreign, target);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			target.fail(e);
+		}
+	}
+	
+	private static <T>void await(Future<? extends T> source, Promise<T> target) {
+		assert source != null;
+		assert target != null;
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					target.complete(source.get());
+					return;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					target.fail(e.getCause());
+					return;
+				} catch (CancellationException e) {
+					target.cancel(false);
+					return;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+
+	private volatile int state = PENDING;
+	
+	private T value;
+	
+	private Throwable failure;
+	
+	private List<Runnable> listeners;
+	
+
+	/**
+	 * まだ完了していないインスタンスを生成する。
+	 */
+	public Promise() {
+		return;
+	}
+	
+	/**
+	 * 完了時に実行される処理を登録する。
+	 * 
+	 * <p>すでに完了している場合、{@code listener}は呼び出し元のスレッドですぐに実行される。
+	 * そうでない場合、{@code listener}はこのオブジェクトを完了させたスレッドで、登録された順に実行される。
+	 * {@code listener}が例外をスローした場合でも、残りの処理は実行され、
+	 * 最初にスローされた例外が完了させたメソッドの呼び出し元に伝播する。</p>
+	 * 
+	 * @param listener 完了時に実行される処理
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public void addListener(Runnable listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("listener is null"); //$NON-NLS-1$
+		}
+		synchronized (this) {
+			if (state == PENDING) {
+				if (listeners == null) {
+					listeners = new ArrayList<Runnable>(2);
+				}
+				listeners.add(listener);
+				return;
+			}
+		}
+		listener.run();
+	}
+	
+	/**
+	 * このオブジェクトを取り消す。
+	 * 
+	 * <p>このクラスは処理の実行を管理しないため、{@code mayInterruptIfRunning}は無視される。</p>
+	 * 
+	 * @param mayInterruptIfRunning 無視される
+	 * @return このメソッドによって取り消された場合は{@code true}、すでに完了していた場合は{@code false}
+	 */
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return finish(CANCELLED, null, null);
+	}
+	
+	/**
+	 * このオブジェクトを、指定の値で正常に完了させる。
+	 * 
+	 * @param result 結果の値
+	 * @return このメソッドによって完了した場合は{@code true}、すでに完了していた場合は{@code false}
+	 */
+	public boolean complete(T result) {
+		return finish(SUCCEEDED, result, null);
+	}
+	
+	/**
+	 * このオブジェクトを、指定の例外で異常終了させる。
+	 * 
+	 * @param cause 異常終了の原因
+	 * @return このメソッドによって完了した場合は{@code true}、すでに完了していた場合は{@code false}
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public boolean fail(Throwable cause) {
+		if (cause == null) {
+			throw new IllegalArgumentException("cause is null"); //$NON-NLS-1$
+		}
+		return finish(FAILED, null, cause);
+	}
+	
+	public T get() throws InterruptedException, ExecutionException {
+		if (state == PENDING) {
+			synchronized (this) {
+				while (state == PENDING) {
+					wait();
+				}
+			}
+		}
+		return report();
+	}
+	
+	public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		if (state == PENDING) {
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this) {
+				while (state == PENDING) {
+					long rest = deadline - System.nanoTime();
+					if (rest <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, rest);
+				}
+			}
+		}
+		return report();
+	}
+	
+	public boolean isCancelled() {
+		return state == CANCELLED;
+	}
+	
+	public boolean isDone() {
+		return state != PENDING;
+	}
+	
+	/**
+	 * このオブジェクトの結果を指定の関数で変換した値で完了する{@link Promise}を返す。
+	 * 
+	 * <p>{@code functor}は、このオブジェクトを完了させたスレッドで適用される。
+	 * このオブジェクトが異常終了した場合や取り消された場合、{@code functor}は適用されず、
+	 * 返される{@link Promise}も同様に完了する。
+	 * {@code functor}が例外をスローした場合、返される{@link Promise}はその例外で異常終了する。</p>
+	 * 
+	 * @param <R> 変換後の値の型
+	 * @param functor 結果に適用する関数
+	 * @return 変換後の値で完了する{@link Promise}
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public <R>Promise<R> map(Functor<? extends R, ? super T> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		Promise<R> result = new Promise<R>();
+		addListener(new Map<R, T>(this, functor, result));
+		return result;
+	}
+	
+	/**
+	 * このオブジェクトの結果に指定の関数を適用し、その関数が返した{@link Future}の結果で完了する
+	 * {@link Promise}を返す。
+	 * 
+	 * <p>{@code functor}が{@link Promise}以外の{@link Future}を返した場合、
+	 * その完了は{@link Functors#async(Functor)}が利用する共有のスレッドプール上で待ち、
+	 * このオブジェクトを完了させたスレッドはブロックしない。
+	 * その他の振る舞いは{@link #map(Functor)}と同様である。</p>
+	 * 
+	 * @param <R> 変換後の値の型
+	 * @param functor 結果に適用する関数
+	 * @return 変換後の値で完了する{@link Promise}
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public <R>Promise<R> flatMap(Functor<? extends Future<? extends R>, ? super T> functor) {
+		if (functor == null) {
+			throw new IllegalArgumentException("functor is null"); //$NON-NLS-1$
+		}
+		Promise<R> result = new Promise<R>();
+		addListener(new FlatMap<R, T>(this, functor, result));
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		switch (state) {
+			case PENDING:
+				return "Promise(pending)"; //$NON-NLS-1$
+			case SUCCEEDED:
+				return "Promise(" + value + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+			case FAILED:
+				return "Promise(failed: " + failure + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+			default:
+				return "Promise(cancelled)"; //$NON-NLS-1$
+		}
+	}
+	
+	private boolean finish(int newState, T newValue, Throwable newFailure) {
+		assert newState != PENDING;
+		List<Runnable> toRun;
+		synchronized (this) {
+			if (state != PENDING) {
+				return false;
+			}
+			value = newValue;
+			failure = newFailure;
+			// valueとfailureの書き込みは、volatileなstateへの書き込みより前に行う
+			state = newState;
+			toRun = listeners;
+			listeners = null;
+			notifyAll();
+		}
+		if (toRun != null) {
+			RuntimeException first = null;
+			for (Runnable listener : toRun) {
+				try {
+					listener.run();
+				} catch (RuntimeException e) {
+					if (first == null) {
+						first = e;
+					}
+				}
+			}
+			if (first != null) {
+				throw first;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * このオブジェクトと同じ結果で、指定の{@link Promise}を完了させる。
+	 * 
+	 * @param target 完了させる{@link Promise}
+	 */
+	void forwardTo(Promise<? super T> target) {
+		assert state != PENDING;
+		switch (state) {
+			case SUCCEEDED:
+				target.complete(value);
+				break;
+			case FAILED:
+				target.fail(failure);
+				break;
+			default:
+				target.cancel(false);
+				break;
+		}
+	}
+	
+	/**
+	 * 正常に完了しなかったこのオブジェクトと同じ結果で、指定の{@link Promise}を完了させる。
+	 * 
+	 * @param target 完了させる{@link Promise}
+	 */
+	void forwardFailureTo(Promise<?> target) {
+		assert state == FAILED || state == CANCELLED;
+		if (state == FAILED) {
+			target.fail(failure);
+		} else {
+			target.cancel(false);
+		}
+	}
+	
+	private T report() throws ExecutionException {
+		assert state != PENDING;
+		switch (state) {
+			case SUCCEEDED:
+				return value;
+			case FAILED:
+				throw new ExecutionException(failure);
+			default:
+				throw new CancellationException();
+		}
+	}
+	
+
+	private static class FlatMap<R, T> implements Runnable {
+		
+		private final Promise<T> source;
+		
+		private final Functor<? extends Future<? extends R>, ? super T> functor;
+		
+		private final Promise<R> target;
+		
+
+		FlatMap(Promise<T> source, Functor<? extends Future<? extends R>, ? super T> functor, Promise<R> target) {
+			assert source != null;
+			assert functor != null;
+			assert target != null;
+			this.source = source;
+			this.functor = functor;
+			this.target = target;
+		}
+		
+		public void run() {
+			if (source.state != SUCCEEDED) {
+				source.forwardFailureTo(target);
+				return;
+			}
+			Future<? extends R> next;
+			try {
+				next = functor.apply(source.value);
+			} catch (Throwable t) {
+				target.fail(t);
+				return;
+			}
+			if (next == null) {
+				target.fail(new NullPointerException("functor returned null")); //$NON-NLS-1$
+				return;
+			}
+			forward(next, target);
+		}
+	}
+	
+	private static class Map<R, T> implements Runnable {
+		
+		private final Promise<T> source;
+		
+		private final Functor<? extends R, ? super T> functor;
+		
+		private final Promise<R> target;
+		
+
+		Map(Promise<T> source, Functor<? extends R, ? super T> functor, Promise<R> target) {
+			assert source != null;
+			assert functor != null;
+			assert target != null;
+			this.source = source;
+			this.functor = functor;
+			this.target = target;
+		}
+		
+		public void run() {
+			if (source.state != SUCCEEDED) {
+				source.forwardFailureTo(target);
+				return;
+			}
+			R result;
+			try {
+				result = functor.apply(source.value);
+			} catch (Throwable t) {
+				target.fail(t);
+				return;
+			}
+			target.complete(result);
+		}
+	}
+}
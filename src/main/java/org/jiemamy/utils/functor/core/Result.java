@@ -0,0 +1,141 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import org.jiemamy.utils.functor.ApplyException;
+
+/**
+ * 例外を利用せずに失敗を表現できる、変換の結果。
+ * 
+ * <p>{@code Functor<Result<D>, S>}のような関数は、変換に失敗した場合に例外をスローする代わりに
+ * 失敗を表す結果を返す。不正な入力が頻繁に現れる場合、例外の生成にかかる費用を避けられる。
+ * {@link #failure()}は常に同一のインスタンスを返すため、失敗時にオブジェクトは生成されない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <T> 結果の値の型
+ * @see Cast#tryTo(Class)
+ */
+public final class Result<T> {
+	
+	private static final Result<Object> FAILURE = new Result<Object>(false, null, null);
+	
+
+	/**
+	 * 理由を持たない、失敗を表す結果を返す。
+	 * 
+	 * <p>このメソッドは常に同一のインスタンスを返す。</p>
+	 * 
+	 * @param <T> 結果の値の型
+	 * @return 失敗を表す結果
+	 */
+	public static <T>Result<T> failure() {
+		@SuppressWarnings("unchecked")
+		Result<T> result = (Result<T>) FAILURE;
+		return result;
+	}
+	
+	/**
+	 * 指定の理由による、失敗を表す結果を返す。
+	 * 
+	 * <p>理由を定数として保持するなどして、失敗のたびに文字列を生成しないようにするとよい。</p>
+	 * 
+	 * @param <T> 結果の値の型
+	 * @param reason 失敗の理由
+	 * @return 失敗を表す結果
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <T>Result<T> failure(String reason) {
+		if (reason == null) {
+			throw new IllegalArgumentException("reason is null"); //$NON-NLS-1$
+		}
+		return new Result<T>(false, null, reason);
+	}
+	
+	/**
+	 * 成功を表す結果を返す。
+	 * 
+	 * @param <T> 結果の値の型
+	 * @param value 結果の値
+	 * @return 成功を表す結果
+	 */
+	public static <T>Result<T> success(T value) {
+		return new Result<T>(true, value, null);
+	}
+	
+
+	private final boolean success;
+	
+	private final T value;
+	
+	private final String reason;
+	
+
+	private Result(boolean success, T value, String reason) {
+		this.success = success;
+		this.value = value;
+		this.reason = reason;
+	}
+	
+	/**
+	 * 成功を表す結果かどうかを返す。
+	 * 
+	 * @return 成功を表す場合は{@code true}、失敗を表す場合は{@code false}
+	 */
+	public boolean isSuccess() {
+		return success;
+	}
+	
+	/**
+	 * 結果の値を返す。
+	 * 
+	 * @return 結果の値
+	 * @throws ApplyException 失敗を表す結果である場合
+	 */
+	public T get() {
+		if (success == false) {
+			throw new ApplyException(reason);
+		}
+		return value;
+	}
+	
+	/**
+	 * 成功を表す結果であればその値を、失敗を表す結果であれば指定の値を返す。
+	 * 
+	 * @param other 失敗を表す結果である場合に返す値
+	 * @return 結果の値、または{@code other}
+	 */
+	public T getOrElse(T other) {
+		return success ? value : other;
+	}
+	
+	/**
+	 * 失敗の理由を返す。
+	 * 
+	 * @return 失敗の理由、成功を表す結果や理由を持たない結果である場合は{@code null}
+	 */
+	public String getReason() {
+		return reason;
+	}
+	
+	@Override
+	public String toString() {
+		if (success) {
+			return "Success(" + value + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return "Failure(" + reason + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
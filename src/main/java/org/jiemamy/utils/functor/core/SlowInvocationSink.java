@@ -0,0 +1,162 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一定の時間以上かかった適用のみを、{@link InvocationEvent}として通知する{@link MetricsSink}。
+ * 
+ * <p>閾値は計測対象の名前の接頭辞ごとに指定でき、該当する接頭辞のうち最も長いものの閾値が利用される。
+ * いずれの接頭辞にも該当しない場合は、既定の閾値が利用される。
+ * 例えば、{@link Instrumentation#EDITORS_COMPOSE}に対する閾値を指定すると、
+ * {@link Editors#compose(Iterable)}で合成された操作器の段にのみ、その閾値が適用される。
+ * 例外がスローされた適用は、閾値にかかわらず常に通知される。</p>
+ * 
+ * <p>このクラスのインスタンスは不変であり、閾値を変更するメソッドは新しいインスタンスを返す。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class SlowInvocationSink implements MetricsSink {
+	
+	private final InvocationListener listener;
+	
+	private final long defaultThresholdNanos;
+	
+	/**
+	 * 接頭辞の一覧、長いものから順に並ぶ。
+	 */
+	private final String[] prefixes;
+	
+	private final long[] thresholdNanos;
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param listener 通知先
+	 * @param threshold 既定の閾値
+	 * @param unit {@code threshold}の単位
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code threshold}に負の値が指定された場合
+	 */
+	public SlowInvocationSink(InvocationListener listener, long threshold, TimeUnit unit) {
+		if (listener == null) {
+			throw new IllegalArgumentException("listener is null"); //$NON-NLS-1$
+		}
+		if (threshold < 0) {
+			throw new IllegalArgumentException("threshold must be >= 0"); //$NON-NLS-1$
+		}
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		this.listener = listener;
+		this.defaultThresholdNanos = unit.toNanos(threshold);
+		this.prefixes = new String[0];
+		this.thresholdNanos = new long[0];
+	}
+	
+	private SlowInvocationSink(InvocationListener listener, long defaultThresholdNanos, String[] prefixes,
+			long[] thresholdNanos) {
+		assert listener != null;
+		assert prefixes != null;
+		assert thresholdNanos != null;
+		assert prefixes.length == thresholdNanos.length;
+		this.listener = listener;
+		this.defaultThresholdNanos = defaultThresholdNanos;
+		this.prefixes = prefixes;
+		this.thresholdNanos = thresholdNanos;
+	}
+	
+	/**
+	 * 指定の接頭辞で始まる名前に対する閾値を変更したインスタンスを返す。
+	 * 
+	 * @param prefix 名前の接頭辞
+	 * @param threshold 閾値
+	 * @param unit {@code threshold}の単位
+	 * @return 変更後のインスタンス
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code threshold}に負の値が指定された場合
+	 */
+	public SlowInvocationSink withThreshold(String prefix, long threshold, TimeUnit unit) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("prefix is null"); //$NON-NLS-1$
+		}
+		if (threshold < 0) {
+			throw new IllegalArgumentException("threshold must be >= 0"); //$NON-NLS-1$
+		}
+		if (unit == null) {
+			throw new IllegalArgumentException("unit is null"); //$NON-NLS-1$
+		}
+		int n = prefixes.length;
+		String[] newPrefixes = new String[n + 1];
+		long[] newThresholds = new long[n + 1];
+		int j = 0;
+		boolean inserted = false;
+		for (int i = 0; i < n; i++) {
+			if (prefixes[i].equals(prefix)) {
+				continue;
+			}
+			if (inserted == false && prefixes[i].length() < prefix.length()) {
+				newPrefixes[j] = prefix;
+				newThresholds[j] = unit.toNanos(threshold);
+				j++;
+				inserted = true;
+			}
+			newPrefixes[j] = prefixes[i];
+			newThresholds[j] = thresholdNanos[i];
+			j++;
+		}
+		if (inserted == false) {
+			newPrefixes[j] = prefix;
+			newThresholds[j] = unit.toNanos(threshold);
+			j++;
+		}
+		String[] resultPrefixes = new String[j];
+		long[] resultThresholds = new long[j];
+		System.arraycopy(newPrefixes, 0, resultPrefixes, 0, j);
+		System.arraycopy(newThresholds, 0, resultThresholds, 0, j);
+		return new SlowInvocationSink(listener, defaultThresholdNanos, resultPrefixes, resultThresholds);
+	}
+	
+	/**
+	 * 指定の名前に対する閾値をナノ秒単位で返す。
+	 * 
+	 * @param name 計測対象の名前
+	 * @return 閾値
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public long getThresholdNanos(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		for (int i = 0; i < prefixes.length; i++) {
+			if (name.startsWith(prefixes[i])) {
+				return thresholdNanos[i];
+			}
+		}
+		return defaultThresholdNanos;
+	}
+	
+	public void record(String name, long elapsedNanos, Throwable failure) {
+		if (failure == null && elapsedNanos < getThresholdNanos(name)) {
+			return;
+		}
+		listener.invoked(new InvocationEvent(name, elapsedNanos, failure, Thread.currentThread(),
+				System.currentTimeMillis()));
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ひとつの計測対象について集計された、呼び出し回数や所要時間の統計情報。
+ * 
+ * <p>所要時間の分布は、2のべき乗ごとの区間をさらに{@value #SUB_BUCKETS}等分した
+ * 対数線形のヒストグラムで保持する。
+ * そのため、{@link #getPercentileNanos(double)}が返す値の相対誤差は、おおよそ12.5%以内となる。
+ * 記録はロックを利用せずに行われ、複数のスレッドから同時に記録できる。
+ * 記録中に読み出した値は、個々の値の間で一貫しない場合がある。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class StageMetrics {
+	
+	/**
+	 * 2のべき乗ごとの区間を分割する数。
+	 */
+	public static final int SUB_BUCKETS = 8;
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+
+	private final String name;
+	
+	private final AtomicLong count = new AtomicLong();
+	
+	private final AtomicLong failureCount = new AtomicLong();
+	
+	private final AtomicLong totalNanos = new AtomicLong();
+	
+	private final AtomicLong maxNanos = new AtomicLong();
+	
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	
+
+	/**
+	 * インスタンスを生成する。
+	 * 
+	 * @param name 計測対象の名前
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public StageMetrics(String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		this.name = name;
+	}
+	
+	/**
+	 * 一度の適用結果を記録する。
+	 * 
+	 * @param elapsedNanos 適用にかかった時間 (ナノ秒)、負の値は{@code 0}として扱う
+	 * @param failed 適用中に例外がスローされた場合は{@code true}
+	 */
+	public void record(long elapsedNanos, boolean failed) {
+		long nanos = Math.max(elapsedNanos, 0L);
+		count.incrementAndGet();
+		if (failed) {
+			failureCount.incrementAndGet();
+		}
+		totalNanos.addAndGet(nanos);
+		histogram.incrementAndGet(bucketOf(nanos));
+		long max = maxNanos.get();
+		while (nanos > max && maxNanos.compareAndSet(max, nanos) == false) {
+			max = maxNanos.get();
+		}
+	}
+	
+	/**
+	 * 計測対象の名前を返す。
+	 * 
+	 * @return 計測対象の名前
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * 記録された適用の回数を返す。
+	 * 
+	 * @return 適用の回数
+	 */
+	public long getCount() {
+		return count.get();
+	}
+	
+	/**
+	 * 記録された適用のうち、例外がスローされたものの回数を返す。
+	 * 
+	 * @return 例外がスローされた回数
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+	
+	/**
+	 * 記録された適用にかかった時間の合計をナノ秒単位で返す。
+	 * 
+	 * @return 所要時間の合計
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+	
+	/**
+	 * 記録された適用にかかった時間の最大値をナノ秒単位で返す。
+	 * 
+	 * @return 所要時間の最大値、記録がない場合は{@code 0}
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+	
+	/**
+	 * 記録された適用にかかった時間の平均値をナノ秒単位で返す。
+	 * 
+	 * @return 所要時間の平均値、記録がない場合は{@code 0}
+	 */
+	public double getMeanNanos() {
+		long c = count.get();
+		if (c == 0) {
+			return 0;
+		}
+		return (double) totalNanos.get() / c;
+	}
+	
+	/**
+	 * 記録された適用にかかった時間の、指定の分位点をナノ秒単位で返す。
+	 * 
+	 * <p>返される値は、分位点が含まれるヒストグラムの区間の上限となる。</p>
+	 * 
+	 * @param percentile 分位点 ({@code 0.0}から{@code 100.0}まで)
+	 * @return 分位点に対応する所要時間、記録がない場合は{@code 0}
+	 * @throws IllegalArgumentException 引数が範囲外の値である場合
+	 */
+	public long getPercentileNanos(double percentile) {
+		if ((percentile >= 0 && percentile <= 100) == false) {
+			throw new IllegalArgumentException("percentile must be in [0, 100]"); //$NON-NLS-1$
+		}
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = histogram.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+	
+	@Override
+	public String toString() {
+		return name + "(count=" + getCount() //$NON-NLS-1$
+				+ ", failures=" + getFailureCount() //$NON-NLS-1$
+				+ ", mean=" + (long) getMeanNanos() //$NON-NLS-1$
+				+ "ns, p50=" + getPercentileNanos(50) //$NON-NLS-1$
+				+ "ns, p99=" + getPercentileNanos(99) //$NON-NLS-1$
+				+ "ns, max=" + getMaxNanos() + "ns)"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	static int bucketOf(long nanos) {
+		assert nanos >= 0;
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+	
+	static long upperBoundOf(int bucket) {
+		assert 0 <= bucket && bucket < BUCKETS;
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int sub = bucket % SUB_BUCKETS;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		long lower = (SUB_BUCKETS + sub) * width;
+		return lower + width - 1;
+	}
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * 値の実行時クラスによって、適用する関数を切り替える関数。
+ * 
+ * <p>値の実行時クラスに対して、登録された型のうちその値を代入できる最も具体的な型を選び、
+ * その型に対応する関数を適用する。
+ * 最も具体的な型が複数存在する場合は、先に登録されたものが優先される。
+ * 対応する型が存在しない値や{@code null}に対しては、既定の関数が設定されていればそれを適用し、
+ * 設定されていなければ{@link ApplyException}をスローする。</p>
+ * 
+ * <p>適用する関数は実行時クラスごとに一度だけ解決され、以降は表引き1回で求められる。
+ * そのため、{@code instanceof}による判定を型の数だけ繰り返す必要がない。
+ * このクラスのインスタンスは、複数のスレッドから同時に利用できる。</p>
+ * 
+ * <p>解決結果の表は、実行時クラスのクラスローダによって2つに分けて保持する。
+ * このクラスと同じクラスローダかその祖先から読み込まれた実行時クラスは、
+ * ロックを取得せずに引ける表に上限なく保持する。
+ * それ以外のクラスローダから読み込まれた実行時クラスは、そのクラスローダのアンロードを妨げないよう
+ * 弱参照のキーとして保持し、ロックを取得して引く。
+ * いずれの場合も、一度解決された実行時クラスが適用のたびに改めて解決されることはない。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ * @param <R> 変換後の値の型
+ * @see Functors#dispatch()
+ * @see org.jiemamy.utils.functor.java.lang.Java#switchOnType(Map)
+ */
+public final class TypeSwitch<R> extends AbstractFunctor<R, Object> {
+	
+	/**
+	 * 型と関数の対応表から関数を生成して返す。
+	 * 
+	 * <p>対応表に登録された関数は、その型の値のみを引数として適用される。
+	 * 対応表の反復順が登録順として扱われるため、最も具体的な型が複数存在しうる場合には、
+	 * 反復順の定まった{@link java.util.LinkedHashMap}などを渡すこと。</p>
+	 * 
+	 * @param <R> 変換後の値の型
+	 * @param cases 型と、その型の値に適用する関数の対応表
+	 * @return 生成した関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応表のキーや値に{@code null}が含まれる場合
+	 */
+	public static <R>TypeSwitch<R> of(Map<? extends Class<?>, ? extends Functor<? extends R, ?>> cases) {
+		if (cases == null) {
+			throw new IllegalArgumentException("cases is null"); //$NON-NLS-1$
+		}
+		List<Class<?>> types = new ArrayList<Class<?>>(cases.size());
+		List<Functor<? extends R, ?>> handlers = new ArrayList<Functor<? extends R, ?>>(cases.size());
+		for (Map.Entry<? extends Class<?>, ? extends Functor<? extends R, ?>> entry : cases.entrySet()) {
+			if (entry.getKey() == null) {
+				throw new IllegalArgumentException("cases contains null type"); //$NON-NLS-1$
+			}
+			if (entry.getValue() == null) {
+				throw new IllegalArgumentException("cases contains null handler"); //$NON-NLS-1$
+			}
+			types.add(entry.getKey());
+			handlers.add(entry.getValue());
+		}
+		return new TypeSwitch<R>(types, handlers, null);
+	}
+	
+
+	private final Class<?>[] types;
+	
+	private final Functor<?, ?>[] handlers;
+	
+	private final Functor<?, ?> fallback;
+	
+	/**
+	 * アンロードを妨げない実行時クラスから、適用する関数への対応表。
+	 */
+	private final ConcurrentHashMap<Class<?>, Functor<?, ?>> shared;
+	
+	/**
+	 * それ以外の実行時クラスから、適用する関数への対応表。
+	 * 
+	 * <p>このオブジェクト自身をロックして利用する。</p>
+	 */
+	private final WeakHashMap<Class<?>, Functor<?, ?>> isolated;
+	
+
+	TypeSwitch(List<Class<?>> types, List<? extends Functor<? extends R, ?>> handlers,
+			Functor<? extends R, Object> fallback) {
+		assert types != null;
+		assert handlers != null;
+		assert types.size() == handlers.size();
+		this.types = types.toArray(new Class<?>[types.size()]);
+		this.handlers = handlers.toArray(new Functor<?, ?>[handlers.size()]);
+		this.fallback = fallback == null ? NoCase.INSTANCE : fallback;
+		this.shared = new ConcurrentHashMap<Class<?>, Functor<?, ?>>();
+		this.isolated = new WeakHashMap<Class<?>, Functor<?, ?>>();
+	}
+	
+	public R apply(Object argument) {
+		Functor<?, ?> found;
+		if (argument == null) {
+			found = fallback;
+		} else {
+			Class<?> runtimeClass = argument.getClass();
+			found = shared.get(runtimeClass);
+			if (found == null) {
+				if (isShared(runtimeClass)) {
+					found = resolve(runtimeClass);
+					shared.put(runtimeClass, found);
+				} else {
+					found = findIsolated(runtimeClass);
+				}
+			}
+		}
+		@SuppressWarnings("unchecked")
+		Functor<? extends R, Object> handler = (Functor<? extends R, Object>) found;
+		return handler.apply(argument);
+	}
+	
+	/**
+	 * 他のクラスローダから読み込まれた実行時クラスの値に適用する関数を返す。
+	 * 
+	 * @param runtimeClass 対象の実行時クラス
+	 * @return 適用する関数、対応する型が存在しない場合は既定の関数
+	 */
+	private synchronized Functor<?, ?> findIsolated(Class<?> runtimeClass) {
+		assert runtimeClass != null;
+		Functor<?, ?> found = isolated.get(runtimeClass);
+		if (found == null) {
+			found = resolve(runtimeClass);
+			isolated.put(runtimeClass, found);
+		}
+		return found;
+	}
+	
+	/**
+	 * 指定の実行時クラスの値に適用する関数を返す。
+	 * 
+	 * @param runtimeClass 対象の実行時クラス
+	 * @return 適用する関数、対応する型が存在しない場合は既定の関数
+	 */
+	private Functor<?, ?> resolve(Class<?> runtimeClass) {
+		assert runtimeClass != null;
+		int found = -1;
+		for (int i = 0; i < types.length; i++) {
+			if (types[i].isAssignableFrom(runtimeClass) == false) {
+				continue;
+			}
+			// より具体的な型が見つかった場合のみ置き換える
+			if (found < 0 || (types[found] != types[i] && types[found].isAssignableFrom(types[i]))) {
+				found = i;
+			}
+		}
+		return found < 0 ? fallback : handlers[found];
+	}
+	
+	/**
+	 * 指定のクラスを強参照で保持しても、そのクラスローダのアンロードを妨げないかどうかを返す。
+	 * 
+	 * @param type 対象のクラス
+	 * @return このクラスと同じクラスローダかその祖先から読み込まれたクラスであれば{@code true}
+	 */
+	private static boolean isShared(Class<?> type) {
+		ClassLoader target = type.getClassLoader();
+		if (target == null) {
+			return true;
+		}
+		try {
+			for (ClassLoader loader = TypeSwitch.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+				if (loader == target) {
+					return true;
+				}
+			}
+		} catch (SecurityException e) {
+			// 祖先を辿れない場合は、アンロードを妨げない側に倒す
+			return false;
+		}
+		return false;
+	}
+	
+
+	/**
+	 * {@link TypeSwitch}を構築する。
+	 * 
+	 * <p>このクラスのインスタンスは{@link Functors#dispatch()}で生成する。
+	 * {@link #build()}の後も型の登録を続け、別の関数を構築してよい。
+	 * このクラスのインスタンスは、複数のスレッドから同時に利用できない。</p>
+	 * 
+	 * @version $Date$
+	 * @author Suguru ARAKAWA
+	 * @param <R> 変換後の値の型
+	 */
+	public static final class Builder<R> {
+		
+		private final List<Class<?>> types;
+		
+		private final List<Functor<? extends R, ?>> handlers;
+		
+		private Functor<? extends R, Object> fallback;
+		
+
+		Builder() {
+			types = new ArrayList<Class<?>>();
+			handlers = new ArrayList<Functor<? extends R, ?>>();
+		}
+		
+		/**
+		 * 指定の型の値に適用する関数を登録する。
+		 * 
+		 * <p>{@code type}にはクラスのほか、インターフェースや抽象クラスを指定してよい。
+		 * 値を代入できる型が複数登録されている場合、最も具体的な型に対応する関数が適用される。</p>
+		 * 
+		 * @param <T> 対象の型
+		 * @param type 対象の型
+		 * @param handler 対象の型の値に適用する関数
+		 * @return このオブジェクト
+		 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+		 *     または{@code type}がすでに登録されている場合
+		 */
+		public <T>Builder<R> on(Class<T> type, Functor<? extends R, ? super T> handler) {
+			if (type == null) {
+				throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+			}
+			if (handler == null) {
+				throw new IllegalArgumentException("handler is null"); //$NON-NLS-1$
+			}
+			if (types.contains(type)) {
+				throw new IllegalArgumentException("type is already registered: " + type.getName()); //$NON-NLS-1$
+			}
+			types.add(type);
+			handlers.add(handler);
+			return this;
+		}
+		
+		/**
+		 * 登録されたいずれの型にも該当しない値、および{@code null}に適用する関数を設定する。
+		 * 
+		 * <p>設定しない場合、構築される関数はそのような値に対して{@link ApplyException}をスローする。</p>
+		 * 
+		 * @param handler 既定の関数
+		 * @return このオブジェクト
+		 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+		 */
+		public Builder<R> otherwise(Functor<? extends R, Object> handler) {
+			if (handler == null) {
+				throw new IllegalArgumentException("handler is null"); //$NON-NLS-1$
+			}
+			fallback = handler;
+			return this;
+		}
+		
+		/**
+		 * 登録された内容から関数を構築して返す。
+		 * 
+		 * @return 構築した関数
+		 */
+		public TypeSwitch<R> build() {
+			return new TypeSwitch<R>(types, handlers, fallback);
+		}
+	}
+	
+	private static class NoCase extends AbstractFunctor<Object, Object> {
+		
+		static final NoCase INSTANCE = new NoCase();
+		
+
+		NoCase() {
+			return;
+		}
+		
+		public Object apply(Object argument) {
+			if (argument == null) {
+				throw new ApplyException("argument is null"); //$NON-NLS-1$
+			}
+			throw new ApplyException("no case for " + argument.getClass().getName()); //$NON-NLS-1$
+		}
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.LongFunctor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.AbstractLongFunctor;
+
+/**
+ * {@link java.lang.CharSequence}に関する関数群。
+ * 
+ * <p>このクラスの関数は、文字列の一部分を新しい文字列として複製する代わりに、
+ * 元の文字列の範囲を参照するビューを返す。
+ * ビューは元の文字列の内容を共有するため、元の文字列が変更された場合にはビューの内容も変化する。
+ * また、ビューは{@link CharSequence}の規約通り{@link Object#equals(Object)}を再定義しないため、
+ * 内容を比較する場合や保持し続ける場合には{@link Object#toString()}で文字列に変換すること。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public abstract class CharSequences extends Objects {
+	
+	private static final IntFunctor<CharSequence> LENGTH = new AbstractIntFunctor<CharSequence>() {
+		
+		public int applyAsInt(CharSequence self) {
+			return self.length();
+		}
+	};
+	
+	private static final IntFunctor<CharSequence> PARSE_INT = new AbstractIntFunctor<CharSequence>() {
+		
+		public int applyAsInt(CharSequence self) {
+			return (int) Integers.parseDecimal(self, 0, self.length(), Integer.MAX_VALUE, true);
+		}
+	};
+	
+	private static final LongFunctor<CharSequence> PARSE_LONG = new AbstractLongFunctor<CharSequence>() {
+		
+		public long applyAsLong(CharSequence self) {
+			return Integers.parseDecimal(self, 0, self.length(), Long.MAX_VALUE, true);
+		}
+	};
+	
+	private static final Functor<CharSequence, CharSequence> TRIM = new AbstractFunctor<CharSequence, CharSequence>() {
+		
+		public CharSequence apply(CharSequence self) {
+			int start = 0;
+			int end = self.length();
+			while (start < end && self.charAt(start) <= ' ') {
+				start++;
+			}
+			while (start < end && self.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			if (start == 0 && end == self.length()) {
+				return self;
+			}
+			return view(self, start, end);
+		}
+	};
+	
+
+	/**
+	 * {@link CharSequence#charAt(int)}に対応する関数を返す。
+	 * <p>
+	 * 返される関数は、文字を{@link Character}に変換せず{@code int}値として返す。
+	 * </p>
+	 * @param index 添え字の位置
+	 * @return {@code x -> x.charAt(index)}
+	 */
+	public static IntFunctor<CharSequence> charAt(final int index) {
+		return new AbstractIntFunctor<CharSequence>() {
+			
+			public int applyAsInt(CharSequence self) {
+				return self.charAt(index);
+			}
+		};
+	}
+	
+	/**
+	 * {@link CharSequence#length()}に対応する関数を返す。
+	 * @return 対応する関数
+	 */
+	public static IntFunctor<CharSequence> length() {
+		return LENGTH;
+	}
+	
+	/**
+	 * 文字列全体を10進数の{@code int}値として解析する関数を返す。
+	 * <p>
+	 * {@link Integer#parseInt(String)}と同様の形式を受け付けるが、
+	 * 文字列のビューに対しても部分文字列を生成せずに解析する。
+	 * 解析に失敗した場合、返される関数は{@link NumberFormatException}をスローする。
+	 * </p>
+	 * @return 対応する関数
+	 */
+	public static IntFunctor<CharSequence> parseInt() {
+		return PARSE_INT;
+	}
+	
+	/**
+	 * 文字列全体を10進数の{@code long}値として解析する関数を返す。
+	 * <p>
+	 * {@link Long#parseLong(String)}と同様の形式を受け付けるが、
+	 * 文字列のビューに対しても部分文字列を生成せずに解析する。
+	 * 解析に失敗した場合、返される関数は{@link NumberFormatException}をスローする。
+	 * </p>
+	 * @return 対応する関数
+	 */
+	public static LongFunctor<CharSequence> parseLong() {
+		return PARSE_LONG;
+	}
+	
+	/**
+	 * 文字列の指定の範囲を参照するビューを返す関数を返す。
+	 * @param start 開始位置 (この位置を含む)
+	 * @param end 終了位置 (この位置を含まない)
+	 * @return {@code x -> view(x, start, end)}
+	 * @throws IllegalArgumentException {@code start}が負である場合、または{@code start > end}である場合
+	 * @see #view(CharSequence, int, int)
+	 */
+	public static Functor<CharSequence, CharSequence> range(final int start, final int end) {
+		if (start < 0) {
+			throw new IllegalArgumentException("start is negative"); //$NON-NLS-1$
+		}
+		if (start > end) {
+			throw new IllegalArgumentException("start > end"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<CharSequence, CharSequence>() {
+			
+			public CharSequence apply(CharSequence self) {
+				return view(self, start, end);
+			}
+		};
+	}
+	
+	/**
+	 * 文字列を指定の区切り文字で分割し、それぞれの範囲を参照するビューのリストを返す関数を返す。
+	 * <p>
+	 * {@link String#split(String)}と異なり、末尾の空の要素も取り除かない。
+	 * そのため、区切り文字が{@code n}個含まれる文字列は、常に{@code n + 1}個の要素に分割される。
+	 * </p>
+	 * @param delimiter 区切り文字
+	 * @return 文字列を分割したビューのリストを返す関数
+	 */
+	public static Functor<List<CharSequence>, CharSequence> split(final char delimiter) {
+		return new AbstractFunctor<List<CharSequence>, CharSequence>() {
+			
+			public List<CharSequence> apply(CharSequence self) {
+				List<CharSequence> results = new ArrayList<CharSequence>();
+				int length = self.length();
+				int start = 0;
+				for (int i = 0; i < length; i++) {
+					if (self.charAt(i) == delimiter) {
+						results.add(view(self, start, i));
+						start = i + 1;
+					}
+				}
+				results.add(view(self, start, length));
+				return results;
+			}
+		};
+	}
+	
+	/**
+	 * 先頭と末尾の空白を取り除いた範囲を参照するビューを返す関数を返す。
+	 * <p>
+	 * 空白の扱いは{@link String#trim()}と同様である。
+	 * 取り除く空白が存在しない場合、返される関数は引数をそのまま返す。
+	 * </p>
+	 * @return 対応する関数
+	 */
+	public static Functor<CharSequence, CharSequence> trim() {
+		return TRIM;
+	}
+	
+	/**
+	 * 文字の配列の指定の範囲を参照するビューを返す。
+	 * <p>
+	 * 配列は複製されないため、配列の内容を変更するとビューの内容も変化する。
+	 * </p>
+	 * @param chars 対象の配列
+	 * @param offset 開始位置
+	 * @param length 範囲の長さ
+	 * @return 指定の範囲を参照するビュー
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @throws IndexOutOfBoundsException 範囲が配列の外を含む場合
+	 */
+	public static CharSequence view(char[] chars, int offset, int length) {
+		if (chars == null) {
+			throw new IllegalArgumentException("chars is null"); //$NON-NLS-1$
+		}
+		if (offset < 0 || length < 0 || offset > chars.length - length) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new ArrayRange(chars, offset, length);
+	}
+	
+	/**
+	 * 文字列の指定の範囲を参照するビューを返す。
+	 * <p>
+	 * {@link String#subSequence(int, int)}と異なり、文字列の内容を複製しない。
+	 * </p>
+	 * @param sequence 対象の文字列
+	 * @param start 開始位置 (この位置を含む)
+	 * @param end 終了位置 (この位置を含まない)
+	 * @return 指定の範囲を参照するビュー
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @throws IndexOutOfBoundsException 範囲が文字列の外を含む場合
+	 */
+	public static CharSequence view(CharSequence sequence, int start, int end) {
+		if (sequence == null) {
+			throw new IllegalArgumentException("sequence is null"); //$NON-NLS-1$
+		}
+		return sequence instanceof ArrayRange
+				? sequence.subSequence(start, end)
+				: SequenceRange.of(sequence, start, end);
+	}
+	
+
+	private static final class ArrayRange implements CharSequence {
+		
+		private final char[] chars;
+		
+		private final int offset;
+		
+		private final int length;
+		
+
+		ArrayRange(char[] chars, int offset, int length) {
+			assert chars != null;
+			assert 0 <= offset && 0 <= length && offset + length <= chars.length;
+			this.chars = chars;
+			this.offset = offset;
+			this.length = length;
+		}
+		
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return chars[offset + index];
+		}
+		
+		public int length() {
+			return length;
+		}
+		
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || start > end || end > length) {
+				throw new IndexOutOfBoundsException();
+			}
+			return new ArrayRange(chars, offset + start, end - start);
+		}
+		
+		@Override
+		public String toString() {
+			return new String(chars, offset, length);
+		}
+	}
+	
+	private static final class SequenceRange implements CharSequence {
+		
+		static SequenceRange of(CharSequence sequence, int start, int end) {
+			assert sequence != null;
+			if (start < 0 || start > end || end > sequence.length()) {
+				throw new IndexOutOfBoundsException();
+			}
+			// ビューのビューは作らず、元の文字列を直接参照する
+			if (sequence instanceof SequenceRange) {
+				SequenceRange range = (SequenceRange) sequence;
+				return new SequenceRange(range.sequence, range.start + start, range.start + end);
+			}
+			return new SequenceRange(sequence, start, end);
+		}
+		
+
+		final CharSequence sequence;
+		
+		final int start;
+		
+		final int end;
+		
+
+		private SequenceRange(CharSequence sequence, int start, int end) {
+			this.sequence = sequence;
+			this.start = start;
+			this.end = end;
+		}
+		
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return sequence.charAt(start + index);
+		}
+		
+		public int length() {
+			return end - start;
+		}
+		
+		public CharSequence subSequence(int from, int to) {
+			return of(this, from, to);
+		}
+		
+		@Override
+		public String toString() {
+			if (sequence instanceof String) {
+				return ((String) sequence).substring(start, end);
+			}
+			return new StringBuilder(end - start).append(sequence, start, end).toString();
+		}
+	}
+}
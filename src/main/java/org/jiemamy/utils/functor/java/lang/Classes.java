@@ -15,7 +15,6 @@
  */
 package org.jiemamy.utils.functor.java.lang;
 
-import org.jiemamy.utils.functor.ApplyException;
 import org.jiemamy.utils.functor.Functor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
 
@@ -26,6 +25,28 @@ import org.jiemamy.utils.functor.core.AbstractFunctor;
  */
 public abstract class Classes extends Objects {
 	
+	private static final Functor<String, Class<?>> NAME = new AbstractFunctor<String, Class<?>>() {
+		
+		public String apply(Class<?> self) {
+			return self.getName();
+		}
+	};
+	
+	private static final Functor<Object, Class<?>> NEW_INSTANCE = new AbstractFunctor<Object, Class<?>>() {
+		
+		public Object apply(Class<?> self) {
+			return Reflect.newInstance(self);
+		}
+	};
+	
+	private static final Functor<Class<?>, Object> VALUE = new AbstractFunctor<Class<?>, Object>() {
+		
+		public Class<?> apply(Object source) {
+			return (Class<?>) source;
+		}
+	};
+	
+
 	/**
 	 * {@link Class#asSubclass(Class)}に対応する関数を返す。
 	 * @param <T> 引数に指定するクラスの型
@@ -46,32 +67,25 @@ public abstract class Classes extends Objects {
 	 * @return {@link Class#getName()}に対応する関数
 	 */
 	public static Functor<String, Class<?>> name() {
-		return new AbstractFunctor<String, Class<?>>() {
-			
-			public String apply(Class<?> self) {
-				return self.getName();
-			}
-		};
+		return NAME;
 	}
 	
 	/**
 	 * {@link Class#newInstance()}に対応する関数を返す。
+	 * <p>
+	 * 返される関数は、引数をとらないコンストラクタをクラスごとに一度だけ解決し、キャッシュして利用する。
+	 * コンストラクタが非チェック例外をスローした場合はその例外を、
+	 * チェック例外をスローした場合や、インスタンスの生成に失敗した場合には
+	 * {@link org.jiemamy.utils.functor.ApplyException}をスローする。
+	 * 特定のクラスのみを扱う場合には、{@link Reflect#constructor(Class)}を利用するとよい。
+	 * </p>
 	 * @param <T> 対象クラスの型
 	 * @return 対応する関数
 	 */
 	public static <T>Functor<T, Class<T>> newInstance() {
-		return new AbstractFunctor<T, Class<T>>() {
-			
-			public T apply(Class<T> self) {
-				try {
-					return self.newInstance();
-				} catch (InstantiationException e) {
-					throw new ApplyException(e);
-				} catch (IllegalAccessException e) {
-					throw new ApplyException(e);
-				}
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<T, Class<T>> result = (Functor<T, Class<T>>) (Functor<?, ?>) NEW_INSTANCE;
+		return result;
 	}
 	
 	/**
@@ -83,11 +97,6 @@ public abstract class Classes extends Objects {
 	 * @return {@code List<?>}型に変換する関数
 	 */
 	public static Functor<Class<?>, Object> value() {
-		return new AbstractFunctor<Class<?>, Object>() {
-			
-			public Class<?> apply(Object source) {
-				return (Class<?>) source;
-			}
-		};
+		return VALUE;
 	}
 }
@@ -16,7 +16,10 @@
 package org.jiemamy.utils.functor.java.lang;
 
 import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.Result;
 
 /**
  * {@code int}型、{@code Integer}型に関する関数群。
@@ -25,16 +28,154 @@ import org.jiemamy.utils.functor.core.AbstractFunctor;
  */
 public abstract class Integers extends Numbers {
 	
+	/**
+	 * {@link #parseInt(CharSequence, int, int)}が解析に失敗したことを表す値。
+	 */
+	static final long INVALID = Long.MIN_VALUE;
+	
+	private static final IntFunctor<String> PARSE = new AbstractIntFunctor<String>() {
+		
+		public int applyAsInt(String string) {
+			return Integer.parseInt(string);
+		}
+	};
+	
+	private static final Functor<Result<Integer>, String> TRY_PARSE = new AbstractFunctor<Result<Integer>, String>() {
+		
+		public Result<Integer> apply(String string) {
+			if (string == null) {
+				return Result.failure();
+			}
+			long value = parseInt(string, 0, string.length());
+			if (value == INVALID) {
+				return Result.failure();
+			}
+			return Result.success((int) value);
+		}
+	};
+	
+
 	/**
 	 * {@link Integer#parseInt(String)}に対応する関数を返す。
 	 * @return 対応する関数
 	 */
-	public static Functor<Integer, String> parse() {
-		return new AbstractFunctor<Integer, String>() {
+	public static IntFunctor<String> parse() {
+		return PARSE;
+	}
+	
+	/**
+	 * {@link Integer#parseInt(String)}に対応し、解析に失敗した場合には指定の値を返す関数を返す。
+	 * <p>
+	 * 返される関数は、解析に失敗した場合にも例外を生成しない。
+	 * </p>
+	 * @param defaultValue 解析に失敗した場合に返す値
+	 * @return 対応する関数
+	 */
+	public static IntFunctor<String> parseOrElse(final int defaultValue) {
+		return new AbstractIntFunctor<String>() {
 			
-			public Integer apply(String string) {
-				return Integer.parseInt(string);
+			public int applyAsInt(String string) {
+				if (string == null) {
+					return defaultValue;
+				}
+				long value = parseInt(string, 0, string.length());
+				return value == INVALID ? defaultValue : (int) value;
 			}
 		};
 	}
+	
+	/**
+	 * {@link Integer#parseInt(String)}に対応し、結果を{@link Result}として返す関数を返す。
+	 * <p>
+	 * 返される関数は、解析に失敗した場合に例外をスローせず、{@link Result#failure()}を返す。
+	 * 不正な入力が頻繁に現れる場合には、{@link #parse()}よりもこちらを利用するとよい。
+	 * </p>
+	 * @return 対応する関数
+	 */
+	public static Functor<Result<Integer>, String> tryParse() {
+		return TRY_PARSE;
+	}
+	
+	/**
+	 * 文字列の指定の範囲を10進数の{@code int}値として解析する。
+	 * <p>
+	 * {@link Integer#parseInt(String)}と同様の形式を受け付けるが、
+	 * 部分文字列や例外を生成せずに、解析に失敗した場合は{@link #INVALID}を返す。
+	 * </p>
+	 * @param s 対象の文字列
+	 * @param start 開始位置 (この位置を含む)
+	 * @param end 終了位置 (この位置を含まない)
+	 * @return 解析した値、失敗した場合は{@link #INVALID}
+	 */
+	static long parseInt(CharSequence s, int start, int end) {
+		return parseDecimal(s, start, end, Integer.MAX_VALUE, false);
+	}
+	
+	/**
+	 * 文字列の指定の範囲を、{@code -max - 1}以上{@code max}以下の10進数の整数として解析する。
+	 * <p>
+	 * {@code int}と{@code long}の解析で共有する。
+	 * {@code long}の解析では{@link #INVALID}も正しい値となりうるため、{@code strict}に{@code true}を指定し、
+	 * 失敗を例外で通知させること。
+	 * </p>
+	 * @param s 対象の文字列
+	 * @param start 開始位置 (この位置を含む)
+	 * @param end 終了位置 (この位置を含まない)
+	 * @param max 受け付ける最大の値
+	 * @param strict 解析に失敗した場合に例外をスローする場合は{@code true}、
+	 *     {@link #INVALID}を返す場合は{@code false}
+	 * @return 解析した値、失敗した場合は{@link #INVALID}
+	 * @throws NumberFormatException {@code strict}が{@code true}で、解析に失敗した場合
+	 */
+	static long parseDecimal(CharSequence s, int start, int end, long max, boolean strict) {
+		assert s != null;
+		assert 0 <= start && start <= end && end <= s.length();
+		assert max > 0;
+		if (start == end) {
+			return invalid(s, strict);
+		}
+		int index = start;
+		boolean negative = false;
+		long limit = -max;
+		char first = s.charAt(index);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (negative) {
+				limit = -max - 1;
+			}
+			index++;
+			if (index == end) {
+				return invalid(s, strict);
+			}
+		}
+		// Long.parseLongと同様に、負の値として集計してオーバーフローを検出する
+		long multiplicationLimit = limit / 10;
+		long result = 0;
+		for (; index < end; index++) {
+			int digit = Character.digit(s.charAt(index), 10);
+			if (digit < 0 || result < multiplicationLimit) {
+				return invalid(s, strict);
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return invalid(s, strict);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+	
+	/**
+	 * 解析に失敗したことを、指定の方法で通知する。
+	 * @param s 解析に失敗した文字列
+	 * @param strict 例外をスローする場合は{@code true}
+	 * @return {@link #INVALID}
+	 * @throws NumberFormatException {@code strict}が{@code true}である場合
+	 */
+	private static long invalid(CharSequence s, boolean strict) {
+		if (strict) {
+			throw new NumberFormatException("For input string: \"" + s + "\""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return INVALID;
+	}
 }
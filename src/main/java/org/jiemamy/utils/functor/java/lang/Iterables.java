@@ -16,10 +16,31 @@
 package org.jiemamy.utils.functor.java.lang;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
+import org.jiemamy.utils.functor.BatchFunctor;
+import org.jiemamy.utils.functor.BinaryFunctor;
+import org.jiemamy.utils.functor.DoubleBinaryOperator;
+import org.jiemamy.utils.functor.DoubleFunctor;
 import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntBinaryOperator;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.LongBinaryOperator;
+import org.jiemamy.utils.functor.LongFunctor;
+import org.jiemamy.utils.functor.Predicate;
+import org.jiemamy.utils.functor.core.AbstractDoubleFunctor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.AbstractLongFunctor;
+import org.jiemamy.utils.functor.core.AbstractPredicate;
+import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.Parallel;
+import org.jiemamy.utils.functor.core.Primitives;
 
 /**
  * {@link java.lang.Iterable}に関する関数群。
@@ -28,29 +49,116 @@ import org.jiemamy.utils.functor.core.AbstractFunctor;
  */
 public abstract class Iterables extends Objects {
 	
+	private static final Functor<Object, Iterable<?>> FIRST = new AbstractFunctor<Object, Iterable<?>>() {
+		
+		public Object apply(Iterable<?> self) {
+			Iterator<?> iter = self.iterator();
+			return iter.hasNext() ? iter.next() : null;
+		}
+	};
+	
+
+	/**
+	 * 指定の{@link Iterable}に、{@code filter}を満たす要素が含まれるかどうかを判定する述語を返す。
+	 * <p>
+	 * 返される述語は、条件を満たす要素が見つかった時点で反復を打ち切る。
+	 * {@link Iterable}に要素がひとつも含まれない場合、この述語は常に{@code false}を返す。
+	 * </p>
+	 * @param <T> 要素の型
+	 * @param filter それぞれの要素のフィルタ
+	 * @return 対応する述語
+	 */
+	public static <T>Predicate<Iterable<? extends T>> anyMatch(Functor<Boolean, ? super T> filter) {
+		final Predicate<T> predicate = Primitives.asPredicate(filter);
+		return new AbstractPredicate<Iterable<? extends T>>() {
+			
+			public boolean test(Iterable<? extends T> self) {
+				for (T element : self) {
+					if (predicate.test(element)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+	}
+	
 	/**
 	 * 指定の{@link Iterable}から取得可能な個々の要素に対して関数を適用し、
 	 * その結果を格納したリストを返す。
 	 * <p>
 	 * 返されるリストの順序は、{@code iterable.iterator()}が反復する要素の順序と同じになる。
 	 * </p>
+	 * <p>
+	 * 返される関数に{@link Functor#andThen(Functor)}で{@link #only(Functor)}を合成した場合、
+	 * 中間のリストを生成せずに、要素の変換と選択を1回の反復で行う。
+	 * </p>
+	 * <p>
+	 * {@code elementFunctor}は要素ごとに先頭から順に適用され、
+	 * ある要素の変換が完了してから次の要素の変換が開始される。
+	 * 段ごとにまとめて変換する場合は、{@link #eachBatched(Functor)}を利用すること。
+	 * </p>
 	 * @param <D> 変換後の要素の型
 	 * @param <S> 変換前の要素の型
 	 * @param elementFunctor 個々の要素を変換する関数
 	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 * @see #eachBatched(Functor)
 	 */
-	public static <D, S>Functor<List<D>, Iterable<? extends S>> each(
-			final Functor<? extends D, ? super S> elementFunctor) {
-		return new AbstractFunctor<List<D>, Iterable<? extends S>>() {
-			
-			public List<D> apply(Iterable<? extends S> self) {
-				List<D> results = new ArrayList<D>();
-				for (S element : self) {
-					results.add(elementFunctor.apply(element));
-				}
-				return results;
-			}
-		};
+	public static <D, S>Functor<List<D>, Iterable<? extends S>> each(Functor<? extends D, ? super S> elementFunctor) {
+		if (elementFunctor == null) {
+			throw new IllegalArgumentException("elementFunctor is null"); //$NON-NLS-1$
+		}
+		return new Each<D, S>(elementFunctor);
+	}
+	
+	/**
+	 * {@link #each(Functor)}と同様に個々の要素を変換するが、
+	 * 可能であれば{@link BatchFunctor}を利用して要素をまとめて変換する関数を返す。
+	 * <p>
+	 * 引数が{@link List}であり、{@code elementFunctor}が{@link BatchFunctor}を実装する場合、
+	 * 返される関数は{@link BatchFunctor#applyAll(List, java.util.Collection)}で要素をまとめて変換する。
+	 * {@link Functors#compose(Functor, Functor)}で合成した関数は段ごとに適用されるため、
+	 * 最初の段がすべての要素に適用された後に次の段が適用される。
+	 * それぞれの段の処理が連続して実行される一方で、次のような点が{@link #each(Functor)}と異なる。
+	 * </p>
+	 * <ul>
+	 * <li> 副作用を持つ関数を合成した場合、副作用の順序が要素ごとではなく段ごとになる。 </li>
+	 * <li> 途中の要素で例外がスローされた場合、後続の要素にもそれ以前の段が適用済みとなっている。 </li>
+	 * <li> 合成関数では、段の間の値を保持するために要素数と同じ大きさのリストを1つ (3段以上では2つ) 確保する。 </li>
+	 * </ul>
+	 * <p>
+	 * そのため、副作用を持たない関数で、1,000件程度のブロックごとに変換する場合に利用するとよい。
+	 * 引数が{@link List}でない場合や、{@code elementFunctor}が{@link BatchFunctor}でない場合は、
+	 * {@link #each(Functor)}と同様に要素ごとに変換する。
+	 * </p>
+	 * @param <D> 変換後の要素の型
+	 * @param <S> 変換前の要素の型
+	 * @param elementFunctor 個々の要素を変換する関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>Functor<List<D>, Iterable<? extends S>> eachBatched(
+			Functor<? extends D, ? super S> elementFunctor) {
+		if (elementFunctor == null) {
+			throw new IllegalArgumentException("elementFunctor is null"); //$NON-NLS-1$
+		}
+		return new EachBatched<D, S>(elementFunctor);
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から最初に取得可能な要素を返す関数を返す。
+	 * <p>
+	 * 返される関数は、最初の要素を取得した時点で反復を打ち切る。
+	 * {@link Iterable}に要素がひとつも含まれない場合、この関数は{@code null}を返す。
+	 * </p>
+	 * @param <T> 要素の型
+	 * @return 対応する関数
+	 */
+	public static <T>Functor<T, Iterable<? extends T>> first() {
+		@SuppressWarnings("unchecked")
+		Functor<T, Iterable<? extends T>> result = (Functor<T, Iterable<? extends T>>) (Functor<?, ?>) FIRST;
+		return result;
 	}
 	
 	/**
@@ -84,21 +192,193 @@ public abstract class Iterables extends Objects {
 	 * @param leftMost 畳み込みの初期値
 	 * @param folder 畳み込み関数
 	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数{@code folder}に{@code null}が指定された場合
 	 */
-	public static <T>Functor<T, Iterable<? extends T>> fold(final T leftMost,
-			final Functor<? extends Functor<? extends T, ? super T>, ? super T> folder) {
-		return new AbstractFunctor<T, Iterable<? extends T>>() {
+	public static <T>Functor<T, Iterable<? extends T>> fold(T leftMost,
+			Functor<? extends Functor<? extends T, ? super T>, ? super T> folder) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		return fold(leftMost, Functors.uncurry(folder));
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な値を、順に2引数の関数に次々と適用して畳み込む関数を返す。
+	 * 
+	 * <p>{@link #fold(Object, Functor)}と同様に、返される関数は次の一般式で表せる。</p>
+	 * <pre><code>
+	 * fold(leftMost, folder).apply(list) = x[k]
+	 *   where x[0] = leftMost,
+	 *         x[k] = folder.apply(x[k - 1], list[k - 1]) (k &gt; 0)
+	 * </code></pre>
+	 * 
+	 * <p>高階化された畳み込み関数と異なり、要素ごとに中間の関数オブジェクトを生成しない。
+	 * また、畳み込みの結果の型は要素の型と異なっていてもよい。</p>
+	 * 
+	 * @param <A> 畳み込みの結果の型
+	 * @param <T> 対象の要素の型
+	 * @param leftMost 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数{@code folder}に{@code null}が指定された場合
+	 */
+	public static <A, T>Functor<A, Iterable<? extends T>> fold(final A leftMost,
+			final BinaryFunctor<? extends A, ? super A, ? super T> folder) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<A, Iterable<? extends T>>() {
 			
-			public T apply(Iterable<? extends T> self) {
-				T left = leftMost;
+			public A apply(Iterable<? extends T> self) {
+				A left = leftMost;
 				for (T right : self) {
-					left = folder.apply(left).apply(right);
+					left = folder.apply(left, right);
+				}
+				return left;
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な{@code Double}型の値を、{@code double}型のまま畳み込む関数を返す。
+	 * 
+	 * <p>{@link #fold(Object, BinaryFunctor)}と同様に畳み込むが、
+	 * 途中の結果をボックス化しない。
+	 * {@link DoubleFunctor#applyAsDouble(Object)}を利用した場合、要素ごとのオブジェクトの生成は発生しない。</p>
+	 * 
+	 * @param leftMost 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static DoubleFunctor<Iterable<? extends Double>> foldDouble(final double leftMost,
+			final DoubleBinaryOperator folder) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		return new AbstractDoubleFunctor<Iterable<? extends Double>>() {
+			
+			public double applyAsDouble(Iterable<? extends Double> self) {
+				double left = leftMost;
+				for (Double right : self) {
+					left = folder.applyAsDouble(left, right.doubleValue());
+				}
+				return left;
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な{@code Integer}型の値を、{@code int}型のまま畳み込む関数を返す。
+	 * 
+	 * <p>{@link #fold(Object, BinaryFunctor)}と同様に畳み込むが、
+	 * 途中の結果をボックス化しない。
+	 * {@link IntFunctor#applyAsInt(Object)}を利用した場合、要素ごとのオブジェクトの生成は発生しない。</p>
+	 * 
+	 * @param leftMost 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static IntFunctor<Iterable<? extends Integer>> foldInt(final int leftMost,
+			final IntBinaryOperator folder) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		return new AbstractIntFunctor<Iterable<? extends Integer>>() {
+			
+			public int applyAsInt(Iterable<? extends Integer> self) {
+				int left = leftMost;
+				for (Integer right : self) {
+					left = folder.applyAsInt(left, right.intValue());
+				}
+				return left;
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な{@code Long}型の値を、{@code long}型のまま畳み込む関数を返す。
+	 * 
+	 * <p>{@link #fold(Object, BinaryFunctor)}と同様に畳み込むが、
+	 * 途中の結果をボックス化しない。
+	 * {@link LongFunctor#applyAsLong(Object)}を利用した場合、要素ごとのオブジェクトの生成は発生しない。</p>
+	 * 
+	 * @param leftMost 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static LongFunctor<Iterable<? extends Long>> foldLong(final long leftMost,
+			final LongBinaryOperator folder) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		return new AbstractLongFunctor<Iterable<? extends Long>>() {
+			
+			public long applyAsLong(Iterable<? extends Long> self) {
+				long left = leftMost;
+				for (Long right : self) {
+					left = folder.applyAsLong(left, right.longValue());
 				}
 				return left;
 			}
 		};
 	}
 	
+	/**
+	 * 指定の{@link Iterable}から取得可能な個々の要素に対して関数を適用した結果を、
+	 * 反復時に順次計算するビューを返すような関数を返す。
+	 * <p>
+	 * {@link #each(Functor)}と異なり、返される関数はリストを生成しない。
+	 * 要素を変換する関数は、返されるビューを反復する際に、反復した要素に対してのみ適用される。
+	 * そのため、{@link #first()}や{@link #take(int)}、{@link #anyMatch(Functor)}
+	 * などと組み合わせることで、不要な変換を省略できる。
+	 * なお、ビューを複数回反復した場合、要素を変換する関数はその都度適用される。
+	 * </p>
+	 * <p>
+	 * 返される関数同士を{@link Functor#andThen(Functor)}で合成した場合、
+	 * 要素を変換する関数を合成したひとつのビューとなる。
+	 * </p>
+	 * @param <D> 変換後の要素の型
+	 * @param <S> 変換前の要素の型
+	 * @param elementFunctor 個々の要素を変換する関数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <D, S>Functor<Iterable<D>, Iterable<? extends S>> lazyEach(
+			Functor<? extends D, ? super S> elementFunctor) {
+		if (elementFunctor == null) {
+			throw new IllegalArgumentException("elementFunctor is null"); //$NON-NLS-1$
+		}
+		return new LazyEach<D, S>(elementFunctor);
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な要素のうち、{@code filter}を満たすものだけを
+	 * 反復時に順次選択するビューを返すような関数を返す。
+	 * <p>
+	 * {@link #only(Functor)}と異なり、返される関数はリストを生成しない。
+	 * {@code filter}は、返されるビューを反復する際に、反復した要素に対してのみ適用される。
+	 * </p>
+	 * @param <T> 要素の型
+	 * @param filter それぞれの要素のフィルタ
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <T>Functor<Iterable<T>, Iterable<? extends T>> lazyOnly(Functor<Boolean, ? super T> filter) {
+		if (filter == null) {
+			throw new IllegalArgumentException("filter is null"); //$NON-NLS-1$
+		}
+		final Predicate<T> predicate = Primitives.asPredicate(filter);
+		return new AbstractFunctor<Iterable<T>, Iterable<? extends T>>() {
+			
+			public Iterable<T> apply(Iterable<? extends T> self) {
+				return new FilteredIterable<T>(self, predicate);
+			}
+		};
+	}
+	
 	/**
 	 * 指定の{@link Iterable}から取得可能な個々の要素に対して関数を適用し、
 	 * それに{@code filter.apply()}を適用した結果が{@code Boolean.TRUE}
@@ -110,18 +390,514 @@ public abstract class Iterables extends Objects {
 	 * @param filter それぞれの要素のフィルタ
 	 * @return 対応する関数
 	 */
-	public static <T>Functor<List<T>, Iterable<? extends T>> only(final Functor<Boolean, ? super T> filter) {
+	public static <T>Functor<List<T>, Iterable<? extends T>> only(Functor<Boolean, ? super T> filter) {
+		return new Only<T>(Primitives.<T> asPredicate(filter));
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な個々の要素に対して、複数のスレッドで並列に関数を適用し、
+	 * その結果を格納したリストを返す。
+	 * 
+	 * <p>返されるリストの順序は、{@link #each(Functor)}と同様に
+	 * {@code iterable.iterator()}が反復する要素の順序と同じになる。
+	 * ただし、返されるリストの大きさは変更できない。</p>
+	 * 
+	 * <p>{@link java.util.RandomAccess}な{@link List}はそのまま分割して処理し、
+	 * それ以外の{@link Iterable}は一度リストに複製してから処理する。
+	 * 要素を変換する関数は複数のスレッドから同時に適用されるため、スレッドセーフでなければならない。</p>
+	 * 
+	 * @param <D> 変換後の要素の型
+	 * @param <S> 変換前の要素の型
+	 * @param elementFunctor 個々の要素を変換する関数
+	 * @param parallelism 並列度
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <D, S>Functor<List<D>, Iterable<? extends S>> parallelEach(
+			final Functor<? extends D, ? super S> elementFunctor, final int parallelism) {
+		if (elementFunctor == null) {
+			throw new IllegalArgumentException("elementFunctor is null"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<List<D>, Iterable<? extends S>>() {
+			
+			public List<D> apply(Iterable<? extends S> self) {
+				final List<? extends S> source = toRandomAccessList(self);
+				final Object[] results = new Object[source.size()];
+				Parallel.execute(results.length, parallelism, new Parallel.Task() {
+					
+					public void run(int chunk, int from, int to) {
+						for (int i = from; i < to; i++) {
+							results[i] = elementFunctor.apply(source.get(i));
+						}
+					}
+				});
+				@SuppressWarnings("unchecked")
+				List<D> list = (List<D>) (List<?>) Arrays.asList(results);
+				return list;
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な値を、複数のスレッドで並列に畳み込む関数を返す。
+	 * 
+	 * <p>返される関数は、要素の列を連続した区間に分割し、それぞれの区間を{@code identity}から
+	 * {@link #fold(Object, Functor)}と同様の方法で{@code folder}を利用して畳み込む。
+	 * その後、区間ごとの結果を先頭から順に{@code combiner}で結合する。
+	 * つまり、区間が{@code [a, b], [c, d]}のように分割された場合、結果は次のように計算される。</p>
+	 * <pre><code>
+	 * combiner(folder(folder(identity, a), b), folder(folder(identity, c), d))
+	 * </code></pre>
+	 * <p>そのため、{@link #fold(Object, Functor)}と同じ結果を得るには、
+	 * {@code combiner}が結合的であり、{@code identity}が{@code combiner}の単位元であり、
+	 * さらに{@code combiner(x, folder(identity, y)) == folder(x, y)}が成り立つ必要がある。
+	 * 例えば、加算に対する{@code 0}などがこれを満たす。</p>
+	 * 
+	 * <p>{@code folder}および{@code combiner}は複数のスレッドから同時に適用されるため、
+	 * スレッドセーフでなければならない。
+	 * {@link Iterable}に要素がひとつも含まれない場合、この関数は常に{@code identity}を返す。</p>
+	 * 
+	 * @param <T> 対象の要素の型
+	 * @param identity 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @param combiner 区間ごとの結果を結合する関数
+	 * @param parallelism 並列度
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <T>Functor<T, Iterable<? extends T>> parallelFold(T identity,
+			Functor<? extends Functor<? extends T, ? super T>, ? super T> folder,
+			Functor<? extends Functor<? extends T, ? super T>, ? super T> combiner, int parallelism) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		if (combiner == null) {
+			throw new IllegalArgumentException("combiner is null"); //$NON-NLS-1$
+		}
+		return parallelFold(identity, Functors.uncurry(folder), Functors.uncurry(combiner), parallelism);
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な値を、複数のスレッドで並列に畳み込む関数を返す。
+	 * 
+	 * <p>{@link #parallelFold(Object, Functor, Functor, int)}と同様に畳み込むが、
+	 * 2引数の関数を利用するため、要素ごとに中間の関数オブジェクトを生成しない。</p>
+	 * 
+	 * <p>{@code folder}および{@code combiner}は複数のスレッドから同時に適用されるため、
+	 * スレッドセーフでなければならない。
+	 * {@link Iterable}に要素がひとつも含まれない場合、この関数は常に{@code identity}を返す。</p>
+	 * 
+	 * @param <T> 対象の要素の型
+	 * @param identity 畳み込みの初期値
+	 * @param folder 畳み込み関数
+	 * @param combiner 区間ごとの結果を結合する関数
+	 * @param parallelism 並列度
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <T>Functor<T, Iterable<? extends T>> parallelFold(final T identity,
+			final BinaryFunctor<? extends T, ? super T, ? super T> folder,
+			final BinaryFunctor<? extends T, ? super T, ? super T> combiner, final int parallelism) {
+		if (folder == null) {
+			throw new IllegalArgumentException("folder is null"); //$NON-NLS-1$
+		}
+		if (combiner == null) {
+			throw new IllegalArgumentException("combiner is null"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<T, Iterable<? extends T>>() {
+			
+			public T apply(Iterable<? extends T> self) {
+				final List<? extends T> source = toRandomAccessList(self);
+				final Object[] partials = new Object[Parallel.chunks(source.size(), parallelism)];
+				if (partials.length == 0) {
+					return identity;
+				}
+				Parallel.execute(source.size(), parallelism, new Parallel.Task() {
+					
+					public void run(int chunk, int from, int to) {
+						T left = identity;
+						for (int i = from; i < to; i++) {
+							left = folder.apply(left, source.get(i));
+						}
+						partials[chunk] = left;
+					}
+				});
+				@SuppressWarnings("unchecked")
+				T result = (T) partials[0];
+				for (int i = 1; i < partials.length; i++) {
+					@SuppressWarnings("unchecked")
+					T right = (T) partials[i];
+					result = combiner.apply(result, right);
+				}
+				return result;
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な個々の要素に対して、複数のスレッドで並列に述語を適用し、
+	 * その結果が{@code Boolean.TRUE}となる要素だけを返すような関数を返す。
+	 * 
+	 * <p>返されるリストの順序は、{@link #only(Functor)}と同様に
+	 * {@code iterable.iterator()}が反復する要素の順序と同じになる。
+	 * {@code filter}は複数のスレッドから同時に適用されるため、スレッドセーフでなければならない。</p>
+	 * 
+	 * @param <T> 要素の型
+	 * @param filter それぞれの要素のフィルタ
+	 * @param parallelism 並列度
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <T>Functor<List<T>, Iterable<? extends T>> parallelOnly(Functor<Boolean, ? super T> filter,
+			final int parallelism) {
+		if (filter == null) {
+			throw new IllegalArgumentException("filter is null"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		final Predicate<T> predicate = Primitives.asPredicate(filter);
 		return new AbstractFunctor<List<T>, Iterable<? extends T>>() {
 			
 			public List<T> apply(Iterable<? extends T> self) {
-				List<T> results = new ArrayList<T>();
-				for (T element : self) {
-					if (filter.apply(element) == Boolean.TRUE) {
-						results.add(element);
+				final List<? extends T> source = toRandomAccessList(self);
+				final boolean[] accepted = new boolean[source.size()];
+				Parallel.execute(accepted.length, parallelism, new Parallel.Task() {
+					
+					public void run(int chunk, int from, int to) {
+						for (int i = from; i < to; i++) {
+							accepted[i] = predicate.test(source.get(i));
+						}
+					}
+				});
+				int count = 0;
+				for (boolean b : accepted) {
+					if (b) {
+						count++;
+					}
+				}
+				List<T> results = new ArrayList<T>(count);
+				for (int i = 0; i < accepted.length; i++) {
+					if (accepted[i]) {
+						results.add(source.get(i));
 					}
 				}
 				return results;
 			}
 		};
 	}
+	
+	/**
+	 * 指定の{@link Iterable}から取得可能な要素のうち、先頭から最大{@code count}個だけを反復するビューを
+	 * 返すような関数を返す。
+	 * <p>
+	 * 返されるビューは、{@code count}個の要素を反復した時点で元の{@link Iterable}の反復を打ち切る。
+	 * {@link #lazyEach(Functor)}などと組み合わせることで、不要な変換を省略できる。
+	 * </p>
+	 * @param <T> 要素の型
+	 * @param count 反復する要素の最大数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に負の値が指定された場合
+	 */
+	public static <T>Functor<Iterable<T>, Iterable<? extends T>> take(final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count must be >= 0"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<Iterable<T>, Iterable<? extends T>>() {
+			
+			public Iterable<T> apply(Iterable<? extends T> self) {
+				return new LimitedIterable<T>(self, count);
+			}
+		};
+	}
+	
+	/**
+	 * 指定の{@link Iterable}を、添え字で高速にアクセスできるリストに変換して返す。
+	 * 
+	 * @param <T> 要素の型
+	 * @param iterable 対象の{@link Iterable}
+	 * @return 引数が{@link RandomAccess}なリストであればそれ自身、そうでなければ要素を複製したリスト
+	 */
+	static <T>List<? extends T> toRandomAccessList(Iterable<? extends T> iterable) {
+		assert iterable != null;
+		if (iterable instanceof List<?> && iterable instanceof RandomAccess) {
+			return (List<? extends T>) iterable;
+		}
+		if (iterable instanceof Collection<?>) {
+			return new ArrayList<T>((Collection<? extends T>) iterable);
+		}
+		List<T> results = new ArrayList<T>();
+		for (T element : iterable) {
+			results.add(element);
+		}
+		return results;
+	}
+	
+
+	private static final class Each<D, S> extends AbstractFunctor<List<D>, Iterable<? extends S>> {
+		
+		private Functor<? extends D, ? super S> elementFunctor;
+		
+
+		Each(Functor<? extends D, ? super S> elementFunctor) {
+			assert elementFunctor != null;
+			this.elementFunctor = elementFunctor;
+		}
+		
+		@Override
+		public <R>Functor<R, Iterable<? extends S>> andThen(Functor<? extends R, ? super List<D>> chain) {
+			Object next = chain;
+			if (next instanceof Only<?>) {
+				// Only<T>がList<D>を受け取れるので、DはTのサブタイプ
+				@SuppressWarnings("unchecked")
+				Predicate<? super D> predicate = (Predicate<? super D>) ((Only<?>) next).predicate;
+				Functor<?, ?> fused = new EachOnly<D, S>(elementFunctor, predicate);
+				@SuppressWarnings("unchecked")
+				Functor<R, Iterable<? extends S>> result = (Functor<R, Iterable<? extends S>>) fused;
+				return result;
+			}
+			return super.andThen(chain);
+		}
+		
+		public List<D> apply(Iterable<? extends S> self) {
+			List<D> results = new ArrayList<D>();
+			for (S element : self) {
+				results.add(elementFunctor.apply(element));
+			}
+			return results;
+		}
+	}
+	
+	private static final class EachBatched<D, S> extends AbstractFunctor<List<D>, Iterable<? extends S>> {
+		
+		private Functor<? extends D, ? super S> elementFunctor;
+		
+
+		EachBatched(Functor<? extends D, ? super S> elementFunctor) {
+			assert elementFunctor != null;
+			this.elementFunctor = elementFunctor;
+		}
+		
+		public List<D> apply(Iterable<? extends S> self) {
+			Object f = elementFunctor;
+			if (self instanceof List<?> && f instanceof BatchFunctor<?, ?>) {
+				@SuppressWarnings("unchecked")
+				BatchFunctor<? extends D, ? super S> batch = (BatchFunctor<? extends D, ? super S>) f;
+				List<? extends S> list = (List<? extends S>) self;
+				List<D> results = new ArrayList<D>(list.size());
+				batch.applyAll(list, results);
+				return results;
+			}
+			List<D> results = new ArrayList<D>();
+			for (S element : self) {
+				results.add(elementFunctor.apply(element));
+			}
+			return results;
+		}
+	}
+	
+	private static final class EachOnly<D, S> extends AbstractFunctor<List<D>, Iterable<? extends S>> {
+		
+		private Functor<? extends D, ? super S> elementFunctor;
+		
+		private Predicate<? super D> predicate;
+		
+
+		EachOnly(Functor<? extends D, ? super S> elementFunctor, Predicate<? super D> predicate) {
+			assert elementFunctor != null;
+			assert predicate != null;
+			this.elementFunctor = elementFunctor;
+			this.predicate = predicate;
+		}
+		
+		public List<D> apply(Iterable<? extends S> self) {
+			List<D> results = new ArrayList<D>();
+			for (S element : self) {
+				D converted = elementFunctor.apply(element);
+				if (predicate.test(converted)) {
+					results.add(converted);
+				}
+			}
+			return results;
+		}
+	}
+	
+	private static final class FilteredIterable<T> implements Iterable<T> {
+		
+		private Iterable<? extends T> source;
+		
+		private Predicate<? super T> predicate;
+		
+
+		FilteredIterable(Iterable<? extends T> source, Predicate<? super T> predicate) {
+			assert source != null;
+			assert predicate != null;
+			this.source = source;
+			this.predicate = predicate;
+		}
+		
+		public Iterator<T> iterator() {
+			final Iterator<? extends T> iter = source.iterator();
+			return new Iterator<T>() {
+				
+				private T next;
+				
+				private boolean prepared;
+				
+
+				public boolean hasNext() {
+					while (prepared == false) {
+						if (iter.hasNext() == false) {
+							return false;
+						}
+						T candidate = iter.next();
+						if (predicate.test(candidate)) {
+							next = candidate;
+							prepared = true;
+						}
+					}
+					return true;
+				}
+				
+				public T next() {
+					if (hasNext() == false) {
+						throw new NoSuchElementException();
+					}
+					T result = next;
+					next = null;
+					prepared = false;
+					return result;
+				}
+				
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+	
+	private static final class LazyEach<D, S> extends AbstractFunctor<Iterable<D>, Iterable<? extends S>> {
+		
+		private Functor<? extends D, ? super S> elementFunctor;
+		
+
+		LazyEach(Functor<? extends D, ? super S> elementFunctor) {
+			assert elementFunctor != null;
+			this.elementFunctor = elementFunctor;
+		}
+		
+		@Override
+		public <R>Functor<R, Iterable<? extends S>> andThen(Functor<? extends R, ? super Iterable<D>> chain) {
+			Object next = chain;
+			if (next instanceof LazyEach<?, ?>) {
+				// LazyEach<E, T>がIterable<D>を受け取れるので、DはTのサブタイプ
+				@SuppressWarnings("unchecked")
+				LazyEach<?, ? super D> lazy = (LazyEach<?, ? super D>) next;
+				Functor<?, S> composed = Functors.compose(lazy.elementFunctor, elementFunctor);
+				@SuppressWarnings("unchecked")
+				Functor<R, Iterable<? extends S>> result =
+						(Functor<R, Iterable<? extends S>>) (Functor<?, ?>) new LazyEach<Object, S>(composed);
+				return result;
+			}
+			return super.andThen(chain);
+		}
+		
+		public Iterable<D> apply(final Iterable<? extends S> self) {
+			return new Iterable<D>() {
+				
+				public Iterator<D> iterator() {
+					final Iterator<? extends S> iter = self.iterator();
+					return new Iterator<D>() {
+						
+						public boolean hasNext() {
+							return iter.hasNext();
+						}
+						
+						public D next() {
+							return elementFunctor.apply(iter.next());
+						}
+						
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					};
+				}
+			};
+		}
+	}
+	
+	private static final class LimitedIterable<T> implements Iterable<T> {
+		
+		private Iterable<? extends T> source;
+		
+		private int count;
+		
+
+		LimitedIterable(Iterable<? extends T> source, int count) {
+			assert source != null;
+			assert count >= 0;
+			this.source = source;
+			this.count = count;
+		}
+		
+		public Iterator<T> iterator() {
+			final Iterator<? extends T> iter = source.iterator();
+			return new Iterator<T>() {
+				
+				private int rest = count;
+				
+
+				public boolean hasNext() {
+					return rest > 0 && iter.hasNext();
+				}
+				
+				public T next() {
+					if (rest <= 0) {
+						throw new NoSuchElementException();
+					}
+					rest--;
+					return iter.next();
+				}
+				
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+	
+	private static final class Only<T> extends AbstractFunctor<List<T>, Iterable<? extends T>> {
+		
+		final Predicate<T> predicate;
+		
+
+		Only(Predicate<T> predicate) {
+			assert predicate != null;
+			this.predicate = predicate;
+		}
+		
+		public List<T> apply(Iterable<? extends T> self) {
+			List<T> results = new ArrayList<T>();
+			for (T element : self) {
+				if (predicate.test(element)) {
+					results.add(element);
+				}
+			}
+			return results;
+		}
+	}
 }
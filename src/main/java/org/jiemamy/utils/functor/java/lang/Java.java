@@ -15,9 +15,16 @@
  */
 package org.jiemamy.utils.functor.java.lang;
 
+import java.util.Map;
+
 import org.jiemamy.utils.functor.Functor;
-import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.Predicate;
+import org.jiemamy.utils.functor.core.AbstractPredicate;
 import org.jiemamy.utils.functor.core.Cast;
+import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.InstanceCheck;
+import org.jiemamy.utils.functor.core.Primitives;
+import org.jiemamy.utils.functor.core.TypeSwitch;
 
 /**
  * プログラミング言語Javaの組み込み機能に関する関数群。
@@ -44,15 +51,29 @@ public final class Java {
 	 * @param aClass 指定する型
 	 * @return {@code instanceof}演算子を表す関数に、型の指定だけ行ったもの
 	 */
-	public static Functor<Boolean, Object> instanceOf(final Class<?> aClass) {
-		return new AbstractFunctor<Boolean, Object>() {
+	public static Predicate<Object> instanceOf(final Class<?> aClass) {
+		return new AbstractPredicate<Object>() {
 			
-			public Boolean apply(Object argument) {
+			public boolean test(Object argument) {
 				return aClass.isInstance(argument);
 			}
 		};
 	}
 	
+	/**
+	 * {@code instanceof}演算子を表す関数に、型の指定だけ行ったものを返す。
+	 * 
+	 * <p>返される述語は{@link #instanceOf(Class)}と同様に振る舞うが、
+	 * 最近検査した値の実行時クラスについては、その検査結果を再利用する。</p>
+	 * 
+	 * @param aClass 指定する型
+	 * @return {@code instanceof}演算子を表す関数に、型の指定だけ行ったもの
+	 * @see InstanceCheck
+	 */
+	public static Predicate<Object> instanceOfCached(Class<?> aClass) {
+		return InstanceCheck.of(aClass);
+	}
+	
 	/**
 	 * 指定の述語の否定を行うような述語を返す。
 	 * 
@@ -60,15 +81,37 @@ public final class Java {
 	 * @param predicate 対象の述語
 	 * @return 対象の述語の否定を行う述語
 	 */
-	public static <T>Functor<Boolean, T> not(final Functor<Boolean, T> predicate) {
-		return new AbstractFunctor<Boolean, T>() {
+	public static <T>Predicate<T> not(Functor<Boolean, T> predicate) {
+		final Predicate<T> p = Primitives.asPredicate(predicate);
+		return new AbstractPredicate<T>() {
 			
-			public Boolean apply(T argument) {
-				return predicate.apply(argument) == false;
+			public boolean test(T argument) {
+				return p.test(argument) == false;
 			}
 		};
 	}
 	
+	/**
+	 * 値の実行時クラスによって、適用する関数を切り替えるような関数を返す。
+	 * 
+	 * <p>返される関数は、値を代入できる型のうち最も具体的な型に対応する関数を適用する。
+	 * 適用する関数は実行時クラスごとに一度だけ解決されるため、
+	 * {@link #instanceOf(Class)}と{@link #cast(Class)}の組を型の数だけ並べるよりも高速である。</p>
+	 * 
+	 * <p>最も具体的な型が複数存在する場合 (値が互いに無関係な複数のインターフェースを実装する場合など) は、
+	 * {@code cases}の反復順で先に現れたものが優先される。
+	 * {@link java.util.HashMap}の反復順は不定であるため、
+	 * そのような型を含む場合には{@link java.util.LinkedHashMap}を渡して順序を固定すること。</p>
+	 * 
+	 * @param <R> 変換結果の型
+	 * @param cases 型と、その型の値に適用する関数の対応表
+	 * @return 値の型によって適用する関数を切り替える関数
+	 * @see Functors#dispatch()
+	 */
+	public static <R>Functor<R, Object> switchOnType(Map<? extends Class<?>, ? extends Functor<? extends R, ?>> cases) {
+		return TypeSwitch.of(cases);
+	}
+	
 	private Java() {
 	}
 }
@@ -15,8 +15,14 @@
  */
 package org.jiemamy.utils.functor.java.lang;
 
+import org.jiemamy.utils.functor.DoubleFunctor;
 import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.LongFunctor;
+import org.jiemamy.utils.functor.core.AbstractDoubleFunctor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.AbstractLongFunctor;
 
 /**
  * {@link Number}に関する関数群。
@@ -25,30 +31,111 @@ import org.jiemamy.utils.functor.core.AbstractFunctor;
  */
 public class Numbers extends Objects {
 	
+	private static final Functor<Byte, Number> BYTE_VALUE = new AbstractFunctor<Byte, Number>() {
+		
+		public Byte apply(Number self) {
+			return self.byteValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Byte[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].byteValue();
+			}
+		}
+	};
+	
+	private static final DoubleFunctor<Number> DOUBLE_VALUE = new AbstractDoubleFunctor<Number>() {
+		
+		public double applyAsDouble(Number self) {
+			return self.doubleValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Double[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].doubleValue();
+			}
+		}
+	};
+	
+	private static final Functor<Float, Number> FLOAT_VALUE = new AbstractFunctor<Float, Number>() {
+		
+		public Float apply(Number self) {
+			return self.floatValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Float[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].floatValue();
+			}
+		}
+	};
+	
+	private static final IntFunctor<Number> INT_VALUE = new AbstractIntFunctor<Number>() {
+		
+		public int applyAsInt(Number self) {
+			return self.intValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Integer[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].intValue();
+			}
+		}
+	};
+	
+	private static final LongFunctor<Number> LONG_VALUE = new AbstractLongFunctor<Number>() {
+		
+		public long applyAsLong(Number self) {
+			return self.longValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Long[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].longValue();
+			}
+		}
+	};
+	
+	private static final Functor<Short, Number> SHORT_VALUE = new AbstractFunctor<Short, Number>() {
+		
+		public Short apply(Number self) {
+			return self.shortValue();
+		}
+		
+		@Override
+		public void applyAll(Number[] arguments, Short[] results, int from, int to) {
+			checkRange(arguments, results, from, to);
+			for (int i = from; i < to; i++) {
+				results[i] = arguments[i].shortValue();
+			}
+		}
+	};
+	
+
 	/**
 	 * {@link Number#byteValue()}に対応する関数を返す。
 	 * @return 対応する関数オブジェクト
 	 */
 	public static Functor<Byte, Number> byteValue() {
-		return new AbstractFunctor<Byte, Number>() {
-			
-			public Byte apply(Number self) {
-				return self.byteValue();
-			}
-		};
+		return BYTE_VALUE;
 	}
 	
 	/**
 	 * {@link Number#doubleValue()}に対応する関数を返す。
 	 * @return 対応する関数オブジェクト
 	 */
-	public static Functor<Double, Number> doubleValue() {
-		return new AbstractFunctor<Double, Number>() {
-			
-			public Double apply(Number self) {
-				return self.doubleValue();
-			}
-		};
+	public static DoubleFunctor<Number> doubleValue() {
+		return DOUBLE_VALUE;
 	}
 	
 	/**
@@ -56,38 +143,23 @@ public class Numbers extends Objects {
 	 * @return 対応する関数オブジェクト
 	 */
 	public static Functor<Float, Number> floatValue() {
-		return new AbstractFunctor<Float, Number>() {
-			
-			public Float apply(Number self) {
-				return self.floatValue();
-			}
-		};
+		return FLOAT_VALUE;
 	}
 	
 	/**
 	 * {@link Number#intValue()}に対応する関数を返す。
 	 * @return 対応する関数オブジェクト
 	 */
-	public static Functor<Integer, Number> intValue() {
-		return new AbstractFunctor<Integer, Number>() {
-			
-			public Integer apply(Number self) {
-				return self.intValue();
-			}
-		};
+	public static IntFunctor<Number> intValue() {
+		return INT_VALUE;
 	}
 	
 	/**
 	 * {@link Number#longValue()}に対応する関数を返す。
 	 * @return 対応する関数オブジェクト
 	 */
-	public static Functor<Long, Number> longValue() {
-		return new AbstractFunctor<Long, Number>() {
-			
-			public Long apply(Number self) {
-				return self.longValue();
-			}
-		};
+	public static LongFunctor<Number> longValue() {
+		return LONG_VALUE;
 	}
 	
 	/**
@@ -95,11 +167,6 @@ public class Numbers extends Objects {
 	 * @return 対応する関数オブジェクト
 	 */
 	public static Functor<Short, Number> shortValue() {
-		return new AbstractFunctor<Short, Number>() {
-			
-			public Short apply(Number self) {
-				return self.shortValue();
-			}
-		};
+		return SHORT_VALUE;
 	}
 }
@@ -16,11 +16,17 @@
 package org.jiemamy.utils.functor.java.lang;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.Predicate;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.AbstractPredicate;
 import org.jiemamy.utils.functor.core.Functors;
+import org.jiemamy.utils.functor.core.Parallel;
 
 /**
  * {@link java.lang.Object}に関する関数群。
@@ -31,6 +37,30 @@ import org.jiemamy.utils.functor.core.Functors;
  * @author Suguru ARAKAWA
  */
 public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
+	
+	private static final Functor<List<Object>, Object[]> ARRAY_TO_LIST = arrayEach(Functors.<Object> id());
+	
+	private static final Functor<String, Object> AS_STRING = new AbstractFunctor<String, Object>() {
+		
+		public String apply(Object argument) {
+			return argument.toString();
+		}
+	};
+	
+	private static final Functor<Class<?>, Object> TO_CLASS = new AbstractFunctor<Class<?>, Object>() {
+		
+		public Class<?> apply(Object argument) {
+			return argument.getClass();
+		}
+	};
+	
+	private static final IntFunctor<Object> TO_HASH_CODE = new AbstractIntFunctor<Object>() {
+		
+		public int applyAsInt(Object argument) {
+			return argument.hashCode();
+		}
+	};
+	
 
 	/**
 	 * {@code Object}型の配列を{@link List}に変換する関数を返す。
@@ -60,7 +90,9 @@ public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
 	 * @return {@code Object}型の配列を{@link List}に変換する関数
 	 */
 	public static <T>Functor<List<T>, T[]> arrayToList() {
-		return arrayEach(Functors.<T> id());
+		@SuppressWarnings("unchecked")
+		Functor<List<T>, T[]> result = (Functor<List<T>, T[]>) (Functor<?, ?>) ARRAY_TO_LIST;
+		return result;
 	}
 	
 	/**
@@ -69,12 +101,7 @@ public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
 	 * @return {@link Object#toString()}
 	 */
 	public static Functor<String, Object> asString() {
-		return new AbstractFunctor<String, Object>() {
-			
-			public String apply(Object argument) {
-				return argument.toString();
-			}
-		};
+		return AS_STRING;
 	}
 	
 	/**
@@ -86,10 +113,10 @@ public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
 	 * @param argument 適用する引数
 	 * @return 指定の引数をの同値比較を行う関数
 	 */
-	public static Functor<Boolean, Object> equalTo(final Object argument) {
-		return new AbstractFunctor<Boolean, Object>() {
+	public static Predicate<Object> equalTo(final Object argument) {
+		return new AbstractPredicate<Object>() {
 			
-			public Boolean apply(Object object) {
+			public boolean test(Object object) {
 				return object.equals(argument);
 			}
 		};
@@ -107,10 +134,10 @@ public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
 	 * @return 指定の引数をの同値比較を行う関数
 	 * @see #equalTo(Object)
 	 */
-	public static Functor<Boolean, Object> is(final Object argument) {
-		return new AbstractFunctor<Boolean, Object>() {
+	public static Predicate<Object> is(final Object argument) {
+		return new AbstractPredicate<Object>() {
 			
-			public Boolean apply(Object object) {
+			public boolean test(Object object) {
 				if (object == null) {
 					return argument == null;
 				}
@@ -120,30 +147,64 @@ public abstract class Objects { // CHECKSTYLE IGNORE THIS LINE
 	}
 	
 	/**
-	 * {@link Object#getClass()}を返す。
+	 * {@code Object}型の配列の個々の要素に対して、複数のスレッドで並列に関数を適用し、
+	 * {@link List}に変換する関数を返す。
 	 * 
-	 * @return {@link Object#getClass()}
+	 * <p>返されるリストの順序は、{@link #arrayEach(Functor)}と同様に配列の要素の順序と同じになる。
+	 * ただし、返されるリストの大きさは変更できない。
+	 * 要素を変換する関数は複数のスレッドから同時に適用されるため、スレッドセーフでなければならない。</p>
+	 * 
+	 * @param <D> 生成されるリストの要素型
+	 * @param <S> 引数に取る配列の要素型
+	 * @param elementFunctor 配列の個々の要素に対して適用する関数
+	 * @param parallelism 並列度
+	 * @return 配列の個々の要素に要素関数を適用し、{@link List}に変換する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code parallelism}に{@code 1}未満の値が指定された場合
+	 * @see Parallel
 	 */
-	public static Functor<Class<?>, Object> toClass() {
-		return new AbstractFunctor<Class<?>, Object>() {
+	public static <D, S>Functor<List<D>, S[]> parallelArrayEach(final Functor<? extends D, ? super S> elementFunctor,
+			final int parallelism) {
+		if (elementFunctor == null) {
+			throw new IllegalArgumentException("elementFunctor is null"); //$NON-NLS-1$
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be > 0"); //$NON-NLS-1$
+		}
+		return new AbstractFunctor<List<D>, S[]>() {
 			
-			public Class<?> apply(Object argument) {
-				return argument.getClass();
+			public List<D> apply(final S[] argument) {
+				final Object[] results = new Object[argument.length];
+				Parallel.execute(results.length, parallelism, new Parallel.Task() {
+					
+					public void run(int chunk, int from, int to) {
+						for (int i = from; i < to; i++) {
+							results[i] = elementFunctor.apply(argument[i]);
+						}
+					}
+				});
+				@SuppressWarnings("unchecked")
+				List<D> list = (List<D>) (List<?>) Arrays.asList(results);
+				return list;
 			}
 		};
 	}
 	
+	/**
+	 * {@link Object#getClass()}を返す。
+	 * 
+	 * @return {@link Object#getClass()}
+	 */
+	public static Functor<Class<?>, Object> toClass() {
+		return TO_CLASS;
+	}
+	
 	/**
 	 * {@link Object#toString()}を返す。
 	 * 
 	 * @return {@link Object#toString()}
 	 */
-	public static Functor<Integer, Object> toHashCode() {
-		return new AbstractFunctor<Integer, Object>() {
-			
-			public Integer apply(Object argument) {
-				return argument.hashCode();
-			}
-		};
+	public static IntFunctor<Object> toHashCode() {
+		return TO_HASH_CODE;
 	}
 }
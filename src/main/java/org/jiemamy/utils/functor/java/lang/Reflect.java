@@ -0,0 +1,383 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.BinaryFunctor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+import org.jiemamy.utils.functor.core.AbstractBinaryFunctor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractGenerator;
+
+/**
+ * リフレクションを利用してコンストラクタやメソッドを呼び出す関数群。
+ * 
+ * <p>このクラスのメソッドが返す関数は、呼び出すコンストラクタやメソッドを生成時に一度だけ解決し、
+ * 適用のたびに検索しない。
+ * また、公開されたクラスの公開されたメンバについては、呼び出しごとのアクセス検査を省略する。</p>
+ * 
+ * <p>呼び出したコンストラクタやメソッドが非チェック例外をスローした場合、その例外をそのままスローする。
+ * チェック例外をスローした場合や、呼び出し自体に失敗した場合には{@link ApplyException}をスローする。</p>
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public final class Reflect {
+	
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+	
+	private static final ConstructorCache DEFAULT_CONSTRUCTORS = new ConstructorCache();
+	
+
+	/**
+	 * 指定のクラスの引数をとらないコンストラクタを呼び出して、インスタンスを生成する生成器を返す。
+	 * 
+	 * @param <T> 生成するインスタンスの型
+	 * @param type 生成するインスタンスのクラス
+	 * @return 対応する生成器
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応するコンストラクタが存在しない場合
+	 */
+	public static <T>Generator<T> constructor(Class<T> type) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		final Constructor<T> constructor = findConstructor(type);
+		return new AbstractGenerator<T>() {
+			
+			public T generate() {
+				return newInstance(constructor, NO_ARGUMENTS);
+			}
+		};
+	}
+	
+	/**
+	 * 指定のクラスの1引数のコンストラクタを呼び出して、引数からインスタンスを生成する関数を返す。
+	 * 
+	 * @param <T> 生成するインスタンスの型
+	 * @param <A> コンストラクタの引数の型
+	 * @param type 生成するインスタンスのクラス
+	 * @param parameterType コンストラクタの引数の型
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応するコンストラクタが存在しない場合
+	 */
+	public static <T, A>Functor<T, A> constructor(Class<T> type, Class<A> parameterType) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		if (parameterType == null) {
+			throw new IllegalArgumentException("parameterType is null"); //$NON-NLS-1$
+		}
+		final Constructor<T> constructor = findConstructor(type, parameterType);
+		return new AbstractFunctor<T, A>() {
+			
+			public T apply(A argument) {
+				return newInstance(constructor, new Object[] {
+					argument
+				});
+			}
+		};
+	}
+	
+	/**
+	 * 指定のクラスのプロパティを取得する関数を返す。
+	 * 
+	 * <p>返される関数は、{@code get}または{@code is}にプロパティ名を続けた名前の、
+	 * 引数をとらない公開メソッドを呼び出す。</p>
+	 * 
+	 * @param <T> 対象のクラスの型
+	 * @param type 対象のクラス
+	 * @param property プロパティ名
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応するメソッドが存在しない場合
+	 */
+	public static <T>Functor<Object, T> getter(Class<T> type, String property) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		if (property == null) {
+			throw new IllegalArgumentException("property is null"); //$NON-NLS-1$
+		}
+		if (property.length() == 0) {
+			throw new IllegalArgumentException("property is empty"); //$NON-NLS-1$
+		}
+		String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+		try {
+			return method(type, "get" + suffix); //$NON-NLS-1$
+		} catch (IllegalArgumentException e) {
+			try {
+				return method(type, "is" + suffix); //$NON-NLS-1$
+			} catch (IllegalArgumentException ignored) {
+				throw e;
+			}
+		}
+	}
+	
+	/**
+	 * 指定のクラスの引数をとらない公開メソッドを呼び出す関数を返す。
+	 * 
+	 * <p>返される関数は、引数に渡された値に対してメソッドを呼び出し、その戻り値を返す。
+	 * 戻り値の型が{@code void}である場合には{@code null}を返す。</p>
+	 * 
+	 * @param <T> 対象のクラスの型
+	 * @param type 対象のクラス
+	 * @param name メソッド名
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応するメソッドが存在しない場合
+	 */
+	public static <T>Functor<Object, T> method(Class<T> type, String name) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		final Method method = findMethod(type, name);
+		return new AbstractFunctor<Object, T>() {
+			
+			public Object apply(T self) {
+				return invoke(method, self, NO_ARGUMENTS);
+			}
+		};
+	}
+	
+	/**
+	 * 指定のクラスの1引数の公開メソッドを呼び出す関数を返す。
+	 * 
+	 * <p>返される関数は、第1引数に渡された値に対し、第2引数を渡してメソッドを呼び出し、その戻り値を返す。
+	 * 戻り値の型が{@code void}である場合には{@code null}を返す。</p>
+	 * 
+	 * @param <T> 対象のクラスの型
+	 * @param <A> メソッドの引数の型
+	 * @param type 対象のクラス
+	 * @param name メソッド名
+	 * @param parameterType メソッドの引数の型
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または対応するメソッドが存在しない場合
+	 */
+	public static <T, A>BinaryFunctor<Object, T, A> method(Class<T> type, String name, Class<A> parameterType) {
+		if (type == null) {
+			throw new IllegalArgumentException("type is null"); //$NON-NLS-1$
+		}
+		if (name == null) {
+			throw new IllegalArgumentException("name is null"); //$NON-NLS-1$
+		}
+		if (parameterType == null) {
+			throw new IllegalArgumentException("parameterType is null"); //$NON-NLS-1$
+		}
+		final Method method = findMethod(type, name, parameterType);
+		return new AbstractBinaryFunctor<Object, T, A>() {
+			
+			public Object apply(T self, A argument) {
+				return invoke(method, self, new Object[] {
+					argument
+				});
+			}
+		};
+	}
+	
+	/**
+	 * 指定のクラスの引数をとらないコンストラクタを呼び出して、インスタンスを生成する。
+	 * 
+	 * <p>解決したコンストラクタはクラスごとにキャッシュされる。</p>
+	 * 
+	 * @param <T> 生成するインスタンスの型
+	 * @param type 生成するインスタンスのクラス
+	 * @return 生成したインスタンス
+	 * @throws ApplyException インスタンスの生成に失敗した場合
+	 */
+	static <T>T newInstance(Class<T> type) {
+		assert type != null;
+		return newInstance(DEFAULT_CONSTRUCTORS.get(type), NO_ARGUMENTS);
+	}
+	
+	private static <T>Constructor<T> findConstructor(Class<T> type, Class<?>... parameterTypes) {
+		try {
+			return prepare(type.getDeclaredConstructor(parameterTypes));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+	}
+	
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			return prepare(type.getMethod(name, parameterTypes));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+	}
+	
+	private static Object invoke(Method method, Object self, Object[] arguments) {
+		try {
+			return method.invoke(self, arguments);
+		} catch (IllegalAccessException e) {
+			throw new ApplyException(e);
+		} catch (InvocationTargetException e) {
+			throw rethrow(e);
+		}
+	}
+	
+	private static <T>T newInstance(Constructor<T> constructor, Object[] arguments) {
+		try {
+			return constructor.newInstance(arguments);
+		} catch (InstantiationException e) {
+			throw new ApplyException(e);
+		} catch (IllegalAccessException e) {
+			throw new ApplyException(e);
+		} catch (InvocationTargetException e) {
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * 公開されたクラスの公開されたメンバであれば、呼び出しごとのアクセス検査を省略する。
+	 * 
+	 * <p>それ以外のメンバは、通常通りアクセス検査が行われるため、
+	 * {@link Class#newInstance()}などと同様にアクセスできない場合は失敗する。</p>
+	 * 
+	 * @param <M> メンバの型
+	 * @param member 対象のメンバ
+	 * @return {@code member}
+	 */
+	private static <M extends AccessibleObject & Member>M prepare(M member) {
+		if (Modifier.isPublic(member.getModifiers()) && Modifier.isPublic(member.getDeclaringClass().getModifiers())) {
+			try {
+				member.setAccessible(true);
+			} catch (RuntimeException e) {
+				// アクセス検査を省略できない場合は、通常通り検査する
+			}
+		}
+		return member;
+	}
+	
+	private static RuntimeException rethrow(InvocationTargetException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new ApplyException(cause);
+	}
+	
+	private Reflect() {
+	}
+	
+
+	/**
+	 * クラスごとに、引数をとらないコンストラクタをキャッシュする。
+	 * 
+	 * <p>このクラスと同じクラスローダかその祖先から読み込まれたクラスは、
+	 * このクラスより先にアンロードされることがないため、{@link ConcurrentHashMap}に強参照で保持し、
+	 * ロックを取得せずに参照する。
+	 * 複数のクラスを交互に生成する場合にも、スレッド間で競合しない。</p>
+	 * 
+	 * <p>その他のクラスローダから読み込まれたクラスは、そのクラスローダのアンロードを妨げないよう、
+	 * クラスを弱参照のキーとし、コンストラクタをソフト参照の値とする表に保持する。
+	 * この表の参照にはロックを取得する。
+	 * コンストラクタはそのクラスを参照するため、そのようなクラスのクラスローダは、
+	 * メモリが不足してソフト参照が解放されるまではアンロードされない。</p>
+	 */
+	private static class ConstructorCache {
+		
+		private final ConcurrentHashMap<Class<?>, Constructor<?>> shared =
+				new ConcurrentHashMap<Class<?>, Constructor<?>>();
+		
+		private final Map<Class<?>, Reference<Constructor<?>>> isolated =
+				new WeakHashMap<Class<?>, Reference<Constructor<?>>>();
+		
+
+		ConstructorCache() {
+			return;
+		}
+		
+		<T>Constructor<T> get(Class<T> type) {
+			assert type != null;
+			Constructor<?> constructor = shared.get(type);
+			if (constructor == null) {
+				if (isShared(type)) {
+					constructor = resolve(type);
+					shared.put(type, constructor);
+				} else {
+					constructor = findIsolated(type);
+				}
+			}
+			@SuppressWarnings("unchecked")
+			Constructor<T> result = (Constructor<T>) constructor;
+			return result;
+		}
+		
+		private synchronized Constructor<?> findIsolated(Class<?> type) {
+			Reference<Constructor<?>> ref = isolated.get(type);
+			Constructor<?> constructor = ref == null ? null : ref.get();
+			if (constructor == null) {
+				constructor = resolve(type);
+				isolated.put(type, new SoftReference<Constructor<?>>(constructor));
+			}
+			return constructor;
+		}
+		
+		private static Constructor<?> resolve(Class<?> type) {
+			try {
+				return prepare(type.getDeclaredConstructor());
+			} catch (NoSuchMethodException e) {
+				throw new ApplyException(e);
+			}
+		}
+		
+		/**
+		 * 指定のクラスを強参照で保持しても、そのクラスローダのアンロードを妨げないかどうかを返す。
+		 * 
+		 * @param type 対象のクラス
+		 * @return このクラスと同じクラスローダかその祖先から読み込まれたクラスであれば{@code true}
+		 */
+		private static boolean isShared(Class<?> type) {
+			ClassLoader target = type.getClassLoader();
+			if (target == null) {
+				return true;
+			}
+			try {
+				for (ClassLoader loader = Reflect.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+					if (loader == target) {
+						return true;
+					}
+				}
+			} catch (SecurityException e) {
+				// 祖先を辿れない場合は、アンロードを妨げない側に倒す
+				return false;
+			}
+			return false;
+		}
+	}
+}
@@ -15,11 +15,19 @@
  */
 package org.jiemamy.utils.functor.java.lang;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 
+import org.jiemamy.utils.functor.EditException;
+import org.jiemamy.utils.functor.Editor;
 import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.core.AbstractEditor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractIntFunctor;
+import org.jiemamy.utils.functor.core.Primitives;
 
 /**
  * {@link java.lang.String}に関する関数群。
@@ -28,16 +36,25 @@ import org.jiemamy.utils.functor.core.AbstractFunctor;
  */
 public abstract class Strings extends Objects {
 	
+	private static final IntFunctor<String> LENGTH = new AbstractIntFunctor<String>() {
+		
+		public int applyAsInt(String self) {
+			return self.length();
+		}
+	};
+	
+
 	/**
 	 * {@link String#charAt(int)}に対応する関数を返す。
 	 * @param index 与えられた文字列から添え字の位置を算出する関数
 	 * @return {@code x -> x.charAt(index(x))}
 	 */
-	public static Functor<Character, String> charAt(final Functor<Integer, String> index) {
+	public static Functor<Character, String> charAt(Functor<Integer, String> index) {
+		final IntFunctor<String> indexFunctor = Primitives.asInt(index);
 		return new AbstractFunctor<Character, String>() {
 			
 			public Character apply(String self) {
-				return self.charAt(index.apply(self));
+				return self.charAt(indexFunctor.applyAsInt(self));
 			}
 		};
 	}
@@ -58,6 +75,10 @@ public abstract class Strings extends Objects {
 	
 	/**
 	 * 引数の文字列リストを、指定の区切文字列を利用して連接した文字列を返すような関数を返す。
+	 * <p>
+	 * 引数のリストが{@link RandomAccess}を実装する場合、連接後の長さをあらかじめ計算し、
+	 * 一度だけ確保した領域に文字列を書き込む。
+	 * </p>
 	 * @param delimiter 区切り文字列
 	 * @return リストの文字列を順に、区切り文字列で連接した文字列を返すような関数
 	 */
@@ -65,17 +86,70 @@ public abstract class Strings extends Objects {
 		return new AbstractFunctor<String, List<String>>() {
 			
 			public String apply(List<String> list) {
-				Iterator<String> iter = list.iterator();
-				if (iter.hasNext() == false) {
-					return ""; //$NON-NLS-1$
+				return join(list, delimiter);
+			}
+		};
+	}
+	
+	/**
+	 * 引数の文字列の並びを、指定の区切文字列を利用して連接した文字列を返すような関数を返す。
+	 * <p>
+	 * {@link #join(String)}と同様だが、{@link String}以外の{@link CharSequence}も連接できる。
+	 * </p>
+	 * @param delimiter 区切り文字列
+	 * @return 文字列を順に、区切り文字列で連接した文字列を返すような関数
+	 */
+	public static Functor<String, Iterable<? extends CharSequence>> joinSequences(final String delimiter) {
+		return new AbstractFunctor<String, Iterable<? extends CharSequence>>() {
+			
+			public String apply(Iterable<? extends CharSequence> sequences) {
+				return join(sequences, delimiter);
+			}
+		};
+	}
+	
+	/**
+	 * 引数の文字列の並びを、指定の区切文字列を利用して連接しながら、
+	 * 対象の{@link Appendable}に直接書き出すような操作器を返す。
+	 * <p>
+	 * 連接した結果を表す{@link String}を生成しないため、{@link java.io.Writer}や
+	 * {@link java.nio.CharBuffer}へ大量の文字列を出力する場合に利用するとよい。
+	 * 書き出しに失敗した場合、操作器は{@link EditException}をスローする。
+	 * </p>
+	 * @param <A> 書き出す先の型
+	 * @param delimiter 区切り文字列
+	 * @return 文字列を順に、区切り文字列で連接しながら書き出すような操作器
+	 */
+	public static <A extends Appendable>Editor<A, Iterable<? extends CharSequence>> joinTo(final String delimiter) {
+		return new AbstractEditor<A, Iterable<? extends CharSequence>>() {
+			
+			public A edit(A target, Iterable<? extends CharSequence> sequences) {
+				if (target == null) {
+					throw new IllegalArgumentException("target is null"); //$NON-NLS-1$
 				}
-				StringBuilder buf = new StringBuilder();
-				buf.append(iter.next());
-				while (iter.hasNext()) {
-					buf.append(delimiter);
-					buf.append(iter.next());
+				if (target instanceof StringBuilder) {
+					StringBuilder buf = (StringBuilder) target;
+					int length = joinedLength(sequences, delimiter);
+					if (length >= 0) {
+						buf.ensureCapacity(buf.length() + length);
+					}
+					appendJoined(buf, sequences, delimiter);
+					return target;
 				}
-				return buf.toString();
+				try {
+					Iterator<? extends CharSequence> iter = sequences.iterator();
+					if (iter.hasNext() == false) {
+						return target;
+					}
+					target.append(iter.next());
+					while (iter.hasNext()) {
+						target.append(delimiter);
+						target.append(iter.next());
+					}
+				} catch (IOException e) {
+					throw new EditException(e);
+				}
+				return target;
 			}
 		};
 	}
@@ -84,12 +158,65 @@ public abstract class Strings extends Objects {
 	 * {@link String#length()}に対応する関数。
 	 * @return 対応する関数
 	 */
-	public static Functor<Integer, String> length() {
-		return new AbstractFunctor<Integer, String>() {
-			
-			public Integer apply(String self) {
-				return self.length();
+	public static IntFunctor<String> length() {
+		return LENGTH;
+	}
+	
+	private static String join(Iterable<? extends CharSequence> sequences, String delimiter) {
+		int length = joinedLength(sequences, delimiter);
+		if (length == 0) {
+			return ""; //$NON-NLS-1$
+		}
+		StringBuilder buf = length > 0 ? new StringBuilder(length) : new StringBuilder();
+		appendJoined(buf, sequences, delimiter);
+		return buf.toString();
+	}
+	
+	/**
+	 * 文字列の並びを連接した際の長さを返す。
+	 * @param sequences 文字列の並び
+	 * @param delimiter 区切り文字列
+	 * @return 連接した際の長さ、事前に計算できない場合は{@code -1}
+	 */
+	private static int joinedLength(Iterable<? extends CharSequence> sequences, String delimiter) {
+		if ((sequences instanceof List<?> && sequences instanceof RandomAccess) == false) {
+			return -1;
+		}
+		List<? extends CharSequence> list = (List<? extends CharSequence>) sequences;
+		int size = list.size();
+		if (size == 0) {
+			return 0;
+		}
+		// StringBuilder.append(null)と同様に、nullは"null"として数える
+		long length = (long) String.valueOf(delimiter).length() * (size - 1);
+		for (int i = 0; i < size; i++) {
+			CharSequence sequence = list.get(i);
+			length += sequence == null ? 4 : sequence.length();
+		}
+		// 長すぎる場合は事前の確保を諦め、通常通り拡張させる
+		return length <= Integer.MAX_VALUE ? (int) length : -1;
+	}
+	
+	private static void appendJoined(StringBuilder buf, Iterable<? extends CharSequence> sequences, String delimiter) {
+		if (sequences instanceof List<?> && sequences instanceof RandomAccess) {
+			List<? extends CharSequence> list = (List<? extends CharSequence>) sequences;
+			int size = list.size();
+			for (int i = 0; i < size; i++) {
+				if (i > 0) {
+					buf.append(delimiter);
+				}
+				buf.append(list.get(i));
 			}
-		};
+			return;
+		}
+		Iterator<? extends CharSequence> iter = sequences.iterator();
+		if (iter.hasNext() == false) {
+			return;
+		}
+		buf.append(iter.next());
+		while (iter.hasNext()) {
+			buf.append(delimiter);
+			buf.append(iter.next());
+		}
 	}
 }
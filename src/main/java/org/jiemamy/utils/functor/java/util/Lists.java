@@ -15,14 +15,18 @@
  */
 package org.jiemamy.utils.functor.java.util;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import org.jiemamy.utils.functor.Functor;
 import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.Parallel;
 import org.jiemamy.utils.functor.java.lang.Iterables;
 
 /**
@@ -33,6 +37,46 @@ import org.jiemamy.utils.functor.java.lang.Iterables;
  */
 public abstract class Lists extends Iterables {
 	
+	private static final Comparator<Comparable<Object>> NATURAL = new Comparator<Comparable<Object>>() {
+		
+		public int compare(Comparable<Object> o1, Comparable<Object> o2) {
+			return o1.compareTo(o2);
+		}
+	};
+	
+	private static final Functor<ArrayList<Object>, Collection<?>> COPY =
+			new AbstractFunctor<ArrayList<Object>, Collection<?>>() {
+				
+				public ArrayList<Object> apply(Collection<?> self) {
+					return new ArrayList<Object>(self);
+				}
+			};
+	
+	private static final Functor<List<Comparable<Object>>, List<? extends Comparable<Object>>> SORT =
+			new AbstractFunctor<List<Comparable<Object>>, List<? extends Comparable<Object>>>() {
+				
+				public List<Comparable<Object>> apply(List<? extends Comparable<Object>> self) {
+					ArrayList<Comparable<Object>> copy = new ArrayList<Comparable<Object>>(self);
+					Collections.sort(copy);
+					return copy;
+				}
+			};
+	
+	private static final Functor<List<Object>, List<?>> UNMODIFIABLE = new AbstractFunctor<List<Object>, List<?>>() {
+		
+		public List<Object> apply(List<?> self) {
+			return Collections.<Object> unmodifiableList(self);
+		}
+	};
+	
+	private static final Functor<List<?>, Object> VALUE = new AbstractFunctor<List<?>, Object>() {
+		
+		public List<?> apply(Object source) {
+			return (List<?>) source;
+		}
+	};
+	
+
 	/**
 	 * {@link ArrayList#ArrayList(java.util.Collection)}に対応する関数を返す。
 	 * 
@@ -40,12 +84,10 @@ public abstract class Lists extends Iterables {
 	 * @return 対応する関数
 	 */
 	public static <T>Functor<ArrayList<T>, Collection<? extends T>> copy() {
-		return new AbstractFunctor<ArrayList<T>, Collection<? extends T>>() {
-			
-			public ArrayList<T> apply(Collection<? extends T> self) {
-				return new ArrayList<T>(self);
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<ArrayList<T>, Collection<? extends T>> result =
+				(Functor<ArrayList<T>, Collection<? extends T>>) (Functor<?, ?>) COPY;
+		return result;
 	}
 	
 	/**
@@ -63,26 +105,93 @@ public abstract class Lists extends Iterables {
 			public T apply(List<? extends T> self) {
 				return self.get(index);
 			}
+			
+			@Override
+			public void applyAll(List<? extends T>[] arguments, T[] results, int from, int to) {
+				checkRange(arguments, results, from, to);
+				for (int i = from; i < to; i++) {
+					results[i] = arguments[i].get(index);
+				}
+			}
 		};
 	}
 	
 	/**
-	 * {@link Collections#sort(List)}に対応する関数を返す。
+	 * {@link Collections#sort(List)}と同様に要素を整列し、新しいリストとして返す関数を返す。
+	 * 
+	 * <p>{@link #parallelSort(Comparator, int)}に要素の自然順序を指定した場合と同様である。</p>
 	 * 
 	 * @param <T> 要素の型
+	 * @param threshold 並列に整列する要素数の下限
 	 * @return 対応する関数
+	 * @throws IllegalArgumentException {@code threshold}に負の値が指定された場合
 	 */
-	public static <T extends Comparable<? super T>>Functor<List<T>, List<? extends T>> sort() {
+	public static <T extends Comparable<? super T>>Functor<List<T>, List<? extends T>> parallelSort(int threshold) {
+		@SuppressWarnings("unchecked")
+		Comparator<? super T> natural = (Comparator<? super T>) (Comparator<?>) NATURAL;
+		return parallelSort(natural, threshold);
+	}
+	
+	/**
+	 * {@link Collections#sort(List, Comparator)}と同様に要素を整列し、新しいリストとして返す関数を返す。
+	 * 
+	 * <p>返される関数は、要素数が{@code threshold}以上の場合、要素の列を連続した区間に分割して
+	 * {@link Parallel}で並列に整列し、それらを並列にマージする。
+	 * 要素数が{@code threshold}未満の場合は、{@link #sort(Comparator)}と同様に単一のスレッドで整列する。
+	 * いずれの場合も整列は安定であり、{@link #sort(Comparator)}と同じ結果を新しい{@link ArrayList}として返す。</p>
+	 * 
+	 * <p>{@code comparator}は複数のスレッドから同時に利用されるため、スレッドセーフでなければならない。</p>
+	 * 
+	 * @param <T> 要素の型
+	 * @param comparator 要素の比較に利用する比較器
+	 * @param threshold 並列に整列する要素数の下限
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code threshold}に負の値が指定された場合
+	 * @see Parallel
+	 */
+	public static <T>Functor<List<T>, List<? extends T>> parallelSort(final Comparator<? super T> comparator,
+			final int threshold) {
+		if (comparator == null) {
+			throw new IllegalArgumentException("comparator is null"); //$NON-NLS-1$
+		}
+		if (threshold < 0) {
+			throw new IllegalArgumentException("threshold must be >= 0"); //$NON-NLS-1$
+		}
 		return new AbstractFunctor<List<T>, List<? extends T>>() {
 			
 			public List<T> apply(List<? extends T> self) {
-				ArrayList<T> copy = new ArrayList<T>(self);
-				Collections.sort(copy);
-				return copy;
+				@SuppressWarnings("unchecked")
+				T[] array = (T[]) self.toArray();
+				T[] sorted;
+				if (array.length < threshold || Parallel.chunks(array.length, Parallel.DEFAULT_PARALLELISM) <= 1) {
+					Arrays.sort(array, comparator);
+					sorted = array;
+				} else {
+					sorted = new MergeSort<T>(array, comparator, Parallel.DEFAULT_PARALLELISM).sort();
+				}
+				// 整列済みの配列から、要素数分の容量を確保したリストへ一度だけ複写する
+				List<T> results = new ArrayList<T>(sorted.length);
+				for (T element : sorted) {
+					results.add(element);
+				}
+				return results;
 			}
 		};
 	}
 	
+	/**
+	 * {@link Collections#sort(List)}に対応する関数を返す。
+	 * 
+	 * @param <T> 要素の型
+	 * @return 対応する関数
+	 */
+	public static <T extends Comparable<? super T>>Functor<List<T>, List<? extends T>> sort() {
+		@SuppressWarnings("unchecked")
+		Functor<List<T>, List<? extends T>> result = (Functor<List<T>, List<? extends T>>) (Functor<?, ?>) SORT;
+		return result;
+	}
+	
 	/**
 	 * {@link Collections#sort(List, Comparator)}に対応する関数を返す。
 	 * 
@@ -102,20 +211,164 @@ public abstract class Lists extends Iterables {
 	}
 	
 	/**
-	 * {@link Collections#unmodifiableList(List)}に対応する関数を返す。
+	 * 要素から取り出したキーの自然順序によって要素を整列し、新しいリストとして返す関数を返す。
+	 * 
+	 * <p>{@link #sortBy(Functor, Comparator)}にキーの自然順序を指定した場合と同様である。</p>
 	 * 
 	 * @param <T> 要素の型
+	 * @param <K> キーの型
+	 * @param key 要素からキーを取り出す関数
 	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
 	 */
-	public static <T>Functor<List<T>, List<? extends T>> unmodifiable() {
+	public static <T, K extends Comparable<? super K>>Functor<List<T>, List<? extends T>> sortBy(
+			Functor<? extends K, ? super T> key) {
+		@SuppressWarnings("unchecked")
+		Comparator<? super K> natural = (Comparator<? super K>) (Comparator<?>) NATURAL;
+		return sortBy(key, natural);
+	}
+	
+	/**
+	 * 要素から取り出したキーによって要素を整列し、新しいリストとして返す関数を返す。
+	 * 
+	 * <p>返される関数は、整列の前にそれぞれの要素に対して{@code key}を一度だけ適用し、
+	 * 要素とキーの組を整列する。
+	 * そのため、比較のたびに{@code key}を適用する比較器を{@link #sort(Comparator)}に渡すよりも、
+	 * {@code key}の適用回数が少なくなる。整列は安定である。</p>
+	 * 
+	 * @param <T> 要素の型
+	 * @param <K> キーの型
+	 * @param key 要素からキーを取り出す関数
+	 * @param comparator キーの比較に利用する比較器
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合
+	 */
+	public static <T, K>Functor<List<T>, List<? extends T>> sortBy(final Functor<? extends K, ? super T> key,
+			final Comparator<? super K> comparator) {
+		if (key == null) {
+			throw new IllegalArgumentException("key is null"); //$NON-NLS-1$
+		}
+		if (comparator == null) {
+			throw new IllegalArgumentException("comparator is null"); //$NON-NLS-1$
+		}
+		final Comparator<Keyed<K, T>> byKey = new Comparator<Keyed<K, T>>() {
+			
+			public int compare(Keyed<K, T> o1, Keyed<K, T> o2) {
+				return comparator.compare(o1.key, o2.key);
+			}
+		};
+		return new AbstractFunctor<List<T>, List<? extends T>>() {
+			
+			public List<T> apply(List<? extends T> self) {
+				@SuppressWarnings("unchecked")
+				Keyed<K, T>[] keyed = (Keyed<K, T>[]) new Keyed<?, ?>[self.size()];
+				int index = 0;
+				for (T element : self) {
+					keyed[index++] = new Keyed<K, T>(key.apply(element), element);
+				}
+				Arrays.sort(keyed, byKey);
+				ArrayList<T> results = new ArrayList<T>(keyed.length);
+				for (Keyed<K, T> entry : keyed) {
+					results.add(entry.value);
+				}
+				return results;
+			}
+		};
+	}
+	
+	/**
+	 * 要素の自然順序で先頭から{@code k}個の要素を、整列された新しいリストとして返す関数を返す。
+	 * 
+	 * <p>{@link #top(int, Comparator)}に要素の自然順序を指定した場合と同様である。</p>
+	 * 
+	 * @param <T> 要素の型
+	 * @param k 取り出す要素の数
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException {@code k}に負の値が指定された場合
+	 */
+	public static <T extends Comparable<? super T>>Functor<List<T>, List<? extends T>> top(int k) {
+		@SuppressWarnings("unchecked")
+		Comparator<? super T> natural = (Comparator<? super T>) (Comparator<?>) NATURAL;
+		return top(k, natural);
+	}
+	
+	/**
+	 * 整列した際に先頭から{@code k}個となる要素を、整列された新しいリストとして返す関数を返す。
+	 * 
+	 * <p>返される関数は{@code sort(comparator)}の結果の先頭{@code k}個と同じ結果を返すが、
+	 * 全体を整列せずに、大きさ{@code k}のヒープを利用して要素を選択する。
+	 * そのため、要素数{@code n}に対して{@code O(n log k)}の時間で結果を求める。
+	 * 要素数が{@code k}以下の場合は、すべての要素を整列して返す。</p>
+	 * 
+	 * @param <T> 要素の型
+	 * @param k 取り出す要素の数
+	 * @param comparator 要素の比較に利用する比較器
+	 * @return 対応する関数
+	 * @throws IllegalArgumentException 引数に{@code null}が含まれる場合、
+	 *     または{@code k}に負の値が指定された場合
+	 */
+	public static <T>Functor<List<T>, List<? extends T>> top(final int k, final Comparator<? super T> comparator) {
+		if (k < 0) {
+			throw new IllegalArgumentException("k must be >= 0"); //$NON-NLS-1$
+		}
+		if (comparator == null) {
+			throw new IllegalArgumentException("comparator is null"); //$NON-NLS-1$
+		}
+		// 整列の安定性を保つため、比較結果が等しい場合は元の位置が後ろのものを大きいとみなす
+		final Comparator<Keyed<Integer, T>> reversed = new Comparator<Keyed<Integer, T>>() {
+			
+			public int compare(Keyed<Integer, T> o1, Keyed<Integer, T> o2) {
+				int result = comparator.compare(o2.value, o1.value);
+				if (result != 0) {
+					return result;
+				}
+				return o2.key.compareTo(o1.key);
+			}
+		};
 		return new AbstractFunctor<List<T>, List<? extends T>>() {
 			
 			public List<T> apply(List<? extends T> self) {
-				return Collections.unmodifiableList(self);
+				if (self.size() <= k) {
+					ArrayList<T> copy = new ArrayList<T>(self);
+					Collections.sort(copy, comparator);
+					return copy;
+				}
+				ArrayList<T> results = new ArrayList<T>(k);
+				if (k == 0) {
+					return results;
+				}
+				PriorityQueue<Keyed<Integer, T>> heap = new PriorityQueue<Keyed<Integer, T>>(k, reversed);
+				int index = 0;
+				for (T element : self) {
+					if (heap.size() < k) {
+						heap.add(new Keyed<Integer, T>(index, element));
+					} else if (comparator.compare(element, heap.peek().value) < 0) {
+						heap.poll();
+						heap.add(new Keyed<Integer, T>(index, element));
+					}
+					index++;
+				}
+				while (heap.isEmpty() == false) {
+					results.add(heap.poll().value);
+				}
+				Collections.reverse(results);
+				return results;
 			}
 		};
 	}
 	
+	/**
+	 * {@link Collections#unmodifiableList(List)}に対応する関数を返す。
+	 * 
+	 * @param <T> 要素の型
+	 * @return 対応する関数
+	 */
+	public static <T>Functor<List<T>, List<? extends T>> unmodifiable() {
+		@SuppressWarnings("unchecked")
+		Functor<List<T>, List<? extends T>> result = (Functor<List<T>, List<? extends T>>) (Functor<?, ?>) UNMODIFIABLE;
+		return result;
+	}
+	
 	/**
 	 * 値を{@code List<?>}型の値に変換する関数を返す。
 	 * 
@@ -126,11 +379,157 @@ public abstract class Lists extends Iterables {
 	 * @return {@code List<?>}型に変換する関数
 	 */
 	public static Functor<List<?>, Object> value() {
-		return new AbstractFunctor<List<?>, Object>() {
-			
-			public List<?> apply(Object source) {
-				return (List<?>) source;
+		return VALUE;
+	}
+	
+
+	/**
+	 * 要素と、その要素に対応するキーの組。
+	 * 
+	 * @param <K> キーの型
+	 * @param <T> 要素の型
+	 */
+	private static final class Keyed<K, T> {
+		
+		final K key;
+		
+		final T value;
+		
+
+		Keyed(K key, T value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+	
+	/**
+	 * {@link Parallel}を利用した、配列の安定な並列マージソート。
+	 * 
+	 * <p>配列を{@link Parallel}のチャンクごとに整列した後、隣り合う整列済みの区間の組を
+	 * 段階的にマージする。それぞれの段階では、マージ後の配列を{@link Parallel}のチャンクに分割し、
+	 * チャンクの先頭と末尾に対応するマージ元の位置を二分探索で求めることで、
+	 * 区間の組の数によらずマージを並列に実行する。</p>
+	 * 
+	 * @param <T> 要素の型
+	 */
+	static final class MergeSort<T> {
+		
+		private final T[] array;
+		
+		private final Comparator<? super T> comparator;
+		
+		private final int parallelism;
+		
+
+		MergeSort(T[] array, Comparator<? super T> comparator, int parallelism) {
+			assert array != null;
+			assert comparator != null;
+			assert parallelism > 0;
+			this.array = array;
+			this.comparator = comparator;
+			this.parallelism = parallelism;
+		}
+		
+		/**
+		 * 配列を整列する。
+		 * 
+		 * <p>作業用の配列との間で交互にマージするため、整列結果は元の配列に書き戻さず、
+		 * 最後にマージした側の配列をそのまま返す。</p>
+		 * 
+		 * @return 整列結果を保持する配列、元の配列か作業用の配列のいずれか
+		 */
+		T[] sort() {
+			final int size = array.length;
+			final int[] bounds = new int[Parallel.chunks(size, parallelism) + 1];
+			Parallel.execute(size, parallelism, new Parallel.Task() {
+				
+				public void run(int chunk, int from, int to) {
+					Arrays.sort(array, from, to, comparator);
+					bounds[chunk + 1] = to;
+				}
+			});
+			T[] source = array;
+			// マージのたびにすべての位置が書き込まれるため、作業用の配列は複写せずに確保する
+			@SuppressWarnings("unchecked")
+			T[] destination = (T[]) Array.newInstance(array.getClass().getComponentType(), size);
+			int[] runs = bounds;
+			while (runs.length > 2) {
+				mergeAll(source, destination, runs);
+				int[] merged = new int[runs.length / 2 + 1];
+				for (int i = 1; i < merged.length; i++) {
+					merged[i] = runs[Math.min(i * 2, runs.length - 1)];
+				}
+				runs = merged;
+				T[] swap = source;
+				source = destination;
+				destination = swap;
 			}
-		};
+			return source;
+		}
+		
+		/**
+		 * 整列済みの区間を2つずつマージする。
+		 * 
+		 * @param source マージ元の配列
+		 * @param destination マージ先の配列
+		 * @param runs 整列済みの区間の境界
+		 */
+		private void mergeAll(final T[] source, final T[] destination, final int[] runs) {
+			Parallel.execute(source.length, parallelism, new Parallel.Task() {
+				
+				public void run(int chunk, int from, int to) {
+					// マージ後に[from, to)と重なる区間の組をそれぞれ処理する
+					for (int left = 0; left < runs.length - 1; left += 2) {
+						int lo = runs[left];
+						int mid = runs[left + 1];
+						int hi = left + 2 < runs.length ? runs[left + 2] : mid;
+						if (hi <= from || to <= lo) {
+							continue;
+						}
+						int begin = Math.max(from, lo);
+						int end = Math.min(to, hi);
+						int i = lo + split(source, lo, mid, mid, hi, begin - lo);
+						int j = mid + (begin - lo) - (i - lo);
+						for (int k = begin; k < end; k++) {
+							if (j >= hi || (i < mid && comparator.compare(source[i], source[j]) <= 0)) {
+								destination[k] = source[i++];
+							} else {
+								destination[k] = source[j++];
+							}
+						}
+					}
+				}
+			});
+		}
+		
+		/**
+		 * 2つの整列済みの区間を安定にマージした際に、先頭の{@code count}個に含まれる
+		 * 前側の区間の要素数を返す。
+		 * 
+		 * @param source 対象の配列
+		 * @param aFrom 前側の区間の開始位置
+		 * @param aTo 前側の区間の終了位置
+		 * @param bFrom 後側の区間の開始位置
+		 * @param bTo 後側の区間の終了位置
+		 * @param count 先頭からの要素数
+		 * @return 前側の区間の要素数
+		 */
+		private int split(T[] source, int aFrom, int aTo, int bFrom, int bTo, int count) {
+			int aSize = aTo - aFrom;
+			int bSize = bTo - bFrom;
+			int lo = Math.max(0, count - bSize);
+			int hi = Math.min(count, aSize);
+			while (lo < hi) {
+				int i = (lo + hi) >>> 1;
+				int j = count - i;
+				// 前側のi番目が後側のj-1番目より先に出力されるなら、iはまだ小さい
+				if (j > 0 && comparator.compare(source[aFrom + i], source[bFrom + j - 1]) <= 0) {
+					lo = i + 1;
+				} else {
+					hi = i;
+				}
+			}
+			return lo;
+		}
 	}
 }
@@ -31,6 +31,38 @@ import org.jiemamy.utils.functor.java.lang.Objects;
  */
 public class Maps extends Objects {
 	
+	private static final Functor<Set<Map.Entry<Object, Object>>, Map<Object, Object>> ENTRY_SET =
+			new AbstractFunctor<Set<Map.Entry<Object, Object>>, Map<Object, Object>>() {
+				
+				public Set<Map.Entry<Object, Object>> apply(Map<Object, Object> self) {
+					return self.entrySet();
+				}
+			};
+	
+	private static final Functor<Set<Object>, Map<Object, ?>> KEY_SET =
+			new AbstractFunctor<Set<Object>, Map<Object, ?>>() {
+				
+				public Set<Object> apply(Map<Object, ?> self) {
+					return self.keySet();
+				}
+			};
+	
+	private static final Functor<Map<?, ?>, Object> VALUE = new AbstractFunctor<Map<?, ?>, Object>() {
+		
+		public Map<?, ?> apply(Object source) {
+			return (Map<?, ?>) source;
+		}
+	};
+	
+	private static final Functor<Collection<Object>, Map<?, Object>> VALUES =
+			new AbstractFunctor<Collection<Object>, Map<?, Object>>() {
+				
+				public Collection<Object> apply(Map<?, Object> self) {
+					return self.values();
+				}
+			};
+	
+
 	/**
 	 * {@link Map#entrySet()}に対応する関数を返す。
 	 * 
@@ -39,12 +71,10 @@ public class Maps extends Objects {
 	 * @return 対応する関数
 	 */
 	public static <K, V>Functor<Set<Map.Entry<K, V>>, Map<K, V>> entrySet() {
-		return new AbstractFunctor<Set<Map.Entry<K, V>>, Map<K, V>>() {
-			
-			public Set<Map.Entry<K, V>> apply(Map<K, V> self) {
-				return self.entrySet();
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<Set<Map.Entry<K, V>>, Map<K, V>> result =
+				(Functor<Set<Map.Entry<K, V>>, Map<K, V>>) (Functor<?, ?>) ENTRY_SET;
+		return result;
 	}
 	
 	/**
@@ -62,6 +92,14 @@ public class Maps extends Objects {
 			public V apply(Map<?, V> self) {
 				return self.get(key);
 			}
+			
+			@Override
+			public void applyAll(Map<?, V>[] arguments, V[] results, int from, int to) {
+				checkRange(arguments, results, from, to);
+				for (int i = from; i < to; i++) {
+					results[i] = arguments[i].get(key);
+				}
+			}
 		};
 	}
 	
@@ -72,12 +110,9 @@ public class Maps extends Objects {
 	 * @return 対応する関数
 	 */
 	public static <K>Functor<Set<K>, Map<K, ?>> keySet() {
-		return new AbstractFunctor<Set<K>, Map<K, ?>>() {
-			
-			public Set<K> apply(Map<K, ?> self) {
-				return self.keySet();
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<Set<K>, Map<K, ?>> result = (Functor<Set<K>, Map<K, ?>>) (Functor<?, ?>) KEY_SET;
+		return result;
 	}
 	
 	/**
@@ -93,6 +128,15 @@ public class Maps extends Objects {
 			public V apply(Object key) {
 				return map.get(key);
 			}
+			
+			@Override
+			public void applyAll(Object[] arguments, V[] results, int from, int to) {
+				checkRange(arguments, results, from, to);
+				Map<?, V> m = map;
+				for (int i = from; i < to; i++) {
+					results[i] = m.get(arguments[i]);
+				}
+			}
 		};
 	}
 	
@@ -102,12 +146,7 @@ public class Maps extends Objects {
 	 * @return {@code Map<?, ?>}型に変換する関数
 	 */
 	public static Functor<Map<?, ?>, Object> value() {
-		return new AbstractFunctor<Map<?, ?>, Object>() {
-			
-			public Map<?, ?> apply(Object source) {
-				return (Map<?, ?>) source;
-			}
-		};
+		return VALUE;
 	}
 	
 	/**
@@ -117,11 +156,8 @@ public class Maps extends Objects {
 	 * @return 対応する関数
 	 */
 	public static <V>Functor<Collection<V>, Map<?, V>> values() {
-		return new AbstractFunctor<Collection<V>, Map<?, V>>() {
-			
-			public Collection<V> apply(Map<?, V> self) {
-				return self.values();
-			}
-		};
+		@SuppressWarnings("unchecked")
+		Functor<Collection<V>, Map<?, V>> result = (Functor<Collection<V>, Map<?, V>>) (Functor<?, ?>) VALUES;
+		return result;
 	}
 }
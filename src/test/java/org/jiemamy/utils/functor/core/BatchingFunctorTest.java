@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link BatchingFunctor}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class BatchingFunctorTest {
+	
+	/**
+	 * Test method for {@link BatchingFunctor#apply(Object)}.
+	 */
+	@Test
+	public void testApply() {
+		Twice twice = new Twice();
+		BatchingFunctor<Integer, Integer> batching = Functors.batching(twice, 16, 0, TimeUnit.SECONDS);
+		assertThat(batching.apply(1), is(2));
+		assertThat(batching.apply(2), is(4));
+		assertThat(twice.batches.get(), is(2));
+		assertThat(batching.getMaxBatch(), is(16));
+		assertThat(batching.getMaxDelayNanos(), is(0L));
+	}
+	
+	/**
+	 * Test method for {@link BatchingFunctor#apply(Object)}.
+	 */
+	@Test
+	public void testApply_Exception() {
+		BatchingFunctor<Integer, Integer> batching = Functors.batching(new Twice(), 16, 0, TimeUnit.SECONDS);
+		try {
+			batching.apply(null);
+			fail();
+		} catch (NullPointerException e) {
+			// ok.
+		}
+		assertThat(batching.apply(3), is(6));
+	}
+	
+	/**
+	 * Test method for {@link BatchingFunctor#apply(Object)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testApply_Concurrent() throws Exception {
+		final int threads = 8;
+		final int perThread = 200;
+		final Twice twice = new Twice();
+		final BatchingFunctor<Integer, Integer> batching =
+				Functors.batching(twice, 4, 1, TimeUnit.MILLISECONDS);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger errors = new AtomicInteger();
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			final int base = t * perThread;
+			Thread worker = new Thread() {
+				
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = base; i < base + perThread; i++) {
+							if (batching.apply(i) != i * 2) {
+								errors.incrementAndGet();
+							}
+						}
+					} catch (InterruptedException e) {
+						errors.incrementAndGet();
+					}
+				}
+			};
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertThat(errors.get(), is(0));
+		assertThat(twice.applied.get(), is(threads * perThread));
+		assertThat(twice.oversized.get(), is(0));
+	}
+	
+
+	private static class Twice extends AbstractFunctor<Integer, Integer> {
+		
+		final AtomicInteger batches = new AtomicInteger();
+		
+		final AtomicInteger applied = new AtomicInteger();
+		
+		final AtomicInteger oversized = new AtomicInteger();
+		
+
+		Twice() {
+			return;
+		}
+		
+		public Integer apply(Integer argument) {
+			return argument * 2;
+		}
+		
+		@Override
+		public void applyAll(List<? extends Integer> arguments, Collection<? super Integer> results) {
+			batches.incrementAndGet();
+			applied.addAndGet(arguments.size());
+			if (arguments.size() > 4) {
+				oversized.incrementAndGet();
+			}
+			super.applyAll(arguments, results);
+		}
+	}
+}
@@ -17,12 +17,18 @@ package org.jiemamy.utils.functor.core;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.Functor;
 
 /**
  * Test for {@link Cast}.
@@ -32,6 +38,24 @@ import org.jiemamy.utils.functor.ApplyException;
  */
 public class CastTest {
 	
+	/**
+	 * Test method for {@link Cast#cached(java.lang.Class)}.
+	 */
+	@Test
+	public void testCached() {
+		Cast<CharSequence> cast = Cast.cached(CharSequence.class);
+		for (int i = 0; i < 2; i++) {
+			assertThat(cast.apply("Hello"), is((CharSequence) "Hello"));
+			assertThat(cast.apply(null), is(nullValue()));
+			try {
+				cast.apply(new Integer(1));
+				fail();
+			} catch (ApplyException e) {
+				// ok.
+			}
+		}
+	}
+	
 	/**
 	 * Test method for {@link Cast#to(java.lang.Class)}.
 	 */
@@ -51,6 +75,85 @@ public class CastTest {
 		cast.apply(new Integer(1));
 	}
 	
+	/**
+	 * Test method for {@link Cast#to(java.lang.Class)}.
+	 */
+	@Test
+	public void testTo_ApplyAll() {
+		Cast<String> cast = Cast.to(String.class);
+		Object[] arguments = {
+			"a",
+			null,
+			"c"
+		};
+		String[] results = new String[3];
+		cast.applyAll(arguments, results, 0, 3);
+		assertThat(Arrays.asList(results), is(Arrays.asList("a", null, "c")));
+	}
+	
+	/**
+	 * Test method for {@link Cast#to(java.lang.Class)}.
+	 */
+	@Test(expected = ApplyException.class)
+	public void testTo_ApplyAll_Exception() {
+		Cast<String> cast = Cast.to(String.class);
+		cast.applyAll(new Object[] {
+			"a",
+			new Integer(1)
+		}, new String[2], 0, 2);
+	}
+	
+	/**
+	 * Test method for {@link Cast#to(java.lang.Class, ApplyException)}.
+	 */
+	@Test
+	public void testTo_Failure() {
+		ApplyException failure = ApplyException.withoutStackTrace("not a string");
+		Cast<String> cast = Cast.to(String.class, failure);
+		assertThat(cast.apply("Hello"), is("Hello"));
+		assertThat(cast.apply(null), is(nullValue()));
+		try {
+			cast.apply(new Integer(1));
+			fail();
+		} catch (ApplyException e) {
+			assertThat(e, sameInstance(failure));
+			assertThat(e.getStackTrace().length, is(0));
+		}
+	}
+	
+	/**
+	 * Test method for {@link ApplyException#withoutStackTrace(String)}.
+	 */
+	@Test
+	public void testTo_FailureImmutable() {
+		ApplyException failure = ApplyException.withoutStackTrace("not a string");
+		try {
+			failure.initCause(new Exception());
+			fail();
+		} catch (IllegalStateException e) {
+			// ok.
+		}
+		failure.setStackTrace(new Exception().getStackTrace());
+		assertThat(failure.getCause(), is(nullValue()));
+		assertThat(failure.getStackTrace().length, is(0));
+	}
+	
+	/**
+	 * Test method for {@link Cast#tryTo(java.lang.Class)}.
+	 */
+	@Test
+	public void testTryTo() {
+		Functor<Result<String>, Object> cast = Cast.tryTo(String.class);
+		assertThat(cast.apply("Hello").get(), is("Hello"));
+		assertThat(cast.apply(null).isSuccess(), is(true));
+		assertThat(cast.apply(null).get(), is(nullValue()));
+		
+		Result<String> failed = cast.apply(new Integer(1));
+		assertThat(failed.isSuccess(), is(false));
+		assertThat(failed.getOrElse("default"), is("default"));
+		assertThat(failed, sameInstance(Result.<String> failure()));
+	}
+	
 	/**
 	 * Test method for {@link Cast#unchecked()}.
 	 */
@@ -70,4 +173,23 @@ public class CastTest {
 		String result = cast.apply(new Integer(1));
 		fail(result);
 	}
+	
+	/**
+	 * Test method for {@link Cast#unchecked()}.
+	 */
+	@Test
+	public void testUnchecked_ApplyAll() {
+		Cast<String> cast = Cast.<String> unchecked();
+		Object[] arguments = {
+			"a",
+			"b"
+		};
+		String[] results = new String[2];
+		cast.applyAll(arguments, results, 0, 2);
+		assertThat(Arrays.asList(results), is(Arrays.asList("a", "b")));
+		
+		List<String> collected = new ArrayList<String>();
+		cast.applyAll(Arrays.asList(arguments), collected);
+		assertThat(collected, is(Arrays.asList("a", "b")));
+	}
 }
@@ -18,6 +18,7 @@ package org.jiemamy.utils.functor.core;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,6 +51,56 @@ public class EditorsTest {
 		assertThat(edited.toString(), is("Hello0Hello1Hello2"));
 	}
 	
+	/**
+	 * Test method for {@link Editors#compose(java.lang.Iterable)}.
+	 */
+	@Test
+	public void testComposeEditors_Through() {
+		List<Editor<StringBuilder, String>> list = new ArrayList<Editor<StringBuilder, String>>();
+		list.add(Editors.<StringBuilder, String> through());
+		list.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("0")));
+		list.add(Editors.<StringBuilder, String> through());
+		Editor<StringBuilder, String> editor = Editors.compose(list);
+		assertThat(editor.edit(new StringBuilder(), "Hello").toString(), is("Hello0"));
+		
+		list.clear();
+		list.add(Editors.<StringBuilder, String> through());
+		assertThat(Editors.compose(list), sameInstance(Editors.<StringBuilder, String> through()));
+	}
+	
+	/**
+	 * Test method for {@link Editors#compose(java.lang.Iterable)}.
+	 */
+	@Test
+	public void testComposeEditors_Nested() {
+		List<Editor<StringBuilder, String>> inner = new ArrayList<Editor<StringBuilder, String>>();
+		inner.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("1")));
+		inner.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("2")));
+		List<Editor<StringBuilder, String>> outer = new ArrayList<Editor<StringBuilder, String>>();
+		outer.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("0")));
+		outer.add(Editors.compose(inner));
+		outer.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("3")));
+		Editor<StringBuilder, String> editor = Editors.compose(outer);
+		assertThat(editor.edit(new StringBuilder(), "a").toString(), is("a0a1a2a3"));
+		assertThat(Editors.stagesOf(editor).size(), is(4));
+	}
+	
+	/**
+	 * Test method for {@link Editors#compose(java.lang.Iterable)}.
+	 */
+	@Test
+	public void testComposeEditors_Fused() {
+		Count count = new Count();
+		List<Editor<StringBuilder, String>> list = new ArrayList<Editor<StringBuilder, String>>();
+		list.add(Editors.<StringBuilder, String, String> compose(new Append(), count));
+		list.add(Editors.<StringBuilder, String, String> compose(new Append(), count));
+		list.add(Editors.<StringBuilder, String, String> compose(new Append(), new Add("!")));
+		list.add(Editors.<StringBuilder, String, String> compose(new Append(), count));
+		Editor<StringBuilder, String> editor = Editors.compose(list);
+		assertThat(editor.edit(new StringBuilder(), "a").toString(), is("a1a1a!a2"));
+		assertThat(count.count, is(2));
+	}
+	
 	/**
 	 * Test method for {@link Editors#compose(java.lang.Iterable)}.
 	 */
@@ -83,6 +134,18 @@ public class EditorsTest {
 		editor.edit(null, "Hello");
 	}
 	
+	/**
+	 * Test method for {@link Editors#compose(Editor, org.jiemamy.utils.functor.Functor)}.
+	 */
+	@Test
+	public void testComposeFunctor_Nested() {
+		Editor<StringBuilder, String> inner =
+				Editors.<StringBuilder, String, String> compose(new Append(), new Add("a"));
+		Editor<StringBuilder, String> editor = Editors.<StringBuilder, String, String> compose(inner, new Add("b"));
+		assertThat(editor.edit(new StringBuilder(), "x").toString(), is("xba"));
+		assertThat(Editors.editorOf(editor), sameInstance((Object) Editors.editorOf(inner)));
+	}
+	
 	/**
 	 * Test method for {@link Editors#through()}.
 	 */
@@ -95,6 +158,14 @@ public class EditorsTest {
 		assertThat(edited, sameInstance(buf));
 	}
 	
+	/**
+	 * Test method for {@link Editors#through()}.
+	 */
+	@Test
+	public void testThrough_Singleton() {
+		assertThat(Editors.<StringBuilder, String> through(), sameInstance((Object) Editors.<String, Object> through()));
+	}
+	
 	/**
 	 * Test method for {@link Editors#through()}.
 	 */
@@ -103,4 +174,74 @@ public class EditorsTest {
 		Editor<StringBuilder, String> editor = Editors.through();
 		editor.edit(null, "Hello");
 	}
+	
+	/**
+	 * Test method for {@link Editors#parallel(java.lang.Iterable, int)}.
+	 */
+	@Test
+	public void testParallel() {
+		List<Editor<int[], Integer>> list = new ArrayList<Editor<int[], Integer>>();
+		for (int i = 0; i < 200; i++) {
+			list.add(new SetAt(i));
+		}
+		Editor<int[], Integer> editor = Editors.parallel(list, 4);
+		int[] target = new int[200];
+		assertThat(editor.edit(target, 10), sameInstance(target));
+		for (int i = 0; i < target.length; i++) {
+			assertThat(target[i], is(i + 10));
+		}
+		
+		list.clear();
+		list.add(Editors.<int[], Integer> through());
+		assertThat(Editors.parallel(list, 4), sameInstance(Editors.<int[], Integer> through()));
+	}
+	
+	/**
+	 * Test method for {@link Editors#parallel(java.lang.Iterable, int)}.
+	 */
+	@Test
+	public void testParallel_Exception() {
+		List<Editor<int[], Integer>> list = new ArrayList<Editor<int[], Integer>>();
+		for (int i = 0; i < 200; i++) {
+			list.add(new SetAt(i));
+		}
+		Editor<int[], Integer> editor = Editors.parallel(list, 4);
+		try {
+			editor.edit(new int[100], 0);
+			fail();
+		} catch (ArrayIndexOutOfBoundsException e) {
+			// ok.
+		}
+	}
+	
+
+	private static class Count extends AbstractFunctor<String, String> {
+		
+		int count;
+		
+
+		Count() {
+			return;
+		}
+		
+		public String apply(String argument) {
+			count++;
+			return argument + count;
+		}
+	}
+	
+	private static class SetAt extends AbstractEditor<int[], Integer> {
+		
+		private final int index;
+		
+
+		SetAt(int index) {
+			this.index = index;
+		}
+		
+		public int[] edit(int[] target, Integer argument) {
+			target[index] = argument + index;
+			return target;
+		}
+	}
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * Test for {@link FunctorCompiler}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class FunctorCompilerTest {
+	
+	/**
+	 * Test method for {@link FunctorCompiler#compile(Editor)}.
+	 */
+	@Test
+	public void testCompile_Editor() {
+		List<Editor<? super StringBuilder, ? super String>> inner =
+				new ArrayList<Editor<? super StringBuilder, ? super String>>();
+		inner.add(new Append());
+		inner.add(new Append());
+		List<Editor<? super StringBuilder, ? super String>> editors =
+				new ArrayList<Editor<? super StringBuilder, ? super String>>();
+		editors.add(new Append());
+		editors.add(Editors.compose(new Append(), new Add("f")));
+		editors.add(Editors.compose(Editors.<StringBuilder, String> compose(inner), new Add("g")));
+		Editor<StringBuilder, String> editor = Editors.compose(editors);
+		
+		Editor<StringBuilder, String> compiled = FunctorCompiler.compile(editor);
+		assertThat(compiled, not(sameInstance(editor)));
+		assertThat(compiled.edit(new StringBuilder(), "a").toString(), is("aafagag"));
+	}
+	
+	/**
+	 * Test method for {@link FunctorCompiler#compile(Editor)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCompile_Editor_NullTarget() {
+		List<Editor<? super StringBuilder, ? super String>> editors =
+				new ArrayList<Editor<? super StringBuilder, ? super String>>();
+		editors.add(Editors.compose(new Append(), new Add("f")));
+		FunctorCompiler.compile(Editors.compose(editors)).edit(null, "a");
+	}
+	
+	/**
+	 * Test method for {@link FunctorCompiler#compile(Functor)}.
+	 */
+	@Test
+	public void testCompile_Functor() {
+		Functor<String, String> functor = new Add("a").andThen(new Add("b")).andThen(new Add("c"));
+		Functor<String, String> compiled = FunctorCompiler.compile(functor);
+		assertThat(compiled, not(sameInstance(functor)));
+		assertThat(compiled.apply("x"), is("xabc"));
+		
+		Add add = new Add("a");
+		assertThat(FunctorCompiler.compile(add), sameInstance((Object) add));
+	}
+	
+	/**
+	 * Test method for {@link FunctorCompiler#compile(Functor)}.
+	 */
+	@Test
+	public void testCompile_Functor_Deep() {
+		Functor<String, String> functor = new Add("");
+		for (int i = 0; i < 200; i++) {
+			functor = functor.andThen(new Add("x"));
+		}
+		assertThat(FunctorCompiler.compile(functor).apply("").length(), is(200));
+	}
+	
+	/**
+	 * Test method for {@link FunctorCompiler#compile(Generator)}.
+	 */
+	@Test
+	public void testCompile_Generator() {
+		Generator<String> generator =
+				Generators.compose(new Add("b"), Generators.compose(new Add("a"), Generators.constant("x")));
+		Generator<String> compiled = FunctorCompiler.compile(generator);
+		assertThat(compiled, not(sameInstance(generator)));
+		assertThat(compiled.generate(), is("xab"));
+		
+		Generator<String> constant = Generators.constant("x");
+		assertThat(FunctorCompiler.compile(constant), sameInstance(constant));
+	}
+}
@@ -19,9 +19,21 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
+import org.jiemamy.utils.functor.AsyncFunctor;
+import org.jiemamy.utils.functor.BatchFunctor;
+import org.jiemamy.utils.functor.BinaryFunctor;
 import org.jiemamy.utils.functor.Editor;
 import org.jiemamy.utils.functor.Functor;
 import org.jiemamy.utils.functor.Generator;
@@ -46,6 +58,71 @@ public class FunctorsTest {
 		assertThat(always.apply(null), sameInstance(value));
 	}
 	
+	/**
+	 * Test method for {@link Functors#async(Functor, Executor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testAsync() throws Exception {
+		Deferred executor = new Deferred();
+		AsyncFunctor<String, String> async = Functors.async(new Add(", world!"), executor);
+		Future<String> future = async.apply("Hello");
+		assertThat(future.isDone(), is(false));
+		executor.runAll();
+		assertThat(future.isDone(), is(true));
+		assertThat(future.get(), is("Hello, world!"));
+	}
+	
+	/**
+	 * Test method for {@link Functors#async(Functor, Executor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testAsync_Exception() throws Exception {
+		Deferred executor = new Deferred();
+		AsyncFunctor<String, String> failing = Functors.async(new AbstractFunctor<String, String>() {
+			
+			public String apply(String argument) {
+				throw new IllegalStateException();
+			}
+		}, executor);
+		Future<String> chained = failing.thenApply(new Add("!")).apply("a");
+		executor.runAll();
+		try {
+			chained.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof IllegalStateException, is(true));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Functors#batch(Functor)}.
+	 */
+	@Test
+	public void testBatch() {
+		Add add = new Add("a");
+		assertThat(Functors.batch(add), sameInstance((Object) add));
+		Functor<String, String> plain = new Functor<String, String>() {
+			
+			public <R>Functor<R, String> andThen(Functor<? extends R, ? super String> chain) {
+				return Functors.compose(chain, this);
+			}
+			
+			public String apply(String argument) {
+				return argument + "b";
+			}
+		};
+		BatchFunctor<String, String> batch = Functors.batch(plain);
+		String[] values = {
+			"x",
+			"y",
+			"z"
+		};
+		batch.applyAll(values, values, 1, 3);
+		assertThat(Arrays.asList(values), is(Arrays.asList("x", "yb", "zb")));
+	}
+	
 	/**
 	 * Test method for {@link Functors#compose(Functor, Functor)}.
 	 */
@@ -55,6 +132,121 @@ public class FunctorsTest {
 		assertThat(c.apply("a"), is("afg"));
 	}
 	
+	/**
+	 * Test method for {@link Functors#compose(Functor, Functor)}.
+	 */
+	@Test
+	public void testCompose_Nested() {
+		Functor<String, String> left = Functors.compose(new Add("b"), new Add("a"));
+		Functor<String, String> right = Functors.compose(new Add("d"), new Add("c"));
+		Functor<String, String> c = Functors.compose(right, left);
+		assertThat(c.apply("-"), is("-abcd"));
+		
+		Functor<String, String> chain = new Add("0");
+		for (int i = 1; i < 20; i++) {
+			chain = chain.andThen(new Add(String.valueOf(i % 10)));
+		}
+		assertThat(chain.apply("-"), is("-01234567890123456789"));
+	}
+	
+	/**
+	 * Test method for {@link Functors#compose(Functor, Functor)}.
+	 */
+	@Test
+	public void testCompose_Identity() {
+		Functor<String, String> add = new Add("a");
+		assertThat(Functors.compose(Functors.<String> id(), add), sameInstance(add));
+		assertThat(Functors.compose(add, Functors.<String> id()), sameInstance(add));
+		Functor<String, String> id = Functors.compose(Functors.<String> id(), Functors.<String> id());
+		assertThat(id.apply("a"), is("a"));
+	}
+	
+	/**
+	 * Test method for {@link Functors#compose(Functor, Functor)}.
+	 */
+	@Test
+	public void testCompose_ApplyAll() {
+		Functor<String, String> c = new Add("f").andThen(new Add("g")).andThen(new Add("h"));
+		String[] arguments = {
+			"a",
+			"b",
+			"c"
+		};
+		String[] results = new String[3];
+		Functors.batch(c).applyAll(arguments, results, 0, 2);
+		assertThat(Arrays.asList(results), is(Arrays.asList("afgh", "bfgh", null)));
+		
+		List<String> collected = new ArrayList<String>();
+		Functors.batch(c).applyAll(Arrays.asList(arguments), collected);
+		assertThat(collected, is(Arrays.asList("afgh", "bfgh", "cfgh")));
+	}
+	
+	/**
+	 * Test method for {@link Functors#compose(Functor, BinaryFunctor)}.
+	 */
+	@Test
+	public void testCompose_Binary() {
+		BinaryFunctor<Integer, Integer, Integer> sub = Functors.uncurry(new Sub());
+		Functor<String, Object> toString = new AbstractFunctor<String, Object>() {
+			
+			public String apply(Object argument) {
+				return String.valueOf(argument);
+			}
+		};
+		BinaryFunctor<String, Integer, Integer> composite = sub.andThen(toString);
+		assertThat(composite.apply(3, 1), is("2"));
+		assertThat(sub.andThen(Functors.<Integer> id()), sameInstance(sub));
+	}
+	
+	/**
+	 * Test method for {@link Functors#composeAsync(Functor, AsyncFunctor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testComposeAsync() throws Exception {
+		Deferred executor = new Deferred();
+		AsyncFunctor<String, String> composed =
+				Functors.composeAsync(new Add("!"), Functors.async(new Add(", world"), executor));
+		Future<String> future = composed.apply("Hello");
+		assertThat(future.isDone(), is(false));
+		assertThat(executor.tasks.size(), is(1));
+		executor.runAll();
+		assertThat(future.get(), is("Hello, world!"));
+	}
+	
+	/**
+	 * Test method for {@link Functors#curry(BinaryFunctor)}.
+	 */
+	@Test
+	public void testCurry() {
+		BinaryFunctor<String, String, String> concat = new AbstractBinaryFunctor<String, String, String>() {
+			
+			public String apply(String left, String right) {
+				return left + right;
+			}
+		};
+		Functor<Functor<String, String>, String> curried = Functors.curry(concat);
+		assertThat(curried.apply("a").apply("b"), is("ab"));
+		assertThat(Functors.uncurry(curried), sameInstance((Object) concat));
+	}
+	
+	/**
+	 * Test method for {@link Functors#flatComposeAsync(AsyncFunctor, AsyncFunctor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testFlatComposeAsync() throws Exception {
+		Deferred executor = new Deferred();
+		AsyncFunctor<String, String> first = Functors.async(new Add(", world"), executor);
+		AsyncFunctor<String, String> second = Functors.async(new Add("!"), executor);
+		AsyncFunctor<String, String> composed = first.thenCompose(second);
+		Future<String> future = composed.apply("Hello");
+		executor.runAll();
+		assertThat(future.isDone(), is(false));
+		executor.runAll();
+		assertThat(future.get(), is("Hello, world!"));
+	}
+	
 	/**
 	 * Test method for {@link Functors#from(Editor, Generator)}.
 	 */
@@ -90,6 +282,16 @@ public class FunctorsTest {
 		assertThat(Functors.id().apply(null), is(nullValue()));
 	}
 	
+	/**
+	 * Test method for {@link Functors#id()}.
+	 */
+	@Test
+	public void testId_Singleton() {
+		assertThat(Functors.<String> id(), sameInstance((Object) Functors.<Integer> id()));
+		Functor<String, String> add = new Add("a");
+		assertThat(add.andThen(Cast.<String> unchecked()), sameInstance(add));
+	}
+	
 	/**
 	 * Test method for {@link Functors#transpose(Functor)}.
 	 */
@@ -110,4 +312,41 @@ public class FunctorsTest {
 		Functor<? extends Functor<Integer, Integer>, Integer> ttsub = Functors.transpose(tsub);
 		assertThat(ttsub.apply(2).apply(1), is(1));
 	}
+	
+	/**
+	 * Test method for {@link Functors#uncurry(Functor)}.
+	 */
+	@Test
+	public void testUncurry() {
+		Sub sub = new Sub();
+		BinaryFunctor<Integer, Integer, Integer> uncurried = Functors.uncurry(sub);
+		assertThat(uncurried.apply(2, 1), is(sub.apply(2).apply(1)));
+		assertThat(Functors.curry(uncurried), sameInstance((Object) sub));
+	}
+	
+
+	/**
+	 * 依頼された処理を保持し、{@link #runAll()}が呼び出された際に実行する{@link Executor}。
+	 */
+	private static class Deferred implements Executor {
+		
+		final List<Runnable> tasks = new LinkedList<Runnable>();
+		
+
+		Deferred() {
+			return;
+		}
+		
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+		
+		void runAll() {
+			List<Runnable> current = new ArrayList<Runnable>(tasks);
+			tasks.clear();
+			for (Runnable task : current) {
+				task.run();
+			}
+		}
+	}
 }
@@ -19,6 +19,10 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -61,4 +65,99 @@ public class GeneratorsTest {
 		Generator<Object> generator = Generators.constant(null);
 		assertThat(generator.generate(), is(nullValue()));
 	}
+	
+	/**
+	 * Test method for {@link Generators#lazy(Generator)}.
+	 */
+	@Test
+	public void testLazy() {
+		Counter counter = new Counter();
+		Generator<Integer> lazy = Generators.lazy(counter);
+		assertThat(counter.count, is(0));
+		assertThat(lazy.generate(), is(1));
+		assertThat(lazy.generate(), is(1));
+		assertThat(counter.count, is(1));
+		assertThat(Generators.lazy(lazy), sameInstance(lazy));
+	}
+	
+	/**
+	 * Test method for {@link Generators#lazy(Generator)}.
+	 */
+	@Test
+	public void testLazy_Exception() {
+		Counter counter = new Counter();
+		counter.fail = true;
+		Generator<Integer> lazy = Generators.lazy(counter);
+		try {
+			lazy.generate();
+			fail();
+		} catch (IllegalStateException e) {
+			// ok.
+		}
+		counter.fail = false;
+		assertThat(lazy.generate(), is(2));
+		assertThat(lazy.generate(), is(2));
+	}
+	
+	/**
+	 * Test method for {@link Generators#refreshing(Generator, long, TimeUnit, Executor)}.
+	 */
+	@Test
+	public void testRefreshing() {
+		Counter counter = new Counter();
+		Generator<Integer> refreshing = Generators.refreshing(counter, 0, TimeUnit.SECONDS, new Executor() {
+			
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+		assertThat(counter.count, is(0));
+		assertThat(refreshing.generate(), is(1));
+		
+		// 古い値を返しつつ、再生成を依頼する
+		assertThat(refreshing.generate(), is(1));
+		assertThat(counter.count, is(2));
+		assertThat(refreshing.generate(), is(2));
+		
+		// 再生成に失敗した場合は古い値を保持する
+		counter.fail = true;
+		assertThat(refreshing.generate(), is(3));
+		assertThat(refreshing.generate(), is(3));
+		counter.fail = false;
+		assertThat(refreshing.generate(), is(3));
+		assertThat(refreshing.generate(), is(6));
+	}
+	
+	/**
+	 * Test method for {@link Generators#refreshing(Generator, long, TimeUnit)}.
+	 */
+	@Test
+	public void testRefreshing_Stale() {
+		Counter counter = new Counter();
+		Generator<Integer> refreshing = Generators.refreshing(counter, 1000, TimeUnit.SECONDS);
+		assertThat(refreshing.generate(), is(1));
+		assertThat(refreshing.generate(), is(1));
+		assertThat(counter.count, is(1));
+	}
+	
+
+	private static class Counter extends AbstractGenerator<Integer> {
+		
+		int count;
+		
+		boolean fail;
+		
+
+		Counter() {
+			return;
+		}
+		
+		public Integer generate() {
+			count++;
+			if (fail) {
+				throw new IllegalStateException();
+			}
+			return count;
+		}
+	}
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link InstanceCheck}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class InstanceCheckTest {
+	
+	/**
+	 * Test method for {@link InstanceCheck#test(java.lang.Object)}.
+	 */
+	@Test
+	public void testTest() {
+		InstanceCheck check = InstanceCheck.of(CharSequence.class);
+		for (int i = 0; i < 3; i++) {
+			assertThat(check.test("a"), is(true));
+			assertThat(check.test(new StringBuilder()), is(true));
+			assertThat(check.test(1), is(false));
+			assertThat(check.test(null), is(false));
+		}
+	}
+	
+	/**
+	 * Test method for {@link InstanceCheck#test(java.lang.Object)}.
+	 */
+	@Test
+	public void testTest_Overflow() {
+		InstanceCheck check = InstanceCheck.of(Serializable.class);
+		Object[] values = {
+			"a",
+			1,
+			1L,
+			1.0,
+			'a',
+			true,
+			new StringBuilder(),
+			new ArrayList<Object>(),
+			new LinkedList<Object>(),
+			new Object(),
+			new Thread(),
+		};
+		for (int i = 0; i < 3; i++) {
+			for (Object value : values) {
+				assertThat(String.valueOf(value), check.test(value), is(value instanceof Serializable));
+			}
+		}
+	}
+}
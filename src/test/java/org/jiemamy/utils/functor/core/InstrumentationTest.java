@@ -0,0 +1,148 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * Test for {@link Instrumentation}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class InstrumentationTest {
+	
+	/**
+	 * Test method for {@link Instrumentation#enable(MetricsSink)}.
+	 */
+	@Test
+	public void testEnable_Functors() {
+		MetricsRegistry registry = new MetricsRegistry();
+		Functor<String, String> functor;
+		Instrumentation.enable(registry);
+		try {
+			functor = Functors.compose(new Add("b"), new Add("a"));
+		} finally {
+			Instrumentation.disable();
+		}
+		assertThat(functor.apply("x"), is("xab"));
+		assertThat(functor.apply("y"), is("yab"));
+		String name = "Functors.compose[1]:" + Add.class.getName();
+		assertThat(registry.get(name).getCount(), is(2L));
+		assertThat(registry.getAll().size(), is(2));
+		
+		Functor<String, String> plain = Functors.compose(new Add("b"), new Add("a"));
+		registry.clear();
+		plain.apply("x");
+		assertThat(registry.getAll().size(), is(0));
+	}
+	
+	/**
+	 * Test method for {@link Instrumentation#enable(MetricsSink)}.
+	 */
+	@Test
+	public void testEnable_Editors() {
+		MetricsRegistry registry = new MetricsRegistry();
+		List<Editor<? super StringBuilder, ? super String>> list =
+				new ArrayList<Editor<? super StringBuilder, ? super String>>();
+		list.add(new Append());
+		list.add(new Append());
+		Editor<StringBuilder, String> editor;
+		Generator<String> generator;
+		Instrumentation.enable(registry);
+		try {
+			editor = Editors.<StringBuilder, String> compose(list);
+			generator = Generators.compose(new Add("a"), Generators.constant("x"));
+		} finally {
+			Instrumentation.disable();
+		}
+		assertThat(editor.edit(new StringBuilder(), "a").toString(), is("aa"));
+		assertThat(registry.get("Editors.compose[0]:" + Append.class.getName()).getCount(), is(1L));
+		assertThat(registry.get("Editors.compose[1]:" + Append.class.getName()).getCount(), is(1L));
+		assertThat(generator.generate(), is("xa"));
+		assertThat(registry.get("Generators.compose[0]:" + Add.class.getName()).getCount(), is(1L));
+	}
+	
+	/**
+	 * Test method for {@link Functors#instrumented(Functor, String, MetricsSink)}.
+	 */
+	@Test
+	public void testInstrumented_Exception() {
+		MetricsRegistry registry = new MetricsRegistry();
+		Functor<String, String> functor = Functors.instrumented(new Add("a"), "add", registry);
+		assertThat(registry.get("add"), is(nullValue()));
+		assertThat(functor.apply("x"), is("xa"));
+		
+		Functor<String, String> failing = Functors.instrumented(new AbstractFunctor<String, String>() {
+			
+			public String apply(String argument) {
+				throw new IllegalStateException();
+			}
+		}, "add", registry);
+		try {
+			failing.apply("x");
+			fail();
+		} catch (IllegalStateException e) {
+			// ok.
+		}
+		assertThat(registry.get("add").getCount(), is(2L));
+		assertThat(registry.get("add").getFailureCount(), is(1L));
+	}
+	
+	/**
+	 * Test method for {@link Functors#named(Functor, String)}.
+	 */
+	@Test
+	public void testNamed() {
+		MetricsRegistry registry = new MetricsRegistry();
+		MetricsRegistry local = new MetricsRegistry();
+		Functor<String, String> functor;
+		Instrumentation.enable(registry);
+		try {
+			functor = Functors.compose(Functors.instrumented(new Add("b"), "suffix", local),
+					Functors.named(new AbstractFunctor<String, String>() {
+						
+						public String apply(String argument) {
+							return argument + "a";
+						}
+					}, "lookup"));
+		} finally {
+			Instrumentation.disable();
+		}
+		assertThat(functor.apply("x"), is("xab"));
+		assertThat(registry.get("Functors.compose[0]:lookup").getCount(), is(1L));
+		assertThat(registry.get("Functors.compose[1]:suffix").getCount(), is(1L));
+		assertThat(registry.getAll().size(), is(2));
+		assertThat(local.get("suffix").getCount(), is(1L));
+		
+		Functor<String, String> plain = Functors.compose(new Add("b"), Functors.named(new Add("a"), "lookup"));
+		registry.clear();
+		assertThat(plain.apply("x"), is("xab"));
+		assertThat(registry.getAll().size(), is(0));
+	}
+}
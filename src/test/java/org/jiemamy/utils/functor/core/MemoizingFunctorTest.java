@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * Test for {@link MemoizingFunctor}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class MemoizingFunctorTest {
+	
+	/**
+	 * Test method for {@link Functors#memoize(Functor, CacheSpec)}.
+	 */
+	@Test
+	public void testMemoize() {
+		Counter counter = new Counter();
+		MemoizingFunctor<String, String> memo = Functors.memoize(counter, CacheSpec.lru(10));
+		assertThat(memo.apply("a"), is("a1"));
+		assertThat(memo.apply("a"), is("a1"));
+		assertThat(memo.apply("b"), is("b2"));
+		assertThat(memo.apply(null), is("null3"));
+		assertThat(memo.apply(null), is("null3"));
+		assertThat(memo.stats().getHitCount(), is(2L));
+		assertThat(memo.stats().getMissCount(), is(3L));
+		assertThat(memo.size(), is(3));
+	}
+	
+	/**
+	 * Test method for {@link CacheSpec#lru(int)}.
+	 */
+	@Test
+	public void testMemoize_Lru() {
+		Counter counter = new Counter();
+		MemoizingFunctor<String, String> memo = Functors.memoize(counter, CacheSpec.lru(2).concurrencyLevel(1));
+		memo.apply("a");
+		memo.apply("b");
+		memo.apply("a");
+		memo.apply("c");
+		assertThat(memo.size(), is(2));
+		assertThat(memo.stats().getEvictionCount(), is(1L));
+		assertThat(memo.apply("a"), is("a1"));
+		assertThat(memo.apply("b"), is("b4"));
+	}
+	
+	/**
+	 * Test method for {@link CacheSpec#tinyLfu(int)}.
+	 */
+	@Test
+	public void testMemoize_TinyLfu() {
+		Counter counter = new Counter();
+		MemoizingFunctor<String, String> memo = Functors.memoize(counter, CacheSpec.tinyLfu(100).concurrencyLevel(1));
+		for (int i = 0; i < 1000; i++) {
+			memo.apply("cold" + i);
+			memo.apply("hot" + (i % 50));
+		}
+		assertThat(memo.size(), is(100));
+		long misses = memo.stats().getMissCount();
+		for (int j = 0; j < 50; j++) {
+			memo.apply("hot" + j);
+		}
+		assertThat(memo.stats().getMissCount(), is(misses));
+	}
+	
+	/**
+	 * Test method for {@link CacheSpec#expireAfterWrite(long, TimeUnit)}.
+	 * 
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testMemoize_Expire() throws Exception {
+		Counter counter = new Counter();
+		MemoizingFunctor<String, String> memo =
+				Functors.memoize(counter, CacheSpec.lru(10).expireAfterWrite(1, TimeUnit.MILLISECONDS));
+		assertThat(memo.apply("a"), is("a1"));
+		Thread.sleep(10);
+		assertThat(memo.apply("a"), is("a2"));
+		assertThat(memo.stats().getEvictionCount(), is(1L));
+	}
+	
+	/**
+	 * Test method for {@link MemoizingFunctor#invalidateAll()}.
+	 */
+	@Test
+	public void testInvalidateAll() {
+		Counter counter = new Counter();
+		MemoizingFunctor<String, String> memo = Functors.memoize(counter, CacheSpec.lru(10));
+		memo.apply("a");
+		memo.invalidateAll();
+		assertThat(memo.size(), is(0));
+		assertThat(memo.apply("a"), is("a2"));
+	}
+	
+
+	private static class Counter extends AbstractFunctor<String, String> {
+		
+		private int count;
+		
+
+		Counter() {
+			return;
+		}
+		
+		public String apply(String argument) {
+			count++;
+			return argument + count;
+		}
+	}
+}
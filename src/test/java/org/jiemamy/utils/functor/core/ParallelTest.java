@@ -0,0 +1,106 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link Parallel}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class ParallelTest {
+	
+	/**
+	 * Test method for {@link Parallel#chunks(int, int)}.
+	 */
+	@Test
+	public void testChunks() {
+		assertThat(Parallel.chunks(0, 4), is(0));
+		assertThat(Parallel.chunks(10, 1), is(1));
+		assertThat(Parallel.chunks(10, 4), is(1));
+		assertThat(Parallel.chunks(10000, 4), is(16));
+	}
+	
+	/**
+	 * Test method for {@link Parallel#execute(int, int, Parallel.Task)}.
+	 */
+	@Test
+	public void testExecute() {
+		final AtomicIntegerArray visited = new AtomicIntegerArray(10007);
+		final AtomicIntegerArray chunks = new AtomicIntegerArray(Parallel.chunks(visited.length(), 8));
+		Parallel.execute(visited.length(), 8, new Parallel.Task() {
+			
+			public void run(int chunk, int from, int to) {
+				chunks.incrementAndGet(chunk);
+				for (int i = from; i < to; i++) {
+					visited.incrementAndGet(i);
+				}
+			}
+		});
+		for (int i = 0; i < visited.length(); i++) {
+			assertThat(visited.get(i), is(1));
+		}
+		for (int i = 0; i < chunks.length(); i++) {
+			assertThat(chunks.get(i), is(1));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Parallel#execute(int, int, Parallel.Task)}.
+	 */
+	@Test
+	public void testExecute_Nested() {
+		final AtomicIntegerArray visited = new AtomicIntegerArray(1000);
+		Parallel.execute(1000, 64, new Parallel.Task() {
+			
+			public void run(int chunk, final int from, int to) {
+				Parallel.execute(to - from, 64, new Parallel.Task() {
+					
+					public void run(int c, int f, int t) {
+						for (int i = f; i < t; i++) {
+							visited.incrementAndGet(from + i);
+						}
+					}
+				});
+			}
+		});
+		for (int i = 0; i < visited.length(); i++) {
+			assertThat(visited.get(i), is(1));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Parallel#execute(int, int, Parallel.Task)}.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testExecute_Exception() {
+		Parallel.execute(1000, 4, new Parallel.Task() {
+			
+			public void run(int chunk, int from, int to) {
+				if (chunk == 3) {
+					throw new IllegalStateException();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * Test for {@link PooledGenerator}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class PooledGeneratorTest {
+	
+	private static final Editor<StringBuilder, Object> CLEAR = new AbstractEditor<StringBuilder, Object>() {
+		
+		public StringBuilder edit(StringBuilder target, Object argument) {
+			target.setLength(0);
+			return target;
+		}
+	};
+	
+	private static final Functor<String, Object> TO_STRING = new AbstractFunctor<String, Object>() {
+		
+		public String apply(Object argument) {
+			return argument.toString();
+		}
+	};
+	
+
+	/**
+	 * Test method for {@link Generators#pooled(Generator, Editor, int)}.
+	 */
+	@Test
+	public void testPooled_Shared() {
+		PooledGenerator<StringBuilder> pool = Generators.pooled(new NewStringBuilder("x"), CLEAR, 1);
+		assertThat(pool.getMode(), is(PooledGenerator.Mode.SHARED));
+		StringBuilder first = pool.generate();
+		StringBuilder second = pool.generate();
+		assertThat(first, not(sameInstance(second)));
+		assertThat(first.toString(), is("x"));
+		
+		assertThat(pool.release(first), is(true));
+		assertThat(first.length(), is(0));
+		assertThat(pool.release(second), is(false));
+		assertThat(pool.generate(), sameInstance(first));
+		assertThat(pool.generate(), not(sameInstance(first)));
+	}
+	
+	/**
+	 * Test method for {@link Generators#pooled(Generator, Editor, int, PooledGenerator.Mode)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testPooled_ThreadLocal() throws Exception {
+		final PooledGenerator<StringBuilder> pool =
+				Generators.pooled(new NewStringBuilder(""), CLEAR, 2, PooledGenerator.Mode.THREAD_LOCAL);
+		StringBuilder value = pool.generate();
+		assertThat(pool.release(value), is(true));
+		
+		final StringBuilder[] other = new StringBuilder[1];
+		Thread thread = new Thread() {
+			
+			@Override
+			public void run() {
+				other[0] = pool.generate();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertThat(other[0], not(sameInstance(value)));
+		assertThat(pool.generate(), sameInstance(value));
+	}
+	
+	/**
+	 * Test method for {@link Functors#fromPooled(Editor, PooledGenerator, Functor)}.
+	 */
+	@Test
+	public void testFromPooled() {
+		PooledGenerator<StringBuilder> pool = Generators.pooled(new NewStringBuilder(""), CLEAR, 1);
+		Functor<String, Object> functor = Functors.fromPooled(new Append(), pool, TO_STRING);
+		assertThat(functor.apply("a"), is("a"));
+		assertThat(functor.apply("b"), is("b"));
+		
+		StringBuilder leased = pool.generate();
+		assertThat(leased.length(), is(0));
+		pool.release(leased);
+	}
+	
+	/**
+	 * Test method for {@link Functors#fromPooled(Editor, PooledGenerator, Functor)}.
+	 */
+	@Test
+	public void testFromPooled_Exception() {
+		PooledGenerator<StringBuilder> pool = Generators.pooled(new NewStringBuilder(""), CLEAR, 1);
+		StringBuilder leased = pool.generate();
+		pool.release(leased);
+		Functor<String, Object> failure = new AbstractFunctor<String, Object>() {
+			
+			public String apply(Object argument) {
+				throw new IllegalStateException();
+			}
+		};
+		Functor<String, Object> functor = Functors.fromPooled(new Append(), pool, failure);
+		try {
+			functor.apply("a");
+			fail();
+		} catch (IllegalStateException e) {
+			// ok.
+		}
+		assertThat(pool.generate(), sameInstance(leased));
+	}
+	
+	/**
+	 * Test method for {@link Functors#fromPooled(Editor, PooledGenerator, Functor)}.
+	 */
+	@Test
+	public void testFromPooled_ResetException() {
+		Editor<StringBuilder, Object> brokenReset = new AbstractEditor<StringBuilder, Object>() {
+			
+			public StringBuilder edit(StringBuilder target, Object argument) {
+				throw new UnsupportedOperationException();
+			}
+		};
+		PooledGenerator<StringBuilder> pool = Generators.pooled(new NewStringBuilder(""), brokenReset, 1);
+		Functor<String, Object> failure = new AbstractFunctor<String, Object>() {
+			
+			public String apply(Object argument) {
+				throw new IllegalStateException();
+			}
+		};
+		try {
+			Functors.fromPooled(new Append(), pool, failure).apply("a");
+			fail();
+		} catch (IllegalStateException e) {
+			// 返却時の例外で元の例外が隠されない
+		}
+		try {
+			Functors.fromPooled(new Append(), pool, TO_STRING).apply("a");
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// 成功した場合は返却時の例外がそのままスローされる
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.IntOperator;
+import org.jiemamy.utils.functor.LongFunctor;
+import org.jiemamy.utils.functor.Predicate;
+
+/**
+ * Test for {@link Primitives}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class PrimitivesTest {
+	
+	/**
+	 * Test method for {@link Primitives#asInt(Functor)}.
+	 */
+	@Test
+	public void testAsInt() {
+		IntFunctor<String> length = Primitives.asInt(new Length());
+		assertThat(length.applyAsInt("Hello"), is(5));
+		assertThat(length.apply("Hello"), is(5));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#asInt(Functor)}.
+	 */
+	@Test
+	public void testAsInt_Specialized() {
+		IntFunctor<Integer> twice = new Twice();
+		assertThat(Primitives.asInt(twice), sameInstance(twice));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#asLong(Functor)}.
+	 */
+	@Test
+	public void testAsLong() {
+		LongFunctor<String> length = Primitives.asLong(new Length());
+		assertThat(length.applyAsLong("Hello"), is(5L));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#asPredicate(Functor)}.
+	 */
+	@Test
+	public void testAsPredicate() {
+		Predicate<Object> predicate = Primitives.asPredicate(Functors.always(true));
+		assertThat(predicate.test("a"), is(true));
+		Predicate<Object> nullPredicate = Primitives.asPredicate(Functors.always((Boolean) null));
+		assertThat(nullPredicate.test("a"), is(false));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#compose(IntOperator, IntOperator)}.
+	 */
+	@Test
+	public void testComposeIntOperator() {
+		IntOperator composed = Primitives.compose(new Twice(), new Twice());
+		assertThat(composed.applyAsInt(3), is(12));
+		assertThat(new Twice().andThen(new Twice()).andThen(new Twice()).applyAsInt(1), is(8));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#compose(IntOperator, IntFunctor)}.
+	 */
+	@Test
+	public void testComposeIntFunctor() {
+		IntFunctor<String> composed = Primitives.asInt(new Length()).andThen(new Twice());
+		assertThat(composed.applyAsInt("Hello"), is(10));
+		assertThat(composed.apply("Hello"), is(10));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#compose(IntFunctor, Functor)}.
+	 */
+	@Test
+	public void testComposeFunctorToInt() {
+		IntFunctor<String> composed = Primitives.compose(new Twice(), new Length());
+		assertThat(composed.applyAsInt("Hello"), is(10));
+	}
+	
+	/**
+	 * Test method for {@link Primitives#compose(Predicate, Functor)}.
+	 */
+	@Test
+	public void testComposePredicate() {
+		Predicate<String> isHello = Primitives.compose(new Even(), new Length());
+		assertThat(isHello.test("Hello"), is(false));
+		assertThat(isHello.test("Hi"), is(true));
+		assertThat(isHello.apply("Hi"), sameInstance(Boolean.TRUE));
+	}
+	
+
+	private static class Even extends AbstractPredicate<Integer> {
+		
+		Even() {
+			return;
+		}
+		
+		public boolean test(Integer argument) {
+			return argument % 2 == 0;
+		}
+	}
+	
+	private static class Length extends AbstractFunctor<Integer, String> {
+		
+		Length() {
+			return;
+		}
+		
+		public Integer apply(String argument) {
+			return argument.length();
+		}
+	}
+	
+	private static class Twice extends AbstractIntOperator {
+		
+		Twice() {
+			return;
+		}
+		
+		public int applyAsInt(int operand) {
+			return operand * 2;
+		}
+	}
+}
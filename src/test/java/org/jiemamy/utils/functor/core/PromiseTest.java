@@ -0,0 +1,217 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * Test for {@link Promise}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class PromiseTest {
+	
+	/**
+	 * Test method for {@link Promise#complete(Object)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testComplete() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		assertThat(promise.isDone(), is(false));
+		assertThat(promise.complete("a"), is(true));
+		assertThat(promise.complete("b"), is(false));
+		assertThat(promise.isDone(), is(true));
+		assertThat(promise.get(), is("a"));
+	}
+	
+	/**
+	 * Test method for {@link Promise#fail(Throwable)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testFail() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		IllegalStateException cause = new IllegalStateException();
+		assertThat(promise.fail(cause), is(true));
+		assertThat(promise.complete("a"), is(false));
+		try {
+			promise.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() == cause, is(true));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Promise#cancel(boolean)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		Promise<String> mapped = promise.map(new Add("!"));
+		assertThat(promise.cancel(false), is(true));
+		assertThat(promise.isCancelled(), is(true));
+		assertThat(mapped.isCancelled(), is(true));
+		try {
+			mapped.get();
+			fail();
+		} catch (CancellationException e) {
+			// ok.
+		}
+	}
+	
+	/**
+	 * Test method for {@link Promise#get(long, TimeUnit)}.
+	 * @throws Exception if occur
+	 */
+	@Test(expected = TimeoutException.class)
+	public void testGet_Timeout() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		promise.get(1, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Test method for {@link Promise#addListener(Runnable)}.
+	 */
+	@Test
+	public void testAddListener() {
+		Promise<String> promise = new Promise<String>();
+		final int[] count = new int[1];
+		Runnable listener = new Runnable() {
+			
+			public void run() {
+				count[0]++;
+			}
+		};
+		promise.addListener(listener);
+		assertThat(count[0], is(0));
+		promise.complete("a");
+		assertThat(count[0], is(1));
+		promise.addListener(listener);
+		assertThat(count[0], is(2));
+	}
+	
+	/**
+	 * Test method for {@link Promise#map(Functor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testMap() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		Promise<String> mapped = promise.map(new Add("b")).map(new Add("c"));
+		assertThat(mapped.isDone(), is(false));
+		promise.complete("a");
+		assertThat(mapped.get(), is("abc"));
+	}
+	
+	/**
+	 * Test method for {@link Promise#flatMap(Functor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testFlatMap() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		final Promise<String> inner = new Promise<String>();
+		Promise<String> mapped = promise.flatMap(new AbstractFunctor<Future<String>, String>() {
+			
+			public Future<String> apply(String argument) {
+				return inner;
+			}
+		});
+		promise.complete("a");
+		assertThat(mapped.isDone(), is(false));
+		inner.complete("b");
+		assertThat(mapped.get(), is("b"));
+	}
+	
+	/**
+	 * Test method for {@link Promise#flatMap(Functor)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testFlatMap_Foreign() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		final FutureTask<String> inner = new FutureTask<String>(new Callable<String>() {
+			
+			public String call() {
+				return "b";
+			}
+		});
+		Promise<String> mapped = promise.flatMap(new AbstractFunctor<Future<String>, String>() {
+			
+			public Future<String> apply(String argument) {
+				return inner;
+			}
+		});
+		
+		// 完了していないFutureTaskを待つために、完了させたスレッドがブロックされてはならない
+		promise.complete("a");
+		assertThat(mapped.isDone(), is(false));
+		inner.run();
+		assertThat(mapped.get(1, TimeUnit.SECONDS), is("b"));
+	}
+	
+	/**
+	 * Test method for {@link Promise#from(Future)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testFrom_Foreign() throws Exception {
+		FutureTask<String> done = new FutureTask<String>(new Callable<String>() {
+			
+			public String call() {
+				return "a";
+			}
+		});
+		done.run();
+		Promise<String> promise = Promise.from(done);
+		assertThat(promise.isDone(), is(true));
+		assertThat(promise.get(), is("a"));
+		
+		FutureTask<String> pending = new FutureTask<String>(new Callable<String>() {
+			
+			public String call() {
+				throw new IllegalStateException();
+			}
+		});
+		promise = Promise.from(pending);
+		assertThat(promise.isDone(), is(false));
+		pending.run();
+		try {
+			promise.get(1, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof IllegalStateException, is(true));
+		}
+	}
+}
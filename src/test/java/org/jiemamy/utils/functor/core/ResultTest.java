@@ -0,0 +1,75 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.ApplyException;
+
+/**
+ * Test for {@link Result}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class ResultTest {
+	
+	/**
+	 * Test method for {@link Result#success(Object)}.
+	 */
+	@Test
+	public void testSuccess() {
+		Result<String> result = Result.success("a");
+		assertThat(result.isSuccess(), is(true));
+		assertThat(result.get(), is("a"));
+		assertThat(result.getOrElse("b"), is("a"));
+		assertThat(result.getReason(), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link Result#failure()}.
+	 */
+	@Test
+	public void testFailure() {
+		Result<String> result = Result.failure();
+		assertThat(result.isSuccess(), is(false));
+		assertThat(result.getOrElse("b"), is("b"));
+		assertThat(result.getReason(), is(nullValue()));
+		assertThat(result, sameInstance(Result.<String> failure()));
+	}
+	
+	/**
+	 * Test method for {@link Result#failure(String)}.
+	 */
+	@Test
+	public void testFailure_Reason() {
+		Result<String> result = Result.failure("broken");
+		assertThat(result.isSuccess(), is(false));
+		assertThat(result.getReason(), is("broken"));
+		try {
+			result.get();
+			fail();
+		} catch (ApplyException e) {
+			assertThat(e.getMessage(), is("broken"));
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link SlowInvocationSink}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class SlowInvocationSinkTest {
+	
+	/**
+	 * Test method for {@link SlowInvocationSink#record(String, long, Throwable)}.
+	 */
+	@Test
+	public void testRecord() {
+		Events events = new Events();
+		SlowInvocationSink sink = new SlowInvocationSink(events, 100, TimeUnit.NANOSECONDS);
+		sink.record("a", 99, null);
+		assertThat(events.list.size(), is(0));
+		sink.record("a", 100, null);
+		assertThat(events.list.size(), is(1));
+		assertThat(events.list.get(0).getName(), is("a"));
+		assertThat(events.list.get(0).getDurationNanos(), is(100L));
+		assertThat(events.list.get(0).isFailed(), is(false));
+		
+		sink.record("a", 0, new IllegalStateException());
+		assertThat(events.list.size(), is(2));
+		assertThat(events.list.get(1).isFailed(), is(true));
+	}
+	
+	/**
+	 * Test method for {@link SlowInvocationSink#withThreshold(String, long, TimeUnit)}.
+	 */
+	@Test
+	public void testWithThreshold() {
+		Events events = new Events();
+		SlowInvocationSink sink = new SlowInvocationSink(events, 1, TimeUnit.SECONDS)
+				.withThreshold(Instrumentation.EDITORS_COMPOSE, 10, TimeUnit.NANOSECONDS)
+				.withThreshold("Editors.compose[1]", 20, TimeUnit.NANOSECONDS)
+				.withThreshold(Instrumentation.EDITORS_COMPOSE, 30, TimeUnit.NANOSECONDS);
+		assertThat(sink.getThresholdNanos("Functors.compose[0]:x"), is(1000000000L));
+		assertThat(sink.getThresholdNanos("Editors.compose[0]:x"), is(30L));
+		assertThat(sink.getThresholdNanos("Editors.compose[1]:x"), is(20L));
+		
+		sink.record("Editors.compose[0]:x", 30, null);
+		sink.record("Functors.compose[0]:x", 30, null);
+		assertThat(events.list.size(), is(1));
+	}
+	
+	/**
+	 * Test method for {@link SlowInvocationSink#record(String, long, Throwable)}.
+	 */
+	@Test
+	public void testRecord_Instrumented() {
+		Events events = new Events();
+		Instrumentation.enable(new SlowInvocationSink(events, 0, TimeUnit.NANOSECONDS));
+		try {
+			Functors.compose(new Add("b"), new Add("a")).apply("x");
+		} finally {
+			Instrumentation.disable();
+		}
+		assertThat(events.list.size(), is(2));
+		assertThat(events.list.get(0).getName(), is("Functors.compose[0]:" + Add.class.getName()));
+		assertThat(events.list.get(0).getThread(), is(Thread.currentThread()));
+	}
+	
+
+	private static class Events implements InvocationListener {
+		
+		final List<InvocationEvent> list = new ArrayList<InvocationEvent>();
+		
+
+		Events() {
+			return;
+		}
+		
+		public void invoked(InvocationEvent event) {
+			list.add(event);
+		}
+	}
+}
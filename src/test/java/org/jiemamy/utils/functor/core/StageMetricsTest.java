@@ -0,0 +1,91 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link StageMetrics}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class StageMetricsTest {
+	
+	/**
+	 * Test method for {@link StageMetrics#record(long, boolean)}.
+	 */
+	@Test
+	public void testRecord() {
+		StageMetrics metrics = new StageMetrics("a");
+		assertThat(metrics.getCount(), is(0L));
+		assertThat(metrics.getPercentileNanos(50), is(0L));
+		metrics.record(10, false);
+		metrics.record(30, true);
+		assertThat(metrics.getName(), is("a"));
+		assertThat(metrics.getCount(), is(2L));
+		assertThat(metrics.getFailureCount(), is(1L));
+		assertThat(metrics.getTotalNanos(), is(40L));
+		assertThat(metrics.getMaxNanos(), is(30L));
+		assertThat(metrics.getMeanNanos(), is(20.0));
+	}
+	
+	/**
+	 * Test method for {@link StageMetrics#getPercentileNanos(double)}.
+	 */
+	@Test
+	public void testGetPercentileNanos() {
+		StageMetrics metrics = new StageMetrics("a");
+		for (int i = 1; i <= 1000; i++) {
+			metrics.record(i * 1000L, false);
+		}
+		assertWithin(metrics.getPercentileNanos(50), 500000L);
+		assertWithin(metrics.getPercentileNanos(99), 990000L);
+		assertThat(metrics.getPercentileNanos(100), is(1000000L));
+	}
+	
+	/**
+	 * Test method for {@link StageMetrics#bucketOf(long)}.
+	 */
+	@Test
+	public void testBucketOf() {
+		long[] values = {
+			0,
+			7,
+			8,
+			15,
+			16,
+			17,
+			1000,
+			123456789,
+			Long.MAX_VALUE
+		};
+		for (long value : values) {
+			int bucket = StageMetrics.bucketOf(value);
+			assertThat(value <= StageMetrics.upperBoundOf(bucket), is(true));
+			if (bucket > 0) {
+				assertThat(value > StageMetrics.upperBoundOf(bucket - 1), is(true));
+			}
+		}
+	}
+	
+	private static void assertWithin(long actual, long expected) {
+		assertThat(actual + " ~ " + expected, Math.abs(actual - expected) <= expected / 8, is(true));
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.core;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * Test for {@link TypeSwitch}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class TypeSwitchTest {
+	
+	/**
+	 * Test method for {@link TypeSwitch#of(java.util.Map)}.
+	 */
+	@Test
+	public void testOf() {
+		Map<Class<?>, Functor<String, ?>> cases = new LinkedHashMap<Class<?>, Functor<String, ?>>();
+		cases.put(Object.class, new Label("object"));
+		cases.put(CharSequence.class, new Label("chars"));
+		cases.put(String.class, new Label("string"));
+		cases.put(Number.class, new Label("number"));
+		TypeSwitch<String> functor = TypeSwitch.of(cases);
+		for (int i = 0; i < 2; i++) {
+			assertThat(functor.apply("a"), is("string"));
+			assertThat(functor.apply(new StringBuilder()), is("chars"));
+			assertThat(functor.apply(1), is("number"));
+			assertThat(functor.apply(new Object()), is("object"));
+		}
+	}
+	
+	/**
+	 * Test method for {@link TypeSwitch#of(java.util.Map)}.
+	 */
+	@Test
+	public void testOf_Ambiguous() {
+		Map<Class<?>, Functor<String, ?>> cases = new LinkedHashMap<Class<?>, Functor<String, ?>>();
+		cases.put(Comparable.class, new Label("comparable"));
+		cases.put(CharSequence.class, new Label("chars"));
+		TypeSwitch<String> functor = TypeSwitch.of(cases);
+		assertThat(functor.apply("a"), is("comparable"));
+		assertThat(functor.apply(1), is("comparable"));
+	}
+	
+	/**
+	 * Test method for {@link TypeSwitch#of(java.util.Map)}.
+	 */
+	@Test(expected = ApplyException.class)
+	public void testOf_NoCase() {
+		Map<Class<?>, Functor<String, ?>> cases = new LinkedHashMap<Class<?>, Functor<String, ?>>();
+		cases.put(String.class, new Label("string"));
+		TypeSwitch<String> functor = TypeSwitch.of(cases);
+		functor.apply(1);
+	}
+	
+	/**
+	 * Test method for {@link TypeSwitch#apply(Object)}.
+	 */
+	@Test
+	public void testApply_ManyClasses() {
+		TypeSwitch<String> functor = Functors.<String> dispatch()
+				.on(Object[].class, new Label("array"))
+				.otherwise(new Label("other"))
+				.build();
+		// 次元数ごとに異なる実行時クラスとなる
+		for (int i = 0; i < 2; i++) {
+			for (int dimensions = 1; dimensions <= 128; dimensions++) {
+				Object array = Array.newInstance(String.class, new int[dimensions]);
+				assertThat(functor.apply(array), is("array"));
+			}
+			assertThat(functor.apply(new int[0]), is("other"));
+		}
+	}
+	
+	/**
+	 * Test method for {@link TypeSwitch#apply(Object)}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testApply_OtherLoader() throws Exception {
+		URL location = Plain.class.getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader loader = new URLClassLoader(new URL[] {
+			location
+		}, null);
+		Class<?> isolated = loader.loadClass(Plain.class.getName());
+		assertThat(isolated == Plain.class, is(false));
+		TypeSwitch<String> functor = Functors.<String> dispatch()
+				.on(Plain.class, new Label("plain"))
+				.otherwise(new Label("other"))
+				.build();
+		Constructor<?> constructor = isolated.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		Object value = constructor.newInstance();
+		for (int i = 0; i < 2; i++) {
+			assertThat(functor.apply(value), is("other"));
+			assertThat(functor.apply(new Plain()), is("plain"));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Functors#dispatch()}.
+	 */
+	@Test
+	public void testBuilder() {
+		TypeSwitch<String> functor = Functors.<String> dispatch()
+				.on(Number.class, new Label("number"))
+				.on(Integer.class, new Label("integer"))
+				.on(CharSequence.class, new Label("chars"))
+				.otherwise(new Label("other"))
+				.build();
+		for (int i = 0; i < 2; i++) {
+			assertThat(functor.apply(1), is("integer"));
+			assertThat(functor.apply(1L), is("number"));
+			assertThat(functor.apply("a"), is("chars"));
+			assertThat(functor.apply(new Object()), is("other"));
+			assertThat(functor.apply(null), is("other"));
+		}
+	}
+	
+	/**
+	 * Test method for {@link TypeSwitch.Builder#on(Class, Functor)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilder_Duplicate() {
+		Functors.<String> dispatch().on(String.class, new Label("a")).on(String.class, new Label("b"));
+	}
+	
+
+	private static class Label extends AbstractFunctor<String, Object> {
+		
+		private final String label;
+		
+
+		Label(String label) {
+			this.label = label;
+		}
+		
+		public String apply(Object argument) {
+			return label;
+		}
+	}
+	
+	private static class Plain {
+		
+		Plain() {
+			return;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.LongFunctor;
+
+/**
+ * Test for {@link CharSequences}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class CharSequencesTest {
+	
+	/**
+	 * Test method for {@link CharSequences#view(char[], int, int)}.
+	 */
+	@Test
+	public void testView_Array() {
+		char[] chars = "hello".toCharArray();
+		CharSequence view = CharSequences.view(chars, 1, 3);
+		assertThat(view.length(), is(3));
+		assertThat(view.charAt(0), is('e'));
+		assertThat(view.toString(), is("ell"));
+		assertThat(view.subSequence(1, 3).toString(), is("ll"));
+		chars[1] = 'a';
+		assertThat(view.toString(), is("all"));
+		assertThat(CharSequences.view(chars, 5, 0).toString(), is(""));
+		try {
+			view.charAt(3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// ok.
+		}
+		try {
+			CharSequences.view(chars, 3, 3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// ok.
+		}
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#view(CharSequence, int, int)}.
+	 */
+	@Test
+	public void testView_Sequence() {
+		StringBuilder buf = new StringBuilder("hello");
+		CharSequence view = CharSequences.view(buf, 1, 4);
+		assertThat(view.length(), is(3));
+		assertThat(view.toString(), is("ell"));
+		buf.setCharAt(1, 'a');
+		assertThat(view.toString(), is("all"));
+		assertThat(CharSequences.view("hello", 1, 4).toString(), is("ell"));
+		try {
+			CharSequences.view(buf, 4, 6);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// ok.
+		}
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#view(CharSequence, int, int)}.
+	 */
+	@Test
+	public void testView_ViewOfView() {
+		CharSequence outer = CharSequences.view("0123456789", 2, 8);
+		CharSequence inner = CharSequences.view(outer, 1, 4);
+		assertThat(inner.toString(), is("345"));
+		assertThat(inner.subSequence(1, 3).toString(), is("45"));
+		assertThat(CharSequences.view(inner, 0, 0).toString(), is(""));
+		
+		// 元の文字列に余裕があっても、ビューの範囲外は参照できない
+		try {
+			CharSequences.view(inner, 0, 4);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// ok.
+		}
+		try {
+			inner.charAt(3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// ok.
+		}
+		
+		CharSequence array = CharSequences.view("0123456789".toCharArray(), 2, 6);
+		assertThat(CharSequences.view(CharSequences.view(array, 1, 4), 1, 2).toString(), is("4"));
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#split(char)}.
+	 */
+	@Test
+	public void testSplit() {
+		Functor<List<CharSequence>, CharSequence> split = CharSequences.split(',');
+		List<CharSequence> list = split.apply("a,bc,,d,");
+		assertThat(list.size(), is(5));
+		assertThat(list.get(0).toString(), is("a"));
+		assertThat(list.get(1).toString(), is("bc"));
+		assertThat(list.get(2).toString(), is(""));
+		assertThat(list.get(3).toString(), is("d"));
+		assertThat(list.get(4).toString(), is(""));
+		assertThat(split.apply("").size(), is(1));
+		assertThat(split.apply("abc").get(0).toString(), is("abc"));
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#trim()}.
+	 */
+	@Test
+	public void testTrim() {
+		Functor<CharSequence, CharSequence> trim = CharSequences.trim();
+		assertThat(trim.apply(" \tab c\n").toString(), is("ab c"));
+		assertThat(trim.apply("   ").toString(), is(""));
+		assertThat(trim.apply("").toString(), is(""));
+		String plain = "abc";
+		assertThat(trim.apply(plain) == plain, is(true));
+		List<CharSequence> fields = CharSequences.split(',').apply(" 1 , 2");
+		assertThat(trim.apply(fields.get(0)).toString(), is("1"));
+		assertThat(trim.apply(fields.get(1)).toString(), is("2"));
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#parseInt()}.
+	 */
+	@Test
+	public void testParseInt() {
+		IntFunctor<CharSequence> parse = CharSequences.parseInt();
+		assertThat(parse.applyAsInt("2147483647"), is(Integer.MAX_VALUE));
+		assertThat(parse.applyAsInt("-2147483648"), is(Integer.MIN_VALUE));
+		assertThat(parse.applyAsInt(CharSequences.view("x=-42;", 2, 5)), is(-42));
+		assertInvalid(parse, "2147483648");
+		assertInvalid(parse, "-2147483649");
+		assertInvalid(parse, "");
+		assertInvalid(parse, "-");
+		assertInvalid(parse, "1x");
+	}
+	
+	/**
+	 * Test method for {@link CharSequences#parseLong()}.
+	 */
+	@Test
+	public void testParseLong() {
+		LongFunctor<CharSequence> parse = CharSequences.parseLong();
+		assertThat(parse.applyAsLong("9223372036854775807"), is(Long.MAX_VALUE));
+		assertThat(parse.applyAsLong("-9223372036854775808"), is(Long.MIN_VALUE));
+		assertThat(parse.applyAsLong("+2147483648"), is(2147483648L));
+		assertThat(parse.applyAsLong(CharSequences.view("x=-42;".toCharArray(), 2, 3)), is(-42L));
+		assertInvalid(parse, "9223372036854775808");
+		assertInvalid(parse, "-9223372036854775809");
+		assertInvalid(parse, "");
+		assertInvalid(parse, "+");
+		assertInvalid(parse, "1 ");
+	}
+	
+	private static void assertInvalid(IntFunctor<CharSequence> parse, String s) {
+		try {
+			parse.applyAsInt(s);
+			fail(s);
+		} catch (NumberFormatException e) {
+			// ok.
+		}
+	}
+	
+	private static void assertInvalid(LongFunctor<CharSequence> parse, String s) {
+		try {
+			parse.applyAsLong(s);
+			fail(s);
+		} catch (NumberFormatException e) {
+			// ok.
+		}
+	}
+}
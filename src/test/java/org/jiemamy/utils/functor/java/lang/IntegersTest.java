@@ -0,0 +1,105 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.IntFunctor;
+import org.jiemamy.utils.functor.core.Result;
+
+/**
+ * Test for {@link Integers}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class IntegersTest {
+	
+	/**
+	 * Test method for {@link Integers#parseInt(CharSequence, int, int)}.
+	 */
+	@Test
+	public void testParseInt() {
+		assertThat(parse("0"), is(0L));
+		assertThat(parse("123"), is(123L));
+		assertThat(parse("-123"), is(-123L));
+		assertThat(parse("+123"), is(123L));
+		assertThat(parse("007"), is(7L));
+		assertThat(parse("2147483647"), is((long) Integer.MAX_VALUE));
+		assertThat(parse("-2147483648"), is((long) Integer.MIN_VALUE));
+		assertThat(Integers.parseInt("a=42;", 2, 4), is(42L));
+	}
+	
+	/**
+	 * Test method for {@link Integers#parseInt(CharSequence, int, int)}.
+	 */
+	@Test
+	public void testParseInt_Invalid() {
+		assertThat(parse("2147483648"), is(Integers.INVALID));
+		assertThat(parse("-2147483649"), is(Integers.INVALID));
+		assertThat(parse("99999999999"), is(Integers.INVALID));
+		assertThat(parse(""), is(Integers.INVALID));
+		assertThat(parse("-"), is(Integers.INVALID));
+		assertThat(parse("+"), is(Integers.INVALID));
+		assertThat(parse("12a"), is(Integers.INVALID));
+		assertThat(parse(" 12"), is(Integers.INVALID));
+		assertThat(parse("1.0"), is(Integers.INVALID));
+		assertThat(parse("--1"), is(Integers.INVALID));
+		assertThat(Integers.parseInt("a=42;", 2, 2), is(Integers.INVALID));
+	}
+	
+	/**
+	 * Test method for {@link Integers#tryParse()}.
+	 */
+	@Test
+	public void testTryParse() {
+		Functor<Result<Integer>, String> functor = Integers.tryParse();
+		assertThat(functor.apply("2147483647").get(), is(Integer.MAX_VALUE));
+		assertThat(functor.apply("-2147483648").get(), is(Integer.MIN_VALUE));
+		assertThat(functor.apply("2147483648").isSuccess(), is(false));
+		assertThat(functor.apply("-2147483649").isSuccess(), is(false));
+		assertThat(functor.apply("").isSuccess(), is(false));
+		assertThat(functor.apply("-").isSuccess(), is(false));
+		assertThat(functor.apply("+").isSuccess(), is(false));
+		assertThat(functor.apply("x").isSuccess(), is(false));
+		assertThat(functor.apply(null).isSuccess(), is(false));
+	}
+	
+	/**
+	 * Test method for {@link Integers#parseOrElse(int)}.
+	 */
+	@Test
+	public void testParseOrElse() {
+		IntFunctor<String> functor = Integers.parseOrElse(-1);
+		assertThat(functor.applyAsInt("2147483647"), is(Integer.MAX_VALUE));
+		assertThat(functor.applyAsInt("-2147483648"), is(Integer.MIN_VALUE));
+		assertThat(functor.applyAsInt("2147483648"), is(-1));
+		assertThat(functor.applyAsInt("-2147483649"), is(-1));
+		assertThat(functor.applyAsInt(""), is(-1));
+		assertThat(functor.applyAsInt("-"), is(-1));
+		assertThat(functor.applyAsInt("+"), is(-1));
+		assertThat(functor.applyAsInt("x1"), is(-1));
+		assertThat(functor.applyAsInt(null), is(-1));
+	}
+	
+	private static long parse(String s) {
+		return Integers.parseInt(s, 0, s.length());
+	}
+}
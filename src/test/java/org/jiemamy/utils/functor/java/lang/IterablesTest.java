@@ -0,0 +1,278 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.AbstractPredicate;
+import org.jiemamy.utils.functor.core.Functors;
+
+/**
+ * Test for {@link Iterables}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class IterablesTest {
+	
+	/**
+	 * Test method for {@link Iterables#anyMatch(Functor)}.
+	 */
+	@Test
+	public void testAnyMatch() {
+		Even even = new Even();
+		assertThat(Iterables.anyMatch(even).test(Arrays.asList(1, 3, 4, 5, 6)), is(true));
+		assertThat(even.count, is(3));
+		assertThat(Iterables.anyMatch(even).test(Arrays.asList(1, 3)), is(false));
+		assertThat(Iterables.anyMatch(even).test(Collections.<Integer> emptyList()), is(false));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#each(Functor)}.
+	 */
+	@Test
+	public void testEach() {
+		Functor<List<Integer>, Iterable<? extends Integer>> each = Iterables.each(new Twice());
+		assertThat(each.apply(Arrays.asList(1, 2, 3)), is(Arrays.asList(2, 4, 6)));
+		assertThat(each.apply(new LinkedList<Integer>(Arrays.asList(1, 2, 3))), is(Arrays.asList(2, 4, 6)));
+		assertThat(each.apply(Collections.<Integer> emptyList()).isEmpty(), is(true));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#each(Functor)}.
+	 */
+	@Test
+	public void testEach_AndThenOnly() {
+		Twice twice = new Twice();
+		Functor<List<Integer>, Iterable<? extends Integer>> fused =
+				Iterables.each(twice).andThen(Iterables.only(new Even() {
+					
+					@Override
+					public boolean test(Integer argument) {
+						return argument % 4 == 0;
+					}
+				}));
+		assertThat(fused.getClass().getSimpleName(), is("EachOnly"));
+		assertThat(fused.apply(Arrays.asList(1, 2, 3, 4)), is(Arrays.asList(4, 8)));
+		assertThat(twice.count, is(4));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#each(Functor)}.
+	 */
+	@Test
+	public void testEach_Order() {
+		List<String> log = new ArrayList<String>();
+		Functor<Integer, Integer> composed = Functors.compose(new Record("g", log), new Record("f", log));
+		Functor<List<Integer>, Iterable<? extends Integer>> each = Iterables.each(composed);
+		
+		assertThat(each.apply(Arrays.asList(1, 2)), is(Arrays.asList(1, 2)));
+		assertThat(log, is(Arrays.asList("f1", "g1", "f2", "g2")));
+		
+		// 例外をスローした要素より後の要素には、どの段も適用されない
+		log.clear();
+		try {
+			each.apply(Arrays.asList(1, -2, 3));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(log, is(Arrays.asList("f1", "g1")));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Iterables#eachBatched(Functor)}.
+	 */
+	@Test
+	public void testEachBatched() {
+		List<String> log = new ArrayList<String>();
+		Functor<Integer, Integer> composed = Functors.compose(new Record("g", log), new Record("f", log));
+		Functor<List<Integer>, Iterable<? extends Integer>> each = Iterables.eachBatched(composed);
+		
+		assertThat(each.apply(Arrays.asList(1, 2)), is(Arrays.asList(1, 2)));
+		assertThat(log, is(Arrays.asList("f1", "f2", "g1", "g2")));
+		
+		log.clear();
+		assertThat(each.apply(new LinkedHashSet<Integer>(Arrays.asList(1, 2))), is(Arrays.asList(1, 2)));
+		assertThat(log, is(Arrays.asList("f1", "g1", "f2", "g2")));
+		
+		// 段ごとに適用されるため、例外の前に最初の段だけが適用された要素が残る
+		log.clear();
+		try {
+			each.apply(Arrays.asList(1, -2, 3));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertThat(log, is(Arrays.asList("f1")));
+		}
+		
+		Twice twice = new Twice();
+		assertThat(Iterables.eachBatched(twice).apply(Arrays.asList(1, 2, 3)), is(Arrays.asList(2, 4, 6)));
+		assertThat(twice.count, is(3));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#first()}.
+	 */
+	@Test
+	public void testFirst() {
+		Functor<Integer, Iterable<? extends Integer>> first = Iterables.first();
+		assertThat(first.apply(Arrays.asList(3, 2, 1)), is(3));
+		assertThat(first.apply(Collections.<Integer> emptyList()), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#lazyEach(Functor)}.
+	 */
+	@Test
+	public void testLazyEach() {
+		Twice twice = new Twice();
+		Iterable<Integer> view = Iterables.<Integer, Integer> lazyEach(twice).apply(Arrays.asList(1, 2, 3));
+		assertThat(twice.count, is(0));
+		Iterator<Integer> iter = view.iterator();
+		assertThat(iter.next(), is(2));
+		assertThat(twice.count, is(1));
+		assertThat(toList(view), is(Arrays.asList(2, 4, 6)));
+		assertThat(twice.count, is(4));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#lazyEach(Functor)}.
+	 */
+	@Test
+	public void testLazyEach_AndThenLazyEach() {
+		Functor<Iterable<Integer>, Iterable<? extends Integer>> lazy = Iterables.lazyEach(new Twice());
+		Functor<Iterable<Integer>, Iterable<? extends Integer>> chained =
+				lazy.andThen(Iterables.<Integer, Integer> lazyEach(new Twice()));
+		assertThat(chained.getClass(), is((Object) lazy.getClass()));
+		assertThat(toList(chained.apply(Arrays.asList(1, 2, 3))), is(Arrays.asList(4, 8, 12)));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#lazyOnly(Functor)}.
+	 */
+	@Test
+	public void testLazyOnly() {
+		Even even = new Even();
+		Iterable<Integer> view = Iterables.lazyOnly(even).apply(Arrays.asList(1, 2, 3, 4, 5));
+		assertThat(even.count, is(0));
+		Iterator<Integer> iter = view.iterator();
+		assertThat(iter.hasNext(), is(true));
+		assertThat(iter.hasNext(), is(true));
+		assertThat(iter.next(), is(2));
+		assertThat(even.count, is(2));
+		assertThat(iter.next(), is(4));
+		assertThat(iter.hasNext(), is(false));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#take(int)}.
+	 */
+	@Test
+	public void testTake() {
+		Twice twice = new Twice();
+		Iterable<Integer> view = Iterables.<Integer> take(2).apply(
+				Iterables.<Integer, Integer> lazyEach(twice).apply(Arrays.asList(1, 2, 3, 4)));
+		assertThat(toList(view), is(Arrays.asList(2, 4)));
+		assertThat(twice.count, is(2));
+		assertThat(toList(Iterables.<Integer> take(5).apply(Arrays.asList(1, 2))), is(Arrays.asList(1, 2)));
+		assertThat(toList(Iterables.<Integer> take(0).apply(Arrays.asList(1, 2))).isEmpty(), is(true));
+	}
+	
+	/**
+	 * Test method for {@link Iterables#take(int)}.
+	 */
+	@Test(expected = NoSuchElementException.class)
+	public void testTake_NoSuchElement() {
+		Iterator<Integer> iter = Iterables.<Integer> take(1).apply(Arrays.asList(1, 2)).iterator();
+		iter.next();
+		iter.next();
+	}
+	
+	private static <T>List<T> toList(Iterable<T> iterable) {
+		List<T> results = new ArrayList<T>();
+		for (T element : iterable) {
+			results.add(element);
+		}
+		return results;
+	}
+	
+
+	private static class Even extends AbstractPredicate<Integer> {
+		
+		int count;
+		
+
+		Even() {
+			return;
+		}
+		
+		public boolean test(Integer argument) {
+			count++;
+			return argument % 2 == 0;
+		}
+	}
+	
+	private static class Record extends AbstractFunctor<Integer, Integer> {
+		
+		private final String name;
+		
+		private final List<String> log;
+		
+
+		Record(String name, List<String> log) {
+			this.name = name;
+			this.log = log;
+		}
+		
+		public Integer apply(Integer argument) {
+			if (argument < 0) {
+				throw new IllegalArgumentException();
+			}
+			log.add(name + argument);
+			return argument;
+		}
+	}
+	
+	private static class Twice extends AbstractFunctor<Integer, Integer> {
+		
+		int count;
+		
+
+		Twice() {
+			return;
+		}
+		
+		public Integer apply(Integer argument) {
+			count++;
+			return argument * 2;
+		}
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.ApplyException;
+import org.jiemamy.utils.functor.BinaryFunctor;
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.Generator;
+
+/**
+ * Test for {@link Reflect}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class ReflectTest {
+	
+	/**
+	 * Test method for {@link Reflect#constructor(Class)}.
+	 */
+	@Test
+	public void testConstructor() {
+		Generator<Bean> generator = Reflect.constructor(Bean.class);
+		Bean first = generator.generate();
+		Bean second = generator.generate();
+		assertThat(first.getName(), is("default"));
+		assertThat(first, not(sameInstance(second)));
+	}
+	
+	/**
+	 * Test method for {@link Reflect#constructor(Class, Class)}.
+	 */
+	@Test
+	public void testConstructor_Argument() {
+		Functor<Bean, String> functor = Reflect.constructor(Bean.class, String.class);
+		assertThat(functor.apply("a").getName(), is("a"));
+	}
+	
+	/**
+	 * Test method for {@link Reflect#constructor(Class, Class)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_Missing() {
+		Reflect.constructor(Bean.class, Integer.class);
+	}
+	
+	/**
+	 * Test method for {@link Reflect#getter(Class, String)}.
+	 */
+	@Test
+	public void testGetter() {
+		Bean bean = new Bean("a");
+		assertThat(Reflect.getter(Bean.class, "name").apply(bean), is((Object) "a"));
+		assertThat(Reflect.getter(Bean.class, "valid").apply(bean), is((Object) Boolean.TRUE));
+	}
+	
+	/**
+	 * Test method for {@link Reflect#getter(Class, String)}.
+	 */
+	@Test
+	public void testGetter_Missing() {
+		try {
+			Reflect.getter(Bean.class, "missing");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// getXxxが見つからなかった際の例外が報告される
+			assertThat(e.getMessage().indexOf("getMissing") >= 0, is(true));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Reflect#method(Class, String)}.
+	 */
+	@Test
+	public void testMethod() {
+		Bean bean = new Bean("a");
+		assertThat(Reflect.method(Bean.class, "toString").apply(bean), is((Object) "Bean(a)"));
+		assertThat(Reflect.method(Bean.class, "reset").apply(bean), is(nullValue()));
+		assertThat(bean.getName(), is(""));
+	}
+	
+	/**
+	 * Test method for {@link Reflect#method(Class, String, Class)}.
+	 */
+	@Test
+	public void testMethod_Argument() {
+		BinaryFunctor<Object, Bean, String> functor = Reflect.method(Bean.class, "rename", String.class);
+		Bean bean = new Bean("a");
+		assertThat(functor.apply(bean, "b"), is((Object) "a"));
+		assertThat(bean.getName(), is("b"));
+	}
+	
+	/**
+	 * Test method for {@link Reflect#method(Class, String)}.
+	 */
+	@Test
+	public void testMethod_UncheckedException() {
+		Functor<Object, Bean> functor = Reflect.method(Bean.class, "failUnchecked");
+		try {
+			functor.apply(new Bean("a"));
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertThat(e.getMessage(), is("unchecked"));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Reflect#method(Class, String)}.
+	 */
+	@Test
+	public void testMethod_CheckedException() {
+		Functor<Object, Bean> functor = Reflect.method(Bean.class, "failChecked");
+		try {
+			functor.apply(new Bean("a"));
+			fail();
+		} catch (ApplyException e) {
+			assertThat(e.getCause(), instanceOf(IOException.class));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Classes#newInstance()}.
+	 */
+	@Test
+	public void testClassesNewInstance() {
+		Functor<Bean, Class<Bean>> functor = Classes.newInstance();
+		assertThat(functor.apply(Bean.class).getName(), is("default"));
+		assertThat(functor.apply(Bean.class).getName(), is("default"));
+		Functor<StringBuilder, Class<StringBuilder>> other = Classes.newInstance();
+		assertThat(other.apply(StringBuilder.class).length(), is(0));
+	}
+	
+	/**
+	 * Test method for {@link Classes#newInstance()}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testClassesNewInstance_Alternating() throws Exception {
+		final Functor<Object, Class<Object>> functor = Classes.newInstance();
+		final Class<?>[] types = {
+			Bean.class,
+			StringBuilder.class
+		};
+		final Throwable[] failure = new Throwable[1];
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final int offset = i;
+			threads[i] = new Thread() {
+				
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < 10000; j++) {
+							Class<?> type = types[(j + offset) % types.length];
+							Object instance = create(functor, type);
+							if (instance.getClass() != type) {
+								throw new AssertionError(instance);
+							}
+						}
+					} catch (Throwable t) {
+						synchronized (failure) {
+							failure[0] = t;
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		synchronized (failure) {
+			assertThat(String.valueOf(failure[0]), failure[0], is(nullValue()));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Classes#newInstance()}.
+	 * @throws Exception if occur
+	 */
+	@Test
+	public void testClassesNewInstance_OtherLoader() throws Exception {
+		URL location = Bean.class.getProtectionDomain().getCodeSource().getLocation();
+		ClassLoader loader = new URLClassLoader(new URL[] {
+			location
+		}, null);
+		Class<?> isolated = loader.loadClass(Bean.class.getName());
+		assertThat(isolated == Bean.class, is(false));
+		Functor<Object, Class<Object>> functor = Classes.newInstance();
+		for (int i = 0; i < 2; i++) {
+			assertThat(create(functor, isolated).getClass() == isolated, is(true));
+			assertThat(create(functor, Bean.class), instanceOf(Bean.class));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Classes#newInstance()}.
+	 */
+	@Test(expected = ApplyException.class)
+	public void testClassesNewInstance_Missing() {
+		Functor<Integer, Class<Integer>> functor = Classes.newInstance();
+		functor.apply(Integer.class);
+	}
+	
+	private static Object create(Functor<Object, Class<Object>> functor, Class<?> type) {
+		@SuppressWarnings("unchecked")
+		Class<Object> casted = (Class<Object>) type;
+		return functor.apply(casted);
+	}
+	
+
+	/**
+	 * テスト用のクラス。
+	 */
+	public static class Bean {
+		
+		private String name;
+		
+
+		/**
+		 * インスタンスを生成する。
+		 */
+		public Bean() {
+			this("default");
+		}
+		
+		/**
+		 * インスタンスを生成する。
+		 * 
+		 * @param name 名前
+		 */
+		public Bean(String name) {
+			this.name = name;
+		}
+		
+		/**
+		 * 常に失敗する。
+		 * 
+		 * @throws IOException 常に
+		 */
+		public void failChecked() throws IOException {
+			throw new IOException("checked");
+		}
+		
+		/**
+		 * 常に失敗する。
+		 */
+		public void failUnchecked() {
+			throw new UnsupportedOperationException("unchecked");
+		}
+		
+		/**
+		 * 名前を返す。
+		 * 
+		 * @return 名前
+		 */
+		public String getName() {
+			return name;
+		}
+		
+		/**
+		 * 常に{@code true}を返す。
+		 * 
+		 * @return {@code true}
+		 */
+		public boolean isValid() {
+			return true;
+		}
+		
+		/**
+		 * 名前を変更する。
+		 * 
+		 * @param newName 新しい名前
+		 * @return 変更前の名前
+		 */
+		public String rename(String newName) {
+			String old = name;
+			name = newName;
+			return old;
+		}
+		
+		/**
+		 * 名前を空にする。
+		 */
+		public void reset() {
+			name = "";
+		}
+		
+		@Override
+		public String toString() {
+			return "Bean(" + name + ")";
+		}
+	}
+}
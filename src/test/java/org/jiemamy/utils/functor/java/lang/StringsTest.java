@@ -0,0 +1,176 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.lang;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.EditException;
+import org.jiemamy.utils.functor.Editor;
+import org.jiemamy.utils.functor.Functor;
+
+/**
+ * Test for {@link Strings}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class StringsTest {
+	
+	/**
+	 * Test method for {@link Strings#join(String)}.
+	 */
+	@Test
+	public void testJoin() {
+		Functor<String, List<String>> join = Strings.join(", ");
+		assertThat(join.apply(Arrays.asList("a", "bc", "d")), is("a, bc, d"));
+		assertThat(join.apply(new LinkedList<String>(Arrays.asList("a", "bc", "d"))), is("a, bc, d"));
+		assertThat(join.apply(Collections.singletonList("a")), is("a"));
+		assertThat(join.apply(Collections.<String> emptyList()), is(""));
+		assertThat(join.apply(new LinkedList<String>()), is(""));
+	}
+	
+	/**
+	 * Test method for {@link Strings#join(String)}.
+	 */
+	@Test
+	public void testJoin_Null() {
+		assertThat(Strings.join("-").apply(Arrays.asList("a", null, "b")), is("a-null-b"));
+		assertThat(Strings.join("-").apply(new LinkedList<String>(Arrays.asList("a", null))), is("a-null"));
+		assertThat(Strings.join(null).apply(Arrays.asList("a", "b")), is("anullb"));
+		assertThat(Strings.join(null).apply(new LinkedList<String>(Arrays.asList("a", "b"))), is("anullb"));
+	}
+	
+	/**
+	 * Test method for {@link Strings#joinSequences(String)}.
+	 */
+	@Test
+	public void testJoinSequences() {
+		Functor<String, Iterable<? extends CharSequence>> join = Strings.joinSequences("/");
+		List<CharSequence> list = new ArrayList<CharSequence>();
+		list.add("a");
+		list.add(new StringBuilder("bc"));
+		list.add(CharSequences.view("xdx".toCharArray(), 1, 1));
+		assertThat(join.apply(list), is("a/bc/d"));
+		assertThat(join.apply(new LinkedList<CharSequence>(list)), is("a/bc/d"));
+		assertThat(join.apply(Collections.<CharSequence> emptySet()), is(""));
+	}
+	
+	/**
+	 * Test method for {@link Strings#joinTo(String)}.
+	 */
+	@Test
+	public void testJoinTo_StringBuilder() {
+		Editor<StringBuilder, Iterable<? extends CharSequence>> join = Strings.joinTo(",");
+		StringBuilder buf = new StringBuilder("[");
+		assertThat(join.edit(buf, Arrays.asList("a", null, "b")) == buf, is(true));
+		assertThat(buf.toString(), is("[a,null,b"));
+		join.edit(buf, new LinkedList<String>(Arrays.asList("c", "d")));
+		assertThat(buf.toString(), is("[a,null,bc,d"));
+		join.edit(buf, Collections.<String> emptyList());
+		assertThat(buf.toString(), is("[a,null,bc,d"));
+	}
+	
+	/**
+	 * Test method for {@link Strings#joinTo(String)}.
+	 */
+	@Test
+	public void testJoinTo_Appendable() {
+		StringWriter writer = new StringWriter();
+		Editor<StringWriter, Iterable<? extends CharSequence>> join = Strings.joinTo(",");
+		assertThat(join.edit(writer, Arrays.asList("a", null, "b")) == writer, is(true));
+		assertThat(writer.toString(), is("a,null,b"));
+		
+		Recorder recorder = new Recorder();
+		Strings.<Recorder> joinTo(null).edit(recorder, new LinkedList<String>(Arrays.asList("a", "b")));
+		assertThat(recorder.buf.toString(), is("anullb"));
+		Strings.<Recorder> joinTo(",").edit(recorder, Collections.<String> emptyList());
+		assertThat(recorder.buf.toString(), is("anullb"));
+	}
+	
+	/**
+	 * Test method for {@link Strings#joinTo(String)}.
+	 */
+	@Test
+	public void testJoinTo_IOException() {
+		Broken broken = new Broken();
+		try {
+			Strings.<Broken> joinTo(",").edit(broken, Arrays.asList("a", "b"));
+			fail();
+		} catch (EditException e) {
+			assertThat(e.getCause() == broken.cause, is(true));
+		}
+	}
+	
+
+	private static class Broken implements Appendable {
+		
+		final IOException cause = new IOException();
+		
+
+		Broken() {
+			return;
+		}
+		
+		public Appendable append(char c) throws IOException {
+			throw cause;
+		}
+		
+		public Appendable append(CharSequence csq) throws IOException {
+			throw cause;
+		}
+		
+		public Appendable append(CharSequence csq, int start, int end) throws IOException {
+			throw cause;
+		}
+	}
+	
+	private static class Recorder implements Appendable {
+		
+		final StringBuilder buf = new StringBuilder();
+		
+
+		Recorder() {
+			return;
+		}
+		
+		public Appendable append(char c) {
+			buf.append(c);
+			return this;
+		}
+		
+		public Appendable append(CharSequence csq) {
+			buf.append(csq);
+			return this;
+		}
+		
+		public Appendable append(CharSequence csq, int start, int end) {
+			buf.append(csq, start, end);
+			return this;
+		}
+	}
+}
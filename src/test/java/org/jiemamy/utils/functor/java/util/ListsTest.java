@@ -0,0 +1,256 @@
+/*
+ * Copyright 2007-2009 Jiemamy Project and the Others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.jiemamy.utils.functor.java.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.jiemamy.utils.functor.Functor;
+import org.jiemamy.utils.functor.core.AbstractFunctor;
+import org.jiemamy.utils.functor.core.Parallel;
+
+/**
+ * Test for {@link Lists}.
+ * 
+ * @version $Date$
+ * @author Suguru ARAKAWA
+ */
+public class ListsTest {
+	
+	/**
+	 * チャンクの境界の前後と、それを大きく超える要素数。
+	 */
+	private static final int[] SIZES = {
+		0,
+		1,
+		Parallel.MIN_CHUNK_SIZE - 1,
+		Parallel.MIN_CHUNK_SIZE,
+		Parallel.MIN_CHUNK_SIZE + 1,
+		Parallel.MIN_CHUNK_SIZE * 2 - 1,
+		Parallel.MIN_CHUNK_SIZE * 2,
+		Parallel.MIN_CHUNK_SIZE * 2 + 1,
+		Parallel.MIN_CHUNK_SIZE * 4 + 3,
+		Parallel.MIN_CHUNK_SIZE * 32 + 5,
+		5000
+	};
+	
+
+	/**
+	 * Test method for {@link Lists#parallelSort(Comparator, int)}.
+	 */
+	@Test
+	public void testParallelSort() {
+		Random random = new Random(12345);
+		Functor<List<Integer>, List<? extends Integer>> sort = Lists.parallelSort(0);
+		for (int size : SIZES) {
+			List<Integer> list = randomIntegers(random, size, size * 2 + 1);
+			List<Integer> expected = new ArrayList<Integer>(list);
+			Collections.sort(expected);
+			List<Integer> actual = sort.apply(list);
+			assertThat(actual, is(expected));
+			
+			// 結果は大きさを変更できる新しいリスト
+			actual.add(0);
+			assertThat(actual.size(), is(size + 1));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Lists#parallelSort(Comparator, int)}.
+	 */
+	@Test
+	public void testParallelSort_Threshold() {
+		List<Integer> list = Arrays.asList(3, 1, 2);
+		assertThat(Lists.<Integer> parallelSort(100).apply(list), is(Arrays.asList(1, 2, 3)));
+		assertThat(list, is(Arrays.asList(3, 1, 2)));
+	}
+	
+	/**
+	 * Test method for {@code Lists.MergeSort}.
+	 */
+	@Test
+	public void testMergeSort() {
+		Random random = new Random(23456);
+		for (int parallelism : new int[] {
+			1,
+			2,
+			3,
+			4,
+			8
+		}) {
+			for (int size : SIZES) {
+				List<Entry> list = randomEntries(random, size, 5);
+				List<Entry> expected = new ArrayList<Entry>(list);
+				Collections.sort(expected, Entry.BY_KEY);
+				Entry[] array = list.toArray(new Entry[size]);
+				Entry[] sorted = new Lists.MergeSort<Entry>(array, Entry.BY_KEY, parallelism).sort();
+				// 比較結果が等しい要素も元の順序を保つ
+				assertThat("parallelism=" + parallelism + ", size=" + size, Arrays.asList(sorted), is(expected));
+			}
+		}
+	}
+	
+	/**
+	 * Test method for {@link Lists#parallelSort(Comparator, int)}.
+	 */
+	@Test
+	public void testParallelSort_Stable() {
+		Random random = new Random(34567);
+		for (int size : SIZES) {
+			List<Entry> list = randomEntries(random, size, 3);
+			List<Entry> expected = new ArrayList<Entry>(list);
+			Collections.sort(expected, Entry.BY_KEY);
+			assertThat(Lists.parallelSort(Entry.BY_KEY, 0).apply(list), is(expected));
+		}
+	}
+	
+	/**
+	 * Test method for {@link Lists#sortBy(Functor, Comparator)}.
+	 */
+	@Test
+	public void testSortBy() {
+		Random random = new Random(45678);
+		for (int size : SIZES) {
+			List<Entry> list = randomEntries(random, size, 4);
+			List<Entry> expected = new ArrayList<Entry>(list);
+			Collections.sort(expected, Entry.BY_KEY);
+			KeyOf key = new KeyOf();
+			assertThat(Lists.<Entry, Integer> sortBy(key).apply(list), is(expected));
+			// キーは要素ごとに一度だけ取り出す
+			assertThat(key.count, is(size));
+		}
+		List<Entry> list = Arrays.asList(new Entry(1, 0), new Entry(2, 1), new Entry(1, 2));
+		List<Entry> expected = Arrays.asList(list.get(1), list.get(0), list.get(2));
+		assertThat(Lists.sortBy(new KeyOf(), Collections.reverseOrder()).apply(list), is(expected));
+	}
+	
+	/**
+	 * Test method for {@link Lists#top(int, Comparator)}.
+	 */
+	@Test
+	public void testTop() {
+		Random random = new Random(56789);
+		for (int size : SIZES) {
+			List<Entry> list = randomEntries(random, size, 3);
+			List<Entry> sorted = new ArrayList<Entry>(list);
+			Collections.sort(sorted, Entry.BY_KEY);
+			for (int k : new int[] {
+				0,
+				1,
+				size / 2,
+				size,
+				size + 1
+			}) {
+				List<Entry> top = Lists.top(k, Entry.BY_KEY).apply(list);
+				assertThat("k=" + k + ", size=" + size, top, is(sorted.subList(0, Math.min(k, size))));
+			}
+		}
+		assertThat(Lists.<Integer> top(2).apply(Arrays.asList(5, 1, 4, 1, 3)), is(Arrays.asList(1, 1)));
+	}
+	
+	/**
+	 * Test method for {@link Lists#top(int, Comparator)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTop_Negative() {
+		Lists.<Integer> top(-1);
+	}
+	
+	private static List<Integer> randomIntegers(Random random, int size, int bound) {
+		List<Integer> results = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			results.add(random.nextInt(bound));
+		}
+		return results;
+	}
+	
+	private static List<Entry> randomEntries(Random random, int size, int keys) {
+		List<Entry> results = new ArrayList<Entry>(size);
+		for (int i = 0; i < size; i++) {
+			results.add(new Entry(random.nextInt(keys), i));
+		}
+		return results;
+	}
+	
+
+	/**
+	 * 比較に利用するキーと、元の位置を持つ要素。
+	 * 
+	 * <p>{@link #equals(Object)}は元の位置も比較するため、安定性の検査に利用できる。</p>
+	 */
+	private static class Entry {
+		
+		static final Comparator<Entry> BY_KEY = new Comparator<Entry>() {
+			
+			public int compare(Entry o1, Entry o2) {
+				return o1.key < o2.key ? -1 : (o1.key == o2.key ? 0 : 1);
+			}
+		};
+		
+		final int key;
+		
+		final int position;
+		
+
+		Entry(int key, int position) {
+			this.key = key;
+			this.position = position;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if ((obj instanceof Entry) == false) {
+				return false;
+			}
+			Entry other = (Entry) obj;
+			return key == other.key && position == other.position;
+		}
+		
+		@Override
+		public int hashCode() {
+			return key * 31 + position;
+		}
+		
+		@Override
+		public String toString() {
+			return key + "@" + position;
+		}
+	}
+	
+	private static class KeyOf extends AbstractFunctor<Integer, Entry> {
+		
+		int count;
+		
+
+		KeyOf() {
+			return;
+		}
+		
+		public Integer apply(Entry argument) {
+			count++;
+			return argument.key;
+		}
+	}
+}